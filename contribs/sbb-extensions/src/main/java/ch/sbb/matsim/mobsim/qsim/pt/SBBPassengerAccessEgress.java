@@ -156,8 +156,8 @@ public class SBBPassengerAccessEgress implements PassengerAccessEgress {
      */
     private List<PTPassengerAgent> findPassengersEntering(TransitRoute transitRoute, TransitLine transitLine, TransitVehicle vehicle,
             final TransitStopFacility stop, List<TransitRouteStop> stopsToCome, int freeCapacity, double now) {
-        List<PTPassengerAgent> passengers = this.agentTracker.getAgentsAtStop().get(stop.getId());
-        if (passengers != null) {
+        List<PTPassengerAgent> passengers = this.agentTracker.getAgentsAtFacility(stop.getId(), transitLine.getId());
+        if (!passengers.isEmpty()) {
             ArrayList<PTPassengerAgent> passengersEntering = new ArrayList<>();
             for (PTPassengerAgent agent : passengers) {
                 if (freeCapacity == 0) {
@@ -175,8 +175,8 @@ public class SBBPassengerAccessEgress implements PassengerAccessEgress {
 
     private List<PTPassengerAgent> findAllPassengersWaiting(TransitRoute transitRoute, TransitLine transitLine, TransitVehicle vehicle,
             final TransitStopFacility stop, List<TransitRouteStop> stopsToCome, double now) {
-        List<PTPassengerAgent> passengers = this.agentTracker.getAgentsAtStop().get(stop.getId());
-        if (passengers != null) {
+        List<PTPassengerAgent> passengers = this.agentTracker.getAgentsAtFacility(stop.getId(), transitLine.getId());
+        if (!passengers.isEmpty()) {
             ArrayList<PTPassengerAgent> passengersEntering = new ArrayList<>();
             for (PTPassengerAgent agent : passengers) {
                 if (agent.getEnterTransitRoute(transitLine, transitRoute, stopsToCome, vehicle)) {
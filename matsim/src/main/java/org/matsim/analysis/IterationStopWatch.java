@@ -27,16 +27,37 @@ import org.matsim.core.utils.misc.Time;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.Map.Entry;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
 /**
  * This class provides a mechanism similar to a stop watch, allowing to measure the duration of operations and
  * remembering time stamps. The class collects all the data and provides a simple analysis of the time stamps
  * and durations for operations for each iteration in the simulation. This analysis can be dumped to console
  * or to a file using the <code>write()</code>-methods.
+ * <p></p>
+ * In addition, arbitrary code (strategy modules, mobsim engines, event handlers, controler listeners, ...) can open named
+ * {@link Span}s via {@link #span(String)}.  Spans nest per thread; a span opened in a thread without an open span becomes a child
+ * of the innermost operation begun via {@link #beginOperation(String)}.  Every operation is recorded as a span as well.  Per span
+ * and iteration, the number of calls, the wall time, the CPU time and the allocated bytes of the opening thread, and the CPU time of
+ * the whole process (which includes helper threads and GC) are summed up and can be written with {@link #writeSpansFile(String, String)}
+ * or {@link #writeSpansJsonFile(String)}.  Work too fine-grained for a span each can be added with {@link #addToSpan(String, long, long)}.
+ * Each closed span is also emitted as a JFR event, which costs nothing unless a flight recording is running.
  *
  * @author mrieser
  */
@@ -80,6 +101,16 @@ public final class IterationStopWatch {
 	private Map<String, List<String>> currentIterationChildren;
 	private final Map<Integer, Map<String, List<String>>> children;
 
+	/** data structures for spans */
+	private static final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+	private static final boolean threadCpuTimeSupported = isThreadCpuTimeSupported();
+	private static volatile boolean threadCpuTimeEnabled = threadCpuTimeSupported && isThreadCpuTimeEnabled();
+	private static final boolean allocatedBytesSupported = isAllocatedBytesSupported();
+	private final ThreadLocal<Span> currentSpan = new ThreadLocal<>();
+	private final Map<Integer, Map<String, SpanStatistics>> spans = new LinkedHashMap<>();
+	private final Map<String, Span> operationSpans = new HashMap<>();
+	private volatile Span currentOperationSpan = null;
+
 	/** Creates a new IterationStopWatch. */
 	public IterationStopWatch() {
 		this.iterations = new LinkedHashMap<>();
@@ -103,6 +134,11 @@ public final class IterationStopWatch {
 		this.currentMeasuredOperations.clear();
 		this.currentIterationChildren.clear();
 		this.children.clear();
+		synchronized (this.spans) {
+			this.spans.clear();
+		}
+		this.operationSpans.clear();
+		this.currentOperationSpan = null;
 	}
 
 	/**
@@ -120,6 +156,9 @@ public final class IterationStopWatch {
 			this.currentMeasuredOperations = new Stack<>();
 			this.currentIterationChildren = new HashMap<>();
 			this.children.put(this.iteration, this.currentIterationChildren);
+			synchronized (this.spans) {
+				this.spans.put(this.iteration, new LinkedHashMap<>());
+			}
 		}
         this.beginOperation(OPERATION_ITERATION);
 	}
@@ -149,6 +188,11 @@ public final class IterationStopWatch {
 
 		// add ident to stack
 		this.currentMeasuredOperations.push(identifier);
+
+		Span parent = this.currentSpan.get();
+		Span span = new Span(this, parent != null ? parent : this.currentOperationSpan, identifier, this.currentOperationSpan);
+		this.operationSpans.put(identifier, span);
+		this.currentOperationSpan = span;
 	}
 
 	/**
@@ -165,6 +209,74 @@ public final class IterationStopWatch {
 
 
 		this.currentMeasuredOperations.pop();
+
+		Span span = this.operationSpans.remove(identifier);
+		if (span != null) {
+			// (the parent may be a span of a thread, e.g. of a listener, which is closed before the operation span's parent operation)
+			this.currentOperationSpan = span.previous;
+			span.finish();
+		}
+	}
+
+	/**
+	 * Opens a new span, which should be closed in the same thread, preferably using try-with-resources:
+	 * <pre>
+	 * try (IterationStopWatch.Span span = stopWatch.span("myModule")) {
+	 *     ...
+	 * }
+	 * </pre>
+	 * Spans are meant for coarse units of work (a module, a listener, an engine's preparation); opening one per event or per
+	 * agent would distort the measurement.
+	 *
+	 * @param name The name of the span.  The span is recorded under the names of its parents and itself, separated by '/'.
+	 */
+	public Span span(final String name) {
+		Span previous = this.currentSpan.get();
+		Span span = new Span(this, previous != null ? previous : this.currentOperationSpan, name, previous);
+		this.currentSpan.set(span);
+		return span;
+	}
+
+	/**
+	 * Adds units of work which were measured by the caller to the span with the given name below the current span, for work which is
+	 * too fine-grained to open a span for each unit, e.g. the time steps of a mobsim engine.  Only the wall time is known for such
+	 * work; its CPU time and allocations are reported as not supported.
+	 *
+	 * @param name The name of the span.
+	 * @param count The number of units of work.
+	 * @param wallTime The summed wall time of the units of work in nanoseconds.
+	 */
+	public void addToSpan(final String name, final long count, final long wallTime) {
+		Span parent = this.currentSpan.get();
+		if (parent == null) {
+			parent = this.currentOperationSpan;
+		}
+		String path = parent == null ? name : parent.path + "/" + name;
+		synchronized (this.spans) {
+			Map<String, SpanStatistics> statistics = this.iteration == null ? null : this.spans.get(this.iteration);
+			if (statistics != null) {
+				statistics.computeIfAbsent(path, k -> new SpanStatistics()).add(count, wallTime, -1, -1, -1);
+			}
+		}
+	}
+
+	/**
+	 * @return the spans recorded so far in the given iteration, by their path, or an empty map.
+	 */
+	public Map<String, SpanStatistics> getSpanStatistics(final int iteration) {
+		synchronized (this.spans) {
+			Map<String, SpanStatistics> statistics = this.spans.get(iteration);
+			return statistics == null ? Collections.emptyMap() : new LinkedHashMap<>(statistics);
+		}
+	}
+
+	private void record(final Span span, final long wall, final long cpu, final long processCpu, final long allocated) {
+		synchronized (this.spans) {
+			Map<String, SpanStatistics> statistics = this.iteration == null ? null : this.spans.get(this.iteration);
+			if (statistics != null) {
+				statistics.computeIfAbsent(span.path, k -> new SpanStatistics()).add(1, wall, cpu, processCpu, allocated);
+			}
+		}
 	}
 
     public void endIteration() {
@@ -237,6 +349,74 @@ public final class IterationStopWatch {
 		}
 	}
 
+	/**
+	 * Writes the statistics of all spans, one line per iteration and span, into a file.  Times are in seconds, allocations in bytes;
+	 * a value of -1 means that the JVM does not support the measurement.
+	 *
+	 * @param filename The name of a file where to write the gathered data.
+	 * @param delimiter The delimiter to be used as field separator.
+	 */
+	public void writeSpansFile(final String filename, final String delimiter) {
+		try (BufferedWriter writer = IOUtils.getBufferedWriter(filename)) {
+			writer.write(String.join(delimiter, "iteration", "span", "count", "wall_time", "cpu_time", "process_cpu_time", "allocated_bytes"));
+			writer.write('\n');
+			synchronized (this.spans) {
+				for (Map.Entry<Integer, Map<String, SpanStatistics>> entry : this.spans.entrySet()) {
+					for (Map.Entry<String, SpanStatistics> span : entry.getValue().entrySet()) {
+						SpanStatistics stats = span.getValue();
+						writer.write(String.join(delimiter, entry.getKey().toString(), span.getKey(), Long.toString(stats.count),
+								formatNanos(stats.wallTime), formatNanos(stats.cpuTime), formatNanos(stats.processCpuTime),
+								Long.toString(stats.allocatedBytes)));
+						writer.write('\n');
+					}
+				}
+			}
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Writes the statistics of all spans into a JSON file, as an object with the iterations as keys, each holding an object with the
+	 * span paths as keys.  Units are as in {@link #writeSpansFile(String, String)}.
+	 *
+	 * @param filename The name of a file where to write the gathered data.
+	 */
+	public void writeSpansJsonFile(final String filename) {
+		try (BufferedWriter writer = IOUtils.getBufferedWriter(filename);
+				JsonGenerator json = new JsonFactory().createGenerator(writer)) {
+			json.setPrettyPrinter(new DefaultPrettyPrinter());
+			json.writeStartObject();
+			synchronized (this.spans) {
+				for (Map.Entry<Integer, Map<String, SpanStatistics>> entry : this.spans.entrySet()) {
+					json.writeObjectFieldStart(entry.getKey().toString());
+					for (Map.Entry<String, SpanStatistics> span : entry.getValue().entrySet()) {
+						SpanStatistics stats = span.getValue();
+						json.writeObjectFieldStart(span.getKey());
+						json.writeNumberField("count", stats.count);
+						json.writeNumberField("wall_time", nanosToSeconds(stats.wallTime));
+						json.writeNumberField("cpu_time", nanosToSeconds(stats.cpuTime));
+						json.writeNumberField("process_cpu_time", nanosToSeconds(stats.processCpuTime));
+						json.writeNumberField("allocated_bytes", stats.allocatedBytes);
+						json.writeEndObject();
+					}
+					json.writeEndObject();
+				}
+			}
+			json.writeEndObject();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static double nanosToSeconds(final long nanos) {
+		return nanos < 0 ? -1 : nanos / 1e9;
+	}
+
+	private static String formatNanos(final long nanos) {
+		return nanos < 0 ? "-1" : Double.toString(nanos / 1e9);
+	}
+
 	/**
 	 * Writes the gathered data as graph into a png file.
 	 *
@@ -345,6 +525,198 @@ public final class IterationStopWatch {
 		}
 	}
 
+	/**
+	 * Enables the measurement of thread CPU time in the JVM, if supported, so that spans report their CPU time.  This changes JVM-wide
+	 * state, thus it is not done when this class is loaded, but by the controler.
+	 *
+	 * @return whether thread CPU time is measured now
+	 */
+	public static boolean enableThreadCpuTime() {
+		if (threadCpuTimeSupported && !threadCpuTimeEnabled) {
+			try {
+				threadBean.setThreadCpuTimeEnabled(true);
+			} catch (UnsupportedOperationException | SecurityException e) {
+				// leave it disabled
+			}
+			threadCpuTimeEnabled = isThreadCpuTimeEnabled();
+		}
+		return threadCpuTimeEnabled;
+	}
+
+	private static boolean isThreadCpuTimeSupported() {
+		try {
+			return threadBean.isCurrentThreadCpuTimeSupported();
+		} catch (UnsupportedOperationException | SecurityException e) {
+			return false;
+		}
+	}
+
+	private static boolean isThreadCpuTimeEnabled() {
+		try {
+			return threadBean.isThreadCpuTimeEnabled();
+		} catch (UnsupportedOperationException | SecurityException e) {
+			return false;
+		}
+	}
+
+	private static boolean isAllocatedBytesSupported() {
+		try {
+			return threadBean instanceof com.sun.management.ThreadMXBean sunBean
+					&& sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled();
+		} catch (UnsupportedOperationException | SecurityException e) {
+			return false;
+		}
+	}
+
+	private static long currentThreadCpuTime() {
+		return threadCpuTimeEnabled ? threadBean.getCurrentThreadCpuTime() : -1;
+	}
+
+	private static long currentThreadAllocatedBytes() {
+		return allocatedBytesSupported ? ((com.sun.management.ThreadMXBean) threadBean).getCurrentThreadAllocatedBytes() : -1;
+	}
+
+	private static long processCpuTime() {
+		if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean osBean) {
+			return osBean.getProcessCpuTime();
+		}
+		return -1;
+	}
+
+	private static long difference(final long start, final long end) {
+		return start < 0 || end < 0 ? -1 : end - start;
+	}
+
+	/**
+	 * A named, measured unit of work.  See {@link IterationStopWatch#span(String)}.
+	 */
+	public static final class Span implements AutoCloseable {
+		private final IterationStopWatch stopWatch;
+		private final Span parent;
+		/** the span to restore when this one ends: the previous span of the thread, or the previous operation for operation spans */
+		private final Span previous;
+		private final String path;
+		private final long startWall;
+		private final long startCpu;
+		private final long startProcessCpu;
+		private final long startAllocated;
+		private final SpanEvent event = new SpanEvent();
+		private boolean closed = false;
+
+		private Span(final IterationStopWatch stopWatch, final Span parent, final String name, final Span previous) {
+			this.stopWatch = stopWatch;
+			this.parent = parent;
+			this.previous = previous;
+			this.path = parent == null ? name : parent.path + "/" + name;
+			this.event.begin();
+			this.startAllocated = currentThreadAllocatedBytes();
+			this.startProcessCpu = processCpuTime();
+			this.startCpu = currentThreadCpuTime();
+			this.startWall = System.nanoTime();
+		}
+
+		public String getPath() {
+			return this.path;
+		}
+
+		/**
+		 * Closes the span, which must happen in the thread that opened it.  Closing a span more than once has no effect.
+		 */
+		@Override
+		public void close() {
+			if (this.stopWatch.currentSpan.get() == this) {
+				if (this.previous == null) {
+					this.stopWatch.currentSpan.remove();
+				} else {
+					this.stopWatch.currentSpan.set(this.previous);
+				}
+			}
+			finish();
+		}
+
+		private void finish() {
+			if (this.closed) {
+				return;
+			}
+			this.closed = true;
+			long wall = System.nanoTime() - this.startWall;
+			long cpu = difference(this.startCpu, currentThreadCpuTime());
+			long processCpu = difference(this.startProcessCpu, processCpuTime());
+			long allocated = difference(this.startAllocated, currentThreadAllocatedBytes());
+			this.stopWatch.record(this, wall, cpu, processCpu, allocated);
+			this.event.end();
+			if (this.event.shouldCommit()) {
+				this.event.iteration = this.stopWatch.iteration == null ? -1 : this.stopWatch.iteration;
+				this.event.span = this.path;
+				this.event.cpuTime = cpu;
+				this.event.allocatedBytes = allocated;
+				this.event.commit();
+			}
+		}
+	}
+
+	/**
+	 * The sums over all closed spans with the same path within one iteration.
+	 */
+	public static final class SpanStatistics {
+		private long count = 0;
+		private long wallTime = 0;
+		private long cpuTime = 0;
+		private long processCpuTime = 0;
+		private long allocatedBytes = 0;
+
+		private void add(final long count, final long wall, final long cpu, final long processCpu, final long allocated) {
+			this.count += count;
+			this.wallTime += wall;
+			this.cpuTime = cpu < 0 || this.cpuTime < 0 ? -1 : this.cpuTime + cpu;
+			this.processCpuTime = processCpu < 0 || this.processCpuTime < 0 ? -1 : this.processCpuTime + processCpu;
+			this.allocatedBytes = allocated < 0 || this.allocatedBytes < 0 ? -1 : this.allocatedBytes + allocated;
+		}
+
+		public long getCount() {
+			return this.count;
+		}
+
+		/** @return the summed wall time in nanoseconds */
+		public long getWallTime() {
+			return this.wallTime;
+		}
+
+		/** @return the summed CPU time of the threads which opened the spans in nanoseconds, or -1 if not supported */
+		public long getCpuTime() {
+			return this.cpuTime;
+		}
+
+		/** @return the summed CPU time of the whole process in nanoseconds, or -1 if not supported */
+		public long getProcessCpuTime() {
+			return this.processCpuTime;
+		}
+
+		/** @return the summed bytes allocated by the threads which opened the spans, or -1 if not supported */
+		public long getAllocatedBytes() {
+			return this.allocatedBytes;
+		}
+	}
+
+	@Name("org.matsim.IterationStopWatchSpan")
+	@Label("MATSim Span")
+	@Category("MATSim")
+	static final class SpanEvent extends jdk.jfr.Event {
+		@Label("Iteration")
+		int iteration;
+
+		@Label("Span")
+		String span;
+
+		@Label("CPU Time")
+		@Timespan(Timespan.NANOSECONDS)
+		long cpuTime;
+
+		@Label("Allocated")
+		@DataAmount(DataAmount.BYTES)
+		long allocatedBytes;
+	}
+
 	/**
 	 * Formats the time given in milliseconds (e.g. returned by {@link java.lang.System#currentTimeMillis()})
 	 * nicely for output.
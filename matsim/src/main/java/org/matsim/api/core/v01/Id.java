@@ -26,11 +26,10 @@ import org.matsim.api.core.v01.population.Person;
 import org.matsim.core.gbl.Gbl;
 import org.matsim.vehicles.Vehicle;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 
 /**
@@ -43,8 +42,7 @@ import java.util.concurrent.ConcurrentMap;
  */
 public abstract class Id<T> implements Comparable<Id<T>> {
 
-	private final static ConcurrentMap<Class<?>, ConcurrentMap<String, Id<?>>> cacheId = new ConcurrentHashMap<>();
-	private final static ConcurrentMap<Class<?>, List<Id<?>>> cacheIndex = new ConcurrentHashMap<>();
+	private final static ConcurrentMap<Class<?>, IdRegistry> registries = new ConcurrentHashMap<>();
 
 	/** Resets all internal caches used by this class.
 	 * <em>This method must only be called from JUnit-Tests.</em>
@@ -61,8 +59,7 @@ public abstract class Id<T> implements Comparable<Id<T>> {
 		if (!fromJUnit) {
 			throw new RuntimeException("This method can only be called from JUnit-Tests, but not in normal code!");
 		}
-		cacheId.clear();
-		cacheIndex.clear();
+		registries.clear();
 	}
 
 	public static <T> Id<T> create(final long key, final Class<T> type) {
@@ -81,47 +78,31 @@ public abstract class Id<T> implements Comparable<Id<T>> {
 	 */
 	public static <T> Id<T> create(final String key, final Class<T> type) {
 		Gbl.assertNotNull(key);
-
-		ConcurrentMap<String, Id<?>> mapId = cacheId.computeIfAbsent(type, k -> new ConcurrentHashMap<>(1000));
-
-		Id<?> id = mapId.get(key);
-		if (id == null) {
-			//Double-Checked Locking works: mapId is concurrent and IdImpl is immutable
-			synchronized (mapId) {
-				id = mapId.get(key);
-				if (id == null) {
-					// cannot use cacheIndex.computeIfAbsent():
-					// split into cacheIndex.get() and put() so that mapIndex.add() "happens-before" mapIndex.get()
-					// alternatives:
-					// (1) synchronise mapIndex.get() calls (on mapIndex)
-					// (2) use cacheIndex.compute() instead of get() and put() ==> less readable code...
-					List<Id<?>> mapIndex = mapId.isEmpty() ? new ArrayList<>(1000) : cacheIndex.get(type);
-					int index = mapIndex.size();
-					id = new IdImpl<T>(key, index);
-					mapIndex.add(id);
-					cacheIndex.put(type, mapIndex);
-					mapId.put(key, id);
-				}
-			}
+		IdRegistry registry = registries.get(type);
+		if (registry == null) {
+			registry = registries.computeIfAbsent(type, k -> new IdRegistry());
 		}
-		return (Id<T>)id;
+		return (Id<T>) registry.getOrCreate(key);
 	}
 
 	public abstract int index();
 
 	public static <T> Id<T> get(int index, final Class<T> type) {
-		List<Id<?>> mapIndex = cacheIndex.get(type);
-		return mapIndex == null ? null : (Id<T>)mapIndex.get(index);
+		IdRegistry registry = registries.get(type);
+		return registry == null ? null : (Id<T>) registry.get(index);
 	}
 
 	public static <T> Id<T> get(String id, final Class<T> type) {
-		Map<String, Id<?>> mapId = cacheId.get(type);
-		return mapId == null ? null : (Id<T>)mapId.get(id);
+		IdRegistry registry = registries.get(type);
+		return registry == null ? null : (Id<T>) registry.get(id);
 	}
 
+	/**
+	 * @return the number of ids of this type, which is also one more than the largest index of this type
+	 */
 	public static <T> int getNumberOfIds(final Class<T> type) {
-		Map<String, Id<?>> mapId = cacheId.get(type);
-		return mapId == null ? 0 : mapId.size();
+		IdRegistry registry = registries.get(type);
+		return registry == null ? 0 : registry.size();
 	}
 
 	/**
@@ -182,6 +163,156 @@ public abstract class Id<T> implements Comparable<Id<T>> {
 		}
 	}
 
+	/**
+	 * Registry of all ids of one type.
+	 *
+	 * The ids are kept in open-addressing hash tables, split into stripes by hash code. Lookups do not lock: the tables
+	 * are {@link AtomicReferenceArray}s, published through a volatile field when they are resized. Creating an id locks
+	 * only the stripe it falls into, so parallel readers creating ids hardly block each other. Compared to a
+	 * {@link ConcurrentHashMap}, this saves the map entry per id; the index lookup uses chunks of ids instead of a
+	 * list, so it never needs to copy existing entries when it grows.
+	 *
+	 * An index is assigned as soon as an id is created. A concurrent {@link #get(int)} for an index whose id is still
+	 * being created may thus return <code>null</code>.
+	 */
+	private static final class IdRegistry {
+		private static final int STRIPE_BITS = 4;
+		private static final int STRIPE_MASK = (1 << STRIPE_BITS) - 1;
+		private static final int CHUNK_BITS = 12;
+		private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+
+		private final Stripe[] stripes = new Stripe[1 << STRIPE_BITS];
+		private final AtomicInteger count = new AtomicInteger();
+		private volatile AtomicReferenceArray<Id<?>>[] chunks = newChunks(0);
+
+		IdRegistry() {
+			for (int i = 0; i < this.stripes.length; i++) {
+				this.stripes[i] = new Stripe();
+			}
+		}
+
+		Id<?> get(String key) {
+			int hash = key.hashCode();
+			return this.stripes[spread(hash) & STRIPE_MASK].get(key, hash);
+		}
+
+		Id<?> getOrCreate(String key) {
+			int hash = key.hashCode();
+			Stripe stripe = this.stripes[spread(hash) & STRIPE_MASK];
+			Id<?> id = stripe.get(key, hash);
+			return id != null ? id : stripe.create(key, hash, this);
+		}
+
+		Id<?> get(int index) {
+			if (index < 0 || index >= this.count.get()) {
+				throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + this.count.get());
+			}
+			// the count is incremented before the chunk of a new index is published
+			AtomicReferenceArray<Id<?>>[] chunks = this.chunks;
+			int chunk = index >>> CHUNK_BITS;
+			return chunk < chunks.length ? chunks[chunk].get(index & CHUNK_MASK) : null;
+		}
+
+		int size() {
+			return this.count.get();
+		}
+
+		/** called while holding the lock of the stripe the key belongs to */
+		private <T> Id<T> newId(String key) {
+			int index = this.count.getAndIncrement();
+			IdImpl<T> id = new IdImpl<>(key, index);
+			int chunk = index >>> CHUNK_BITS;
+			AtomicReferenceArray<Id<?>>[] chunks = this.chunks;
+			if (chunk >= chunks.length) {
+				chunks = addChunk(chunk);
+			}
+			chunks[chunk].set(index & CHUNK_MASK, id);
+			return id;
+		}
+
+		private synchronized AtomicReferenceArray<Id<?>>[] addChunk(int chunk) {
+			AtomicReferenceArray<Id<?>>[] chunks = this.chunks;
+			if (chunk >= chunks.length) {
+				AtomicReferenceArray<Id<?>>[] newChunks = newChunks(chunk + 1);
+				System.arraycopy(chunks, 0, newChunks, 0, chunks.length);
+				for (int i = chunks.length; i < newChunks.length; i++) {
+					newChunks[i] = new AtomicReferenceArray<>(1 << CHUNK_BITS);
+				}
+				this.chunks = newChunks;
+				chunks = newChunks;
+			}
+			return chunks;
+		}
+
+		@SuppressWarnings("unchecked")
+		private static AtomicReferenceArray<Id<?>>[] newChunks(int length) {
+			return new AtomicReferenceArray[length];
+		}
+
+		private static int spread(int hash) {
+			return hash ^ (hash >>> 16);
+		}
+
+		private static final class Stripe {
+			private volatile AtomicReferenceArray<Id<?>> table = new AtomicReferenceArray<>(16);
+			private int size = 0;
+
+			Id<?> get(String key, int hash) {
+				AtomicReferenceArray<Id<?>> table = this.table;
+				int mask = table.length() - 1;
+				for (int i = slot(hash, mask); ; i = (i + 1) & mask) {
+					Id<?> id = table.get(i);
+					if (id == null) {
+						return null;
+					}
+					if (id.hashCode() == hash && id.toString().equals(key)) {
+						return id;
+					}
+				}
+			}
+
+			synchronized Id<?> create(String key, int hash, IdRegistry registry) {
+				Id<?> id = get(key, hash);
+				if (id != null) {
+					return id;
+				}
+				if ((this.size + 1) * 4 > this.table.length() * 3) {
+					resize();
+				}
+				id = registry.newId(key);
+				insert(this.table, id);
+				this.size++;
+				return id;
+			}
+
+			private void resize() {
+				AtomicReferenceArray<Id<?>> table = this.table;
+				AtomicReferenceArray<Id<?>> newTable = new AtomicReferenceArray<>(table.length() * 2);
+				for (int i = 0; i < table.length(); i++) {
+					Id<?> id = table.get(i);
+					if (id != null) {
+						insert(newTable, id);
+					}
+				}
+				this.table = newTable;
+			}
+
+			private static void insert(AtomicReferenceArray<Id<?>> table, Id<?> id) {
+				int mask = table.length() - 1;
+				int i = slot(id.hashCode(), mask);
+				while (table.get(i) != null) {
+					i = (i + 1) & mask;
+				}
+				table.set(i, id);
+			}
+
+			private static int slot(int hash, int mask) {
+				// the lowest bits of the spread hash select the stripe
+				return (spread(hash) >>> STRIPE_BITS) & mask;
+			}
+		}
+	}
+
 	public static <T> String writeId( Id<T> id ) {
 		if ( id==null ) {
 			return "null" ;
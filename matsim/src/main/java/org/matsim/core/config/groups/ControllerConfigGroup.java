@@ -78,6 +78,11 @@ public final class ControllerConfigGroup extends ReflectiveConfigGroup {
 	private static final String CLEAN_ITERS_AT_END = "cleanItersAtEnd";
 	private static final String COMPRESSION_TYPE = "compressionType";
 	private static final String EVENT_TYPE_TO_CREATE_SCORING_FUNCTIONS = "createScoringFunctionType";
+	private static final String WRITE_CHECKPOINTS_INTERVAL = "writeCheckpointsInterval";
+	private static final String RESUME_FROM_CHECKPOINT = "resumeFromCheckpoint";
+	private static final String WRITE_PLANS_ASYNCHRONOUSLY = "writePlansAsynchronously";
+	private static final String NUMBER_OF_SCORING_SHARDS = "numberOfScoringShards";
+	private static final String PIPELINED_REPLANNING = "pipelinedReplanning";
 
 	/*package*/ static final String MOBSIM = "mobsim";
 	public enum MobsimType {qsim, JDEQSim, hermes}
@@ -109,6 +114,12 @@ public final class ControllerConfigGroup extends ReflectiveConfigGroup {
 
 	private CleanIterations cleanItersAtEnd = CleanIterations.keep;
 
+	private int writeCheckpointsInterval = 0;
+	private String resumeFromCheckpoint = null;
+	private boolean writePlansAsynchronously = false;
+	private int numberOfScoringShards = 1;
+	private boolean pipelinedReplanning = false;
+
 	public ControllerConfigGroup() {
 		super(GROUP_NAME);
 	}
@@ -146,11 +157,27 @@ public final class ControllerConfigGroup extends ReflectiveConfigGroup {
 				"Depending on the chosen mobsim, you'll have to add additional config modules to configure the corresponding mobsim." + IOUtils.NATIVE_NEWLINE + "\t\t" +
 				"For 'qsim', add a module 'qsim' to the config.");
 
-		map.put(SNAPSHOT_FORMAT, "Comma-separated list of visualizer output file formats. `transims' and `otfvis'.");
+		map.put(SNAPSHOT_FORMAT, "Comma-separated list of visualizer output file formats. `transims', `otfvis', `positionevents' and `binary'.");
 		map.put(WRITE_SNAPSHOTS_INTERVAL, "iterationNumber % " + WRITE_SNAPSHOTS_INTERVAL + " == 0 defines in which iterations snapshots are written " +
 				"to a file. `0' disables snapshots writing completely");
 		map.put(DUMP_DATA_AT_END, "true if at the end of a run, plans, network, config etc should be dumped to a file");
 		map.put(CLEAN_ITERS_AT_END, "Defines what should be done with the ITERS directory when a simulation finished successfully");
+		map.put(WRITE_CHECKPOINTS_INTERVAL, "iterationNumber % " + WRITE_CHECKPOINTS_INTERVAL + " == 0 defines in which iterations a checkpoint " +
+				"(plans with scores, strategy weights, annealing state, link travel times) is written at the end of the iteration. " +
+				"Only the most recent complete checkpoint is kept. `0' disables checkpointing (default).");
+		map.put(RESUME_FROM_CHECKPOINT, "Directory of a checkpoint written by a previous run (e.g. `output/checkpoint/it.100'). If set, the run " +
+				"continues with the iteration after the checkpoint. Config, network and the rest of the scenario need to be the same as in the run that " +
+				"wrote the checkpoint; use a new output directory or an overwriting '" + OVERWRITE_FILE + "' setting.");
+		map.put(WRITE_PLANS_ASYNCHRONOUSLY, "If true, the plans dumps (every " + WRITE_PLANS_INTERVAL + " iterations and at the end of the run) are " +
+				"serialised and compressed in parallel chunks, and the regular dumps are written in the background while the next iteration runs. " +
+				"Needs memory for a copy of the population while a dump is being written. Default: false.");
+		map.put(NUMBER_OF_SCORING_SHARDS, "Number of shards the scoring of the population is split into. Events are routed by person to the shards, " +
+				"each of which is processed on its own thread. Default=1, i.e. scoring runs on the events handling thread. " +
+				"With more than one shard, leg and activity handlers registered at EventsToLegs/EventsToActivities are called from several threads " +
+				"(never concurrently for the same person). At most 64 shards are supported.");
+		map.put(PIPELINED_REPLANNING, "If true, persons are prepared for the mobsim (routes, link ids) in the background as soon as the " +
+				"replanning strategy that handled them has finished, overlapping with the remaining replanning and the before-mobsim listeners. " +
+				"Only use this if no before-mobsim listener changes plans. Has no effect when replanning conflicts are resolved. Default: false.");
 		return map;
 	}
 
@@ -280,7 +307,7 @@ public final class ControllerConfigGroup extends ReflectiveConfigGroup {
 		this.eventsFileFormats = Collections.unmodifiableSet(EnumSet.copyOf(eventsFileFormats));
 	}
 	// ---
-	public enum SnapshotFormat { transims, googleearth, otfvis, positionevents }
+	public enum SnapshotFormat { transims, googleearth, otfvis, positionevents, binary }
 	private Set<SnapshotFormat> snapshotFormat = Collections.emptySet();
 
 	@StringSetter( SNAPSHOT_FORMAT )
@@ -418,6 +445,59 @@ public final class ControllerConfigGroup extends ReflectiveConfigGroup {
 		return cleanItersAtEnd;
 	}
 
+	@StringGetter(WRITE_CHECKPOINTS_INTERVAL)
+	public int getWriteCheckpointsInterval() {
+		return writeCheckpointsInterval;
+	}
+
+	@StringSetter(WRITE_CHECKPOINTS_INTERVAL)
+	public void setWriteCheckpointsInterval(int writeCheckpointsInterval) {
+		this.writeCheckpointsInterval = writeCheckpointsInterval;
+	}
+
+	@StringGetter(RESUME_FROM_CHECKPOINT)
+	public String getResumeFromCheckpoint() {
+		return resumeFromCheckpoint;
+	}
+
+	@StringSetter(RESUME_FROM_CHECKPOINT)
+	public void setResumeFromCheckpoint(String resumeFromCheckpoint) {
+		this.resumeFromCheckpoint = resumeFromCheckpoint;
+	}
+
+	@StringGetter(WRITE_PLANS_ASYNCHRONOUSLY)
+	public boolean isWritePlansAsynchronously() {
+		return writePlansAsynchronously;
+	}
+
+	@StringSetter(WRITE_PLANS_ASYNCHRONOUSLY)
+	public void setWritePlansAsynchronously(boolean writePlansAsynchronously) {
+		this.writePlansAsynchronously = writePlansAsynchronously;
+	}
+
+	@StringGetter(PIPELINED_REPLANNING)
+	public boolean isPipelinedReplanning() {
+		return pipelinedReplanning;
+	}
+
+	@StringSetter(PIPELINED_REPLANNING)
+	public void setPipelinedReplanning(boolean pipelinedReplanning) {
+		this.pipelinedReplanning = pipelinedReplanning;
+	}
+
+	@StringGetter(NUMBER_OF_SCORING_SHARDS)
+	public int getNumberOfScoringShards() {
+		return numberOfScoringShards;
+	}
+
+	@StringSetter(NUMBER_OF_SCORING_SHARDS)
+	public void setNumberOfScoringShards(int numberOfScoringShards) {
+		if (numberOfScoringShards < 1 || numberOfScoringShards > 64) {
+			throw new IllegalArgumentException("numberOfScoringShards must be between 1 and 64, but is " + numberOfScoringShards);
+		}
+		this.numberOfScoringShards = numberOfScoringShards;
+	}
+
 	@StringGetter(EVENT_TYPE_TO_CREATE_SCORING_FUNCTIONS)
 	public EventTypeToCreateScoringFunctions getEventTypeToCreateScoringFunctions() {
 		return eventTypeToCreateScoringFunctions;
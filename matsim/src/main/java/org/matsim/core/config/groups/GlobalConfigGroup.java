@@ -39,6 +39,7 @@ public final class GlobalConfigGroup extends ReflectiveConfigGroup {
 	@Override public Map<String, String> getComments() {
 		Map<String,String> map = super.getComments();
 		map.put(NUMBER_OF_THREADS, NUMBER_OF_THREADS_CMT ) ;
+		map.put(DYNAMIC_REPLANNING_SCHEDULING, DYNAMIC_REPLANNING_SCHEDULING_CMT ) ;
 		return map ;
 	}
 
@@ -94,6 +95,21 @@ public final class GlobalConfigGroup extends ReflectiveConfigGroup {
 		this.numberOfThreads = numberOfThreads;
 	}
 	// ---
+	private boolean dynamicReplanningScheduling = false;
+	private static final String DYNAMIC_REPLANNING_SCHEDULING = "dynamicReplanningScheduling";
+	private static final String DYNAMIC_REPLANNING_SCHEDULING_CMT = "If true, multi-threaded replanning modules hand out the plans in small chunks "
+			+ "to whichever of their threads is free, running on a pool of threads that is kept across iterations, instead of assigning "
+			+ "the plans round-robin to new threads.  Balances threads with expensive plans better, but which plan algorithm instance "
+			+ "handles which plan is no longer reproducible.  Default: false.";
+	@StringGetter( DYNAMIC_REPLANNING_SCHEDULING )
+	public boolean isDynamicReplanningScheduling() {
+		return this.dynamicReplanningScheduling;
+	}
+	@StringSetter( DYNAMIC_REPLANNING_SCHEDULING )
+	public void setDynamicReplanningScheduling(final boolean dynamicReplanningScheduling) {
+		this.dynamicReplanningScheduling = dynamicReplanningScheduling;
+	}
+	// ---
 	private String coordinateSystem = "Atlantis" ;
 	// see https://matsim.atlassian.net/browse/MATSIM-898
 	private static final String COORDINATE_SYSTEM = "coordinateSystem";
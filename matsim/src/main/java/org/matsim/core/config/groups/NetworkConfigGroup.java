@@ -38,6 +38,7 @@ public final class NetworkConfigGroup extends ReflectiveConfigGroup {
 
 	private static final String LANEDEFINITIONSINPUTFILE = "laneDefinitionsFile";
 	private static final String INPUT_CRS = "inputCRS";
+	private static final String COLUMNAR_LINK_ATTRIBUTES = "columnarLinkAttributes";
 
 	private String inputFile = null;
 
@@ -49,6 +50,8 @@ public final class NetworkConfigGroup extends ReflectiveConfigGroup {
 
 	private String laneDefinitionsFile = null;
 
+	private boolean columnarLinkAttributes = false;
+
 	public NetworkConfigGroup() {
 		super(NetworkConfigGroup.GROUP_NAME);
 	}
@@ -60,6 +63,8 @@ public final class NetworkConfigGroup extends ReflectiveConfigGroup {
 		comments.put( INPUT_CRS , "The Coordinates Reference System in which the coordinates are expressed in the input file." +
 				" At import, the coordinates will be converted to the coordinate system defined in \"global\", and will" +
 				"be converted back at export. If not specified, no conversion happens." );
+		comments.put( COLUMNAR_LINK_ATTRIBUTES, "If true, the attributes of all links are stored in one columnar store of the network instead of " +
+				"one small map per link, which needs considerably less memory for large networks. Default: false." );
 
 		return comments;
 	}
@@ -130,4 +135,15 @@ public final class NetworkConfigGroup extends ReflectiveConfigGroup {
 	public void setInputCRS(String inputCRS) {
 		this.inputCRS = inputCRS;
 	}
+
+	@StringGetter( COLUMNAR_LINK_ATTRIBUTES )
+	public boolean isColumnarLinkAttributes() {
+		return this.columnarLinkAttributes;
+	}
+
+	@StringSetter( COLUMNAR_LINK_ATTRIBUTES )
+	public void setColumnarLinkAttributes(final boolean columnarLinkAttributes) {
+		testForLocked();
+		this.columnarLinkAttributes = columnarLinkAttributes;
+	}
 }
@@ -110,6 +110,9 @@ public final class PlansConfigGroup extends ReflectiveConfigGroup {
 		comments.put(REMOVING_UNNECESSARY_PLAN_ATTRIBUTES, "(not tested) will remove plan attributes that are presumably not used, such as " +
                 "activityStartTime. default=false. Use with Caution!");
 
+		comments.put(COLUMNAR_PERSON_ATTRIBUTES, "If true, the attributes of all persons are stored in one columnar store of the population " +
+				"instead of one small map per person, which needs considerably less memory for large populations. Default: false.");
+
 		comments.put( INPUT_CRS , "The Coordinates Reference System in which the coordinates are expressed in the input file." +
 				" At import, the coordinates will be converted to the coordinate system defined in \"global\", and will" +
 				"be converted back at export. If not specified, no conversion happens." );
@@ -247,6 +250,18 @@ public final class PlansConfigGroup extends ReflectiveConfigGroup {
 	}
 
 
+	private static final String COLUMNAR_PERSON_ATTRIBUTES = "columnarPersonAttributes";
+	private boolean columnarPersonAttributes = false;
+	@StringGetter(COLUMNAR_PERSON_ATTRIBUTES)
+	public boolean isColumnarPersonAttributes() {
+		return this.columnarPersonAttributes;
+	}
+	@StringSetter(COLUMNAR_PERSON_ATTRIBUTES)
+	public void setColumnarPersonAttributes(final boolean columnarPersonAttributes) {
+		testForLocked();
+		this.columnarPersonAttributes = columnarPersonAttributes;
+	}
+
 	@StringGetter( INPUT_CRS )
 	public String getInputCRS() {
 		return inputCRS;
@@ -96,6 +96,8 @@ public final class QSimConfigGroup extends ReflectiveConfigGroup {
 	// ---
 	private static final String IS_SEEP_MODE_STORAGE_FREE = "isSeepModeStorageFree";
 	private FilterSnapshots filterSnapshots = FilterSnapshots.no; // include all vehicles by default
+	private static final String SNAPSHOT_SAMPLE_FRACTION = "snapshotSampleFraction";
+	private double snapshotSampleFraction = 1.0; // include all agents by default
 
 	private StarttimeInterpretation simStarttimeInterpretation = StarttimeInterpretation.maxOfStarttimeAndEarliestActivityEnd;
 
@@ -140,14 +142,31 @@ public final class QSimConfigGroup extends ReflectiveConfigGroup {
 	public enum LinkDynamics {FIFO, PassingQ, SeepageQ}
 
 	private LinkDynamics linkDynamics = LinkDynamics.FIFO;
+
+	// ---
+	private static final String LINK_QUEUE_TYPE = "linkQueueType";
+
+	public enum LinkQueueType {linkedList, ringBuffer}
+
+	private LinkQueueType linkQueueType = LinkQueueType.linkedList;
 	private Collection<String> mainModes = Collections.singletonList(TransportMode.car);
 
+	// ---
+	private static final String PARALLEL_NETWORK_CHANGE_EVENTS = "usingParallelNetworkChangeEvents";
+	private boolean usingParallelNetworkChangeEvents = false;
+
 	// ---
 	private double nodeOffset = 0;
 	private float linkWidth = 30;
 
 	public static final String LINK_WIDTH = "linkWidth";
 
+	// ---
+	private static final String PARALLEL_ACTIVITY_ENDS = "usingParallelActivityEnds";
+	private boolean usingParallelActivityEnds = false;
+	private static final String PARALLEL_TRANSIT_STOPS = "usingParallelTransitStops";
+	private boolean usingParallelTransitStops = false;
+
 	// ---
 	private final static String FAST_CAPACITY_UPDATE = "usingFastCapacityUpdate";
 	private boolean usingFastCapacityUpdate = true;
@@ -201,6 +220,9 @@ public final class QSimConfigGroup extends ReflectiveConfigGroup {
 				"factor, and storage capacity factor need to be set with diligence.  Need to be vehicular modes to make sense.");
 		map.put(INSERTING_WAITING_VEHICLES_BEFORE_DRIVING_VEHICLES,
 				INSERTING_WAITING_VEHICLES_BEFORE_DRIVING_VEHICLES_CMT);
+		map.put(PARALLEL_NETWORK_CHANGE_EVENTS, "If true, the links affected by the network change events of the same time are recalculated "
+				+ "in parallel when there are many of them.  This requires the recalculation of the qsim links, including custom link "
+				+ "speed and flow efficiency calculators, to be thread-safe, which is not guaranteed.  Default is false.");
 		map.put(NODE_OFFSET, "Shortens a link in the visualization, i.e. its start and end point are moved into towards the center. Does not affect traffic flow. ");
 		map.put(LINK_WIDTH, "The (initial) width of the links of the network. Use positive floating point values. This is used only for visualisation.");
 		{
@@ -210,6 +232,18 @@ public final class QSimConfigGroup extends ReflectiveConfigGroup {
 			}
 			map.put(LINK_DYNAMICS, "default: FIFO; options:" + stb);
 		}
+		map.put(LINK_QUEUE_TYPE, "Data structure for the vehicles, the buffer and the holes of the links.  " + LinkQueueType.ringBuffer
+				+ " keeps them in growing arrays and does not allocate when vehicles move; the traffic flow is the same.  "
+				+ "Default is " + LinkQueueType.linkedList + ".");
+		map.put(PARALLEL_ACTIVITY_ENDS, "If true and " + NUMBER_OF_THREADS + " is larger than one, the agents which end their activities in "
+				+ "the same time step compute their next state in parallel.  Their events are buffered and their departures are handled in the "
+				+ "same order as without this option, so the results do not change.  Default is false.");
+		map.put(PARALLEL_TRANSIT_STOPS, "If true and " + NUMBER_OF_THREADS + " is larger than one, passengers who leave a transit vehicle "
+				+ "are handed over to the qsim at the end of the time step, ordered by their id, and not by the netsim thread which handles "
+				+ "the stop.  The netsim threads then do not wait for each other at transit stops.  A passenger who changes vehicles at the "
+				+ "same stop can then board in the next time step at the earliest.  The hand-over relies on the transit engine being "
+				+ "stepped after the netsim engine, which is the order of the default qsim components; if the components are reordered, "
+				+ "the passengers are handed over one time step later.  Default is false.");
 		map.put(USE_PERSON_ID_FOR_MISSING_VEHICLE_ID, "If a route does not reference a vehicle, agents will use the vehicle with the same id as their own.");
 		map.put(FAST_CAPACITY_UPDATE, "If false, the qsim accumulates fractional flows up to one flow unit in every time step.  If true, "
 				+ "flows are updated only if an agent wants to enter the link or an agent is added to buffer. "
@@ -227,6 +261,8 @@ public final class QSimConfigGroup extends ReflectiveConfigGroup {
 		map.put(IS_SEEP_MODE_STORAGE_FREE, "If link dynamics is set as " + LinkDynamics.SeepageQ + ", set to true if seep mode do not consumes any space on the link. Default is false.");
 		map.put(IS_RESTRICTING_SEEPAGE, "If link dynamics is set as " + LinkDynamics.SeepageQ + ", set to false if all seep modes should perform seepage. Default is true (better option).");
 		map.put(FILTER_SNAPSHOTS, "If set to " + FilterSnapshots.withLinkAttributes + " snapshots will only be generated for links which include " + SnapshotWritersModule.GENERATE_SNAPSHOT_FOR_LINK_KEY + " as attribute key. Default is no filtering.");
+		map.put(SNAPSHOT_SAMPLE_FRACTION, "Fraction of the agents which are included in the snapshots, between 0 (exclusive) and 1.  The sample is drawn "
+				+ "from the agent ids, so the same agents are included in all snapshots of an iteration.  Default is 1, i.e. all agents.");
 //		map.put(CREATING_VEHICLES_FOR_ALL_NETWORK_MODES, "If set to true, creates a vehicle for each person corresponding to every network mode. However, " +
 //				"this will be overridden if vehicle source is "+ VehiclesSource.fromVehiclesData+".");
 
@@ -328,6 +364,19 @@ public final class QSimConfigGroup extends ReflectiveConfigGroup {
 		this.filterSnapshots = value;
 	}
 
+	@StringGetter(SNAPSHOT_SAMPLE_FRACTION)
+	public double getSnapshotSampleFraction() {
+		return this.snapshotSampleFraction;
+	}
+
+	@StringSetter(SNAPSHOT_SAMPLE_FRACTION)
+	public void setSnapshotSampleFraction(final double snapshotSampleFraction) {
+		if ( snapshotSampleFraction <= 0.0 || snapshotSampleFraction > 1.0 ) {
+			throw new IllegalArgumentException( "Snapshot sample fraction must be in (0,1], got "+snapshotSampleFraction );
+		}
+		this.snapshotSampleFraction = snapshotSampleFraction;
+	}
+
 	@StringGetter(FAST_CAPACITY_UPDATE)
 	public final boolean isUsingFastCapacityUpdate() {
 		return this.usingFastCapacityUpdate;
@@ -535,6 +584,16 @@ public final class QSimConfigGroup extends ReflectiveConfigGroup {
 		this.nodeOffset = nodeOffset;
 	}
 
+	@StringGetter(PARALLEL_NETWORK_CHANGE_EVENTS)
+	public boolean isUsingParallelNetworkChangeEvents() {
+		return this.usingParallelNetworkChangeEvents;
+	}
+
+	@StringSetter(PARALLEL_NETWORK_CHANGE_EVENTS)
+	public void setUsingParallelNetworkChangeEvents(boolean usingParallelNetworkChangeEvents) {
+		this.usingParallelNetworkChangeEvents = usingParallelNetworkChangeEvents;
+	}
+
 	@StringGetter(LINK_WIDTH)
 	public float getLinkWidthForVis() {
 		return this.linkWidth;
@@ -555,6 +614,36 @@ public final class QSimConfigGroup extends ReflectiveConfigGroup {
 		this.linkDynamics = linkDynamics ;
 	}
 
+	@StringGetter(LINK_QUEUE_TYPE)
+	public LinkQueueType getLinkQueueType() {
+		return this.linkQueueType ;
+	}
+
+	@StringSetter(LINK_QUEUE_TYPE)
+	public void setLinkQueueType(LinkQueueType linkQueueType) {
+		this.linkQueueType = linkQueueType ;
+	}
+
+	@StringGetter(PARALLEL_ACTIVITY_ENDS)
+	public boolean isUsingParallelActivityEnds() {
+		return this.usingParallelActivityEnds;
+	}
+
+	@StringSetter(PARALLEL_ACTIVITY_ENDS)
+	public void setUsingParallelActivityEnds(boolean usingParallelActivityEnds) {
+		this.usingParallelActivityEnds = usingParallelActivityEnds;
+	}
+
+	@StringGetter(PARALLEL_TRANSIT_STOPS)
+	public boolean isUsingParallelTransitStops() {
+		return this.usingParallelTransitStops;
+	}
+
+	@StringSetter(PARALLEL_TRANSIT_STOPS)
+	public void setUsingParallelTransitStops(boolean usingParallelTransitStops) {
+		this.usingParallelTransitStops = usingParallelTransitStops;
+	}
+
 	@StringGetter(USE_PERSON_ID_FOR_MISSING_VEHICLE_ID)
 	public boolean getUsePersonIdForMissingVehicleId() {
 		return usePersonIdForMissingVehicleId;
@@ -276,6 +276,8 @@ public final class ReplanningConfigGroup extends ConfigGroup {
 	public final Map<String, String> getComments() {
 		Map<String,String> map = super.getComments();
 		map.put(ReflectiveDelegate.ITERATION_FRACTION_TO_DISABLE_INNOVATION, "fraction of iterations where innovative strategies are switched off.  Something like 0.8 should be good.  E.g. if you run from iteration 400 to iteration 500, innovation is switched off at iteration 480" ) ;
+		map.put(ReflectiveDelegate.SELECTIVE_RE_ROUTE_THRESHOLD, "only used by the SelectiveReRoute strategy: relative change of a link travel time (in any time bin) "
+				+ "between two iterations above which plans using that link are re-routed.  Plans not using any such link are only selected.");
 		map.put(ReflectiveDelegate.MAX_AGENT_PLAN_MEMORY_SIZE, "maximum number of plans per agent.  ``0'' means ``infinity''.  Currently (2010), ``5'' is a good number");
 
 		StringBuilder strb = new StringBuilder() ;
@@ -404,6 +406,14 @@ public final class ReplanningConfigGroup extends ConfigGroup {
 		delegate.setFractionOfIterationsToDisableInnovation(fraction);
 	}
 
+	public double getSelectiveReRouteThreshold() {
+		return delegate.getSelectiveReRouteThreshold();
+	}
+
+	public void setSelectiveReRouteThreshold(double threshold) {
+		delegate.setSelectiveReRouteThreshold(threshold);
+	}
+
 	@Override
 	public final Map<String, String> getParams() {
 		return delegate.getParams();
@@ -416,6 +426,7 @@ public final class ReplanningConfigGroup extends ConfigGroup {
 		 static final String EXTERNAL_EXE_TIME_OUT = "ExternalExeTimeOut";
 		 static final String ITERATION_FRACTION_TO_DISABLE_INNOVATION = "fractionOfIterationsToDisableInnovation" ;
 		 static final String PLAN_SELECTOR_FOR_REMOVAL = "planSelectorForRemoval" ;
+		 static final String SELECTIVE_RE_ROUTE_THRESHOLD = "selectiveReRouteThreshold" ;
 
 		private int maxAgentPlanMemorySize = 5;
 		private String externalExeConfigTemplate = null;
@@ -427,6 +438,7 @@ public final class ReplanningConfigGroup extends ConfigGroup {
 		//---
 		private double fraction = Double.POSITIVE_INFINITY ;
 		//---
+		private double selectiveReRouteThreshold = 0.1 ;
 
 		public ReflectiveDelegate() {
 			super( ReplanningConfigGroup.GROUP_NAME );
@@ -492,6 +504,19 @@ public final class ReplanningConfigGroup extends ConfigGroup {
 		public void setFractionOfIterationsToDisableInnovation(double fraction) {
 			this.fraction = fraction;
 		}
+
+		@StringGetter( SELECTIVE_RE_ROUTE_THRESHOLD )
+		public double getSelectiveReRouteThreshold() {
+			return selectiveReRouteThreshold;
+		}
+
+		@StringSetter( SELECTIVE_RE_ROUTE_THRESHOLD )
+		public void setSelectiveReRouteThreshold(double threshold) {
+			if ( threshold < 0. ) {
+				throw new IllegalArgumentException( SELECTIVE_RE_ROUTE_THRESHOLD + " must not be negative, but is " + threshold );
+			}
+			this.selectiveReRouteThreshold = threshold;
+		}
 	}
 }
 
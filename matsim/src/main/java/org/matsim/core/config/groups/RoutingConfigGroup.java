@@ -98,6 +98,13 @@ public final class RoutingConfigGroup extends ConfigGroup {
 	private static final String RANDOMNESS = "routingRandomness" ;
 	private double routingRandomness = 3. ;
 	// ---
+	private static final String PRECOMPUTE_TRAVEL_TIMES = "precomputeTravelTimes" ;
+	private static final String PRECOMPUTE_TRAVEL_TIMES_CMT = "If true, the travel times of the network modes are copied into a table per link and "
+			+ "time bin of the travel time calculator at the beginning of each iteration, and the default travel disutility looks them up "
+			+ "there instead of asking the travel time object during every route search.  Only applied with the \"average\" travel time getter; "
+			+ "assumes that travel times are constant within a time bin and depend on the vehicle only through its maximum velocity.  Default is false." ;
+	private boolean precomputeTravelTimes = false ;
+	// ---
 	private static final String CLEAR_MODE_ROUTING_PARAMS = "clearDefaultTeleportedModeParams";
 	private static final String CLEAR_MODE_ROUTING_PARAMS_CMT = "Some typical teleportation routing params are set by default, such as for walk and bike.  " +
 																		"Setting this switch to \"true\" will clear them.  Note that this will also clear " +
@@ -516,6 +523,8 @@ public final class RoutingConfigGroup extends ConfigGroup {
 			this.setClearingDefaultModeRoutingParams( Boolean.parseBoolean( value ) );
 		} else if (RANDOMNESS.equals( key ) ) {
 			this.setRoutingRandomness( Double.parseDouble( value ) );
+		} else if (PRECOMPUTE_TRAVEL_TIMES.equals( key ) ) {
+			this.setPrecomputeTravelTimes( Boolean.parseBoolean( value ) );
 		}
 		else if (ACCESSEGRESSTYPE.equals( key ) ) {
 			this.setAccessEgressType(AccessEgressType.valueOf(value));
@@ -531,6 +540,7 @@ public final class RoutingConfigGroup extends ConfigGroup {
 		map.put( NETWORK_MODES, CollectionUtils.arrayToString(this.networkModes.toArray( new String[0] ) ) );
 		map.put(  CLEAR_MODE_ROUTING_PARAMS, Boolean.toString( this.clearingDefaultModeRoutingParams ) ) ;
 		map.put(  RANDOMNESS, Double.toString( this.routingRandomness ) ) ;
+		map.put(  PRECOMPUTE_TRAVEL_TIMES, Boolean.toString( this.precomputeTravelTimes ) ) ;
 		map.put(  ACCESSEGRESSTYPE, getAccessEgressType().toString()) ;
 		return map;
 	}
@@ -546,6 +556,7 @@ public final class RoutingConfigGroup extends ConfigGroup {
 	          		+ "Leads to Pareto-optimal route with randomly drawn money-vs-other-attributes tradeoff. "
 	          		+ "Technically the width parameter of a log-normal distribution. 3.0 seems to be a good value. " ) ;
 		map.put( CLEAR_MODE_ROUTING_PARAMS, CLEAR_MODE_ROUTING_PARAMS_CMT ) ;
+		map.put( PRECOMPUTE_TRAVEL_TIMES, PRECOMPUTE_TRAVEL_TIMES_CMT ) ;
 		map.put(ACCESSEGRESSTYPE, ACCESSEGRESSTYPE_CMT);
 		return map;
 	}
@@ -650,6 +661,15 @@ public final class RoutingConfigGroup extends ConfigGroup {
 		this.routingRandomness = routingRandomness;
 	}
 
+	@StringGetter(PRECOMPUTE_TRAVEL_TIMES)
+	public boolean isPrecomputeTravelTimes() {
+		return precomputeTravelTimes;
+	}
+	@StringSetter(PRECOMPUTE_TRAVEL_TIMES)
+	public void setPrecomputeTravelTimes(boolean precomputeTravelTimes) {
+		this.precomputeTravelTimes = precomputeTravelTimes;
+	}
+
 	@Override protected void checkConsistency(Config config) {
 		super.checkConsistency(config);
 		Set<String> modesRoutedAsTeleportation = this.getModeRoutingParams().keySet();
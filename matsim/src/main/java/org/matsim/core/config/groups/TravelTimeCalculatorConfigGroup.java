@@ -50,6 +50,7 @@ public final class TravelTimeCalculatorConfigGroup extends ReflectiveConfigGroup
 	private static final String ANALYZEDMODES = "analyzedModes";
 	private static final String FILTERMODES = "filterModes";
 	private static final String SEPARATEMODES = "separateModes";
+	private static final String USE_SNAPSHOTS = "useTravelTimeSnapshots";
 
 	private String travelTimeAggregator = "optimistic";
 	private String travelTimeGetter = "average";
@@ -62,6 +63,7 @@ public final class TravelTimeCalculatorConfigGroup extends ReflectiveConfigGroup
 	private Set<String> analyzedModes = new LinkedHashSet<>(  ) ;
 	private boolean filterModes = false;
 	private boolean separateModes = true;
+	private boolean useTravelTimeSnapshots = false;
 
 	public TravelTimeCalculatorConfigGroup() {
 		super(GROUPNAME);
@@ -83,6 +85,9 @@ public final class TravelTimeCalculatorConfigGroup extends ReflectiveConfigGroup
 							 "respected by the travel time collector. 'car' is default which includes also buses from the pt simulation module.");
 		map.put(FILTERMODES, "(only for backwards compatiblity; only used if " + SEPARATEMODES + "==false)  Only modes included in analyzedModes are included." ) ;
 		map.put(SEPARATEMODES, "(only for backwards compatibility) If false, link travel times are measured and aggregated over all vehicles using the link." ) ;
+		map.put(USE_SNAPSHOTS, "If true, the link travel times are copied into a compact read-only snapshot at the beginning of each iteration, " +
+				"and the routers use it until the travel times change again in the mobsim.  The snapshot only stores travel times deviating " +
+				"from free speed, as floats.  Default is false." ) ;
 		return map;
 	}
 
@@ -195,5 +200,15 @@ public final class TravelTimeCalculatorConfigGroup extends ReflectiveConfigGroup
 	public void setSeparateModes(boolean separateModes) {
 		this.separateModes = separateModes;
 	}
+	// ---
+	@StringGetter(USE_SNAPSHOTS)
+	public boolean isUseTravelTimeSnapshots() {
+		return this.useTravelTimeSnapshots;
+	}
+
+	@StringSetter(USE_SNAPSHOTS)
+	public void setUseTravelTimeSnapshots(boolean useTravelTimeSnapshots) {
+		this.useTravelTimeSnapshots = useTravelTimeSnapshots;
+	}
 
 }
@@ -24,6 +24,7 @@ import org.apache.logging.log4j.Logger;
 import org.matsim.analysis.IterationStopWatch;
 import org.matsim.core.config.Config;
 import org.matsim.core.config.groups.ControllerConfigGroup;
+import org.matsim.core.controler.checkpointing.CheckpointUtils;
 import org.matsim.core.controler.listener.ControlerListener;
 import org.matsim.core.gbl.MatsimRandom;
 import org.matsim.utils.MemoryObserver;
@@ -57,6 +58,7 @@ import java.io.UncheckedIOException;
         log.info("Used Controler-Class: " + this.getClass().getCanonicalName());
         this.controlerListenerManagerImpl = controlerListenerManager;
         this.controlerListenerManagerImpl.setControler(matsimServices);
+        this.controlerListenerManagerImpl.setStopWatch(stopWatch);
         this.stopwatch = stopWatch;
     }
 
@@ -74,6 +76,11 @@ import java.io.UncheckedIOException;
 
     protected final void run(final Config config) {
         MemoryObserver.start(60);
+        if (IterationStopWatch.enableThreadCpuTime()) {
+            log.info("thread CPU time measurement is enabled, the stopwatch spans report their CPU time.");
+        } else {
+            log.info("thread CPU time measurement is not available, the stopwatch spans report no CPU time.");
+        }
         MatsimRuntimeModifications.MyRunnable runnable = new MatsimRuntimeModifications.MyRunnable() {
             @Override
             public void run() throws MatsimRuntimeModifications.UnexpectedShutdownException {
@@ -115,6 +122,11 @@ import java.io.UncheckedIOException;
 
     private void doIterations(Config config) throws MatsimRuntimeModifications.UnexpectedShutdownException {
     	int iteration = config.controller().getFirstIteration();
+    	if (config.controller().getResumeFromCheckpoint() != null) {
+    		// the first iteration stays as configured, so that everything depending on it behaves as in the run that wrote the checkpoint
+    		iteration = CheckpointUtils.readIteration(config.controller().getResumeFromCheckpoint()) + 1;
+    		log.info(MARKER + "resuming from checkpoint, continuing with iteration " + iteration);
+    	}
 
     	// Special case if lastIteration == -1 -> Do not run any Mobsim
     	boolean doTerminate = config.controller().getLastIteration() < iteration;
@@ -178,6 +190,12 @@ import java.io.UncheckedIOException;
         } catch (UncheckedIOException e) {
             log.error("Could not write stopwatch file.", e);
         }
+        try {
+            this.getStopwatch().writeSpansFile(this.getControlerIO().getOutputFilename("stopwatch_spans.csv"), config.global().getDefaultDelimiter());
+            this.getStopwatch().writeSpansJsonFile(this.getControlerIO().getOutputFilename("stopwatch_spans.json"));
+        } catch (UncheckedIOException e) {
+            log.error("Could not write stopwatch spans file.", e);
+        }
         if (config.controller().getCreateGraphsInterval() > 0 && iteration % config.controller().getCreateGraphsInterval() == 0) {
             this.getStopwatch().writeGraphFile(this.getControlerIO().getOutputFilename("stopwatch.png", ControllerConfigGroup.CompressionType.none));
         }
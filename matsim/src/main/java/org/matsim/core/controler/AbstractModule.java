@@ -31,6 +31,7 @@ import org.matsim.api.core.v01.population.Person;
 import org.matsim.api.core.v01.population.Plan;
 import org.matsim.core.api.experimental.events.EventsManager;
 import org.matsim.core.config.Config;
+import org.matsim.core.controler.checkpointing.CheckpointParticipant;
 import org.matsim.core.controler.listener.ControlerListener;
 import org.matsim.core.events.handler.EventHandler;
 import org.matsim.core.mobsim.framework.Mobsim;
@@ -90,6 +91,7 @@ public abstract class AbstractModule implements Module {
 	private Multibinder<SnapshotWriter> snapshotWriterMultibinder;
 	private MapBinder<Class<?>, AttributeConverter<?>> attributeConverterMapBinder;
 	private Multibinder<AbstractQSimModule> qsimModulesMultibinder;
+	private Multibinder<CheckpointParticipant> checkpointParticipantMultibinder;
 
 	@Inject
 	com.google.inject.Injector bootstrapInjector;
@@ -132,6 +134,7 @@ public abstract class AbstractModule implements Module {
 						new TypeLiteral<AttributeConverter<?>>() {} );
 		this.qsimModulesMultibinder = Multibinder.newSetBinder(this.binder, AbstractQSimModule.class);
 		this.qsimOverridingModulesMultibinder = Multibinder.newSetBinder( this.binder, AbstractQSimModule.class, Names.named( "overridesFromAbstractModule" ) );
+		this.checkpointParticipantMultibinder = Multibinder.newSetBinder(this.binder, CheckpointParticipant.class);
 	}
 
 	public abstract void install();
@@ -163,6 +166,13 @@ public abstract class AbstractModule implements Module {
 		return controlerListenerMultibinder.addBinding();
 	}
 
+	/**
+	 * @see CheckpointParticipant
+	 */
+	protected final LinkedBindingBuilder<CheckpointParticipant> addCheckpointParticipantBinding() {
+		return checkpointParticipantMultibinder.addBinding();
+	}
+
 	/**
 	 * @see StrategyManagerModule
 	 */
@@ -23,6 +23,7 @@
 package org.matsim.core.controler;
 
 import com.google.inject.Inject;
+import com.google.inject.Singleton;
 import org.matsim.analysis.IterationTravelStatsModule;
 import org.matsim.analysis.LegHistogramModule;
 import org.matsim.analysis.LegTimesModule;
@@ -62,7 +63,9 @@ public final class ControlerDefaultsModule extends AbstractModule {
         install(new StrategyManagerModule());
         install(new TimeInterpretationModule());
         if (getConfig().replanningAnnealer().isActivateAnnealingModule()) {
+            bind(ReplanningAnnealer.class).in(Singleton.class);
             addControlerListenerBinding().to(ReplanningAnnealer.class);
+            addCheckpointParticipantBinding().to(ReplanningAnnealer.class);
         }
 
         // I think that the ones coming here are all for analysis only, and thus not central to the iterations. kai, apr'18
@@ -22,6 +22,7 @@ package org.matsim.core.controler;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.matsim.analysis.IterationStopWatch;
 import org.matsim.core.controler.events.*;
 import org.matsim.core.controler.listener.*;
 import org.matsim.core.utils.misc.ClassUtils;
@@ -45,6 +46,27 @@ public final class ControlerListenerManagerImpl implements ControlerListenerMana
         this.controler = controler;
     }
 
+	private IterationStopWatch stopWatch = null;
+
+	/**
+	 * If set, each call to a listener is measured as a span of the stop watch, named after the listener class.
+	 */
+	void setStopWatch(IterationStopWatch stopWatch) {
+		this.stopWatch = stopWatch;
+	}
+
+	private IterationStopWatch.Span span(ControlerListener listener) {
+		if (this.stopWatch == null) {
+			return null;
+		}
+		String name = listener.getClass().getSimpleName();
+		if (name.isEmpty()) {
+			name = listener.getClass().getName(); // anonymous class
+		}
+		int lambda = name.indexOf("$$Lambda");
+		return this.stopWatch.span(lambda > 0 ? name.substring(0, lambda) : name);
+	}
+
 	/** The swing event listener list to manage ControlerListeners efficiently. First list manages core listeners
 	 * which are called first when a ControlerEvent is thrown. I.e. this list contains the listeners that are
 	 * always running in a predefined order to ensure correctness.
@@ -104,13 +126,17 @@ public final class ControlerListenerManagerImpl implements ControlerListenerMana
 		Arrays.sort(listener, Comparator.comparingDouble(ControlerListener::priority).reversed());
         for (StartupListener aListener : listener) {
             log.info("calling notifyStartup on " + aListener.getClass().getName() + " with priority " + aListener.priority());
-            aListener.notifyStartup(event);
+            try (IterationStopWatch.Span span = span(aListener)) {
+                aListener.notifyStartup(event);
+            }
         }
 		listener = this.listenerList.getListeners(StartupListener.class);
 		Arrays.sort(listener, Comparator.comparingDouble(ControlerListener::priority).reversed());
         for (StartupListener aListener : listener) {
             log.info("calling notifyStartup on " + aListener.getClass().getName() + " with priority " + aListener.priority());
-            aListener.notifyStartup(event);
+            try (IterationStopWatch.Span span = span(aListener)) {
+                aListener.notifyStartup(event);
+            }
         }
 		log.info("all ControlerStartupListeners called." );
 	}
@@ -126,14 +152,18 @@ public final class ControlerListenerManagerImpl implements ControlerListenerMana
 
         for (ShutdownListener aListener : listener) {
             log.info("calling notifyShutdown on " + aListener.getClass().getName() + " with priority " + aListener.priority());
-            aListener.notifyShutdown(event);
+            try (IterationStopWatch.Span span = span(aListener)) {
+                aListener.notifyShutdown(event);
+            }
         }
         listener = this.listenerList.getListeners(ShutdownListener.class);
 		Arrays.sort(listener, Comparator.comparingDouble(ControlerListener::priority).reversed());
 
         for (ShutdownListener aListener : listener) {
             log.info("calling notifyShutdown on " + aListener.getClass().getName() + " with priority " + aListener.priority());
-            aListener.notifyShutdown(event);
+            try (IterationStopWatch.Span span = span(aListener)) {
+                aListener.notifyShutdown(event);
+            }
         }
         log.info("all ControlerShutdownListeners called.");
 	}
@@ -148,13 +178,17 @@ public final class ControlerListenerManagerImpl implements ControlerListenerMana
 		Arrays.sort(listener, Comparator.comparingDouble(ControlerListener::priority).reversed());
         for (IterationStartsListener aListener : listener) {
             log.info("calling notifyIterationStarts on " + aListener.getClass().getName() + " with priority " + aListener.priority());
-            aListener.notifyIterationStarts(event);
+            try (IterationStopWatch.Span span = span(aListener)) {
+                aListener.notifyIterationStarts(event);
+            }
         }
 		listener = this.listenerList.getListeners(IterationStartsListener.class);
 		Arrays.sort(listener, Comparator.comparingDouble(ControlerListener::priority).reversed());
         for (IterationStartsListener aListener : listener) {
             log.info("calling notifyIterationStarts on " + aListener.getClass().getName() + " with priority " + aListener.priority());
-            aListener.notifyIterationStarts(event);
+            try (IterationStopWatch.Span span = span(aListener)) {
+                aListener.notifyIterationStarts(event);
+            }
         }
 		log.info("[it." + iteration + "] all ControlerIterationStartsListeners called.");
 	}
@@ -170,7 +204,9 @@ public final class ControlerListenerManagerImpl implements ControlerListenerMana
 			Arrays.sort(listener, Comparator.comparingDouble(ControlerListener::priority).reversed());
 			for (IterationEndsListener aListener : listener) {
                 log.info("calling notifyIterationEnds on " + aListener.getClass().getName() + " with priority " + aListener.priority());
-                aListener.notifyIterationEnds(event);
+                try (IterationStopWatch.Span span = span(aListener)) {
+                    aListener.notifyIterationEnds(event);
+                }
             }
 		}
 		{
@@ -178,7 +214,9 @@ public final class ControlerListenerManagerImpl implements ControlerListenerMana
 			Arrays.sort(listener, Comparator.comparingDouble(ControlerListener::priority).reversed());
             for (IterationEndsListener aListener : listener) {
                 log.info("calling notifyIterationEnds on " + aListener.getClass().getName() + " with priority " + aListener.priority());
-                aListener.notifyIterationEnds(event);
+                try (IterationStopWatch.Span span = span(aListener)) {
+                    aListener.notifyIterationEnds(event);
+                }
             }
 		}
 		log.info("[it." + iteration + "] all ControlerIterationEndsListeners called.");
@@ -195,7 +233,9 @@ public final class ControlerListenerManagerImpl implements ControlerListenerMana
 			Arrays.sort(listener, Comparator.comparingDouble(ControlerListener::priority).reversed());
             for (ScoringListener aListener : listener) {
                 log.info("calling notifyScoring on " + aListener.getClass().getName() + " with priority " + aListener.priority());
-                aListener.notifyScoring(event);
+                try (IterationStopWatch.Span span = span(aListener)) {
+                    aListener.notifyScoring(event);
+                }
             }
 		}
 		{
@@ -203,7 +243,9 @@ public final class ControlerListenerManagerImpl implements ControlerListenerMana
 			Arrays.sort(listener, Comparator.comparingDouble(ControlerListener::priority).reversed());
             for (ScoringListener aListener : listener) {
                 log.info("calling notifyScoring on " + aListener.getClass().getName() + " with priority " + aListener.priority());
-                aListener.notifyScoring(event);
+                try (IterationStopWatch.Span span = span(aListener)) {
+                    aListener.notifyScoring(event);
+                }
             }
 		}
 		log.info("[it." + iteration + "] all ControlerScoringListeners called.");
@@ -219,13 +261,17 @@ public final class ControlerListenerManagerImpl implements ControlerListenerMana
 		Arrays.sort(listener, Comparator.comparingDouble(ControlerListener::priority).reversed());
         for (ReplanningListener aListener : listener) {
             log.info("calling notifyReplanning on " + aListener.getClass().getName() + " with priority " + aListener.priority());
-            aListener.notifyReplanning(event);
+            try (IterationStopWatch.Span span = span(aListener)) {
+                aListener.notifyReplanning(event);
+            }
         }
 		listener = this.listenerList.getListeners(ReplanningListener.class);
 		Arrays.sort(listener, Comparator.comparingDouble(ControlerListener::priority).reversed());
         for (ReplanningListener aListener : listener) {
             log.info("calling notifyReplanning on " + aListener.getClass().getName() + " with priority " + aListener.priority());
-            aListener.notifyReplanning(event);
+            try (IterationStopWatch.Span span = span(aListener)) {
+                aListener.notifyReplanning(event);
+            }
         }
 		log.info("[it." + iteration + "] all ControlerReplanningListeners called.");
 	}
@@ -240,13 +286,17 @@ public final class ControlerListenerManagerImpl implements ControlerListenerMana
 		Arrays.sort(listener, Comparator.comparingDouble(ControlerListener::priority).reversed());
         for (BeforeMobsimListener aListener : listener) {
             log.info("calling notifyBeforeMobsim on " + aListener.getClass().getName() + " with priority " + aListener.priority());
-            aListener.notifyBeforeMobsim(event);
+            try (IterationStopWatch.Span span = span(aListener)) {
+                aListener.notifyBeforeMobsim(event);
+            }
         }
 		listener = this.listenerList.getListeners(BeforeMobsimListener.class);
 		Arrays.sort(listener, Comparator.comparingDouble(ControlerListener::priority).reversed());
         for (BeforeMobsimListener aListener : listener) {
             log.info("calling notifyBeforeMobsim on " + aListener.getClass().getName() + " with priority " + aListener.priority());
-            aListener.notifyBeforeMobsim(event);
+            try (IterationStopWatch.Span span = span(aListener)) {
+                aListener.notifyBeforeMobsim(event);
+            }
         }
 		log.info("[it." + iteration + "] all ControlerBeforeMobsimListeners called.");
 	}
@@ -261,13 +311,17 @@ public final class ControlerListenerManagerImpl implements ControlerListenerMana
 		Arrays.sort(listener, Comparator.comparingDouble(ControlerListener::priority).reversed());
         for (AfterMobsimListener aListener : listener) {
             log.info("calling notifyAfterMobsim on " + aListener.getClass().getName() + " with priority " + aListener.priority());
-            aListener.notifyAfterMobsim(event);
+            try (IterationStopWatch.Span span = span(aListener)) {
+                aListener.notifyAfterMobsim(event);
+            }
         }
 		listener = this.listenerList.getListeners(AfterMobsimListener.class);
 		Arrays.sort(listener, Comparator.comparingDouble(ControlerListener::priority).reversed());
         for (AfterMobsimListener aListener : listener) {
             log.info("calling notifyAfterMobsim on " + aListener.getClass().getName() + " with priority " + aListener.priority());
-            aListener.notifyAfterMobsim(event);
+            try (IterationStopWatch.Span span = span(aListener)) {
+                aListener.notifyAfterMobsim(event);
+            }
         }
 		log.info("[it." + iteration + "] all ControlerAfterMobsimListeners called.");
 	}
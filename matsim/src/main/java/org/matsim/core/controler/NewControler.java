@@ -25,6 +25,7 @@ import org.matsim.analysis.IterationStopWatch;
 import org.matsim.core.config.Config;
 import org.matsim.core.config.consistency.ConfigConsistencyCheckerImpl;
 import org.matsim.core.config.groups.ControllerConfigGroup;
+import org.matsim.core.controler.checkpointing.Checkpointing;
 import org.matsim.core.controler.corelisteners.*;
 import org.matsim.core.controler.listener.ControlerListener;
 import org.matsim.core.mobsim.framework.Mobsim;
@@ -47,6 +48,7 @@ class NewControler extends AbstractController implements ControlerI {
 	private final PlansScoring plansScoring;
 	private final TerminationCriterion terminationCriterion;
 	private final DumpDataAtEnd dumpDataAtEnd;
+	private final Checkpointing checkpointing;
 	private final Set<ControlerListener> controlerListenersDeclaredByModules;
 	private final ControllerConfigGroup controllerConfigGroup;
 	private final OutputDirectoryHierarchy outputDirectoryHierarchy;
@@ -58,7 +60,7 @@ class NewControler extends AbstractController implements ControlerI {
 			 PlansScoring plansScoring, TerminationCriterion terminationCriterion, DumpDataAtEnd dumpDataAtEnd,
 			 Set<ControlerListener> controlerListenersDeclaredByModules, ControllerConfigGroup controllerConfigGroup,
 			 OutputDirectoryHierarchy outputDirectoryHierarchy
-			, PrepareForMobsim prepareForMobsim
+			, PrepareForMobsim prepareForMobsim, Checkpointing checkpointing
  ) {
 		super(controlerListenerManager, stopWatch, matsimServices);
 		this.config = config;
@@ -72,6 +74,7 @@ class NewControler extends AbstractController implements ControlerI {
 		this.plansScoring = plansScoring;
 		this.terminationCriterion = terminationCriterion;
 		this.dumpDataAtEnd = dumpDataAtEnd;
+		this.checkpointing = checkpointing;
 		this.controlerListenersDeclaredByModules = controlerListenersDeclaredByModules;
 		this.controllerConfigGroup = controllerConfigGroup;
 		this.outputDirectoryHierarchy = outputDirectoryHierarchy;
@@ -97,6 +100,7 @@ class NewControler extends AbstractController implements ControlerI {
 		if (controllerConfigGroup.getDumpDataAtEnd()) {
 			this.addCoreControlerListener(this.dumpDataAtEnd);
 		}
+		this.addCoreControlerListener(this.checkpointing);
 
 		this.addCoreControlerListener(this.plansScoring);
 		this.addCoreControlerListener(this.plansReplanning);
@@ -21,6 +21,27 @@
 
  package org.matsim.core.controler;
 
+import java.util.Collection;
+
+import org.matsim.api.core.v01.population.Person;
 
 public interface PrepareForMobsim extends Runnable {
+
+	/**
+	 * Called during replanning with persons whose plans will not be changed any more before the mobsim, if
+	 * {@link org.matsim.core.config.groups.ControllerConfigGroup#isPipelinedReplanning()} is set.  Implementations may start
+	 * to prepare these persons in the background; {@link #finishReplannedPersons()} then needs to wait for that.  The default
+	 * does nothing, i.e. everything is done in {@link #run()}.
+	 */
+	default void prepareReplannedPersons(Collection<? extends Person> persons) {
+	}
+
+	/**
+	 * Called at the end of replanning, after the last call of {@link #prepareReplannedPersons(Collection)}.  Background
+	 * preparation must be finished when this returns, since the before-mobsim listeners (e.g. the plans dump) read the
+	 * plans before {@link #run()} is called.
+	 */
+	default void finishReplannedPersons() {
+	}
+
 }
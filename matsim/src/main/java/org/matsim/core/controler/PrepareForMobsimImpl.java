@@ -23,25 +23,40 @@
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.matsim.api.core.v01.IdSet;
 import org.matsim.api.core.v01.Scenario;
 import org.matsim.api.core.v01.TransportMode;
 import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.population.Person;
 import org.matsim.api.core.v01.population.Population;
 import org.matsim.core.config.groups.GlobalConfigGroup;
 import org.matsim.core.network.NetworkUtils;
 import org.matsim.core.network.algorithms.TransportModeNetworkFilter;
 import org.matsim.core.population.algorithms.AbstractPersonAlgorithm;
 import org.matsim.core.population.algorithms.ParallelPersonAlgorithmUtils;
+import org.matsim.core.population.algorithms.PersonAlgorithm;
 import org.matsim.core.population.algorithms.PersonPrepareForSim;
 import org.matsim.core.router.PlanRouter;
 import org.matsim.core.router.TripRouter;
+import org.matsim.core.utils.misc.Counter;
 import org.matsim.core.utils.timing.TimeInterpretation;
 import org.matsim.facilities.ActivityFacilities;
 
 import jakarta.inject.Inject;
 import jakarta.inject.Provider;
+import jakarta.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+@Singleton // so that PlansReplanning and the controler see the same instance, see prepareReplannedPersons
 public final class PrepareForMobsimImpl implements PrepareForMobsim {
 	// I think it is ok to have this public final.  Since one may want to use it as a delegate.  kai, may'18
 	// yyyyyy but how should that work with a non-public constructor? kai, jun'18
@@ -59,6 +74,18 @@ public final class PrepareForMobsimImpl implements PrepareForMobsim {
 	private final Provider<TripRouter> tripRouterProvider;
 	private final TimeInterpretation timeInterpretation;
 
+	/*
+	 * State of the background preparation of persons passed to prepareReplannedPersons, reset in run().
+	 */
+	private static final int BACKGROUND_CHUNK_SIZE = 256;
+	private ExecutorService backgroundExecutor = null;
+	private BlockingQueue<PersonAlgorithm> backgroundAlgorithms = null;
+	private final List<Future<?>> backgroundTasks = new ArrayList<>();
+	private final IdSet<Person> preparedPersons = new IdSet<>(Person.class);
+	private Network carOnlyNetwork = null;
+	private Counter backgroundCounter = null;
+	private boolean preparedDuringReplanning = false;
+
 	@Inject
 	PrepareForMobsimImpl(GlobalConfigGroup globalConfigGroup, Scenario scenario, Network network,
 				Population population, ActivityFacilities activityFacilities, Provider<TripRouter> tripRouterProvider, TimeInterpretation timeInterpretation) {
@@ -72,8 +99,129 @@ public final class PrepareForMobsimImpl implements PrepareForMobsim {
 	}
 
 
+	@Override
+	public void prepareReplannedPersons(Collection<? extends Person> persons) {
+		if (persons.isEmpty()) {
+			return;
+		}
+		if (this.backgroundExecutor == null) {
+			int numberOfThreads = Math.max(1, globalConfigGroup.getNumberOfThreads());
+			this.carOnlyNetwork = createCarOnlyNetwork();
+			this.backgroundAlgorithms = new ArrayBlockingQueue<>(numberOfThreads);
+			for (int i = 0; i < numberOfThreads; i++) {
+				// created here, on the calling thread, like ParallelPersonAlgorithmUtils does
+				this.backgroundAlgorithms.add(createPersonPrepareForSim(this.carOnlyNetwork));
+			}
+			this.backgroundExecutor = Executors.newFixedThreadPool(numberOfThreads, runnable -> {
+				Thread thread = new Thread(runnable, "PrepareForMobsim");
+				thread.setDaemon(true);
+				return thread;
+			});
+			this.backgroundCounter = new Counter("[PersonPrepareForSim] handled person # ");
+		}
+		List<Person> chunk = new ArrayList<>(BACKGROUND_CHUNK_SIZE);
+		for (Person person : persons) {
+			this.preparedPersons.add(person.getId());
+			chunk.add(person);
+			if (chunk.size() == BACKGROUND_CHUNK_SIZE) {
+				submitChunk(chunk);
+				chunk = new ArrayList<>(BACKGROUND_CHUNK_SIZE);
+			}
+		}
+		if (!chunk.isEmpty()) {
+			submitChunk(chunk);
+		}
+	}
+
+	private void submitChunk(List<Person> chunk) {
+		this.backgroundTasks.add(this.backgroundExecutor.submit(() -> {
+			PersonAlgorithm algorithm = this.backgroundAlgorithms.take();
+			try {
+				for (Person person : chunk) {
+					algorithm.run(person);
+					this.backgroundCounter.incCounter();
+				}
+			} finally {
+				this.backgroundAlgorithms.add(algorithm);
+			}
+			return null;
+		}));
+	}
+
+	@Override
+	public void finishReplannedPersons() {
+		if (this.backgroundExecutor != null) {
+			finishBackgroundPreparation();
+			this.preparedDuringReplanning = true;
+		}
+	}
+
 	@Override
 	public void run() {
+		if (this.backgroundExecutor != null) {
+			finishBackgroundPreparation();
+			return;
+		}
+		if (this.preparedDuringReplanning) {
+			// all persons have already been prepared at the end of replanning
+			this.preparedDuringReplanning = false;
+			return;
+		}
+		final Network carOnlyNetwork = createCarOnlyNetwork();
+
+		// make sure all routes are calculated.
+		ParallelPersonAlgorithmUtils.run(population, globalConfigGroup.getNumberOfThreads(),
+				new ParallelPersonAlgorithmUtils.PersonAlgorithmProvider() {
+					@Override
+					public AbstractPersonAlgorithm getPersonAlgorithm() {
+						return createPersonPrepareForSim(carOnlyNetwork);
+					}
+					// yyyyyy This prepared network is only used for computing the distance.  So the full network would
+					// actually be better than the car-only network, without doing damage elsewhere.  No?  kai, jul'18
+				}
+		);
+
+		// yy Could now set the vehicle IDs in the routes.  But can as well also do this later (currently in PopulationAgentSource).  kai, jun'18
+
+	}
+
+	/**
+	 * Prepares the persons that were not passed to {@link #prepareReplannedPersons(Collection)}, and waits until all are done.
+	 */
+	private void finishBackgroundPreparation() {
+		List<Person> remaining = new ArrayList<>();
+		for (Person person : population.getPersons().values()) {
+			if (!this.preparedPersons.contains(person.getId())) {
+				remaining.add(person);
+			}
+		}
+		log.info("prepared " + this.preparedPersons.size() + " persons during replanning, preparing the remaining " + remaining.size() + " persons.");
+		prepareReplannedPersons(remaining);
+		try {
+			for (Future<?> task : this.backgroundTasks) {
+				task.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException("Exception while preparing persons for the mobsim.", e.getCause());
+		} finally {
+			this.backgroundExecutor.shutdownNow();
+			this.backgroundExecutor = null;
+			this.backgroundAlgorithms = null;
+			this.backgroundTasks.clear();
+			this.preparedPersons.clear();
+			this.carOnlyNetwork = null;
+		}
+		this.backgroundCounter.printCounter();
+	}
+
+	private PersonPrepareForSim createPersonPrepareForSim(Network carOnlyNetwork) {
+		return new PersonPrepareForSim(new PlanRouter(tripRouterProvider.get(), activityFacilities, timeInterpretation), scenario, carOnlyNetwork);
+	}
+
+	private Network createCarOnlyNetwork() {
 		/*
 		 * Create single-mode network here and hand it over to PersonPrepareForSim. Otherwise, each instance would create its
 		 * own single-mode network. However, this assumes that the main mode is car - which PersonPrepareForSim also does. Should
@@ -92,22 +240,7 @@ public final class PrepareForMobsimImpl implements PrepareForMobsim {
 		} else {
 			carOnlyNetwork = network;
 		}
-
-		// make sure all routes are calculated.
-		ParallelPersonAlgorithmUtils.run(population, globalConfigGroup.getNumberOfThreads(),
-				new ParallelPersonAlgorithmUtils.PersonAlgorithmProvider() {
-					@Override
-					public AbstractPersonAlgorithm getPersonAlgorithm() {
-						return new PersonPrepareForSim(new PlanRouter(tripRouterProvider.get(), activityFacilities, timeInterpretation), scenario,
-								carOnlyNetwork );
-					}
-					// yyyyyy This prepared network is only used for computing the distance.  So the full network would
-					// actually be better than the car-only network, without doing damage elsewhere.  No?  kai, jul'18
-				}
-		);
-
-		// yy Could now set the vehicle IDs in the routes.  But can as well also do this later (currently in PopulationAgentSource).  kai, jun'18
-
+		return carOnlyNetwork;
 	}
 
 }
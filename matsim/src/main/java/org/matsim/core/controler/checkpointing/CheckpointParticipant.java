@@ -0,0 +1,46 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * CheckpointParticipant.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.controler.checkpointing;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Contributes a piece of iteration state to a checkpoint, see {@link org.matsim.core.config.groups.ControllerConfigGroup#getWriteCheckpointsInterval()}.
+ * <p></p>
+ * Participants are bound via {@link org.matsim.core.controler.AbstractModule#addCheckpointParticipantBinding()}.  {@link #writeCheckpoint(DataOutput)}
+ * is called on the controler thread at the end of an iteration and should only copy state; the actual file writing is done in the background.
+ * {@link #readCheckpoint(DataInput)} is called during startup when a run is resumed, i.e. <i>before</i> the startup listeners
+ * of other modules have been called.
+ */
+public interface CheckpointParticipant {
+
+	/**
+	 * @return a name that is unique among all participants, used to identify the participant's data in the checkpoint.
+	 */
+	String getCheckpointName();
+
+	void writeCheckpoint(DataOutput out) throws IOException;
+
+	void readCheckpoint(DataInput in) throws IOException;
+
+}
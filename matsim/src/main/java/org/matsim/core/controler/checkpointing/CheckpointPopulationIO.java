@@ -0,0 +1,350 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * CheckpointPopulationIO.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.controler.checkpointing;
+
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.population.Activity;
+import org.matsim.api.core.v01.population.Leg;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.api.core.v01.population.Plan;
+import org.matsim.api.core.v01.population.PlanElement;
+import org.matsim.api.core.v01.population.Population;
+import org.matsim.api.core.v01.population.PopulationFactory;
+import org.matsim.api.core.v01.population.Route;
+import org.matsim.core.population.routes.NetworkRoute;
+import org.matsim.core.router.StageActivityTypeIdentifier;
+import org.matsim.core.utils.io.IOUtils;
+import org.matsim.core.utils.misc.OptionalTime;
+import org.matsim.facilities.ActivityFacility;
+import org.matsim.utils.objectattributes.AttributeConverter;
+import org.matsim.utils.objectattributes.ObjectAttributesConverter;
+import org.matsim.utils.objectattributes.attributable.Attributes;
+import org.matsim.vehicles.Vehicle;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lossless binary format for the plans of a checkpoint.  The xml population format writes times with a resolution of
+ * one second, which is not enough to continue a run exactly where it stopped; this format keeps all doubles as they are.
+ * Attribute values are stored as strings using the same {@link AttributeConverter}s as the xml format.
+ */
+final class CheckpointPopulationIO {
+
+	private static final int MAGIC = 0x4d434b50; // "MCKP"
+	private static final int VERSION = 1;
+
+	private static final byte ACTIVITY = 0;
+	private static final byte LEG = 1;
+
+	private CheckpointPopulationIO() {
+	}
+
+	static void write(Population population, String filename, Map<Class<?>, AttributeConverter<?>> attributeConverters) {
+		ObjectAttributesConverter converter = new ObjectAttributesConverter();
+		converter.putAttributeConverters(attributeConverters);
+		try (DataOutputStream out = new DataOutputStream(IOUtils.getOutputStream(IOUtils.getFileUrl(filename), false))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			writeAttributes(out, population.getAttributes(), converter);
+			out.writeInt(population.getPersons().size());
+			for (Person person : population.getPersons().values()) {
+				writeString(out, person.getId().toString());
+				writeAttributes(out, person.getAttributes(), converter);
+				out.writeInt(person.getPlans().size());
+				for (Plan plan : person.getPlans()) {
+					writePlan(out, plan, plan == person.getSelectedPlan(), converter);
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Reads the persons of a checkpoint and adds them to the given (empty) population.
+	 */
+	static void read(Population population, String filename, Map<Class<?>, AttributeConverter<?>> attributeConverters) {
+		ObjectAttributesConverter converter = new ObjectAttributesConverter();
+		converter.putAttributeConverters(attributeConverters);
+		PopulationFactory factory = population.getFactory();
+		try (DataInputStream in = new DataInputStream(IOUtils.getInputStream(IOUtils.getFileUrl(filename)))) {
+			if (in.readInt() != MAGIC) {
+				throw new RuntimeException(filename + " is not a checkpoint plans file.");
+			}
+			int version = in.readInt();
+			if (version != VERSION) {
+				throw new RuntimeException("Unsupported checkpoint version " + version + " in " + filename + ", expected " + VERSION + ".");
+			}
+			readAttributes(in, population.getAttributes(), converter);
+			int personCount = in.readInt();
+			for (int i = 0; i < personCount; i++) {
+				Person person = factory.createPerson(Id.createPersonId(readString(in)));
+				readAttributes(in, person.getAttributes(), converter);
+				int planCount = in.readInt();
+				for (int j = 0; j < planCount; j++) {
+					Plan plan = factory.createPlan();
+					boolean selected = readPlan(in, plan, factory, converter);
+					person.addPlan(plan);
+					if (selected) {
+						person.setSelectedPlan(plan);
+					}
+				}
+				population.addPerson(person);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static void writePlan(DataOutputStream out, Plan plan, boolean selected, ObjectAttributesConverter converter) throws IOException {
+		out.writeBoolean(selected);
+		writeNullableDouble(out, plan.getScore());
+		writeString(out, plan.getType());
+		writeAttributes(out, plan.getAttributes(), converter);
+		out.writeInt(plan.getPlanElements().size());
+		for (PlanElement pe : plan.getPlanElements()) {
+			if (pe instanceof Activity act) {
+				out.writeByte(ACTIVITY);
+				writeActivity(out, act, converter);
+			} else if (pe instanceof Leg leg) {
+				out.writeByte(LEG);
+				writeLeg(out, leg, converter);
+			} else {
+				throw new RuntimeException("Unsupported plan element " + pe.getClass().getName());
+			}
+		}
+	}
+
+	private static boolean readPlan(DataInputStream in, Plan plan, PopulationFactory factory, ObjectAttributesConverter converter) throws IOException {
+		boolean selected = in.readBoolean();
+		plan.setScore(readNullableDouble(in));
+		plan.setType(readString(in));
+		readAttributes(in, plan.getAttributes(), converter);
+		int elementCount = in.readInt();
+		for (int i = 0; i < elementCount; i++) {
+			byte kind = in.readByte();
+			if (kind == ACTIVITY) {
+				plan.addActivity(readActivity(in, factory, converter));
+			} else if (kind == LEG) {
+				plan.addLeg(readLeg(in, factory, converter));
+			} else {
+				throw new RuntimeException("Corrupt checkpoint: unknown plan element " + kind);
+			}
+		}
+		return selected;
+	}
+
+	private static void writeActivity(DataOutputStream out, Activity act, ObjectAttributesConverter converter) throws IOException {
+		writeString(out, act.getType());
+		writeId(out, act.getLinkId());
+		writeId(out, act.getFacilityId());
+		Coord coord = act.getCoord();
+		out.writeBoolean(coord != null);
+		if (coord != null) {
+			out.writeDouble(coord.getX());
+			out.writeDouble(coord.getY());
+			out.writeBoolean(coord.hasZ());
+			if (coord.hasZ()) {
+				out.writeDouble(coord.getZ());
+			}
+		}
+		writeTime(out, act.getStartTime());
+		writeTime(out, act.getEndTime());
+		writeTime(out, act.getMaximumDuration());
+		writeAttributes(out, act.getAttributes(), converter);
+	}
+
+	private static Activity readActivity(DataInputStream in, PopulationFactory factory, ObjectAttributesConverter converter) throws IOException {
+		String type = readString(in);
+		Id<Link> linkId = readId(in, Link.class);
+		Id<ActivityFacility> facilityId = readId(in, ActivityFacility.class);
+		Coord coord = null;
+		if (in.readBoolean()) {
+			double x = in.readDouble();
+			double y = in.readDouble();
+			coord = in.readBoolean() ? new Coord(x, y, in.readDouble()) : new Coord(x, y);
+		}
+		OptionalTime startTime = readTime(in);
+		OptionalTime endTime = readTime(in);
+		OptionalTime duration = readTime(in);
+
+		// same decision as in the xml reader: only use the compact interaction activity if the times match its assumptions
+		boolean interaction = StageActivityTypeIdentifier.isStageActivity(type) && startTime.isUndefined() && endTime.isUndefined()
+				&& duration.isDefined() && duration.seconds() == 0.0;
+		Activity act = interaction ? factory.createInteractionActivityFromLinkId(type, linkId) : factory.createActivityFromLinkId(type, linkId);
+		act.setFacilityId(facilityId);
+		act.setCoord(coord);
+		if (!interaction) {
+			startTime.ifDefinedOrElse(act::setStartTime, act::setStartTimeUndefined);
+			endTime.ifDefinedOrElse(act::setEndTime, act::setEndTimeUndefined);
+			duration.ifDefinedOrElse(act::setMaximumDuration, act::setMaximumDurationUndefined);
+		}
+		readAttributes(in, act.getAttributes(), converter);
+		return act;
+	}
+
+	private static void writeLeg(DataOutputStream out, Leg leg, ObjectAttributesConverter converter) throws IOException {
+		writeString(out, leg.getMode());
+		writeString(out, leg.getRoutingMode());
+		writeTime(out, leg.getDepartureTime());
+		writeTime(out, leg.getTravelTime());
+		writeAttributes(out, leg.getAttributes(), converter);
+		Route route = leg.getRoute();
+		out.writeBoolean(route != null);
+		if (route != null) {
+			writeString(out, route.getRouteType());
+			writeId(out, route.getStartLinkId());
+			writeId(out, route.getEndLinkId());
+			writeTime(out, route.getTravelTime());
+			out.writeDouble(route.getDistance());
+			writeString(out, route.getRouteDescription());
+			if (route instanceof NetworkRoute networkRoute) {
+				writeId(out, networkRoute.getVehicleId());
+			}
+		}
+	}
+
+	private static Leg readLeg(DataInputStream in, PopulationFactory factory, ObjectAttributesConverter converter) throws IOException {
+		Leg leg = factory.createLeg(readString(in));
+		leg.setRoutingMode(readString(in));
+		readTime(in).ifDefinedOrElse(leg::setDepartureTime, leg::setDepartureTimeUndefined);
+		readTime(in).ifDefinedOrElse(leg::setTravelTime, leg::setTravelTimeUndefined);
+		readAttributes(in, leg.getAttributes(), converter);
+		if (in.readBoolean()) {
+			String routeType = readString(in);
+			Id<Link> startLinkId = readId(in, Link.class);
+			Id<Link> endLinkId = readId(in, Link.class);
+			Class<? extends Route> routeClass = factory.getRouteFactories().getRouteClassForType(routeType);
+			Route route = factory.getRouteFactories().createRoute(routeClass, startLinkId, endLinkId);
+			OptionalTime travelTime = readTime(in);
+			double distance = in.readDouble();
+			String description = readString(in);
+			if (description != null) {
+				route.setRouteDescription(description);
+			}
+			// set after the description, some routes derive these values from it
+			travelTime.ifDefinedOrElse(route::setTravelTime, route::setTravelTimeUndefined);
+			route.setDistance(distance);
+			if (route instanceof NetworkRoute networkRoute) {
+				networkRoute.setVehicleId(readId(in, Vehicle.class));
+			}
+			leg.setRoute(route);
+		}
+		return leg;
+	}
+
+	private static void writeAttributes(DataOutputStream out, Attributes attributes, ObjectAttributesConverter converter) throws IOException {
+		List<String[]> entries = new ArrayList<>(attributes.size());
+		for (Map.Entry<String, Object> e : attributes.getAsMap().entrySet()) {
+			if (e.getValue() == null) {
+				continue;
+			}
+			String value = converter.convertToString(e.getValue());
+			// like the xml writer, attributes without converter are not written
+			if (value != null) {
+				entries.add(new String[]{e.getKey(), e.getValue().getClass().getName(), value});
+			}
+		}
+		out.writeInt(entries.size());
+		for (String[] entry : entries) {
+			writeString(out, entry[0]);
+			writeString(out, entry[1]);
+			writeString(out, entry[2]);
+		}
+	}
+
+	private static void readAttributes(DataInputStream in, Attributes attributes, ObjectAttributesConverter converter) throws IOException {
+		int count = in.readInt();
+		for (int i = 0; i < count; i++) {
+			String name = readString(in);
+			String className = readString(in);
+			Object value = converter.convert(className, readString(in));
+			if (value != null) {
+				attributes.putAttribute(name, value);
+			}
+		}
+	}
+
+	private static void writeTime(DataOutputStream out, OptionalTime time) throws IOException {
+		out.writeBoolean(time.isDefined());
+		if (time.isDefined()) {
+			out.writeDouble(time.seconds());
+		}
+	}
+
+	private static OptionalTime readTime(DataInputStream in) throws IOException {
+		return in.readBoolean() ? OptionalTime.defined(in.readDouble()) : OptionalTime.undefined();
+	}
+
+	private static void writeNullableDouble(DataOutputStream out, Double value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeDouble(value);
+		}
+	}
+
+	private static Double readNullableDouble(DataInputStream in) throws IOException {
+		return in.readBoolean() ? in.readDouble() : null;
+	}
+
+	private static void writeId(DataOutputStream out, Id<?> id) throws IOException {
+		writeString(out, id == null ? null : id.toString());
+	}
+
+	private static <T> Id<T> readId(DataInputStream in, Class<T> type) throws IOException {
+		String id = readString(in);
+		return id == null ? null : Id.create(id, type);
+	}
+
+	/**
+	 * Strings are written as length-prefixed UTF-8, since {@link DataOutputStream#writeUTF(String)} is limited to 64k bytes,
+	 * which long route descriptions can exceed.
+	 */
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		if (s == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,125 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * CheckpointUtils.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.controler.checkpointing;
+
+import org.matsim.core.utils.io.IOUtils;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Layout and binary format of checkpoints.  A checkpoint is a directory <code>checkpoint/it.N</code> in the output directory,
+ * containing the plans of all persons (with scores, in a lossless binary format) and a binary state file with the data of all {@link CheckpointParticipant}s.
+ * The state file consists of a header (magic number, format version, iteration, random seed) followed by one length-prefixed
+ * block per participant.
+ */
+public final class CheckpointUtils {
+
+	public static final String CHECKPOINT_DIRECTORY = "checkpoint";
+	static final String PLANS_FILE = "checkpoint_plans.bin.gz";
+	static final String STATE_FILE = "checkpoint_state.bin.gz";
+
+	private static final int MAGIC = 0x4d434b50; // "MCKP"
+	private static final int VERSION = 1;
+
+	private CheckpointUtils() {
+	}
+
+	public static String getCheckpointDirectory(String outputPath, int iteration) {
+		return outputPath + "/" + CHECKPOINT_DIRECTORY + "/it." + iteration;
+	}
+
+	public static String getPlansFilename(String checkpointDirectory) {
+		return checkpointDirectory + "/" + PLANS_FILE;
+	}
+
+	public static String getStateFilename(String checkpointDirectory) {
+		return checkpointDirectory + "/" + STATE_FILE;
+	}
+
+	/**
+	 * @return the iteration at the end of which the checkpoint was written.
+	 */
+	public static int readIteration(String checkpointDirectory) {
+		return readState(checkpointDirectory).iteration;
+	}
+
+	static CheckpointState readState(String checkpointDirectory) {
+		String filename = getStateFilename(checkpointDirectory);
+		if (!new File(filename).exists()) {
+			throw new RuntimeException("No checkpoint found in " + checkpointDirectory + ", file " + STATE_FILE + " is missing.");
+		}
+		try (DataInputStream in = new DataInputStream(IOUtils.getInputStream(IOUtils.getFileUrl(filename)))) {
+			if (in.readInt() != MAGIC) {
+				throw new RuntimeException(filename + " is not a checkpoint state file.");
+			}
+			int version = in.readInt();
+			if (version != VERSION) {
+				throw new RuntimeException("Unsupported checkpoint version " + version + " in " + filename + ", expected " + VERSION + ".");
+			}
+			CheckpointState state = new CheckpointState(in.readInt(), in.readLong());
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				String name = in.readUTF();
+				byte[] data = new byte[in.readInt()];
+				in.readFully(data);
+				state.data.put(name, data);
+			}
+			return state;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	static void writeState(String filename, CheckpointState state) {
+		try (DataOutputStream out = new DataOutputStream(IOUtils.getOutputStream(IOUtils.getFileUrl(filename), false))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(state.iteration);
+			out.writeLong(state.randomSeed);
+			out.writeInt(state.data.size());
+			for (Map.Entry<String, byte[]> e : state.data.entrySet()) {
+				out.writeUTF(e.getKey());
+				out.writeInt(e.getValue().length);
+				out.write(e.getValue());
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	static final class CheckpointState {
+		final int iteration;
+		final long randomSeed;
+		final Map<String, byte[]> data = new LinkedHashMap<>();
+
+		CheckpointState(int iteration, long randomSeed) {
+			this.iteration = iteration;
+			this.randomSeed = randomSeed;
+		}
+	}
+
+}
@@ -0,0 +1,231 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * CheckpointingImpl.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.controler.checkpointing;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.analysis.IterationStopWatch;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.api.core.v01.population.Population;
+import org.matsim.core.config.Config;
+import org.matsim.core.config.groups.ControllerConfigGroup;
+import org.matsim.core.controler.OutputDirectoryHierarchy;
+import org.matsim.core.controler.checkpointing.CheckpointUtils.CheckpointState;
+import org.matsim.core.controler.events.IterationEndsEvent;
+import org.matsim.core.controler.events.ShutdownEvent;
+import org.matsim.core.controler.events.StartupEvent;
+import org.matsim.core.controler.listener.IterationEndsListener;
+import org.matsim.core.controler.listener.ShutdownListener;
+import org.matsim.core.controler.listener.StartupListener;
+import org.matsim.core.population.PopulationUtils;
+import org.matsim.core.utils.io.IOUtils;
+import org.matsim.utils.objectattributes.AttributeConverter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes a checkpoint at the end of every {@link ControllerConfigGroup#getWriteCheckpointsInterval()}-th iteration and restores
+ * it during startup if {@link ControllerConfigGroup#getResumeFromCheckpoint()} is set.
+ * <p></p>
+ * The state is collected on the controler thread (participants serialize into memory, the population is copied), the files are then
+ * written by a background thread while the next iteration runs.  The checkpoint is first written to a temporary directory which
+ * is renamed once complete, so an interrupted run never leaves a partial checkpoint behind.  Random numbers need not be stored,
+ * as {@link org.matsim.core.gbl.MatsimRandom} is re-seeded with seed and iteration number at the start of every iteration.
+ */
+@Singleton
+final class CheckpointingImpl implements Checkpointing, StartupListener, IterationEndsListener, ShutdownListener {
+
+	private static final Logger log = LogManager.getLogger(CheckpointingImpl.class);
+
+	private final Config config;
+	private final ControllerConfigGroup controllerConfigGroup;
+	private final Network network;
+	private final Population population;
+	private final OutputDirectoryHierarchy controlerIO;
+	private final IterationStopWatch stopwatch;
+	private final Set<CheckpointParticipant> participants;
+
+	@Inject(optional = true)
+	private Map<Class<?>, AttributeConverter<?>> attributeConverters = Collections.emptyMap();
+
+	private Thread writerThread = null;
+	private volatile Throwable writeFailure = null;
+	private String lastCheckpointDirectory = null;
+
+	@Inject
+	CheckpointingImpl(Config config, ControllerConfigGroup controllerConfigGroup, Network network, Population population,
+					  OutputDirectoryHierarchy controlerIO, IterationStopWatch stopwatch, Set<CheckpointParticipant> participants) {
+		this.config = config;
+		this.controllerConfigGroup = controllerConfigGroup;
+		this.network = network;
+		this.population = population;
+		this.controlerIO = controlerIO;
+		this.stopwatch = stopwatch;
+		this.participants = participants;
+	}
+
+	@Override
+	public void notifyStartup(StartupEvent event) {
+		String checkpointDirectory = this.controllerConfigGroup.getResumeFromCheckpoint();
+		if (checkpointDirectory != null) {
+			restore(checkpointDirectory);
+		}
+	}
+
+	@Override
+	public void notifyIterationEnds(IterationEndsEvent event) {
+		int interval = this.controllerConfigGroup.getWriteCheckpointsInterval();
+		if (interval > 0 && event.getIteration() % interval == 0) {
+			writeCheckpoint(event.getIteration());
+		}
+	}
+
+	@Override
+	public void notifyShutdown(ShutdownEvent event) {
+		waitForPendingWrite();
+	}
+
+	private void restore(String checkpointDirectory) {
+		log.info("resuming from checkpoint " + checkpointDirectory);
+		CheckpointState state = CheckpointUtils.readState(checkpointDirectory);
+		if (state.randomSeed != this.config.global().getRandomSeed()) {
+			log.warn("the checkpoint was written with random seed " + state.randomSeed + ", but the current seed is " + this.config.global().getRandomSeed()
+					+ ". The resumed run will not reproduce the original one.");
+		}
+
+		Population checkpointPopulation = PopulationUtils.createPopulation(this.config, this.network);
+		CheckpointPopulationIO.read(checkpointPopulation, CheckpointUtils.getPlansFilename(checkpointDirectory), this.attributeConverters);
+
+		for (Id<Person> personId : new ArrayList<>(this.population.getPersons().keySet())) {
+			this.population.removePerson(personId);
+		}
+		for (Person person : checkpointPopulation.getPersons().values()) {
+			this.population.addPerson(person);
+		}
+		log.info("restored " + this.population.getPersons().size() + " persons from checkpoint.");
+
+		for (CheckpointParticipant participant : this.participants) {
+			byte[] data = state.data.remove(participant.getCheckpointName());
+			if (data == null) {
+				log.warn("checkpoint contains no data for " + participant.getCheckpointName() + ", keeping its initial state.");
+				continue;
+			}
+			try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+				participant.readCheckpoint(in);
+			} catch (IOException e) {
+				throw new UncheckedIOException("could not restore " + participant.getCheckpointName() + " from checkpoint", e);
+			}
+		}
+		for (String name : state.data.keySet()) {
+			log.warn("checkpoint contains data for " + name + ", but there is no participant with that name. Data will be ignored.");
+		}
+	}
+
+	private void writeCheckpoint(int iteration) {
+		waitForPendingWrite();
+
+		this.stopwatch.beginOperation("collect checkpoint data");
+		CheckpointState state = new CheckpointState(iteration, this.config.global().getRandomSeed());
+		for (CheckpointParticipant participant : this.participants) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try (DataOutputStream out = new DataOutputStream(bytes)) {
+				participant.writeCheckpoint(out);
+			} catch (IOException e) {
+				throw new UncheckedIOException("could not collect checkpoint data of " + participant.getCheckpointName(), e);
+			}
+			if (state.data.put(participant.getCheckpointName(), bytes.toByteArray()) != null) {
+				throw new RuntimeException("there is more than one checkpoint participant with name " + participant.getCheckpointName());
+			}
+		}
+		Population snapshot = PopulationUtils.copyPopulation(this.population);
+		this.stopwatch.endOperation("collect checkpoint data");
+
+		String checkpointDirectory = CheckpointUtils.getCheckpointDirectory(this.controlerIO.getOutputPath(), iteration);
+		this.writerThread = new Thread(() -> write(checkpointDirectory, state, snapshot), "CheckpointWriter");
+		this.writerThread.setDaemon(true);
+		this.writerThread.start();
+	}
+
+	private void write(String checkpointDirectory, CheckpointState state, Population snapshot) {
+		try {
+			String tmpDirectory = checkpointDirectory + ".tmp";
+			Path tmpPath = Paths.get(tmpDirectory);
+			if (Files.exists(tmpPath)) {
+				IOUtils.deleteDirectoryRecursively(tmpPath);
+			}
+			Files.createDirectories(tmpPath);
+
+			CheckpointPopulationIO.write(snapshot, CheckpointUtils.getPlansFilename(tmpDirectory), this.attributeConverters);
+			CheckpointUtils.writeState(CheckpointUtils.getStateFilename(tmpDirectory), state);
+
+			Path checkpointPath = Paths.get(checkpointDirectory);
+			if (Files.exists(checkpointPath)) {
+				IOUtils.deleteDirectoryRecursively(checkpointPath);
+			}
+			Files.move(tmpPath, checkpointPath);
+
+			if (this.lastCheckpointDirectory != null && !this.lastCheckpointDirectory.equals(checkpointDirectory)
+					&& new File(this.lastCheckpointDirectory).exists()) {
+				IOUtils.deleteDirectoryRecursively(Paths.get(this.lastCheckpointDirectory));
+			}
+			this.lastCheckpointDirectory = checkpointDirectory;
+			log.info("checkpoint of iteration " + state.iteration + " written to " + checkpointDirectory);
+		} catch (Throwable t) {
+			this.writeFailure = t;
+		}
+	}
+
+	private void waitForPendingWrite() {
+		if (this.writerThread == null) {
+			return;
+		}
+		try {
+			this.writerThread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			log.error("interrupted while waiting for checkpoint to be written.");
+		}
+		this.writerThread = null;
+		if (this.writeFailure != null) {
+			// a failing checkpoint should not take down the run itself.
+			log.error("checkpoint could not be written.", this.writeFailure);
+			this.writeFailure = null;
+		}
+	}
+
+}
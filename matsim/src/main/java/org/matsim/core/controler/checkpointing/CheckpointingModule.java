@@ -0,0 +1,35 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * CheckpointingModule.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.controler.checkpointing;
+
+import org.matsim.core.controler.AbstractModule;
+
+/**
+ * Binds the default {@link Checkpointing} implementation.  Checkpoint data is contributed by {@link CheckpointParticipant}s,
+ * which are bound by the modules owning the respective state.
+ */
+public final class CheckpointingModule extends AbstractModule {
+
+	@Override
+	public void install() {
+		bind(Checkpointing.class).to(CheckpointingImpl.class);
+	}
+}
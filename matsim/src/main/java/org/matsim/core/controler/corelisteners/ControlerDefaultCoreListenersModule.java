@@ -20,6 +20,7 @@
 package org.matsim.core.controler.corelisteners;
 
 import org.matsim.core.controler.AbstractModule;
+import org.matsim.core.controler.checkpointing.CheckpointingModule;
 import org.matsim.core.scoring.PlansScoringModule;
 
 /**
@@ -39,6 +40,7 @@ public class ControlerDefaultCoreListenersModule extends AbstractModule {
 		bind( PlansDumping.class ).to( PlansDumpingImpl.class );
 		bind( EventsHandling.class ).to( EventsHandlingImpl.class );
 		bind( DumpDataAtEnd.class ).to( DumpDataAtEndImpl.class );
+		install(new CheckpointingModule());
 	}
 }
 
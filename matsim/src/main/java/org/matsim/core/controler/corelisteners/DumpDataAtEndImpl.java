@@ -39,6 +39,7 @@ import org.matsim.core.controler.listener.ShutdownListener;
 import org.matsim.core.network.NetworkUtils;
 import org.matsim.core.network.io.NetworkChangeEventsWriter;
 import org.matsim.core.network.io.NetworkWriter;
+import org.matsim.core.population.io.ChunkedPopulationWriter;
 import org.matsim.core.utils.geometry.CoordinateTransformation;
 import org.matsim.core.utils.geometry.transformations.TransformationFactory;
 import org.matsim.core.utils.io.IOUtils;
@@ -60,6 +61,7 @@ import org.matsim.vehicles.Vehicles;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Singleton
 final class DumpDataAtEndImpl implements DumpDataAtEnd, ShutdownListener {
@@ -116,7 +118,14 @@ final class DumpDataAtEndImpl implements DumpDataAtEnd, ShutdownListener {
 		if ( event.isUnexpected() ) {
 			return ;
 		}
-		dumpPlans();
+		// with asynchronous plans writing, the (usually largest) plans file is written while the other files are dumped
+		CompletableFuture<Void> plansDump;
+		if (this.controllerConfigGroup.isWritePlansAsynchronously()) {
+			plansDump = CompletableFuture.runAsync(this::dumpPlans);
+		} else {
+			dumpPlans();
+			plansDump = CompletableFuture.completedFuture(null);
+		}
 		dumpNetwork();
 		dumpConfig();
 		dumpFacilities();
@@ -136,6 +145,7 @@ final class DumpDataAtEndImpl implements DumpDataAtEnd, ShutdownListener {
         dumpOutputLegs(event.getIteration());
 		dumpOutputActivities(event.getIteration());
 		dumpExperiencedPlans(event.getIteration());
+		plansDump.join();
 
 		if (controllerConfigGroup.getCleanItersAtEnd() == ControllerConfigGroup.CleanIterations.delete) {
 			this.controlerIO.deleteIterationDirectory();
@@ -318,6 +328,12 @@ final class DumpDataAtEndImpl implements DumpDataAtEnd, ShutdownListener {
 	private void dumpPlans() {
 		// dump plans
 
+		if (this.controllerConfigGroup.isWritePlansAsynchronously()) {
+			final ChunkedPopulationWriter writer = new ChunkedPopulationWriter(this.population, this.config.global().getNumberOfThreads());
+			writer.putAttributeConverters(this.attributeConverters);
+			writer.write(this.controlerIO.getOutputFilename(Controler.DefaultFiles.population));
+			return;
+		}
 		final PopulationWriter writer = new PopulationWriter(this.population, this.network);
 		writer.putAttributeConverters(this.attributeConverters);
 		writer.write(this.controlerIO.getOutputFilename(Controler.DefaultFiles.population));
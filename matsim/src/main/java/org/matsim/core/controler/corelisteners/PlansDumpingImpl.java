@@ -31,11 +31,20 @@ import org.matsim.core.config.groups.ControllerConfigGroup;
 import org.matsim.core.controler.Controler;
 import org.matsim.core.controler.OutputDirectoryHierarchy;
 import org.matsim.core.controler.events.BeforeMobsimEvent;
+import org.matsim.core.controler.events.ShutdownEvent;
 import org.matsim.core.controler.listener.BeforeMobsimListener;
+import org.matsim.core.controler.listener.ShutdownListener;
+import org.matsim.core.population.PopulationUtils;
+import org.matsim.core.population.io.ChunkedPopulationWriter;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import org.matsim.core.utils.geometry.CoordinateTransformation;
+import org.matsim.core.utils.geometry.transformations.IdentityTransformation;
 import org.matsim.core.utils.geometry.transformations.TransformationFactory;
 
 /**
@@ -48,7 +57,7 @@ import org.matsim.core.utils.geometry.transformations.TransformationFactory;
  * @author mrieser
  */
 @Singleton
-final class PlansDumpingImpl implements PlansDumping, BeforeMobsimListener {
+final class PlansDumpingImpl implements PlansDumping, BeforeMobsimListener, ShutdownListener {
 
 	static final private Logger log = LogManager.getLogger(PlansDumpingImpl.class);
 
@@ -61,10 +70,14 @@ final class PlansDumpingImpl implements PlansDumping, BeforeMobsimListener {
 
 	private int writeMoreUntilIteration;
 
+	private final boolean writeAsynchronously;
+	private Future<?> pendingDump = null;
+
 	@Inject
 	PlansDumpingImpl(ControllerConfigGroup config) {
 		this.writePlansInterval = config.getWritePlansInterval();
 		this.writeMoreUntilIteration = config.getWritePlansUntilIteration() ;
+		this.writeAsynchronously = config.isWritePlansAsynchronously();
 	}
 
 	@Override
@@ -77,23 +90,75 @@ final class PlansDumpingImpl implements PlansDumping, BeforeMobsimListener {
 			log.info("dumping plans...");
 			final String inputCRS = config.plans().getInputCRS();
 			final String internalCRS = config.global().getCoordinateSystem();
+			final String filename = controlerIO.getIterationFilename(event.getIteration(), Controler.DefaultFiles.population);
 
-			if ( inputCRS == null ) {
-				new PopulationWriter(population, network).write(controlerIO.getIterationFilename(event.getIteration(), Controler.DefaultFiles.population));
+			if ( writeAsynchronously ) {
+				final CoordinateTransformation transformation = inputCRS == null ? new IdentityTransformation() :
+						TransformationFactory.getCoordinateTransformation(internalCRS, inputCRS);
+				dumpInBackground(transformation, filename);
+				log.info("copied plans, writing them in the background.");
 			}
 			else {
-				log.info( "re-projecting population from "+internalCRS+" back to "+inputCRS+" for export" );
+				if ( inputCRS == null ) {
+					new PopulationWriter(population, network).write(filename);
+				}
+				else {
+					log.info( "re-projecting population from "+internalCRS+" back to "+inputCRS+" for export" );
 
-				final CoordinateTransformation transformation =
-						TransformationFactory.getCoordinateTransformation(
-								internalCRS,
-								inputCRS );
+					final CoordinateTransformation transformation =
+							TransformationFactory.getCoordinateTransformation(
+									internalCRS,
+									inputCRS );
 
-				new PopulationWriter(transformation, population, network).write(controlerIO.getIterationFilename(event.getIteration(), Controler.DefaultFiles.population));
+					new PopulationWriter(transformation, population, network).write(filename);
+				}
+				log.info("finished plans dump.");
 			}
-			log.info("finished plans dump.");
 			stopwatch.endOperation("dump all plans");
 		}
 	}
 
+	@Override
+	public void notifyShutdown(final ShutdownEvent event) {
+		waitForPendingDump();
+	}
+
+	/**
+	 * Only the copy of the population is taken synchronously, and measured as "dump all plans"; serialising and writing happens on
+	 * a separate thread while the mobsim runs, and is measured as the span "write plans in background". At most one dump is pending
+	 * at any time. If writing fails, the failure is thrown at the next dump or at shutdown.
+	 */
+	private void dumpInBackground(final CoordinateTransformation transformation, final String filename) {
+		waitForPendingDump();
+		final Population snapshot = PopulationUtils.copyPopulation(population);
+		final int numberOfThreads = config.global().getNumberOfThreads();
+		FutureTask<Void> dump = new FutureTask<>(() -> {
+			try (IterationStopWatch.Span span = stopwatch.span("write plans in background")) {
+				long start = System.currentTimeMillis();
+				new ChunkedPopulationWriter(transformation, snapshot, numberOfThreads).write(filename);
+				log.info("finished background plans dump to " + filename + " after " + (System.currentTimeMillis() - start) / 1000. + " s.");
+			}
+			return null;
+		});
+		Thread thread = new Thread(dump, "PlansDumping");
+		thread.setDaemon(true);
+		thread.start();
+		pendingDump = dump;
+	}
+
+	private void waitForPendingDump() {
+		if (pendingDump != null) {
+			Future<?> dump = pendingDump;
+			pendingDump = null;
+			try {
+				dump.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException(e);
+			} catch (ExecutionException e) {
+				throw new RuntimeException("writing plans in the background failed.", e.getCause());
+			}
+		}
+	}
+
 }
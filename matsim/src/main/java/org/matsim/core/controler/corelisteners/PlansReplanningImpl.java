@@ -21,6 +21,8 @@
 package org.matsim.core.controler.corelisteners;
 
 import org.matsim.api.core.v01.population.Population;
+import org.matsim.core.config.groups.ControllerConfigGroup;
+import org.matsim.core.controler.PrepareForMobsim;
 import org.matsim.core.controler.events.ReplanningEvent;
 import org.matsim.core.controler.listener.ReplanningListener;
 import org.matsim.core.replanning.ReplanningContext;
@@ -37,6 +39,10 @@ import jakarta.inject.Provider;
  * replanning of plans in every iteration. Basically it integrates the
  * {@link org.matsim.core.replanning.StrategyManager} with the
  * {@link org.matsim.core.controler.Controler}.
+ * <p>
+ * With {@link ControllerConfigGroup#isPipelinedReplanning()}, the replanned persons are passed on to
+ * {@link PrepareForMobsim#prepareReplannedPersons} as soon as their strategy has finished, so that their preparation
+ * for the mobsim overlaps with the rest of the replanning.  The preparation is finished before replanning ends.
  *
  * @author mrieser
  */
@@ -46,20 +52,33 @@ final class PlansReplanningImpl implements PlansReplanning, ReplanningListener {
 	private final Population population;
 	private final StrategyManager strategyManager;
 	private final ConflictManager conflictManager;
+	private final ControllerConfigGroup controllerConfigGroup;
+	private final Provider<PrepareForMobsim> prepareForMobsimProvider;
 
 	@Inject
 	PlansReplanningImpl(StrategyManager strategyManager, ConflictManager conflictManager, Population pop,
-			Provider<ReplanningContext> replanningContextProvider) {
+			Provider<ReplanningContext> replanningContextProvider, ControllerConfigGroup controllerConfigGroup,
+			Provider<PrepareForMobsim> prepareForMobsimProvider) {
 		this.population = pop;
 		this.strategyManager = strategyManager;
 		this.conflictManager = conflictManager;
 		this.replanningContextProvider = replanningContextProvider;
+		this.controllerConfigGroup = controllerConfigGroup;
+		this.prepareForMobsimProvider = prepareForMobsimProvider;
 	}
 
 	@Override
 	public void notifyReplanning(final ReplanningEvent event) {
 		conflictManager.initializeReplanning(population);
-		strategyManager.run(population, event.getIteration(), replanningContextProvider.get());
+		if (controllerConfigGroup.isPipelinedReplanning() && !conflictManager.isActive()) {
+			// (conflict resolution may still change selected plans after the strategies, so no pipelining then)
+			PrepareForMobsim prepareForMobsim = prepareForMobsimProvider.get();
+			strategyManager.run(population, event.getIteration(), replanningContextProvider.get(), prepareForMobsim::prepareReplannedPersons);
+			// (the before-mobsim listeners, e.g. the plans dump, must not see plans that are still being prepared)
+			prepareForMobsim.finishReplannedPersons();
+		} else {
+			strategyManager.run(population, event.getIteration(), replanningContextProvider.get());
+		}
 		conflictManager.run(population, event.getIteration());
 	}
 }
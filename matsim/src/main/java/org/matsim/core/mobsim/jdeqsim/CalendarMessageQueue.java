@@ -0,0 +1,139 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * CalendarMessageQueue.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+
+package org.matsim.core.mobsim.jdeqsim;
+
+import java.util.ArrayList;
+import java.util.PriorityQueue;
+
+/**
+ * A message queue with one bucket per second of simulated time, similar to a calendar or ladder queue.
+ * <br/>
+ * Only the messages of the current second are kept in a heap; the messages of the following
+ * {@link #NUMBER_OF_BUCKETS} seconds are appended to unsorted buckets and are sorted only when their second is
+ * reached, and messages further in the future are kept in a separate heap until they come into the range of the
+ * buckets.  The messages are returned in the same order of time and priority as by {@link MessageQueue}; only
+ * messages with the same time and priority may come in a different order.
+ *
+ * @see JDEQSimConfigGroup#getMessageQueueType()
+ */
+public class CalendarMessageQueue extends MessageQueue {
+
+	static final int NUMBER_OF_BUCKETS = 1 << 12;
+	private static final int MASK = NUMBER_OF_BUCKETS - 1;
+
+	private final PriorityQueue<Message> currentBucket = new PriorityQueue<>();
+	@SuppressWarnings("unchecked")
+	private final ArrayList<Message>[] buckets = new ArrayList[NUMBER_OF_BUCKETS];
+	private final PriorityQueue<Message> farFuture = new PriorityQueue<>();
+
+	private long currentSecond = Long.MIN_VALUE;
+	private int messagesInBuckets = 0;
+	private int storedMessages = 0;
+	private int queueSize = 0;
+
+	public CalendarMessageQueue() {
+		for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+			this.buckets[i] = new ArrayList<>();
+		}
+	}
+
+	@Override
+	public void putMessage(Message m) {
+		if (this.storedMessages == 0) {
+			// nothing to keep in order, so start the buckets at the time of this message
+			this.currentSecond = secondOf(m);
+		}
+		add(m);
+		this.storedMessages++;
+		this.queueSize++;
+	}
+
+	private void add(Message m) {
+		long second = secondOf(m);
+		if (second <= this.currentSecond) {
+			this.currentBucket.add(m);
+		} else if (second - this.currentSecond < NUMBER_OF_BUCKETS) {
+			this.buckets[(int) (second & MASK)].add(m);
+			this.messagesInBuckets++;
+		} else {
+			this.farFuture.add(m);
+		}
+	}
+
+	@Override
+	public void removeMessage(Message m) {
+		// as in the super class, the message is only marked as dead and skipped later
+		m.killMessage();
+		this.queueSize--;
+	}
+
+	@Override
+	public Message getNextMessage() {
+		while (this.storedMessages > 0) {
+			if (this.currentBucket.isEmpty()) {
+				advance();
+			}
+			Message m = this.currentBucket.poll();
+			this.storedMessages--;
+			if (m.isAlive()) {
+				this.queueSize--;
+				return m;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Moves on to the next second with messages and puts them into the heap of the current bucket.
+	 */
+	private void advance() {
+		if (this.messagesInBuckets == 0) {
+			this.currentSecond = secondOf(this.farFuture.peek());
+		} else {
+			do {
+				this.currentSecond++;
+			} while (this.buckets[(int) (this.currentSecond & MASK)].isEmpty());
+		}
+		ArrayList<Message> bucket = this.buckets[(int) (this.currentSecond & MASK)];
+		this.messagesInBuckets -= bucket.size();
+		this.currentBucket.addAll(bucket);
+		bucket.clear();
+		while (!this.farFuture.isEmpty() && secondOf(this.farFuture.peek()) - this.currentSecond < NUMBER_OF_BUCKETS) {
+			add(this.farFuture.poll());
+		}
+	}
+
+	private static long secondOf(Message m) {
+		return (long) Math.floor(m.getMessageArrivalTime());
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.storedMessages == 0;
+	}
+
+	@Override
+	public int getQueueSize() {
+		return this.queueSize;
+	}
+
+}
@@ -58,6 +58,9 @@ public class JDEQSimConfigGroup extends ReflectiveConfigGroup {
 	public final static String CAR_SIZE = "carSize";
 	public final static String GAP_TRAVEL_SPEED = "gapTravelSpeed";
 	public final static String END_TIME = "endTime";
+	public final static String MESSAGE_QUEUE_TYPE = "messageQueueType";
+
+	public enum MessageQueueType { priorityQueue, calendarQueue }
 
 	// INPUT
 	private OptionalTime simulationEndTime = OptionalTime.undefined();
@@ -72,6 +75,7 @@ public class JDEQSimConfigGroup extends ReflectiveConfigGroup {
 	 * 'stuckTime' for entering next road, it will enter the next. in seconds
 	 */
 	private double squeezeTime = 1800;
+	private MessageQueueType messageQueueType = MessageQueueType.priorityQueue;
 
 	public JDEQSimConfigGroup() {
 		super(NAME);
@@ -162,4 +166,19 @@ public class JDEQSimConfigGroup extends ReflectiveConfigGroup {
 		this.squeezeTime = squeezeTime;
 	}
 
+	/**
+	 * the queue which orders the messages of the micro-simulation: either one binary heap for all messages
+	 * ({@link MessageQueue}), or one bucket per second ({@link CalendarMessageQueue}), which is faster for large
+	 * scenarios.
+	 */
+	@StringGetter(MESSAGE_QUEUE_TYPE)
+	public MessageQueueType getMessageQueueType() {
+		return messageQueueType;
+	}
+
+	@StringSetter(MESSAGE_QUEUE_TYPE)
+	public void setMessageQueueType(MessageQueueType messageQueueType) {
+		this.messageQueueType = messageQueueType;
+	}
+
 }
@@ -66,7 +66,7 @@ public class JDEQSimulation implements Mobsim {
 		Timer t = new Timer();
 		t.startTimer();
 
-		Scheduler scheduler = new Scheduler(new MessageQueue(), config.getSimulationEndTime().orElse(Double.MAX_VALUE));
+		Scheduler scheduler = new Scheduler(MessageQueue.create(config), config.getSimulationEndTime().orElse(Double.MAX_VALUE));
 		Road.setAllRoads(new HashMap<Id<Link>, Road>());
 
 		// initialize network
@@ -32,6 +32,20 @@ import java.util.PriorityQueue;
  * @author rashid_waraich
  */
 public class MessageQueue {
+	/**
+	 * Creates the message queue which is configured in {@link JDEQSimConfigGroup#getMessageQueueType()}.
+	 */
+	public static MessageQueue create(JDEQSimConfigGroup config) {
+		switch (config.getMessageQueueType()) {
+			case priorityQueue:
+				return new MessageQueue();
+			case calendarQueue:
+				return new CalendarMessageQueue();
+			default:
+				throw new RuntimeException("Unknown message queue type: " + config.getMessageQueueType());
+		}
+	}
+
 	private PriorityQueue<Message> queue1 = new PriorityQueue<Message>();
 	private int queueSize = 0;
 
@@ -0,0 +1,103 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * ActivityEndEventsBuffer.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+
+package org.matsim.core.mobsim.qsim;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.matsim.api.core.v01.events.Event;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.events.handler.EventHandler;
+
+/**
+ * Delegate of the events manager of the qsim which can hold back the events of the current thread.  This is used when agents end
+ * their activities in parallel: the events of each agent are buffered and then passed on in the order in which the agents would
+ * have ended their activities one after the other.
+ * <p></p>
+ * Events which are not thrown by a thread that is buffering are passed on immediately.
+ */
+final class ActivityEndEventsBuffer implements EventsManager {
+
+	private final EventsManager delegate;
+	private final ThreadLocal<List<Event>> buffer = new ThreadLocal<>();
+
+	ActivityEndEventsBuffer(EventsManager delegate) {
+		this.delegate = delegate;
+	}
+
+	void startBuffering() {
+		this.buffer.set(new ArrayList<>(4));
+	}
+
+	List<Event> stopBuffering() {
+		List<Event> events = this.buffer.get();
+		this.buffer.remove();
+		return events;
+	}
+
+	void processBufferedEvents(List<Event> events) {
+		for (Event event : events) {
+			this.delegate.processEvent(event);
+		}
+	}
+
+	@Override
+	public void processEvent(Event event) {
+		List<Event> events = this.buffer.get();
+		if (events != null) {
+			events.add(event);
+		} else {
+			this.delegate.processEvent(event);
+		}
+	}
+
+	@Override
+	public void addHandler(EventHandler handler) {
+		this.delegate.addHandler(handler);
+	}
+
+	@Override
+	public void removeHandler(EventHandler handler) {
+		this.delegate.removeHandler(handler);
+	}
+
+	@Override
+	public void resetHandlers(int iteration) {
+		this.delegate.resetHandlers(iteration);
+	}
+
+	@Override
+	public void initProcessing() {
+		this.delegate.initProcessing();
+	}
+
+	@Override
+	public void afterSimStep(double time) {
+		this.delegate.afterSimStep(time);
+	}
+
+	@Override
+	public void finishProcessing() {
+		this.delegate.finishProcessing();
+	}
+
+}
@@ -19,19 +19,27 @@
 
 package org.matsim.core.mobsim.qsim;
 
-import java.util.Iterator;
-import java.util.Queue;
-import java.util.concurrent.PriorityBlockingQueue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import jakarta.inject.Inject;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.events.Event;
 import org.matsim.api.core.v01.events.PersonStuckEvent;
 import org.matsim.api.core.v01.network.Link;
 import org.matsim.api.core.v01.population.Person;
 import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.config.Config;
 import org.matsim.core.mobsim.framework.MobsimAgent;
 import org.matsim.core.mobsim.framework.MobsimAgent.State;
 
@@ -40,90 +48,151 @@ class ActivityEngineDefaultImpl implements ActivityEngine {
 
 	private final EventsManager eventsManager;
 
+	/**
+	 * Ordered by activity end time; for equal times, the agent with the larger id is first.
+	 * <p></p>
+	 * In the parallel qsim, agents are added concurrently, so the queue then needs to be thread-safe. cdobler, oct'10
+	 * <p></p>
+	 * Note that the agents cannot simply be sorted by the activity end time they report, since that would not work
+	 * when within-day replanning is used.  There, an agent's activity end time can be modified, and the agent is
+	 * located at the wrong position until it is updated by using rescheduleActivityEnd(...).  The queue thus
+	 * remembers the end time with which the agent was added. cdobler, apr'12
+	 */
+	private final AgentCalendarQueue activityEndsList;
+
+	/**
+	 * Below this number of agents ending their activities in the same time step, they are handled one after the other even if
+	 * parallel activity ends are switched on.
+	 */
+	private static final int MIN_AGENTS_FOR_PARALLEL_ACTIVITY_ENDS = 100;
+
+	private final int numberOfThreadsForActivityEnds;
+	private ExecutorService pool = null;
+	private ActivityEndEventsBuffer eventsBuffer = null;
+	private final List<MobsimAgent> endingAgents = new ArrayList<>();
+
 	@Inject
+	ActivityEngineDefaultImpl( EventsManager eventsManager, Config config ) {
+		this( eventsManager, config.qsim().getNumberOfThreads() > 1,
+				config.qsim().isUsingParallelActivityEnds() ? config.qsim().getNumberOfThreads() : 1 );
+	}
+
 	ActivityEngineDefaultImpl( EventsManager eventsManager ) {
+		this( eventsManager, true, 1 );
+	}
+
+	private ActivityEngineDefaultImpl( EventsManager eventsManager, boolean threadSafe, int numberOfThreadsForActivityEnds ) {
 		this.eventsManager = eventsManager;
+		this.activityEndsList = new AgentCalendarQueue( threadSafe );
+		this.numberOfThreadsForActivityEnds = numberOfThreadsForActivityEnds;
 	}
 
 //	public ActivityEngineDefaultImpl( EventsManager eventsManager, AgentCounter agentCounter ) {
 //		this.eventsManager = eventsManager;
 //	}
 
-	/**
-	 * Agents cannot be added directly to the activityEndsList since that would
-	 * not be thread-safe when within-day replanning is used. There, an agent's
-	 * activity end time can be modified. As a result, the agent is located at
-	 * the wrong position in the activityEndsList until it is updated by using
-	 * rescheduleActivityEnd(...). However, if another agent is added to the list
-	 * in the mean time, it might be inserted at the wrong position.
-	 * cdobler, apr'12
-	 */
-	private static class AgentEntry {
-		AgentEntry( MobsimAgent agent, double activityEndTime ) {
-			this.agent = agent;
-			this.activityEndTime = activityEndTime;
-		}
-		private final MobsimAgent agent;
-		private final double activityEndTime;
-	}
-
 	private InternalInterface internalInterface;
 
-	/**
-	 * This list needs to be a "blocking" queue since this is needed for
-	 * thread-safety in the parallel qsim. cdobler, oct'10
-	 */
-	private final Queue<AgentEntry> activityEndsList = new PriorityBlockingQueue<>(500, (e0, e1) -> {
-		int cmp = Double.compare(e0.activityEndTime, e1.activityEndTime);
-		if (cmp == 0) {
-			// Both depart at the same time -> let the one with the larger id be first (=smaller)
-			//
-			// yy We are not sure what the above comment line is supposed to say.  Presumably, it is supposed
-			// to say that the agent with the larger ID should be "smaller" one in the comparison.
-			// In practice, it seems
-			// that something like "emob_9" is before "emob_8", and something like "emob_10" before "emob_1".
-			// It is unclear why this convention is supposed to be helpful.
-			// kai & dominik, jul'12
-			//
-			return e1.agent.getId().compareTo(e0.agent.getId());
-		}
-		return cmp;
-	});
-
 	// See handleActivity for the reason for this.
 	private boolean beforeFirstSimStep = true;
 
 	@Override
 	public void onPrepareSim() {
-		// Nothing to do here
+		if (this.numberOfThreadsForActivityEnds > 1
+				&& this.internalInterface.getMobsim().getEventsManager() instanceof ActivityEndEventsBuffer buffer) {
+			this.eventsBuffer = buffer;
+			this.pool = Executors.newFixedThreadPool(this.numberOfThreadsForActivityEnds, new NamedThreadFactory());
+		}
 	}
 
 	@Override
 	public void doSimStep(double time) {
 		beforeFirstSimStep = false;
-		while (activityEndsList.peek() != null) {
-			if (activityEndsList.peek().activityEndTime <= time) {
-				MobsimAgent agent = activityEndsList.poll().agent;
+		MobsimAgent agent;
+		if (this.pool == null) {
+			while ((agent = activityEndsList.poll(time)) != null) {
 				unregisterAgentAtActivityLocation(agent);
 				agent.endActivityAndComputeNextState(time);
 				internalInterface.arrangeNextAgentState(agent);
-			} else {
-				return;
 			}
+			return;
+		}
+
+		while ((agent = activityEndsList.poll(time)) != null) {
+			endingAgents.add(agent);
+		}
+		if (endingAgents.size() < MIN_AGENTS_FOR_PARALLEL_ACTIVITY_ENDS) {
+			for (MobsimAgent endingAgent : endingAgents) {
+				unregisterAgentAtActivityLocation(endingAgent);
+				endingAgent.endActivityAndComputeNextState(time);
+				internalInterface.arrangeNextAgentState(endingAgent);
+			}
+		} else {
+			endActivitiesInParallel(time);
+		}
+		endingAgents.clear();
+	}
+
+	/**
+	 * The agents compute their next state in parallel, each thread taking a contiguous part of the agents.  The departures are then
+	 * arranged one after the other in the original order, since the departure handlers are not thread-safe, and the buffered
+	 * events of each agent are passed on just before its departure.  This gives the same events as without parallelization.
+	 */
+	private void endActivitiesInParallel(double time) {
+		int numberOfAgents = endingAgents.size();
+		int agentsPerThread = (numberOfAgents + numberOfThreadsForActivityEnds - 1) / numberOfThreadsForActivityEnds;
+		List<List<Event>> bufferedEvents = new ArrayList<>(Collections.nCopies(numberOfAgents, null));
+
+		List<Callable<Void>> tasks = new ArrayList<>(numberOfThreadsForActivityEnds);
+		for (int from = 0; from < numberOfAgents; from += agentsPerThread) {
+			int fromIndex = from;
+			int toIndex = Math.min(from + agentsPerThread, numberOfAgents);
+			tasks.add(() -> {
+				for (int i = fromIndex; i < toIndex; i++) {
+					MobsimAgent agent = endingAgents.get(i);
+					unregisterAgentAtActivityLocation(agent);
+					eventsBuffer.startBuffering();
+					try {
+						agent.endActivityAndComputeNextState(time);
+					} finally {
+						bufferedEvents.set(i, eventsBuffer.stopBuffering());
+					}
+				}
+				return null;
+			});
+		}
+
+		try {
+			for (Future<Void> future : pool.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		}
+
+		for (int i = 0; i < numberOfAgents; i++) {
+			eventsBuffer.processBufferedEvents(bufferedEvents.get(i));
+			internalInterface.arrangeNextAgentState(endingAgents.get(i));
 		}
 	}
 
 	@Override
 	public void afterSim() {
 		double now = this.internalInterface.getMobsim().getSimTimer().getTimeOfDay();
-		for (AgentEntry entry : activityEndsList) {
-			if (entry.activityEndTime != Double.POSITIVE_INFINITY) {
+		activityEndsList.forEach(entry -> {
+			if (entry.getTime() != Double.POSITIVE_INFINITY) {
 				// since we are at an activity, it is not plausible to assume that the agents know mode or destination
 				// link id.  Thus generating the event with ``null'' in the corresponding entries.  kai, mar'12
-				eventsManager.processEvent(new PersonStuckEvent(now, entry.agent.getId(), null, null));
+				eventsManager.processEvent(new PersonStuckEvent(now, entry.getAgent().getId(), null, null));
 			}
-		}
+		});
 		activityEndsList.clear();
+		if (this.pool != null) {
+			this.pool.shutdown();
+			this.pool = null;
+		}
 	}
 
 	@Override
@@ -155,8 +224,7 @@ class ActivityEngineDefaultImpl implements ActivityEngine {
 			internalInterface.arrangeNextAgentState(agent) ;
 		} else {
 			// The agent commences an activity on this link.
-			final AgentEntry agentEntry = new AgentEntry(agent, agent.getActivityEndTime());
-			activityEndsList.add(agentEntry);
+			activityEndsList.add(agent, agent.getActivityEndTime());
 			internalInterface.registerAdditionalAgentOnLink(agent);
 		}
 		// Why beforeFirstSimStep matters:
@@ -188,7 +256,7 @@ class ActivityEngineDefaultImpl implements ActivityEngine {
 
 
 		double newActivityEndTime = agent.getActivityEndTime();
-		AgentEntry oldEntry = removeAgentFromQueue(agent);
+		AgentCalendarQueue.Entry oldEntry = activityEndsList.remove(agent);
 
 		// The intention in the following is that an agent that is no longer alive has an activity end time of infinity.  The number of
 		// alive agents is only modified when an activity end time is changed between a finite time and infinite.  kai, jun'11
@@ -197,7 +265,7 @@ class ActivityEngineDefaultImpl implements ActivityEngine {
 				// agent was de-activated and still should be de-activated - nothing to do here
 			} else {
 				// re-activate the agent
-				activityEndsList.add(new AgentEntry(agent, newActivityEndTime));
+				activityEndsList.add(agent, newActivityEndTime);
 				internalInterface.registerAdditionalAgentOnLink(agent);
 				((org.matsim.core.mobsim.qsim.AgentCounter) internalInterface.getMobsim().getAgentCounter()).incLiving();
 			}
@@ -212,20 +280,8 @@ class ActivityEngineDefaultImpl implements ActivityEngine {
 			/*
 			 *  The activity is just rescheduled during the day, so we keep the agent active. cdobler, oct'11
 			 */
-			activityEndsList.add(new AgentEntry(agent, newActivityEndTime));
-		}
-	}
-
-	private AgentEntry removeAgentFromQueue(MobsimAgent agent) {
-		Iterator<AgentEntry> iterator = activityEndsList.iterator();
-		while (iterator.hasNext()) {
-			AgentEntry entry = iterator.next();
-			if (entry.agent == agent) {
-				iterator.remove();
-				return entry;
-			}
+			activityEndsList.add(agent, newActivityEndTime);
 		}
-		return null;
 	}
 
 	private void unregisterAgentAtActivityLocation(final MobsimAgent agent) {
@@ -236,4 +292,15 @@ class ActivityEngineDefaultImpl implements ActivityEngine {
 		}
 	}
 
+	private static class NamedThreadFactory implements ThreadFactory {
+		private int count = 0;
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "ActivityEngine_PooledThread_" + count++);
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
 }
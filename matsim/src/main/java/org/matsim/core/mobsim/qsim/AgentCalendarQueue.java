@@ -0,0 +1,312 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * AgentCalendarQueue.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+
+package org.matsim.core.mobsim.qsim;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+import org.matsim.core.mobsim.framework.MobsimAgent;
+
+/**
+ * Agents waiting for a point in time, e.g. for the end of their activity or for their teleportation arrival.  The agents leave in
+ * the same order as from the priority queues this replaces: by time, and for equal times, the one with the larger id first.
+ * <p></p>
+ * The agents are put into buckets of one second of sim time, like the wake-up lists in hermes, so that adding an agent does not
+ * depend on the number of waiting agents.  A bucket is only sorted when it becomes due.  Agents which are added for a time that is
+ * already over go into the earliest bucket which is not yet done.  Times beyond {@link #MAX_BUCKET} seconds, which are not
+ * expected in practice, go into a priority queue.
+ * <p></p>
+ * If created as thread-safe, agents can be added concurrently; the buckets are locked individually, so that concurrent additions
+ * for different seconds do not block each other.  Polling must neither be done concurrently nor overlap with additions, which is
+ * the case in the qsim, where the engines are stepped one after the other.  Otherwise, no locks are used.
+ */
+final class AgentCalendarQueue {
+
+	static final int MAX_BUCKET = 1 << 20;
+
+	private static final Comparator<Entry> ENTRY_ORDER = (e0, e1) -> {
+		int cmp = Double.compare(e0.time, e1.time);
+		if (cmp == 0) {
+			// the one with the larger id first:
+			return e1.agent.getId().compareTo(e0.agent.getId());
+		}
+		return cmp;
+	};
+
+	static final class Entry {
+		private final MobsimAgent agent;
+		private final double time;
+
+		private Entry(MobsimAgent agent, double time) {
+			this.agent = agent;
+			this.time = time;
+		}
+
+		MobsimAgent getAgent() {
+			return agent;
+		}
+
+		double getTime() {
+			return time;
+		}
+	}
+
+	private static final class Bucket {
+		private final ArrayList<Entry> entries = new ArrayList<>();
+		private int next = 0;
+		private boolean sorted = true;
+
+		private void add(Entry entry) {
+			if (sorted && entries.size() > next && ENTRY_ORDER.compare(entries.get(entries.size() - 1), entry) > 0) {
+				sorted = false;
+			}
+			entries.add(entry);
+		}
+
+		private Entry peek() {
+			if (next == entries.size()) {
+				return null;
+			}
+			if (!sorted) {
+				entries.subList(next, entries.size()).sort(ENTRY_ORDER);
+				sorted = true;
+			}
+			return entries.get(next);
+		}
+
+		private Entry remove(MobsimAgent agent) {
+			for (int i = next; i < entries.size(); i++) {
+				if (entries.get(i).agent == agent) {
+					return entries.remove(i);
+				}
+			}
+			return null;
+		}
+	}
+
+	private final boolean threadSafe;
+	private volatile AtomicReferenceArray<Bucket> buckets = new AtomicReferenceArray<>(1024);
+	private final PriorityQueue<Entry> farFuture = new PriorityQueue<>(ENTRY_ORDER);
+
+	/**
+	 * All buckets before this one are done.
+	 */
+	private volatile int currentBucket = 0;
+	/**
+	 * The last bucket which may contain agents.
+	 */
+	private volatile int lastBucket = 0;
+
+	AgentCalendarQueue(boolean threadSafe) {
+		this.threadSafe = threadSafe;
+	}
+
+	void add(MobsimAgent agent, double time) {
+		Entry entry = new Entry(agent, time);
+		if (time > MAX_BUCKET) {
+			if (threadSafe) {
+				synchronized (farFuture) {
+					farFuture.add(entry);
+				}
+			} else {
+				farFuture.add(entry);
+			}
+			return;
+		}
+		int index = Math.max((int) Math.ceil(time), currentBucket);
+		Bucket bucket = getOrCreateBucket(index);
+		if (threadSafe) {
+			synchronized (bucket) {
+				bucket.add(entry);
+			}
+		} else {
+			bucket.add(entry);
+		}
+	}
+
+	private Bucket getOrCreateBucket(int index) {
+		AtomicReferenceArray<Bucket> buckets = this.buckets;
+		Bucket bucket = index < buckets.length() ? buckets.get(index) : null;
+		if (bucket != null) {
+			return bucket;
+		}
+		if (threadSafe) {
+			synchronized (this) {
+				return createBucket(index);
+			}
+		}
+		return createBucket(index);
+	}
+
+	private Bucket createBucket(int index) {
+		AtomicReferenceArray<Bucket> buckets = this.buckets;
+		if (index >= buckets.length()) {
+			int length = buckets.length();
+			while (length <= index) {
+				length *= 2;
+			}
+			AtomicReferenceArray<Bucket> newBuckets = new AtomicReferenceArray<>(length);
+			for (int i = currentBucket; i < buckets.length(); i++) {
+				newBuckets.set(i, buckets.get(i));
+			}
+			this.buckets = buckets = newBuckets;
+		}
+		Bucket bucket = buckets.get(index);
+		if (bucket == null) {
+			bucket = new Bucket();
+			buckets.set(index, bucket);
+			if (index > lastBucket) {
+				lastBucket = index;
+			}
+		}
+		return bucket;
+	}
+
+	/**
+	 * Removes the next agent whose time is not after the given time.
+	 *
+	 * @return the agent, or null if there is none.
+	 */
+	MobsimAgent poll(double now) {
+		int dueBucket = (int) Math.min(Math.ceil(now), MAX_BUCKET);
+		while (currentBucket <= Math.min(dueBucket, lastBucket)) {
+			Bucket bucket = this.buckets.get(currentBucket);
+			if (bucket != null) {
+				Entry entry = threadSafe ? pollSynchronized(bucket, now) : poll(bucket, now);
+				if (entry != null) {
+					return entry.agent;
+				}
+				if (currentBucket == dueBucket) {
+					// not all agents in the bucket of the current second are due if the time step is shorter than one second:
+					return null;
+				}
+			}
+			if (currentBucket == dueBucket) {
+				break;
+			}
+			releaseBucket(currentBucket);
+			currentBucket++;
+		}
+		if (now > MAX_BUCKET) {
+			if (threadSafe) {
+				synchronized (farFuture) {
+					return pollFarFuture(now);
+				}
+			}
+			return pollFarFuture(now);
+		}
+		return null;
+	}
+
+	private Entry pollSynchronized(Bucket bucket, double now) {
+		synchronized (bucket) {
+			return poll(bucket, now);
+		}
+	}
+
+	private static Entry poll(Bucket bucket, double now) {
+		Entry entry = bucket.peek();
+		if (entry == null || entry.time > now) {
+			return null;
+		}
+		bucket.next++;
+		return entry;
+	}
+
+	private MobsimAgent pollFarFuture(double now) {
+		Entry entry = farFuture.peek();
+		if (entry == null || entry.time > now) {
+			return null;
+		}
+		return farFuture.poll().agent;
+	}
+
+	private void releaseBucket(int index) {
+		if (threadSafe) {
+			synchronized (this) {
+				this.buckets.set(index, null);
+			}
+		} else {
+			this.buckets.set(index, null);
+		}
+	}
+
+	/**
+	 * Removes the entry of the given agent.  This needs to search all waiting agents, so it should not be used in the regular flow
+	 * of the simulation.
+	 *
+	 * @return the removed entry, or null if the agent was not found.
+	 */
+	Entry remove(MobsimAgent agent) {
+		for (int index = currentBucket; index <= lastBucket; index++) {
+			Bucket bucket = this.buckets.get(index);
+			if (bucket == null) {
+				continue;
+			}
+			Entry entry;
+			if (threadSafe) {
+				synchronized (bucket) {
+					entry = bucket.remove(agent);
+				}
+			} else {
+				entry = bucket.remove(agent);
+			}
+			if (entry != null) {
+				return entry;
+			}
+		}
+		for (Entry entry : farFuture) {
+			if (entry.agent == agent) {
+				farFuture.remove(entry);
+				return entry;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Passes all waiting agents to the consumer, in the order in which they would leave.
+	 */
+	void forEach(Consumer<Entry> consumer) {
+		for (int index = currentBucket; index <= lastBucket; index++) {
+			Bucket bucket = this.buckets.get(index);
+			if (bucket != null) {
+				bucket.peek();
+				for (int i = bucket.next; i < bucket.entries.size(); i++) {
+					consumer.accept(bucket.entries.get(i));
+				}
+			}
+		}
+		farFuture.stream().sorted(ENTRY_ORDER).forEach(consumer);
+	}
+
+	void clear() {
+		this.buckets = new AtomicReferenceArray<>(1024);
+		this.farFuture.clear();
+		this.currentBucket = 0;
+		this.lastBucket = 0;
+	}
+
+}
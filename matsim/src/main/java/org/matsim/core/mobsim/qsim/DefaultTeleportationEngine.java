@@ -22,10 +22,7 @@
  package org.matsim.core.mobsim.qsim;
 
 import java.util.Collection;
-import java.util.Comparator;
 import java.util.LinkedHashMap;
-import java.util.PriorityQueue;
-import java.util.Queue;
 
 import jakarta.inject.Inject;
 
@@ -41,7 +38,6 @@ import org.matsim.core.api.experimental.events.EventsManager;
 import org.matsim.core.api.experimental.events.TeleportationArrivalEvent;
 import org.matsim.core.mobsim.framework.MobsimAgent;
 import org.matsim.core.network.NetworkUtils;
-import org.matsim.core.utils.collections.Tuple;
 import org.matsim.facilities.Facility;
 import org.matsim.vis.snapshotwriters.AgentSnapshotInfo;
 import org.matsim.vis.snapshotwriters.TeleportationVisData;
@@ -53,21 +49,10 @@ import org.matsim.vis.snapshotwriters.TeleportationVisData;
 public final class DefaultTeleportationEngine implements TeleportationEngine {
 	private static final Logger log = LogManager.getLogger( DefaultTeleportationEngine.class ) ;
 
-	private final Queue<Tuple<Double, MobsimAgent>> teleportationList = new PriorityQueue<>(
-			30, new Comparator<Tuple<Double, MobsimAgent>>() {
-
-		@Override
-		public int compare(Tuple<Double, MobsimAgent> o1, Tuple<Double, MobsimAgent> o2) {
-			int ret = o1.getFirst().compareTo(o2.getFirst()); // first compare time information
-			if (ret == 0) {
-				ret = o2.getSecond()
-						.getId()
-						.compareTo(o1.getSecond()
-								.getId()); // if they're equal, compare the Ids: the one with the larger Id should be first
-			}
-			return ret;
-		}
-	});
+	/**
+	 * Ordered by arrival time; if they're equal, the one with the larger Id is first.
+	 */
+	private final AgentCalendarQueue teleportationList;
 	private final LinkedHashMap<Id<Person>, TeleportationVisData> teleportationData = new LinkedHashMap<>();
 	private InternalInterface internalInterface;
 	private Scenario scenario;
@@ -84,6 +69,7 @@ public final class DefaultTeleportationEngine implements TeleportationEngine {
 		this.scenario = scenario;
 		this.eventsManager = eventsManager;
 		this.withTravelTimeCheck = withTravelTimeCheck;
+		this.teleportationList = new AgentCalendarQueue(scenario.getConfig().qsim().getNumberOfThreads() > 1);
 	}
 
 	@Override
@@ -103,7 +89,7 @@ public final class DefaultTeleportationEngine implements TeleportationEngine {
 		}
 
 		double arrivalTime = now + travelTime ;
-		this.teleportationList.add(new Tuple<>(arrivalTime, agent));
+		this.teleportationList.add(agent, arrivalTime);
 
 		// === below here is only visualization, no dynamics ===
 		Id<Person> agentId = agent.getId();
@@ -133,21 +119,15 @@ public final class DefaultTeleportationEngine implements TeleportationEngine {
 	}
 
 	private void handleTeleportationArrivals(double now) {
-		while (!teleportationList.isEmpty()) {
-			Tuple<Double, MobsimAgent> entry = teleportationList.peek();
-			if (entry.getFirst() <= now) {
-				teleportationList.poll();
-				MobsimAgent personAgent = entry.getSecond();
-				personAgent.notifyArrivalOnLinkByNonNetworkMode(personAgent.getDestinationLinkId());
-				double distance = personAgent.getExpectedTravelDistance();
-				this.eventsManager.processEvent(
-						new TeleportationArrivalEvent(now, personAgent.getId(), distance, personAgent.getMode()));
-				personAgent.endLegAndComputeNextState(now);
-				this.teleportationData.remove(personAgent.getId());
-				internalInterface.arrangeNextAgentState(personAgent);
-			} else {
-				break;
-			}
+		MobsimAgent personAgent;
+		while ((personAgent = teleportationList.poll(now)) != null) {
+			personAgent.notifyArrivalOnLinkByNonNetworkMode(personAgent.getDestinationLinkId());
+			double distance = personAgent.getExpectedTravelDistance();
+			this.eventsManager.processEvent(
+					new TeleportationArrivalEvent(now, personAgent.getId(), distance, personAgent.getMode()));
+			personAgent.endLegAndComputeNextState(now);
+			this.teleportationData.remove(personAgent.getId());
+			internalInterface.arrangeNextAgentState(personAgent);
 		}
 	}
 
@@ -158,10 +138,10 @@ public final class DefaultTeleportationEngine implements TeleportationEngine {
 	@Override
 	public void afterSim() {
 		double now = internalInterface.getMobsim().getSimTimer().getTimeOfDay();
-		for (Tuple<Double, MobsimAgent> entry : teleportationList) {
-			MobsimAgent agent = entry.getSecond();
+		teleportationList.forEach(entry -> {
+			MobsimAgent agent = entry.getAgent();
 			eventsManager.processEvent(new PersonStuckEvent(now, agent.getId(), agent.getDestinationLinkId(), agent.getMode()));
-		}
+		});
 		teleportationList.clear();
 	}
 
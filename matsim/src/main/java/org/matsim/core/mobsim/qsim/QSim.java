@@ -20,9 +20,12 @@
 
 package org.matsim.core.mobsim.qsim;
 
+import com.google.inject.Binding;
 import com.google.inject.Injector;
+import com.google.inject.Key;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.matsim.analysis.IterationStopWatch;
 import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.IdMap;
 import org.matsim.api.core.v01.Scenario;
@@ -130,6 +133,11 @@ public final class QSim implements VisMobsim, Netsim, ActivityEndRescheduler {
 	private final IdMap<Vehicle, MobsimVehicle> vehicles = new IdMap<>(Vehicle.class);
 	private final List<AgentSource> agentSources = new ArrayList<>();
 
+	// for the spans of the iteration stop watch, if the qsim runs within a controler
+	private IterationStopWatch stopWatch = null;
+	private Map<MobsimEngine, AtomicLong> engineStepTimes = null;
+	private long numberOfSimSteps = 0;
+
 	// for detailed run time analysis
 	public static boolean analyzeRunTimes = false;
 	private long startClockTime = 0;
@@ -213,7 +221,9 @@ public final class QSim implements VisMobsim, Netsim, ActivityEndRescheduler {
 	@Inject
 	private QSim( final Scenario sc, EventsManager events, Injector childInjector ) {
 		this.scenario = sc;
-		if ( sc.getConfig().qsim().getNumberOfThreads() > 1) {
+		if ( sc.getConfig().qsim().getNumberOfThreads() > 1 && sc.getConfig().qsim().isUsingParallelActivityEnds() ) {
+			this.events = new ActivityEndEventsBuffer( EventsUtils.getParallelFeedableInstance( events ) );
+		} else if ( sc.getConfig().qsim().getNumberOfThreads() > 1) {
 			this.events = EventsUtils.getParallelFeedableInstance( events );
 		} else {
 			this.events = events;
@@ -291,6 +301,16 @@ public final class QSim implements VisMobsim, Netsim, ActivityEndRescheduler {
 	/*package*/ void prepareSim() {
 		events.initProcessing();
 
+		Binding<IterationStopWatch> stopWatchBinding = this.childInjector == null ? null :
+				this.childInjector.getExistingBinding(Key.get(IterationStopWatch.class));
+		if (stopWatchBinding != null) {
+			this.stopWatch = stopWatchBinding.getProvider().get();
+			this.engineStepTimes = new LinkedHashMap<>();
+			for (MobsimEngine mobsimEngine : this.mobsimEngines) {
+				this.engineStepTimes.put(mobsimEngine, new AtomicLong());
+			}
+		}
+
 		createAgents();
 		this.initSimTimer();
 		this.infoTime = Math.floor(this.simTimer.getSimStartTime()
@@ -300,10 +320,16 @@ public final class QSim implements VisMobsim, Netsim, ActivityEndRescheduler {
 		// timestep already
 
 		for (MobsimEngine mobsimEngine : this.mobsimEngines) {
-			mobsimEngine.onPrepareSim();
+			try (IterationStopWatch.Span span = openSpan("prepare " + mobsimEngine.getClass().getSimpleName())) {
+				mobsimEngine.onPrepareSim();
+			}
 		}
 	}
 
+	private IterationStopWatch.Span openSpan(String name) {
+		return this.stopWatch == null ? null : this.stopWatch.span(name);
+	}
+
 	private void createAgents() {
 		for (AgentSource agentSource : this.agentSources) {
 			agentSource.insertAgentsIntoMobsim();
@@ -352,7 +378,7 @@ public final class QSim implements VisMobsim, Netsim, ActivityEndRescheduler {
 
 		boolean gotException = false;
 		for (MobsimEngine mobsimEngine : mobsimEngines) {
-			try {
+			try (IterationStopWatch.Span span = openSpan("after " + mobsimEngine.getClass().getSimpleName())) {
 				// make sure all engines are cleaned up
 				mobsimEngine.afterSim();
 			}
@@ -363,7 +389,15 @@ public final class QSim implements VisMobsim, Netsim, ActivityEndRescheduler {
 		}
 
 		if (gotException) throw new RuntimeException( "got exception while cleaning up the QSim. Please check the error messages above for details.");
-		events.finishProcessing();
+		try (IterationStopWatch.Span span = openSpan("finish events processing")) {
+			events.finishProcessing();
+		}
+		if (this.stopWatch != null) {
+			// (one span per engine and time step would distort the measurement, so the time steps are only summed up)
+			for (Entry<MobsimEngine, AtomicLong> entry : this.engineStepTimes.entrySet()) {
+				this.stopWatch.addToSpan("step " + entry.getKey().getClass().getSimpleName(), this.numberOfSimSteps, entry.getValue().get());
+			}
+		}
 		if (analyzeRunTimes) {
 			log.info("qsim internal cpu time (nanos): " + qSimInternalTime);
 			for (Entry<MobsimEngine, AtomicLong> entry : this.mobsimEngineRunTimes.entrySet()) {
@@ -397,7 +431,9 @@ public final class QSim implements VisMobsim, Netsim, ActivityEndRescheduler {
 		 */
 		if (this.withindayEngine != null) {
 			if (analyzeRunTimes) startClockTime = System.nanoTime();
+			long stepStartTime = this.stopWatch == null ? 0 : System.nanoTime();
 			this.withindayEngine.doSimStep(now);
+			if (this.stopWatch != null) this.engineStepTimes.get(this.withindayEngine).addAndGet(System.nanoTime() - stepStartTime);
 			if (analyzeRunTimes) this.mobsimEngineRunTimes.get(this.withindayEngine).addAndGet(System.nanoTime() - this.startClockTime);
 		}
 
@@ -408,7 +444,9 @@ public final class QSim implements VisMobsim, Netsim, ActivityEndRescheduler {
 			// withindayEngine.doSimStep(time) has already been called
 			if (mobsimEngine == this.withindayEngine) continue;
 
+			long stepStartTime = this.stopWatch == null ? 0 : System.nanoTime();
 			mobsimEngine.doSimStep(now);
+			if (this.stopWatch != null) this.engineStepTimes.get(mobsimEngine).addAndGet(System.nanoTime() - stepStartTime);
 
 			if (analyzeRunTimes)
 				this.mobsimEngineRunTimes.get(mobsimEngine).addAndGet(System.nanoTime() - this.startClockTime);
@@ -416,6 +454,8 @@ public final class QSim implements VisMobsim, Netsim, ActivityEndRescheduler {
 
 		if (analyzeRunTimes) this.startClockTime = System.nanoTime();
 
+		if (this.stopWatch != null) this.numberOfSimSteps++;
+
 		// console printout:
 		this.printSimLog(now);
 
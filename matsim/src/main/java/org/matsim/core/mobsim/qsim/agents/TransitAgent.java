@@ -107,6 +107,9 @@ public final class TransitAgent implements MobsimDriverPassengerAgent, PlanAgent
 	public final PlanElement getCurrentPlanElement() {
 		return basicAgentDelegate.getCurrentPlanElement();
 	}
+	final int getCurrentPlanElementIndex() {
+		return basicAgentDelegate.getCurrentPlanElementIndex() ;
+	}
 	@Override
 	public final PlanElement getNextPlanElement() {
 		return basicAgentDelegate.getNextPlanElement();
@@ -169,6 +172,10 @@ public final class TransitAgent implements MobsimDriverPassengerAgent, PlanAgent
 		return transitAgentDelegate.getEnterTransitRoute(line, transitRoute, stopsToCome, transitVehicle);
 	}
 	@Override
+	public final Id<TransitLine> getDesiredLineId() {
+		return transitAgentDelegate.getDesiredLineId();
+	}
+	@Override
 	public final double getWeight() {
 		return transitAgentDelegate.getWeight();
 	}
@@ -76,6 +76,15 @@ public final class TransitAgentImpl implements PTPassengerAgent {
 		}
 	}
 
+	@Override
+	public final Id<TransitLine> getDesiredLineId() {
+		if ( boardingAcceptance == BoardingAcceptance.checkLineAndStop
+				&& basicAgentDelegate.getCurrentLeg().getRoute() instanceof TransitPassengerRoute route ) {
+			return route.getLineId();
+		}
+		return null;
+	}
+
 	@SuppressWarnings("static-method")
 	private final boolean containsId(List<TransitRouteStop> stopsToCome,
 			Id<TransitStopFacility> egressStopId) {
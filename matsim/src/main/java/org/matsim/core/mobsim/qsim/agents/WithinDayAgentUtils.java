@@ -84,6 +84,25 @@ public final class WithinDayAgentUtils {
 		}
 	}
 	
+	/**
+	 * @return the index of the current plan element like {@link #getCurrentPlanElementIndex(MobsimAgent)}, but read from the index
+	 * which the default agents keep anyways, rather than by searching the current plan element in the plan, or -1 if the agent does
+	 * not follow a plan.
+	 */
+	public static int getCachedCurrentPlanElementIndex(MobsimAgent agent) {
+		if ( agent instanceof PersonDriverAgentImpl ) {
+			return ((PersonDriverAgentImpl) agent).getCurrentPlanElementIndex() ;
+		} else if ( agent instanceof TransitAgent ) {
+			return ((TransitAgent) agent).getCurrentPlanElementIndex() ;
+		} else if ( agent instanceof BasicPlanAgentImpl ) {
+			return ((BasicPlanAgentImpl) agent).getCurrentPlanElementIndex() ;
+		} else if ( agent instanceof PlanAgent ) {
+			return getCurrentPlanElementIndex( agent ) ;
+		} else {
+			return -1 ;
+		}
+	}
+
 	/** NOTES:
 	 * () The current link index does not point to where the agent is, but one ahead.
 	 * () It does that even if there is nothing there in the underlying list.  I keep forgetting the convention, but I think that the
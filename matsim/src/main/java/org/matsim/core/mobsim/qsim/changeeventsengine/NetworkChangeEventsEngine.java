@@ -25,6 +25,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.matsim.api.core.v01.network.Link;
 import org.matsim.api.core.v01.network.Network;
+import org.matsim.core.config.groups.QSimConfigGroup;
 import org.matsim.core.mobsim.jdeqsim.Message;
 import org.matsim.core.mobsim.jdeqsim.MessageQueue;
 import org.matsim.core.mobsim.qsim.InternalInterface;
@@ -34,19 +35,43 @@ import org.matsim.core.network.NetworkChangeEvent;
 import org.matsim.core.network.NetworkUtils;
 
 import jakarta.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 
+/**
+ * Puts one message per start time into the message queue, rather than one per change event, and applies all change events of that
+ * time together: every affected link is recalculated once, and in parallel if there are many of them and this was switched on by
+ * {@link QSimConfigGroup#isUsingParallelNetworkChangeEvents()}.
+ */
 class NetworkChangeEventsEngine implements NetworkChangeEventsEngineI {
 	private static final Logger log = LogManager.getLogger( NetworkChangeEventsEngine.class ) ;
 
+	/**
+	 * Below this number of links, the links are recalculated in the calling thread.
+	 */
+	private static final int MIN_LINKS_FOR_PARALLEL_RECALC = 1000;
+
 	private final MessageQueue messageQueue;
 	private final Network network;
+	private final boolean parallelRecalc;
 	private InternalInterface internalInterface;
 
+	private final Map<Double, List<NetworkChangeEvent>> pendingEventsByTime = new HashMap<>();
+
 	@Inject
-	NetworkChangeEventsEngine(Network network, MessageQueue messageQueue) {
+	NetworkChangeEventsEngine(Network network, MessageQueue messageQueue, QSimConfigGroup qsimConfig) {
+		this(network, messageQueue, qsimConfig.isUsingParallelNetworkChangeEvents());
+	}
+
+	NetworkChangeEventsEngine(Network network, MessageQueue messageQueue, boolean parallelRecalc) {
 		this.network = network;
 		this.messageQueue = messageQueue;
+		this.parallelRecalc = parallelRecalc;
 	}
 
 	@Override
@@ -58,6 +83,17 @@ class NetworkChangeEventsEngine implements NetworkChangeEventsEngineI {
 	}
 
 	private void addNetworkChangeEventToMessageQ(NetworkChangeEvent changeEvent) {
+		final double startTime = changeEvent.getStartTime();
+		List<NetworkChangeEvent> pendingEvents = this.pendingEventsByTime.get(startTime);
+		if (pendingEvents != null) {
+			// there is already a message for this time, which will also apply this event:
+			pendingEvents.add(changeEvent);
+			return;
+		}
+		List<NetworkChangeEvent> events = new ArrayList<>();
+		events.add(changeEvent);
+		this.pendingEventsByTime.put(startTime, events);
+
 		Message m = new Message() {
 			@Override
 			public void processEvent() {
@@ -66,22 +102,36 @@ class NetworkChangeEventsEngine implements NetworkChangeEventsEngineI {
 
 			@Override
 			public void handleMessage() {
-				applyTheChangeEvent(changeEvent);
+				pendingEventsByTime.remove(startTime);
+				applyTheChangeEvents(events);
 			}
 		};
-		m.setMessageArrivalTime(changeEvent.getStartTime());
+		m.setMessageArrivalTime(startTime);
 		this.messageQueue.putMessage(m);
 	}
 
-	private void applyTheChangeEvent(NetworkChangeEvent changeEvent) {
-		for (Link link : changeEvent.getLinks()) {
-			final NetsimLink netsimLink = this.internalInterface.getMobsim().getNetsimNetwork().getNetsimLink(link.getId());
-			if ( netsimLink instanceof TimeVariantLink) {
-				((TimeVariantLink) netsimLink).recalcTimeVariantAttributes();
-			} else {
-				throw new RuntimeException("link not time variant") ;
+	private void applyTheChangeEvents(List<NetworkChangeEvent> changeEvents) {
+		// every link only once, even if several events of this time refer to it:
+		Map<Link, TimeVariantLink> netsimLinks = new LinkedHashMap<>();
+		for (NetworkChangeEvent changeEvent : changeEvents) {
+			for (Link link : changeEvent.getLinks()) {
+				netsimLinks.computeIfAbsent(link, this::getTimeVariantLink);
 			}
+		}
+		if (!this.parallelRecalc || netsimLinks.size() < MIN_LINKS_FOR_PARALLEL_RECALC) {
+			netsimLinks.values().forEach(TimeVariantLink::recalcTimeVariantAttributes);
+		} else {
+			// (the user promised that the links only change their own state when being recalculated)
+			netsimLinks.values().parallelStream().forEach(TimeVariantLink::recalcTimeVariantAttributes);
+		}
+	}
 
+	private TimeVariantLink getTimeVariantLink(Link link) {
+		final NetsimLink netsimLink = this.internalInterface.getMobsim().getNetsimNetwork().getNetsimLink(link.getId());
+		if ( netsimLink instanceof TimeVariantLink ) {
+			return (TimeVariantLink) netsimLink;
+		} else {
+			throw new RuntimeException("link not time variant") ;
 		}
 	}
 
@@ -101,7 +151,7 @@ class NetworkChangeEventsEngine implements NetworkChangeEventsEngineI {
 		}
 
 		if ( event.getStartTime()<= this.internalInterface.getMobsim().getSimTimer().getTimeOfDay() ) {
-			this.applyTheChangeEvent(event);
+			this.applyTheChangeEvents(List.of(event));
 		} else {
 			this.addNetworkChangeEventToMessageQ(event);
 		}
@@ -111,7 +161,7 @@ class NetworkChangeEventsEngine implements NetworkChangeEventsEngineI {
 
 	@Override
 	public void afterSim() {
-
+		this.pendingEventsByTime.clear();
 	}
 
 	@Override
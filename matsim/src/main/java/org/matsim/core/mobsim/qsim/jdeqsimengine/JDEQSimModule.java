@@ -42,10 +42,11 @@ public class JDEQSimModule extends AbstractQSimModule {
 	@Provides
 	@Singleton
 	public JDEQSimEngine provideJDEQSimulation(QSim qsim, TimeInterpretation timeInterpretation) {
-		SteppableScheduler scheduler = new SteppableScheduler(new MessageQueue());
+		JDEQSimConfigGroup config = ConfigUtils.addOrGetModule(qsim.getScenario().getConfig(), JDEQSimConfigGroup.NAME,
+				JDEQSimConfigGroup.class);
+		SteppableScheduler scheduler = new SteppableScheduler(MessageQueue.create(config));
 		return new JDEQSimEngine(
-				ConfigUtils.addOrGetModule(qsim.getScenario().getConfig(), JDEQSimConfigGroup.NAME,
-						JDEQSimConfigGroup.class),
+				config,
 				qsim.getScenario(), qsim.getEventsManager(), qsim.getAgentCounter(), scheduler, timeInterpretation);
 	}
 }
@@ -67,6 +67,17 @@ public interface PTPassengerAgent extends PassengerAgent {
 	
 	public Id<TransitStopFacility> getDesiredDestinationStopId();
 
+	/**
+	 * Asks a passenger which is waiting at a stop whether it will only board vehicles of one transit line.  The agents waiting at a
+	 * stop are kept per line, so that a vehicle only needs to ask the passengers which may want to board it.  If the line changes
+	 * while the agent waits, e.g. by within-day replanning, the {@link TransitStopAgentTracker} needs to be told so.
+	 *
+	 * @return the line, or <code>null</code> if the passenger may want to board vehicles of any line.
+	 */
+	public default Id<TransitLine> getDesiredLineId() {
+		return null;
+	}
+
 	/**
 	 * @return a statistical weight, how many "real" agents this agent represents, e.g. "5.0" if you simulate a 20%-sample.
 	 */
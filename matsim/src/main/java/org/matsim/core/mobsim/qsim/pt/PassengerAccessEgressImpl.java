@@ -107,7 +107,7 @@ class PassengerAccessEgressImpl implements PassengerAccessEgress {
 
 		if (this.isGeneratingDeniedBoardingEvents) {
 
-			for (PTPassengerAgent agent : this.agentTracker.getAgentsAtFacility(stop.getId())) {
+			for (PTPassengerAgent agent : this.agentTracker.getAgentsAtFacility(stop.getId(), transitLine.getId())) {
 				if (agent.getEnterTransitRoute(transitLine, transitRoute, stopsToCome, vehicle)) {
 					if (freeCapacity >= 1) {
 						passengersEntering.add(agent);
@@ -120,7 +120,7 @@ class PassengerAccessEgressImpl implements PassengerAccessEgress {
 
 		} else {
 
-			for (PTPassengerAgent agent : this.agentTracker.getAgentsAtFacility(stop.getId())) {
+			for (PTPassengerAgent agent : this.agentTracker.getAgentsAtFacility(stop.getId(), transitLine.getId())) {
 				if (freeCapacity == 0) {
 					break;
 				}
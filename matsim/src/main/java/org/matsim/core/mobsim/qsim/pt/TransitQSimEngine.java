@@ -23,8 +23,11 @@ package org.matsim.core.mobsim.qsim.pt;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -32,7 +35,9 @@ import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.Scenario;
 import org.matsim.api.core.v01.events.PersonStuckEvent;
 import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.population.Person;
 import org.matsim.api.core.v01.population.Leg;
+import org.matsim.core.config.groups.QSimConfigGroup;
 import org.matsim.core.mobsim.framework.AgentSource;
 import org.matsim.core.mobsim.framework.MobsimAgent;
 import org.matsim.core.mobsim.qsim.HasAgentTracker;
@@ -84,6 +89,12 @@ public class TransitQSimEngine implements DepartureHandler, MobsimEngine, AgentS
 
 	private InternalInterface internalInterface = null ;
 
+	/**
+	 * Passengers who left a transit vehicle while the netsim threads handled the stops, see
+	 * {@link QSimConfigGroup#isUsingParallelTransitStops()}.
+	 */
+	private final Queue<MobsimAgent> alightedPassengers = new ConcurrentLinkedQueue<>();
+
 	@Override
 	public void setInternalInterface( InternalInterface internalInterface ) {
 		this.internalInterface = internalInterface ;
@@ -122,6 +133,13 @@ public class TransitQSimEngine implements DepartureHandler, MobsimEngine, AgentS
 	@Override
 	public void afterSim() {
 		double now = this.qSim.getSimTimer().getTimeOfDay();
+		// passengers who left their vehicle in the last time step, but were not handed over any more:
+		List<MobsimAgent> passengers = drainAlightedPassengers();
+		for (MobsimAgent passenger : passengers) {
+			this.qSim.getEventsManager().processEvent(new PersonStuckEvent(now, passenger.getId(), passenger.getCurrentLinkId(), passenger.getMode()));
+			this.qSim.getAgentCounter().decLiving();
+			this.qSim.getAgentCounter().incLost();
+		}
 		for (Entry<Id<TransitStopFacility>, List<PTPassengerAgent>> agentsAtStop : this.agentTracker.getAgentsAtStop().entrySet()) {
 			TransitStopFacility stop = this.schedule.getFacilities().get(agentsAtStop.getKey());
 			for (PTPassengerAgent agent : agentsAtStop.getValue()) {
@@ -148,6 +166,45 @@ public class TransitQSimEngine implements DepartureHandler, MobsimEngine, AgentS
 		return drivers;
 	}
 
+	/**
+	 * The drivers pass the passengers leaving their vehicle to the internal interface, from the netsim thread handling the stop.  When
+	 * transit stops are handled in parallel, the passengers are collected instead, so that the netsim threads do not need to wait for
+	 * the lock of the qsim; they are handed over in {@link #doSimStep(double)}.
+	 */
+	private InternalInterface getInternalInterfaceForDrivers() {
+		QSimConfigGroup qsimConfig = this.qSim.getScenario().getConfig().qsim();
+		if (!qsimConfig.isUsingParallelTransitStops() || qsimConfig.getNumberOfThreads() < 2) {
+			return this.internalInterface;
+		}
+		InternalInterface delegate = this.internalInterface;
+		return new InternalInterface() {
+			@Override
+			public QSim getMobsim() {
+				return delegate.getMobsim();
+			}
+
+			@Override
+			public void arrangeNextAgentState(MobsimAgent agent) {
+				alightedPassengers.add(agent);
+			}
+
+			@Override
+			public void registerAdditionalAgentOnLink(MobsimAgent agent) {
+				delegate.registerAdditionalAgentOnLink(agent);
+			}
+
+			@Override
+			public MobsimAgent unregisterAdditionalAgentOnLink(Id<Person> agentId, Id<Link> linkId) {
+				return delegate.unregisterAdditionalAgentOnLink(agentId, linkId);
+			}
+
+			@Override
+			public List<DepartureHandler> getDepartureHandlers() {
+				return delegate.getDepartureHandlers();
+			}
+		};
+	}
+
 	private UmlaufCache getOrCreateUmlaufCache(final Scenario scenario) {
 		UmlaufCache umlaufCache;
 
@@ -159,7 +216,7 @@ public class TransitQSimEngine implements DepartureHandler, MobsimEngine, AgentS
 
 	private AbstractTransitDriverAgent createAndScheduleVehicleAndDriver(Umlauf umlauf, Vehicle vehicle) {
 		TransitQVehicle veh = new TransitQVehicle(vehicle);
-		AbstractTransitDriverAgent driver = this.transitDriverFactory.createTransitDriver(umlauf, internalInterface, agentTracker);
+		AbstractTransitDriverAgent driver = this.transitDriverFactory.createTransitDriver(umlauf, getInternalInterfaceForDrivers(), agentTracker);
 		veh.setDriver(driver);
 		veh.setStopHandler(this.stopHandlerFactory.createTransitStopHandler(veh.getVehicle()));
 		driver.setVehicle(veh);
@@ -212,7 +269,25 @@ public class TransitQSimEngine implements DepartureHandler, MobsimEngine, AgentS
 
 	@Override
 	public void doSimStep(double time) {
-		// Nothing to do here.
+		// The default qsim components step this engine after the netsim engine, so the passengers are handed over in the same time
+		// step in which they left the vehicle.  If the components are configured the other way round, they are handed over one time
+		// step later.
+		for (MobsimAgent passenger : drainAlightedPassengers()) {
+			this.internalInterface.arrangeNextAgentState(passenger);
+		}
+	}
+
+	private List<MobsimAgent> drainAlightedPassengers() {
+		if (this.alightedPassengers.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<MobsimAgent> passengers = new ArrayList<>();
+		MobsimAgent passenger;
+		while ((passenger = this.alightedPassengers.poll()) != null) {
+			passengers.add(passenger);
+		}
+		passengers.sort(Comparator.comparing(MobsimAgent::getId));
+		return passengers;
 	}
 
 	@Override
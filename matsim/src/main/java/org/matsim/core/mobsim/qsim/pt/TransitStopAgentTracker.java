@@ -26,39 +26,52 @@ import org.matsim.api.core.v01.Id;
 import org.matsim.core.api.experimental.events.AgentWaitingForPtEvent;
 import org.matsim.core.api.experimental.events.EventsManager;
 import org.matsim.core.mobsim.qsim.AgentTracker;
+import org.matsim.pt.transitSchedule.api.TransitLine;
 import org.matsim.pt.transitSchedule.api.TransitStopFacility;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Objects;
 
 /**
+ * Keeps track of the agents waiting at the transit stops.
+ * <p></p>
+ * The stops are looked up by the index of their id.  At each stop, the agents are additionally kept per line they want to board (see
+ * {@link PTPassengerAgent#getDesiredLineId()}), so that a vehicle at a busy stop only needs to ask the agents of its line whether they
+ * want to board.  Since the desired line of an agent may change while it waits, e.g. by within-day replanning, every lookup per line
+ * first compares the line of each waiting agent with the indexed one, which is much cheaper than asking every agent whether it wants
+ * to board.  Removing an agent does not depend on the number of waiting agents.  All lists returned are copies in the order in which the agents arrived
+ * at the stop, and cannot be modified.
+ * <p></p>
+ * Agents are added and removed from different threads in the parallel qsim, so every stop is locked on its own.
+ *
  * @author mrieser
  */
 public class TransitStopAgentTracker implements AgentTracker {
 
 	private final static Logger log = LogManager.getLogger(TransitStopAgentTracker.class);
-	
+
 	private final EventsManager events;
-	private final Map<Id<TransitStopFacility>, List<PTPassengerAgent>> agentsAtStops = new ConcurrentHashMap<>();
+	private volatile WaitingAgents[] agentsAtStops = new WaitingAgents[Math.max(16, Id.getNumberOfIds(TransitStopFacility.class))];
 
 	public TransitStopAgentTracker(final EventsManager events) {
 		this.events = events;
 	}
-	
+
 	public void addAgentToStop(final double now, final PTPassengerAgent agent, final Id<TransitStopFacility> stopId) {
 		if (stopId == null) {
 			throw new NullPointerException("stop must not be null.");
 		}
-		List<PTPassengerAgent> agents = this.agentsAtStops.get(stopId);
-		if (agents == null) {
-			agents = new CopyOnWriteArrayList<>();// TODO check again. this might turn out to be slow, but we likely need something thread safe here. marcel/oct2014 
-			this.agentsAtStops.put(stopId, agents);
-		}
-		if ( !agents.add(agent) ) {
-			log.error("did NOT add agent " + agent.getId() + " since it was already there.");
+		WaitingAgents agents = getOrCreateWaitingAgents(stopId);
+		synchronized (agents) {
+			if ( !agents.add(agent) ) {
+				log.error("did NOT add agent " + agent.getId() + " since it was already there.");
+			}
 		}
 		Id<TransitStopFacility> destinationStopId = agent.getDesiredDestinationStopId();
 		events.processEvent(new AgentWaitingForPtEvent(now, agent.getId(), stopId, destinationStopId));
@@ -68,9 +81,13 @@ public class TransitStopAgentTracker implements AgentTracker {
 		if (stopId == null) {
 			throw new NullPointerException("stopId must not be null.");
 		}
-		List<PTPassengerAgent> agents = this.agentsAtStops.get(stopId);
+		WaitingAgents agents = getWaitingAgents(stopId);
 		if (agents != null) {
-			if (!agents.remove(agent)) {
+			boolean removed;
+			synchronized (agents) {
+				removed = agents.remove(agent);
+			}
+			if (!removed) {
 				log.error("Agent " + agent.getId() + " could not be removed from waiting at stop " + stopId);
 			}
 		} else {
@@ -78,16 +95,208 @@ public class TransitStopAgentTracker implements AgentTracker {
 		}
 	}
 
+	/**
+	 * May be called if the line which an agent waiting at the stop wants to board has changed, e.g. by within-day replanning, to
+	 * re-index the agent right away; otherwise, this happens at the next lookup per line.  The agent keeps its position in the order of
+	 * the waiting agents.
+	 */
+	public void updateAgentAtStop(final PTPassengerAgent agent, final Id<TransitStopFacility> stopId) {
+		WaitingAgents agents = getWaitingAgents(stopId);
+		if (agents != null) {
+			synchronized (agents) {
+				agents.update(agent);
+			}
+		}
+	}
+
 	@Override
 	public List<PTPassengerAgent> getAgentsAtFacility(final Id<TransitStopFacility> stopId) {
-		List<PTPassengerAgent> agents = this.agentsAtStops.get(stopId);
+		WaitingAgents agents = getWaitingAgents(stopId);
+		if (agents == null) {
+			return Collections.emptyList();
+		}
+		synchronized (agents) {
+			return Collections.unmodifiableList(new ArrayList<>(agents.entries.keySet()));
+		}
+	}
+
+	/**
+	 * @return the agents at the stop which may want to board a vehicle of the given line, i.e. those which want to board this line
+	 * and those which did not commit to a line.  If the line is <code>null</code>, all agents at the stop are returned.
+	 */
+	public List<PTPassengerAgent> getAgentsAtFacility(final Id<TransitStopFacility> stopId, final Id<TransitLine> lineId) {
+		WaitingAgents agents = getWaitingAgents(stopId);
 		if (agents == null) {
 			return Collections.emptyList();
 		}
-		return Collections.unmodifiableList(agents);
+		synchronized (agents) {
+			return Collections.unmodifiableList(agents.getAgentsForLine(lineId));
+		}
 	}
 
+	/**
+	 * @return a copy of the agents waiting at each stop.
+	 */
 	public Map<Id<TransitStopFacility>, List<PTPassengerAgent>> getAgentsAtStop() {
-		return this.agentsAtStops;
+		Map<Id<TransitStopFacility>, List<PTPassengerAgent>> agentsAtStop = new LinkedHashMap<>();
+		for (WaitingAgents agents : this.agentsAtStops) {
+			if (agents != null) {
+				synchronized (agents) {
+					if (!agents.entries.isEmpty()) {
+						agentsAtStop.put(agents.stopId, new ArrayList<>(agents.entries.keySet()));
+					}
+				}
+			}
+		}
+		return agentsAtStop;
+	}
+
+	private WaitingAgents getWaitingAgents(Id<TransitStopFacility> stopId) {
+		WaitingAgents[] agentsAtStops = this.agentsAtStops;
+		return stopId.index() < agentsAtStops.length ? agentsAtStops[stopId.index()] : null;
+	}
+
+	private WaitingAgents getOrCreateWaitingAgents(Id<TransitStopFacility> stopId) {
+		WaitingAgents agents = getWaitingAgents(stopId);
+		if (agents != null) {
+			return agents;
+		}
+		synchronized (this) {
+			WaitingAgents[] agentsAtStops = this.agentsAtStops;
+			if (stopId.index() >= agentsAtStops.length) {
+				agentsAtStops = Arrays.copyOf(agentsAtStops, Math.max(2 * agentsAtStops.length, stopId.index() + 1));
+			}
+			agents = agentsAtStops[stopId.index()];
+			if (agents == null) {
+				agents = new WaitingAgents(stopId);
+				agentsAtStops[stopId.index()] = agents;
+			}
+			this.agentsAtStops = agentsAtStops;
+			return agents;
+		}
+	}
+
+	private static final class Entry {
+		private final long sequenceNumber;
+		private Id<TransitLine> lineId;
+
+		private Entry(long sequenceNumber, Id<TransitLine> lineId) {
+			this.sequenceNumber = sequenceNumber;
+			this.lineId = lineId;
+		}
+	}
+
+	/**
+	 * The agents waiting at one stop, in the order of their arrival, and grouped by the line they want to board.  Agents which did
+	 * not commit to a line are grouped under <code>null</code>.
+	 */
+	private static final class WaitingAgents {
+		private final Id<TransitStopFacility> stopId;
+		private final LinkedHashMap<PTPassengerAgent, Entry> entries = new LinkedHashMap<>();
+		private final Map<Id<TransitLine>, LinkedHashMap<PTPassengerAgent, Entry>> entriesByLine = new HashMap<>();
+		private long nextSequenceNumber = 0;
+
+		private WaitingAgents(Id<TransitStopFacility> stopId) {
+			this.stopId = stopId;
+		}
+
+		private boolean add(PTPassengerAgent agent) {
+			if (entries.containsKey(agent)) {
+				return false;
+			}
+			Entry entry = new Entry(nextSequenceNumber++, agent.getDesiredLineId());
+			entries.put(agent, entry);
+			entriesByLine.computeIfAbsent(entry.lineId, k -> new LinkedHashMap<>()).put(agent, entry);
+			return true;
+		}
+
+		private boolean remove(PTPassengerAgent agent) {
+			Entry entry = entries.remove(agent);
+			if (entry == null) {
+				return false;
+			}
+			LinkedHashMap<PTPassengerAgent, Entry> lineEntries = entriesByLine.get(entry.lineId);
+			lineEntries.remove(agent);
+			if (lineEntries.isEmpty()) {
+				entriesByLine.remove(entry.lineId);
+			}
+			return true;
+		}
+
+		private void update(PTPassengerAgent agent) {
+			Entry entry = entries.get(agent);
+			Id<TransitLine> lineId = agent.getDesiredLineId();
+			if (entry == null || Objects.equals(entry.lineId, lineId)) {
+				return;
+			}
+			LinkedHashMap<PTPassengerAgent, Entry> oldLineEntries = entriesByLine.get(entry.lineId);
+			oldLineEntries.remove(agent);
+			if (oldLineEntries.isEmpty()) {
+				entriesByLine.remove(entry.lineId);
+			}
+			entry.lineId = lineId;
+			// re-insert all agents of the new line, so that they remain in the order of their arrival:
+			LinkedHashMap<PTPassengerAgent, Entry> lineEntries = new LinkedHashMap<>();
+			for (Map.Entry<PTPassengerAgent, Entry> e : entries.entrySet()) {
+				if (Objects.equals(e.getValue().lineId, lineId)) {
+					lineEntries.put(e.getKey(), e.getValue());
+				}
+			}
+			entriesByLine.put(lineId, lineEntries);
+		}
+
+		/**
+		 * Re-indexes the agents whose desired line has changed without {@link TransitStopAgentTracker#updateAgentAtStop} being called.
+		 */
+		private void revalidate() {
+			List<PTPassengerAgent> changedAgents = null;
+			for (Map.Entry<PTPassengerAgent, Entry> e : entries.entrySet()) {
+				if (!Objects.equals(e.getValue().lineId, e.getKey().getDesiredLineId())) {
+					if (changedAgents == null) {
+						changedAgents = new ArrayList<>();
+					}
+					changedAgents.add(e.getKey());
+				}
+			}
+			if (changedAgents != null) {
+				for (PTPassengerAgent agent : changedAgents) {
+					update(agent);
+				}
+			}
+		}
+
+		private List<PTPassengerAgent> getAgentsForLine(Id<TransitLine> lineId) {
+			if (lineId == null) {
+				return new ArrayList<>(entries.keySet());
+			}
+			revalidate();
+			LinkedHashMap<PTPassengerAgent, Entry> lineEntries = entriesByLine.get(lineId);
+			LinkedHashMap<PTPassengerAgent, Entry> anyLineEntries = entriesByLine.get(null);
+			if (lineEntries == null && anyLineEntries == null) {
+				return Collections.emptyList();
+			}
+			if (lineEntries == null) {
+				return new ArrayList<>(anyLineEntries.keySet());
+			}
+			if (anyLineEntries == null) {
+				return new ArrayList<>(lineEntries.keySet());
+			}
+			// merge both by the order of arrival:
+			List<PTPassengerAgent> agents = new ArrayList<>(lineEntries.size() + anyLineEntries.size());
+			var lineIterator = lineEntries.entrySet().iterator();
+			var anyLineIterator = anyLineEntries.entrySet().iterator();
+			Map.Entry<PTPassengerAgent, Entry> nextOfLine = lineIterator.next();
+			Map.Entry<PTPassengerAgent, Entry> nextOfAnyLine = anyLineIterator.next();
+			while (nextOfLine != null || nextOfAnyLine != null) {
+				if (nextOfAnyLine == null || (nextOfLine != null && nextOfLine.getValue().sequenceNumber < nextOfAnyLine.getValue().sequenceNumber)) {
+					agents.add(nextOfLine.getKey());
+					nextOfLine = lineIterator.hasNext() ? lineIterator.next() : null;
+				} else {
+					agents.add(nextOfAnyLine.getKey());
+					nextOfAnyLine = anyLineIterator.hasNext() ? anyLineIterator.next() : null;
+				}
+			}
+			return agents;
+		}
 	}
 }
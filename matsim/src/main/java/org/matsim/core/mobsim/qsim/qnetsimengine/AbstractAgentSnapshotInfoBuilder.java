@@ -42,6 +42,7 @@ import java.util.Collection;
 import java.util.Map;
 import java.util.Queue;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.lang.Math.min;
 
@@ -52,7 +53,8 @@ import static java.lang.Math.min;
  */
 abstract class AbstractAgentSnapshotInfoBuilder {
 	private static final Logger log = LogManager.getLogger(AbstractAgentSnapshotInfoBuilder.class);
-	private static int wrnCnt = 0;
+	// (the positions of the links are built in parallel by the snapshot writer manager)
+	private static final AtomicInteger wrnCnt = new AtomicInteger();
 
 	private final Scenario scenario;
 	private final SnapshotLinkWidthCalculator linkWidthCalculator;
@@ -184,14 +186,14 @@ abstract class AbstractAgentSnapshotInfoBuilder {
 					}
 					final double spaceConsumptionOfHoles = sum*spacingOfOnePCE;
 					final double spaceAvailableForHoles = distanceOfHoleFromFromNode - firstHolePosition;
-					if ( wrnCnt < 10 ) {
-						wrnCnt++ ;
+					final int wrnCount = wrnCnt.get() < 10 ? wrnCnt.incrementAndGet() : 11;
+					if ( wrnCount <= 10 ) {
 						if ( spaceConsumptionOfHoles >= spaceAvailableForHoles ) {
 							log.warn("we have a problem: holes consume too much space:" ) ;
 							log.warn( "summed up space consumption of holes: " + spaceConsumptionOfHoles );
 							log.warn("distance bw first and last hole: " + spaceAvailableForHoles ) ;
 						}
-						if (wrnCnt == 10) {
+						if (wrnCount == 10) {
 							log.warn(Gbl.FUTURE_SUPPRESSED ) ;
 						}
 					}
@@ -20,10 +20,8 @@
 
 package org.matsim.core.mobsim.qsim.qnetsimengine;
 
+import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.ListIterator;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
@@ -55,8 +53,9 @@ abstract class AbstractQNetsimEngineRunner extends NetElementActivationRegistry
 	 * are handled (by design) from links handled by the same thread. Therefore,
 	 * no concurrent add operation can occur.
 	 * cdobler, sep'14
+	 * An array list which is compacted in place while moving the links, rather than a linked list with one node per activation.
 	 */
-	private final List<QLinkI> linksList = new LinkedList<>();
+	private final ArrayList<QLinkI> linksList = new ArrayList<>();
 
 	/*
 	 * Ensure that nodes and links are only activate during times where we expect it.
@@ -100,14 +99,16 @@ abstract class AbstractQNetsimEngineRunner extends NetElementActivationRegistry
 		boolean remainsActive;
 		lockLinks = true;
 		QLinkI link;
-		ListIterator<QLinkI> simLinks = this.linksList.listIterator();
-		while (simLinks.hasNext()) {
-			link = simLinks.next();
+		// keep the links which remain active at the front of the list, in their original order:
+		int numberOfActiveLinks = 0;
+		for (int i = 0; i < this.linksList.size(); i++) {
+			link = this.linksList.get(i);
 
 			remainsActive = link.doSimStep();
 
-			if (!remainsActive) simLinks.remove();
+			if (remainsActive) this.linksList.set(numberOfActiveLinks++, link);
 		}
+		this.linksList.subList(numberOfActiveLinks, this.linksList.size()).clear();
 		lockLinks = false;
 	}
 
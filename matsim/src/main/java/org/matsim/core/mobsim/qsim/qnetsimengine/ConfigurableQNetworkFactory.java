@@ -56,6 +56,7 @@ public final class ConfigurableQNetworkFactory implements QNetworkFactory {
 	private Optional<VehicleHandler> vehicleHandler = Optional.empty();
 	private Optional<FlowEfficiencyCalculator> flowEfficiencyCalculator = Optional.empty();
 	private Optional<VehicleQ.Factory<QVehicle>> vehicleQFactory = Optional.empty();
+	private Optional<QSimConfigGroup.LinkQueueType> linkQueueType = Optional.empty();
 
 	public ConfigurableQNetworkFactory(EventsManager events, Scenario scenario) {
 		this.events = events;
@@ -85,6 +86,7 @@ public final class ConfigurableQNetworkFactory implements QNetworkFactory {
 		QLinkImpl.Builder linkBuilder = new QLinkImpl.Builder(context, netsimEngine);
 		{
 			QueueWithBuffer.Builder laneFactory = new QueueWithBuffer.Builder(context);
+			linkQueueType.ifPresent(laneFactory::setLinkQueueType);
 			vehicleQFactory.ifPresent(factory -> laneFactory.setVehicleQueue(factory.createVehicleQ()));
 			flowEfficiencyCalculator.ifPresent(laneFactory::setFlowEfficiencyCalculator);
 			linkBuilder.setLaneFactory(laneFactory);
@@ -121,6 +123,14 @@ public final class ConfigurableQNetworkFactory implements QNetworkFactory {
 		this.vehicleQFactory = Optional.of(factory);
 	}
 
+	/**
+	 * Overrides {@link QSimConfigGroup#getLinkQueueType()}.  A vehicle queue set by {@link #setVehicleQFactory(VehicleQ.Factory)} is
+	 * still used.
+	 */
+	public final void setLinkQueueType(QSimConfigGroup.LinkQueueType linkQueueType) {
+		this.linkQueueType = Optional.of(linkQueueType);
+	}
+
 	public final void setFlowEfficiencyCalculator(FlowEfficiencyCalculator flowEfficiencyCalculator) {
 		this.flowEfficiencyCalculator = Optional.of(flowEfficiencyCalculator);
 	}
@@ -44,7 +44,7 @@ public final class DefaultTurnAcceptanceLogic implements TurnAcceptanceLogic {
 					+ ". The agent is removed from the simulation.");
 			return AcceptTurn.ABORT;
 		}
-		QLinkI nextQLink = qNetwork.getNetsimLinks().get(nextLinkId);
+		QLinkI nextQLink = qNetwork.getNetsimLink(nextLinkId);
 
 		if (nextQLink == null){
 			log.warn("The link id " + nextLinkId + " is not available in the simulation network, but vehicle " + veh.getId() +
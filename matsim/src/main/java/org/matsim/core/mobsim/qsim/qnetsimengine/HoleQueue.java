@@ -0,0 +1,142 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * HoleQueue.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.mobsim.qsim.qnetsimengine;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+
+import org.matsim.core.mobsim.qsim.qnetsimengine.QueueWithBuffer.Hole;
+
+/**
+ * The holes travelling upstream on a {@link QueueWithBuffer}, in the order of their arrival at the upstream end of the link.
+ */
+interface HoleQueue extends Queue<Hole> {
+
+	void addHole(double earliestLinkExitTime, double sizeInEquivalents);
+
+	static HoleQueue create(boolean ringBuffer) {
+		return ringBuffer ? new RingBufferHoleQueue() : new LinkedListHoleQueue();
+	}
+
+	/**
+	 * The original implementation, a new hole and list node per vehicle leaving the link.
+	 */
+	final class LinkedListHoleQueue extends LinkedList<Hole> implements HoleQueue {
+		@Override public void addHole(double earliestLinkExitTime, double sizeInEquivalents) {
+			Hole hole = new Hole();
+			hole.setEarliestLinkExitTime(earliestLinkExitTime);
+			hole.setSizeInEquivalents(sizeInEquivalents);
+			add(hole);
+		}
+	}
+
+	/**
+	 * Keeps the holes in a circular array, which grows when full but is never shrunk.  The hole objects stay in their slots after
+	 * having been polled and are re-used by later {@link #addHole(double, double)} calls, i.e. a polled hole is only valid until
+	 * the next hole is added.
+	 */
+	final class RingBufferHoleQueue extends AbstractQueue<Hole> implements HoleQueue {
+		private Hole[] holes = new Hole[4];
+		private int head = 0;
+		private int size = 0;
+
+		@Override public void addHole(double earliestLinkExitTime, double sizeInEquivalents) {
+			if (size == holes.length) {
+				grow();
+			}
+			int slot = (head + size) & (holes.length - 1);
+			Hole hole = holes[slot];
+			if (hole == null) {
+				hole = new Hole();
+				holes[slot] = hole;
+			}
+			hole.setEarliestLinkExitTime(earliestLinkExitTime);
+			hole.setSizeInEquivalents(sizeInEquivalents);
+			size++;
+		}
+
+		@Override public boolean offer(Hole hole) {
+			if (size == holes.length) {
+				grow();
+			}
+			holes[(head + size) & (holes.length - 1)] = hole;
+			size++;
+			return true;
+		}
+
+		private void grow() {
+			// unroll the ring, so that head is at 0 afterwards.  The pooled holes in the free slots are kept as well:
+			Hole[] newHoles = new Hole[holes.length * 2];
+			for (int i = 0; i < holes.length; i++) {
+				newHoles[i] = holes[(head + i) & (holes.length - 1)];
+			}
+			holes = newHoles;
+			head = 0;
+		}
+
+		@Override public Hole peek() {
+			return size == 0 ? null : holes[head];
+		}
+
+		@Override public Hole poll() {
+			if (size == 0) {
+				return null;
+			}
+			Hole hole = holes[head];
+			head = (head + 1) & (holes.length - 1);
+			size--;
+			return hole;
+		}
+
+		@Override public int size() {
+			return size;
+		}
+
+		@Override public boolean isEmpty() {
+			return size == 0;
+		}
+
+		@Override public void clear() {
+			head = 0;
+			size = 0;
+		}
+
+		@Override public Iterator<Hole> iterator() {
+			return new Iterator<>() {
+				private int i = 0;
+
+				@Override public boolean hasNext() {
+					return i < size;
+				}
+
+				@Override public Hole next() {
+					if (i >= size) {
+						throw new NoSuchElementException();
+					}
+					return holes[(head + i++) & (holes.length - 1)];
+				}
+			};
+		}
+	}
+}
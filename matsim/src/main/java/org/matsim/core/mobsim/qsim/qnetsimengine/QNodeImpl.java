@@ -66,7 +66,11 @@ final class QNodeImpl extends AbstractQNode {
 	
 	private final QLinkI[] inLinksArrayCache;
 	private final QLinkI[] tempLinks;
-	private Double[] inLinkPriorities;
+	/**
+	 * The capacities of the in-links at the current time step, looked up once per time step rather than for every vehicle.
+	 */
+	private final double[] inLinkCapacities;
+	private double[] inLinkPriorities;
 	
 	private final Random random;
 	private final NetsimEngineContext context;
@@ -111,6 +115,7 @@ final class QNodeImpl extends AbstractQNode {
 		int nofInLinks = n.getInLinks().size();
 		this.inLinksArrayCache = new QLinkI[nofInLinks];
 		this.tempLinks = new QLinkI[nofInLinks];
+		this.inLinkCapacities = new double[nofInLinks];
 		if (this.context.qsimConfig.getNumberOfThreads() > 1) {
 			// This could just as well be the "normal" case. The second alternative
 			// is just there so some scenarios / test cases stay
@@ -170,7 +175,7 @@ final class QNodeImpl extends AbstractQNode {
 			/* initialize inLink priorities.
 			 * unfortunately, this can't be done in init() because when capacities are changed 
 			 * before controler.run() init() uses the old capacities. theresa, may'20 */ 
-			inLinkPriorities = new Double[inLinksArrayCache.length];
+			inLinkPriorities = new double[inLinksArrayCache.length];
 			for (int inLinkCounter=0; inLinkCounter<this.inLinksArrayCache.length; inLinkCounter++) {
 				double linkCap = this.inLinksArrayCache[inLinkCounter].getLink().getCapacity(now);
 				inLinkPriorities[inLinkCounter] = 1. / linkCap;
@@ -185,8 +190,10 @@ final class QNodeImpl extends AbstractQNode {
 		for (int inLinkIndex = 0; inLinkIndex < this.inLinksArrayCache.length; inLinkIndex++) {
 			QLinkI link = this.inLinksArrayCache[inLinkIndex];
 			if (!link.isNotOfferingVehicle()) {
+				// (the capacities are only up to date for the links offering vehicles)
+				this.inLinkCapacities[inLinkIndex] = link.getLink().getCapacity(now);
 				this.tempLinks[inLinkIndex] = link;
-				inLinksCapSum += link.getLink().getCapacity(now);
+				inLinksCapSum += this.inLinkCapacities[inLinkIndex];
 			}
 		}
 		
@@ -207,10 +214,10 @@ final class QNodeImpl extends AbstractQNode {
 					QLinkI link = this.tempLinks[i];
 					if (link != null) {
 						// link is offering vehicles
-						selCap += link.getLink().getCapacity(now);
+						selCap += this.inLinkCapacities[i];
 						if (selCap >= rndNum) {
 							// try to move vehicles from this link over the node
-							inLinksCapSum -= link.getLink().getCapacity(now);
+							inLinksCapSum -= this.inLinkCapacities[i];
 							this.tempLinks[i] = null;
 							this.moveLink(link, now);
 							if (this.stopMoveNodeWhenSingleOutlinkFull && this.atLeastOneOutgoingLaneIsJammed) {
@@ -233,12 +240,12 @@ final class QNodeImpl extends AbstractQNode {
 					QLinkI link = this.tempLinks[i];
 					if (link != null) {
 						// link is offering vehicles
-						selCap += link.getLink().getCapacity(now);
+						selCap += this.inLinkCapacities[i];
 						if (selCap >= rndNum) {
 							// try to move a vehicle from this link over the node
 							if ( ! moveFirstVehicleOnLink(now, link)) {
 								// the link is not able to move (more) vehicles in this time step
-								inLinksCapSum -= link.getLink().getCapacity(now);
+								inLinksCapSum -= this.inLinkCapacities[i];
 								this.tempLinks[i] = null;
 							} else {
 								// a vehicle has been moved
@@ -268,7 +275,7 @@ final class QNodeImpl extends AbstractQNode {
 							 * (e.g. 1/7200 + 1/7200 as double is greater than 1/3600).
 							 * for equal priorities the tie breaking rule is applied (lower link id, see above)
 							 */
-							(float) this.inLinkPriorities[i].doubleValue() < (float) minPrio) {
+							(float) this.inLinkPriorities[i] < (float) minPrio) {
 						// link is offering vehicles and has lowest priority so far
 						minPrio = this.inLinkPriorities[i];
 						prioInLinkIndex = i;
@@ -279,12 +286,12 @@ final class QNodeImpl extends AbstractQNode {
 				// try to move a vehicle from this selected link over the node
 				if ( ! moveFirstVehicleOnLink(now, selectedLink)) {
 					// the link is not able to move (more) vehicles in this time step
-					inLinksCapSum -= selectedLink.getLink().getCapacity(now);
+					inLinksCapSum -= this.inLinkCapacities[prioInLinkIndex];
 					this.tempLinks[prioInLinkIndex] = null;
 				} else {
 					// a vehicle has been moved; update priority of the selected link
 					prioWithWhichTheLastVehWasSent = minPrio;
-					this.inLinkPriorities[prioInLinkIndex] += 1. / selectedLink.getLink().getCapacity(now);
+					this.inLinkPriorities[prioInLinkIndex] += 1. / this.inLinkCapacities[prioInLinkIndex];
 				}
 				if (this.atLeastOneOutgoingLaneIsJammed) {
 					// stopMoveNodeWhenSingleOutlinkFull is always true for this node transition
@@ -397,7 +404,7 @@ final class QNodeImpl extends AbstractQNode {
 			return false;
 		}
 		
-		QLinkI nextQueueLink = this.netsimEngine.getNetsimNetwork().getNetsimLinks().get(nextLinkId);
+		QLinkI nextQueueLink = this.netsimEngine.getNetsimNetwork().getNetsimLink(nextLinkId);
 		QLaneI nextQueueLane = nextQueueLink.getAcceptingQLane() ;
 		if (nextQueueLane.isAcceptingFromUpstream()) {
 			moveVehicleFromInlinkToOutlink(veh, currentLink.getId(), fromLane, nextLinkId, nextQueueLane);
@@ -22,11 +22,7 @@ package org.matsim.core.mobsim.qsim.qnetsimengine;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.Queue;
 
-import org.apache.commons.lang3.tuple.ImmutablePair;
-import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.matsim.api.core.v01.Coord;
@@ -53,6 +49,7 @@ import org.matsim.core.mobsim.qsim.qnetsimengine.flow_efficiency.FlowEfficiencyC
 import org.matsim.core.mobsim.qsim.qnetsimengine.linkspeedcalculator.LinkSpeedCalculator;
 import org.matsim.core.mobsim.qsim.qnetsimengine.vehicleq.FIFOVehicleQ;
 import org.matsim.core.mobsim.qsim.qnetsimengine.vehicleq.PassingVehicleQ;
+import org.matsim.core.mobsim.qsim.qnetsimengine.vehicleq.RingBufferVehicleQ;
 import org.matsim.core.mobsim.qsim.qnetsimengine.vehicleq.VehicleQ;
 import org.matsim.lanes.Lane;
 import org.matsim.vehicles.Vehicle;
@@ -133,7 +130,7 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
 	private double flowCapacityPerTimeStep;
 	private double remainingHolesStorageCapacity = 0.0 ;
 
-	private final Queue<QueueWithBuffer.Hole> holes = new LinkedList<>();
+	private final HoleQueue holes;
 
 	/** the last time-step the front-most vehicle in the buffer was moved. Used for detecting dead-locks. */
 	private double bufferLastMovedTime = Double.NEGATIVE_INFINITY ;
@@ -152,7 +149,7 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
 	 * (1) entry to the buffer (this is where it is computed and then stored) <br>
 	 * (2) update of the remaining flow capacity (where we account for all vehicles that are still in the buffer since previous time steps) - see {@link #subtractConsumptionOfVehiclesThatAreAlreadyInTheBuffer()} <br>
 	 */
-	private final Queue<Pair<QVehicle,Double>> buffer = new LinkedList<>() ;
+	private final VehicleBuffer buffer;
 	/**
 	 * null if the link is not signalized
 	 */
@@ -174,12 +171,14 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
 	/**
 	 * Points to the latest vehicle that entered the buffer and the entry time.
 	 */
-	private Pair<QVehicle,Double> lastBufferEntry = null;
+	private QVehicle lastBufferEntryVehicle = null;
+	private double lastBufferEntryTime;
 
 	/**
 	 * Points to the latest vehicle that entered the queue and the entry time.
 	 */
-	private Pair<QVehicle,Double> lastQueueEntry = null;
+	private QVehicle lastQueueEntryVehicle = null;
+	private double lastQueueEntryTime;
 
 
 	private final VisData visData = new VisDataImpl() ;
@@ -194,7 +193,7 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
 
 	private QueueWithBuffer(AbstractQLink.QLinkInternalInterface qlink, final VehicleQ<QVehicle> vehicleQueue, Id<Lane> laneId,
 							double length, double effectiveNumberOfLanes, double flowCapacity_s, final NetsimEngineContext context,
-							FlowEfficiencyCalculator flowEfficiencyCalculator) {
+							FlowEfficiencyCalculator flowEfficiencyCalculator, boolean ringBuffers) {
 		// the general idea is to give this object no longer access to "everything".  Objects get back pointers (here qlink), but they
 		// do not present the back pointer to the outside.  In consequence, this object can go up to qlink, but not any further. kai, mar'16
 		// Now I am even trying to get rid of the full qLink back pointer (since it allows, e.g., going back to Link). kai, feb'18
@@ -206,6 +205,8 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
 		this.id = laneId ;
 		this.context = context ;
 		this.vehQueue = vehicleQueue ;
+		this.buffer = VehicleBuffer.create(ringBuffers);
+		this.holes = HoleQueue.create(ringBuffers);
 		this.length = length;
 		this.unscaledFlowCapacity_s = flowCapacity_s ;
 		this.effectiveNumberOfLanes = effectiveNumberOfLanes;
@@ -226,12 +227,13 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
 
 		double now = context.getSimTimer().getTimeOfDay() ;
 
-		double flowConsumption = (lastBufferEntry == null) ?
-				getFlowCapacityConsumptionInEquivalents(veh, null, null) : getFlowCapacityConsumptionInEquivalents(veh, lastBufferEntry.getKey(), now - lastBufferEntry.getValue());
+		double flowConsumption = (lastBufferEntryVehicle == null) ?
+				getFlowCapacityConsumptionInEquivalents(veh, null, null) : getFlowCapacityConsumptionInEquivalents(veh, lastBufferEntryVehicle, now - lastBufferEntryTime);
         this.flowcap_accumulate.addValue(-flowConsumption, now);
 
-		buffer.add(new ImmutablePair<>(veh,flowConsumption));
-		lastBufferEntry = new ImmutablePair<>(veh,now);
+		buffer.add(veh,flowConsumption);
+		lastBufferEntryVehicle = veh;
+		lastBufferEntryTime = now;
 
 		if (buffer.size() == 1) {
 			bufferLastMovedTime = now;
@@ -354,12 +356,8 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
 	}
 
 	private double subtractConsumptionOfVehiclesThatAreAlreadyInTheBuffer() {
-		double remainingFlowCapThisTimeStep = flowCapacityPerTimeStep;
-		for (Pair<QVehicle,Double> vehEfficiencyPair : buffer) {
-			// Subtract size of vehicles that are already in the buffer (from previous time steps)
-			remainingFlowCapThisTimeStep -= vehEfficiencyPair.getValue();
-		}
-		return remainingFlowCapThisTimeStep;
+		// Subtract size of vehicles that are already in the buffer (from previous time steps)
+		return buffer.subtractFlowConsumptions(flowCapacityPerTimeStep);
 	}
 
 	@Override
@@ -630,15 +628,16 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
                 break;
             case kinematicWaves:
                 this.remainingHolesStorageCapacity -= veh.getSizeInEquivalents();
-				double flowConsumption = (lastQueueEntry == null) ?
-						getFlowCapacityConsumptionInEquivalents(veh, null, null) : getFlowCapacityConsumptionInEquivalents(veh, lastQueueEntry.getKey(), now - lastQueueEntry.getValue());
+				double flowConsumption = (lastQueueEntryVehicle == null) ?
+						getFlowCapacityConsumptionInEquivalents(veh, null, null) : getFlowCapacityConsumptionInEquivalents(veh, lastQueueEntryVehicle, now - lastQueueEntryTime);
                 this.accumulatedInflowCap -= flowConsumption;
                 break;
             default:
                 throw new RuntimeException("The traffic dynamics " + context.qsimConfig.getTrafficDynamics() + " is not implemented yet.");
 		}
 
-		lastQueueEntry = new ImmutablePair<>(veh, now);
+		lastQueueEntryVehicle = veh;
+		lastQueueEntryTime = now;
 	}
 
 	private void removeVehicleFromQueue(final QVehicle veh2Remove) {
@@ -663,7 +662,6 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
 				break;
 			case withHoles:
 			case kinematicWaves:
-				QueueWithBuffer.Hole hole = new QueueWithBuffer.Hole() ;
 				double ttimeOfHoles = length*3600./HOLE_SPEED_KM_H/1000. ;
 
 				//			double offset = this.storageCapacity/this.flowCapacityPerTimeStep ;
@@ -680,9 +678,8 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
 				//			double nLanes = 2. * flowCapacityPerTimeStep ; // pseudo-lanes
 				//			double ttimeOfHoles = 0.1 * this.storageCapacity/this.flowCapacityPerTimeStep/nLanes ;
 
-				hole.setEarliestLinkExitTime( now + 1.0*ttimeOfHoles + 0.0*MatsimRandom.getRandom().nextDouble()*ttimeOfHoles ) ;
-				hole.setSizeInEquivalents(veh2Remove.getSizeInEquivalents());
-				holes.add( hole ) ;
+				holes.addHole( now + 1.0*ttimeOfHoles + 0.0*MatsimRandom.getRandom().nextDouble()*ttimeOfHoles,
+						veh2Remove.getSizeInEquivalents() ) ;
 				break;
 			default: throw new RuntimeException("The traffic dynmics "+context.qsimConfig.getTrafficDynamics()+" is not implemented yet.");
 		}
@@ -769,9 +766,9 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
 			if (veh.getId().equals(vehicleId))
 				return veh;
 		}
-		for (Pair<QVehicle,Double> vehEfficiencyPair : this.buffer) {
-			if (vehEfficiencyPair.getKey().getId().equals(vehicleId))
-				return vehEfficiencyPair.getKey();
+		for (QVehicle veh : this.buffer) {
+			if (veh.getId().equals(vehicleId))
+				return veh;
 		}
 		return null;
 	}
@@ -782,8 +779,8 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
 		 * It will be more complicated for passingQueue. amit feb'16
 		 */
 		Collection<MobsimVehicle> vehicles = new ArrayList<>();
-		for (Pair<QVehicle, Double> pair : buffer) {
-			vehicles.add(pair.getKey());
+		for (QVehicle veh : buffer) {
+			vehicles.add(veh);
 		}
 		vehicles.addAll(vehQueue);
 		return vehicles ;
@@ -803,7 +800,7 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
 
 	private final QVehicle removeFirstVehicle(){
 		double now = context.getSimTimer().getTimeOfDay() ;
-		QVehicle veh = buffer.poll().getKey();
+		QVehicle veh = buffer.poll();
 		bufferLastMovedTime = now; // just in case there is another vehicle in the buffer that is now the new front-most
 		if( context.qsimConfig.isUsingFastCapacityUpdate() ) {
 			flowcap_accumulate.setTimeStep(now - context.qsimConfig.getTimeStepSize());
@@ -864,8 +861,7 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
 		}
 		vehQueue.clear();
 
-		for (Pair<QVehicle,Double> bufferEntry : buffer) {
-			QVehicle veh = bufferEntry.getKey();
+		for (QVehicle veh : buffer) {
 			context.getEventsManager().processEvent( new VehicleAbortsEvent(now, veh.getId(), veh.getCurrentLink().getId()));
 			context.getEventsManager().processEvent( new PersonStuckEvent(now, veh.getDriver().getId(), veh.getCurrentLink().getId(), veh.getDriver().getMode()));
 
@@ -901,7 +897,7 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
 		if (this.buffer.isEmpty()) {
 			return this.vehQueue.peek();
 		}
-		return this.buffer.peek().getKey() ;
+		return this.buffer.peek() ;
 	}
 
 	@Override
@@ -1066,18 +1062,32 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
 
     static final class Builder implements LaneFactory {
         private final NetsimEngineContext context;
-        private VehicleQ<QVehicle> vehicleQueue = new FIFOVehicleQ();
+        private VehicleQ<QVehicle> vehicleQueue;
         private Id<Lane> id = null;
         private Double length = null;
         private Double effectiveNumberOfLanes = null;
         private Double flowCapacity_s = null;
         private FlowEfficiencyCalculator flowEfficiencyCalculator;
+        private QSimConfigGroup.LinkQueueType linkQueueType;
 
         Builder(final NetsimEngineContext context) {
             this.context = context;
+            this.setLinkQueueType(context.qsimConfig.getLinkQueueType());
+        }
+
+        /**
+         * Replaces the vehicle queue by the default one for the link dynamics and this link queue type, so a vehicle queue
+         * set by {@link #setVehicleQueue(VehicleQ)} needs to be set afterwards.
+         */
+        void setLinkQueueType(QSimConfigGroup.LinkQueueType linkQueueType) {
+            this.linkQueueType = linkQueueType;
             if (context.qsimConfig.getLinkDynamics() == QSimConfigGroup.LinkDynamics.PassingQ ||
                     context.qsimConfig.getLinkDynamics() == QSimConfigGroup.LinkDynamics.SeepageQ) {
                 this.vehicleQueue = new PassingVehicleQ();
+            } else if (linkQueueType == QSimConfigGroup.LinkQueueType.ringBuffer) {
+                this.vehicleQueue = new RingBufferVehicleQ();
+            } else {
+                this.vehicleQueue = new FIFOVehicleQ();
             }
         }
 
@@ -1123,7 +1133,8 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
             if (flowEfficiencyCalculator == null) {
                 flowEfficiencyCalculator = new DefaultFlowEfficiencyCalculator();
             }
-            return new QueueWithBuffer(qLink.getInternalInterface(), vehicleQueue, id, length, effectiveNumberOfLanes, flowCapacity_s, context, flowEfficiencyCalculator ) ;
+            return new QueueWithBuffer(qLink.getInternalInterface(), vehicleQueue, id, length, effectiveNumberOfLanes, flowCapacity_s, context, flowEfficiencyCalculator,
+                    linkQueueType == QSimConfigGroup.LinkQueueType.ringBuffer ) ;
 		}
 	}
 
@@ -0,0 +1,202 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * VehicleBuffer.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.mobsim.qsim.qnetsimengine;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * The buffer of a {@link QueueWithBuffer}: the vehicles which are ready to cross the downstream node, in the order in which they
+ * entered the buffer, together with the flow capacity they consumed when entering it.  Iterates over the vehicles from the front.
+ */
+interface VehicleBuffer extends Iterable<QVehicle> {
+
+	void add(QVehicle vehicle, double flowConsumption);
+
+	int size();
+
+	boolean isEmpty();
+
+	/**
+	 * @return the given value minus the flow capacity consumptions of all vehicles in the buffer, subtracted one by one from the
+	 * front.
+	 */
+	double subtractFlowConsumptions(double value);
+
+	/**
+	 * @return the front-most vehicle, or null if the buffer is empty.
+	 */
+	QVehicle peek();
+
+	/**
+	 * Removes the front-most vehicle.
+	 */
+	QVehicle poll();
+
+	void clear();
+
+	static VehicleBuffer create(boolean ringBuffer) {
+		return ringBuffer ? new RingBuffer() : new LinkedListBuffer();
+	}
+
+	/**
+	 * The original implementation, one list node and one pair per vehicle.
+	 */
+	final class LinkedListBuffer implements VehicleBuffer {
+		private final LinkedList<Pair<QVehicle, Double>> buffer = new LinkedList<>();
+
+		@Override public void add(QVehicle vehicle, double flowConsumption) {
+			buffer.add(new ImmutablePair<>(vehicle, flowConsumption));
+		}
+
+		@Override public int size() {
+			return buffer.size();
+		}
+
+		@Override public boolean isEmpty() {
+			return buffer.isEmpty();
+		}
+
+		@Override public double subtractFlowConsumptions(double value) {
+			for (Pair<QVehicle, Double> vehEfficiencyPair : buffer) {
+				value -= vehEfficiencyPair.getValue();
+			}
+			return value;
+		}
+
+		@Override public Iterator<QVehicle> iterator() {
+			Iterator<Pair<QVehicle, Double>> it = buffer.iterator();
+			return new Iterator<>() {
+				@Override public boolean hasNext() {
+					return it.hasNext();
+				}
+
+				@Override public QVehicle next() {
+					return it.next().getKey();
+				}
+			};
+		}
+
+		@Override public QVehicle peek() {
+			return buffer.isEmpty() ? null : buffer.peek().getKey();
+		}
+
+		@Override public QVehicle poll() {
+			return buffer.poll().getKey();
+		}
+
+		@Override public void clear() {
+			buffer.clear();
+		}
+	}
+
+	/**
+	 * Vehicles and their flow consumptions in two circular arrays, which grow when full but are never shrunk.
+	 */
+	final class RingBuffer implements VehicleBuffer {
+		private QVehicle[] vehicles = new QVehicle[4];
+		private double[] flowConsumptions = new double[4];
+		private int head = 0;
+		private int size = 0;
+
+		@Override public void add(QVehicle vehicle, double flowConsumption) {
+			if (size == vehicles.length) {
+				grow();
+			}
+			int slot = (head + size) & (vehicles.length - 1);
+			vehicles[slot] = vehicle;
+			flowConsumptions[slot] = flowConsumption;
+			size++;
+		}
+
+		private void grow() {
+			// unroll the ring, so that head is at 0 afterwards:
+			QVehicle[] newVehicles = new QVehicle[vehicles.length * 2];
+			double[] newFlowConsumptions = new double[vehicles.length * 2];
+			for (int i = 0; i < size; i++) {
+				int slot = (head + i) & (vehicles.length - 1);
+				newVehicles[i] = vehicles[slot];
+				newFlowConsumptions[i] = flowConsumptions[slot];
+			}
+			vehicles = newVehicles;
+			flowConsumptions = newFlowConsumptions;
+			head = 0;
+		}
+
+		@Override public int size() {
+			return size;
+		}
+
+		@Override public boolean isEmpty() {
+			return size == 0;
+		}
+
+		@Override public double subtractFlowConsumptions(double value) {
+			for (int i = 0; i < size; i++) {
+				value -= flowConsumptions[(head + i) & (vehicles.length - 1)];
+			}
+			return value;
+		}
+
+		@Override public Iterator<QVehicle> iterator() {
+			return new Iterator<>() {
+				private int i = 0;
+
+				@Override public boolean hasNext() {
+					return i < size;
+				}
+
+				@Override public QVehicle next() {
+					if (i >= size) {
+						throw new NoSuchElementException();
+					}
+					return vehicles[(head + i++) & (vehicles.length - 1)];
+				}
+			};
+		}
+
+		@Override public QVehicle peek() {
+			return size == 0 ? null : vehicles[head];
+		}
+
+		@Override public QVehicle poll() {
+			if (size == 0) {
+				throw new IllegalStateException("buffer is empty");
+			}
+			QVehicle vehicle = vehicles[head];
+			vehicles[head] = null;
+			head = (head + 1) & (vehicles.length - 1);
+			size--;
+			return vehicle;
+		}
+
+		@Override public void clear() {
+			Arrays.fill(vehicles, null);
+			head = 0;
+			size = 0;
+		}
+	}
+}
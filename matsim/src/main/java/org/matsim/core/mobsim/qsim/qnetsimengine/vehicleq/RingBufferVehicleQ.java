@@ -0,0 +1,83 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * RingBufferVehicleQ.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.mobsim.qsim.qnetsimengine.vehicleq;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+import org.matsim.core.mobsim.qsim.qnetsimengine.QVehicle;
+
+/**
+ * Same behavior as {@link FIFOVehicleQ}, but keeps the vehicles in a growing circular array instead of a linked list, so that adding
+ * and removing vehicles does not allocate.
+ */
+public final class RingBufferVehicleQ extends AbstractQueue<QVehicle> implements VehicleQ<QVehicle> {
+
+	private final ArrayDeque<QVehicle> vehicleQueue = new ArrayDeque<>();
+
+	@Override
+	public boolean offer(QVehicle e) {
+		return vehicleQueue.offer(e);
+	}
+
+	@Override
+	public QVehicle peek() {
+		return vehicleQueue.peek();
+	}
+
+	@Override
+	public QVehicle poll() {
+		return vehicleQueue.poll();
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		// usually the first vehicle, which the deque removes without moving the others:
+		return vehicleQueue.removeFirstOccurrence(o);
+	}
+
+	@Override
+	public Iterator<QVehicle> iterator() {
+		return vehicleQueue.iterator();
+	}
+
+	@Override
+	public int size() {
+		return vehicleQueue.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return vehicleQueue.isEmpty();
+	}
+
+	@Override
+	public void clear() {
+		vehicleQueue.clear();
+	}
+
+	@Override
+	public void addFirst(QVehicle e) {
+		vehicleQueue.addFirst(e);
+	}
+
+}
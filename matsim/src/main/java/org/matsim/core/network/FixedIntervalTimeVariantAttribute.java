@@ -31,16 +31,24 @@ import com.google.common.base.Preconditions;
 /**
  * This class follows the rules assumed in {@link TravelTimeCalculator}: The constructor arguments
  * timeSlice and maxTime have the same meaning as there, and the last time bin is open ended.
+ * <p></p>
+ * The values are filled into a new array on every recalculation, which is then published together with the base value as a whole,
+ * so that readers do not need to synchronize.
  */
 final class FixedIntervalTimeVariantAttribute implements TimeVariantAttribute {
 	private final int timeSlice;
 	private final int numSlots;
 
-	private double baseValue;
-	private double[] values;
+	private volatile Values current = new Values(0., null);
 
-	private int eventsCount = 0;
-	private int eventsCountWhenLastRecalc = -1;
+	private volatile int eventsCount = 0;
+	private volatile int eventsCountWhenLastRecalc = -1;
+
+	/**
+	 * @param values the value per time bin, or <code>null</code> if there are no change events and the base value applies all the time
+	 */
+	private record Values(double baseValue, double[] values) {
+	}
 
 	public FixedIntervalTimeVariantAttribute(int timeSlice, int maxTime) {
 		this.timeSlice = timeSlice;
@@ -56,18 +64,17 @@ final class FixedIntervalTimeVariantAttribute implements TimeVariantAttribute {
 	@Override
 	public void recalc(TreeMap<Double, NetworkChangeEvent> changeEvents, ChangeValueGetter valueGetter,
 			double baseValue1) {
-		this.baseValue = baseValue1;
-
+		final int eventsCount = this.eventsCount;
 		if (eventsCount == 0) {
+			this.current = new Values(baseValue1, null);
+			eventsCountWhenLastRecalc = 0;
 			return;
 		}
 
 		//To save memory, the array is constructed only if there is at least one ChangeEvent.
 		//This saves a lot of memory in cases when only one attribute is time variant, while
 		//the remaining two are invariant.
-		if (values == null) {
-			values = new double[numSlots];
-		}
+		double[] values = new double[numSlots];
 
 		int numEvent = 0;
 		int fromBin = 0;//inclusive
@@ -101,26 +108,29 @@ final class FixedIntervalTimeVariantAttribute implements TimeVariantAttribute {
 			}
 		}
 		Arrays.fill(values, fromBin, values.length, currentValue);
-		eventsCountWhenLastRecalc = eventsCount;
 
-		if (numEvent != this.eventsCount) {
+		if (numEvent != eventsCount) {
 			throw new RuntimeException("Expected number of change events ("
-					+ (this.eventsCount)
+					+ (eventsCount)
 					+ ") differs from the number of events found ("
 					+ numEvent
 					+ ")!");
 		}
+		// (publish the base value and the filled array together, only after filling it)
+		this.current = new Values(baseValue1, values);
+		eventsCountWhenLastRecalc = eventsCount;
 	}
 
 	@Override
 	public double getValue(final double time) {
 		Preconditions.checkArgument(!Double.isNaN(time), "NaN time is not supported");
-		if (eventsCount == 0) {
-			return baseValue;
+		Values current = this.current;
+		if (current.values == null) {
+			return current.baseValue;
 		}
 
 		int bin = TimeBinUtils.getTimeBinIndex(time, timeSlice, numSlots);
-		return bin < 0 ? baseValue : values[bin];
+		return bin < 0 ? current.baseValue : current.values[bin];
 	}
 
 	@Override
@@ -132,6 +142,6 @@ final class FixedIntervalTimeVariantAttribute implements TimeVariantAttribute {
 	public void clearEvents() {
 		eventsCount = 0;
 		eventsCountWhenLastRecalc = -1;
-		values = null;
+		current = new Values(current.baseValue, null);
 	}
 }
@@ -69,11 +69,12 @@ import org.matsim.utils.objectattributes.attributable.AttributesImpl;
 
 	private static final Set<String> DEFAULT_ALLOWED_MODES = HashSetCache.get(Set.of(TransportMode.car));
 
-	private final Attributes attributes = new AttributesImpl();
+	private final Attributes attributes;
 
 	/*deliberately package*/ LinkImpl(final Id<Link> id, final Node from, final Node to, final Network network, final double length, final double freespeed, final double capacity, final double lanes) {
 		this.id = id;
 		this.network = network;
+		this.attributes = network instanceof NetworkImpl networkImpl ? networkImpl.createLinkAttributes() : new AttributesImpl();
 		this.from = from;
 		this.to = to;
 		this.setLength(length);
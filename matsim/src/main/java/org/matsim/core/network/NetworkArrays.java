@@ -0,0 +1,159 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * NetworkArrays.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.network;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Dense, primitive copy of the static link attributes of a network, indexed by {@link Id#index()}. Code that looks at the
+ * attributes of many links in tight loops can use it instead of going through the link objects, which are scattered over
+ * the heap, as e.g. the {@code LinkTravelTimeTable} of the routers does. It does not replace the link objects: the
+ * network and the mobsim keep reading and writing them.
+ * <p></p>
+ * The arrays are a snapshot: they have to be re-created if links are added or their attributes are changed. For links
+ * with time-variant attributes, the stored values are the base values; use {@link #isTimeVariant(int)} to find out
+ * whether the link needs to be asked for the value at a certain time.
+ * <p></p>
+ * memory consumption: 4 doubles + 2 ints + 1 pointer per link index, i.e. about 44 bytes, and 1 pointer per node index.
+ * Like the link objects themselves, instances are thread-safe for reading.
+ */
+public final class NetworkArrays {
+
+	private final Link[] links;
+	private final Node[] nodes;
+	private final double[] length;
+	private final double[] freespeed;
+	private final double[] capacity;
+	private final double[] lanes;
+	private final int[] fromNode;
+	private final int[] toNode;
+	private final BitSet timeVariant = new BitSet();
+	private final double capacityPeriod;
+
+	public NetworkArrays(Network network) {
+		int linkCount = Id.getNumberOfIds(Link.class);
+		int nodeCount = Id.getNumberOfIds(Node.class);
+		this.links = new Link[linkCount];
+		this.nodes = new Node[nodeCount];
+		this.length = new double[linkCount];
+		this.freespeed = new double[linkCount];
+		this.capacity = new double[linkCount];
+		this.lanes = new double[linkCount];
+		this.fromNode = new int[linkCount];
+		this.toNode = new int[linkCount];
+		this.capacityPeriod = network.getCapacityPeriod();
+
+		Arrays.fill(this.fromNode, -1);
+		Arrays.fill(this.toNode, -1);
+
+		for (Node node : network.getNodes().values()) {
+			this.nodes[node.getId().index()] = node;
+		}
+		for (Link link : network.getLinks().values()) {
+			int index = link.getId().index();
+			this.links[index] = link;
+			this.length[index] = link.getLength();
+			this.freespeed[index] = link.getFreespeed();
+			this.capacity[index] = link.getCapacity();
+			this.lanes[index] = link.getNumberOfLanes();
+			this.fromNode[index] = link.getFromNode().getId().index();
+			this.toNode[index] = link.getToNode().getId().index();
+			if (link instanceof TimeVariantLinkImpl) {
+				this.timeVariant.set(index);
+			}
+		}
+	}
+
+	/**
+	 * @return the size of the link arrays, i.e. one more than the largest link index.
+	 */
+	public int getLinkIndexCount() {
+		return this.links.length;
+	}
+
+	public int getNodeIndexCount() {
+		return this.nodes.length;
+	}
+
+	/**
+	 * @return true if a link with this index was part of the network when the arrays were created
+	 */
+	public boolean containsLink(int linkIndex) {
+		return linkIndex < this.links.length && this.links[linkIndex] != null;
+	}
+
+	public Link getLink(int linkIndex) {
+		return this.links[linkIndex];
+	}
+
+	public Node getNode(int nodeIndex) {
+		return this.nodes[nodeIndex];
+	}
+
+	public double getLength(int linkIndex) {
+		return this.length[linkIndex];
+	}
+
+	public double getFreespeed(int linkIndex) {
+		return this.freespeed[linkIndex];
+	}
+
+	public double getFreespeedTravelTime(int linkIndex) {
+		return this.length[linkIndex] / this.freespeed[linkIndex];
+	}
+
+	/**
+	 * @return the capacity per {@link #getCapacityPeriod()}, as in {@link Link#getCapacity()}
+	 */
+	public double getCapacity(int linkIndex) {
+		return this.capacity[linkIndex];
+	}
+
+	public double getFlowCapacityPerSec(int linkIndex) {
+		return this.capacity[linkIndex] / this.capacityPeriod;
+	}
+
+	public double getNumberOfLanes(int linkIndex) {
+		return this.lanes[linkIndex];
+	}
+
+	public int getFromNodeIndex(int linkIndex) {
+		return this.fromNode[linkIndex];
+	}
+
+	public int getToNodeIndex(int linkIndex) {
+		return this.toNode[linkIndex];
+	}
+
+	public boolean isTimeVariant(int linkIndex) {
+		return this.timeVariant.get(linkIndex);
+	}
+
+	public double getCapacityPeriod() {
+		return this.capacityPeriod;
+	}
+}
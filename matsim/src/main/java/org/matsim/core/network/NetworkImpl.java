@@ -31,6 +31,7 @@ import org.matsim.core.scenario.Lockable;
 import org.matsim.core.utils.collections.QuadTree;
 import org.matsim.utils.objectattributes.attributable.Attributes;
 import org.matsim.utils.objectattributes.attributable.AttributesImpl;
+import org.matsim.utils.objectattributes.attributable.ColumnarAttributeStore;
 
 import java.util.*;
 
@@ -90,9 +91,22 @@ import java.util.*;
 
 	private boolean locked = false ;
 	private final Attributes attributes = new AttributesImpl();
+	private final ColumnarAttributeStore linkAttributes;
 
 	NetworkImpl(LinkFactory linkFactory) {
+		this(linkFactory, null);
+	}
+
+	/**
+	 * @param linkAttributes if not null, the attributes of all links created for this network are stored there
+	 */
+	NetworkImpl(LinkFactory linkFactory, ColumnarAttributeStore linkAttributes) {
 		this.factory = new NetworkFactoryImpl(this, linkFactory);
+		this.linkAttributes = linkAttributes;
+	}
+
+	/*package*/ Attributes createLinkAttributes() {
+		return this.linkAttributes == null ? new AttributesImpl() : this.linkAttributes.createAttributes();
 	}
 
 	@Override
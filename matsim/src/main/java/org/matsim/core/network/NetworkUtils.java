@@ -43,6 +43,7 @@ import org.matsim.core.network.io.MatsimNetworkReader;
 import org.matsim.core.utils.geometry.CoordUtils;
 import org.matsim.core.utils.geometry.CoordinateTransformation;
 import org.matsim.core.utils.misc.OptionalTime;
+import org.matsim.utils.objectattributes.attributable.ColumnarAttributeStore;
 
 /**
  * Contains several helper methods for working with {@link Network networks}.
@@ -87,7 +88,8 @@ public final class NetworkUtils {
 			linkFactory = new VariableIntervalTimeVariantLinkFactory();
 		}
 
-		return new NetworkImpl(linkFactory);
+		ColumnarAttributeStore linkAttributes = networkConfigGroup.isColumnarLinkAttributes() ? new ColumnarAttributeStore() : null;
+		return new NetworkImpl(linkFactory, linkAttributes);
 	}
 
 	/**
@@ -649,6 +651,13 @@ public final class NetworkUtils {
 		return link.getLength() / link.getFreespeed(time) ;
 	}
 
+	/**
+	 * @return whether the attributes of the link may change over time, i.e. whether it was created for a time-variant network
+	 */
+	public static boolean isTimeVariant( Link link ) {
+		return link instanceof TimeVariantLinkImpl ;
+	}
+
 	public static final String ALLOWED_SPEED = "allowed_speed";
 	public static final String TYPE="type" ;
 	public static void setType( Link link , String type ) {
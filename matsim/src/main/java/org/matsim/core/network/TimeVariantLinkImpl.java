@@ -26,6 +26,9 @@ import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.network.*;
 
 /**
+ * The time-dependent getters do not synchronize unless the attribute needs to be recalculated after a change event was added,
+ * since they are called for every vehicle in the mobsim, possibly from several threads.
+ *
  * @author laemmel
  * @author illenberger
  *
@@ -121,7 +124,7 @@ import org.matsim.api.core.v01.network.*;
 	 * @return the freespeed at time <tt>time</tt>.
 	 */
 	@Override
-	public synchronized double getFreespeed(final double time) {
+	public double getFreespeed(final double time) {
 
 		if (variableFreespeed.isRecalcRequired()) {
 			recalcFreespeed();
@@ -147,7 +150,7 @@ import org.matsim.api.core.v01.network.*;
 	 * @return the flow capacity at time <tt>time</tt>.
 	 */
 	@Override
-	public synchronized double getFlowCapacityPerSec(final double time) {
+	public double getFlowCapacityPerSec(final double time) {
 
 		if (variableFlowCapacity.isRecalcRequired()) {
 			recalcFlowCapacity();
@@ -171,7 +174,7 @@ import org.matsim.api.core.v01.network.*;
 	 * @return the capacity per network's capperiod timestep
 	 */
 	@Override
-	public synchronized double getCapacity(final double time) {
+	public double getCapacity(final double time) {
 		return getFlowCapacityPerSec(time) * getCapacityPeriod();
 	}
 
@@ -193,7 +196,7 @@ import org.matsim.api.core.v01.network.*;
 	 * encode the (min) width of the link to calculate the flow capacity - [GL] 13may08
 	 */
 	@Override
-	public synchronized double getNumberOfLanes(final double time) {
+	public double getNumberOfLanes(final double time) {
 		if (variableLanes.isRecalcRequired()) {
 			recalcLanes();
 		}
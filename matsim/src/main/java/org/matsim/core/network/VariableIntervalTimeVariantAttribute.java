@@ -26,21 +26,29 @@ import org.matsim.core.network.NetworkChangeEvent.ChangeValue;
 
 import com.google.common.base.Preconditions;
 
+/**
+ * Keeps the values of an attribute as a step function in two sorted primitive arrays, which are replaced as a whole on every
+ * recalculation.  Readers thus see either the old or the new step function, and do not need to synchronize.  Steps which do not
+ * change the value are dropped.
+ */
 final class VariableIntervalTimeVariantAttribute
 implements TimeVariantAttribute
 {
-	private int aEvents = 1;
-	private double[] aValues;
-	private double[] aTimes;
+	private volatile int aEvents = 1;
+	private volatile Steps steps = null;
+
+	private record Steps(int events, double[] times, double[] values) {
+	}
 
 
 	@Override
 	public boolean isRecalcRequired()
 	{
-		return (this.aTimes == null) || (this.aTimes.length != this.aEvents);
+		Steps steps = this.steps;
+		return (steps == null) || (steps.events != this.aEvents);
 		// The first condition just says if there is no material, we don't need to do anything.
-		// yyyy The second condition is a bit weird.  It essentially checks if the cached data structure (aTimes) has
-		// as many entries as it should have (given by aEvents).  This does need, however, an honest calling of
+		// yyyy The second condition is a bit weird.  It essentially checks if the cached data structure (steps) was
+		// computed from as many events as it should have (given by aEvents).  This does need, however, an honest calling of
 		// incChangeEvents().  Why not just compare aTimes.length to changeEvents.length?
 		// Counterargument might be that we may not have changeEvents.length available when we call isRecalcRequired().
 		// I do think, however, that this does not happen and also cannot happen, because we need the info anyway for recalculation.
@@ -54,10 +62,11 @@ implements TimeVariantAttribute
 	public void recalc(TreeMap<Double, NetworkChangeEvent> changeEvents,
 			ChangeValueGetter valueGetter, double baseValue)
 	{
-		this.aTimes = new double[this.aEvents];
-		this.aValues = new double[this.aEvents];
-		this.aTimes[0] = Double.NEGATIVE_INFINITY;
-		this.aValues[0] = baseValue;
+		final int events = this.aEvents;
+		double[] aTimes = new double[events];
+		double[] aValues = new double[events];
+		aTimes[0] = Double.NEGATIVE_INFINITY;
+		aValues[0] = baseValue;
 
 		int numEvent = 0;
 		if (changeEvents != null) {
@@ -68,19 +77,19 @@ implements TimeVariantAttribute
 					switch( value.getType() ) {
 					case ABSOLUTE_IN_SI_UNITS:
 						// here, we just need to replace the value:
-						this.aValues[++numEvent] = value.getValue();
-						this.aTimes[numEvent] = event.getStartTime();
+						aValues[++numEvent] = value.getValue();
+						aTimes[numEvent] = event.getStartTime();
 						break;
 					case FACTOR: {
 						// there, the change event multiplies what we have so far:
-						double currentValue = this.aValues[numEvent];
-						this.aValues[++numEvent] = currentValue * value.getValue();
-						this.aTimes[numEvent] = event.getStartTime();
+						double currentValue = aValues[numEvent];
+						aValues[++numEvent] = currentValue * value.getValue();
+						aTimes[numEvent] = event.getStartTime();
 						break; }
 					case OFFSET_IN_SI_UNITS: {
-						double currentValue = this.aValues[numEvent];
-						this.aValues[++numEvent] = currentValue + value.getValue();
-						this.aTimes[numEvent] = event.getStartTime();
+						double currentValue = aValues[numEvent];
+						aValues[++numEvent] = currentValue + value.getValue();
+						aTimes[numEvent] = event.getStartTime();
 						break; }
 					default:
 						throw new RuntimeException( "unknown ChangeType" ) ;
@@ -89,10 +98,21 @@ implements TimeVariantAttribute
 			}
 		}
 
-		if (numEvent != this.aEvents - 1) {
-			throw new RuntimeException("Expected number of change events (" + (this.aEvents - 1)
+		if (numEvent != events - 1) {
+			throw new RuntimeException("Expected number of change events (" + (events - 1)
 					+ ") differs from the number of events found (" + numEvent + ")!");
 		}
+
+		// drop the steps which keep the value (e.g. repeated absolute values), they only cost memory and search time:
+		int numSteps = 1;
+		for (int i = 1; i < events; i++) {
+			if (aValues[i] != aValues[numSteps - 1]) {
+				aTimes[numSteps] = aTimes[i];
+				aValues[numSteps] = aValues[i];
+				numSteps++;
+			}
+		}
+		this.steps = new Steps(events, Arrays.copyOf(aTimes, numSteps), Arrays.copyOf(aValues, numSteps));
 	}
 
 
@@ -101,9 +121,10 @@ implements TimeVariantAttribute
 	{
 		Preconditions.checkArgument(!Double.isNaN(time), "NaN time is not supported");
 		// after we have put everything into an array by recalc, we just need a binary search:
-		int key = Arrays.binarySearch(this.aTimes, time);
+		Steps steps = this.steps;
+		int key = Arrays.binarySearch(steps.times, time);
 		key = key >= 0 ? key : -key - 2;
-		return this.aValues[key];
+		return steps.values[key];
 	}
 
 
@@ -117,8 +138,7 @@ implements TimeVariantAttribute
 	@Override
 	public void clearEvents()
 	{
-		aTimes = null;
-		aValues = null;
+		steps = null;
 		aEvents = 1;
 	}
 }
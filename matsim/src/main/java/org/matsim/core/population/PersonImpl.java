@@ -48,10 +48,15 @@ import org.matsim.utils.objectattributes.attributable.AttributesImpl;
 	private Customizable customizableDelegate;
 	private boolean locked;
 
-	private final Attributes attributes = new AttributesImpl();
+	private final Attributes attributes;
 
 	/* deliberately package */ PersonImpl(final Id<Person> id) {
+		this(id, new AttributesImpl());
+	}
+
+	/* deliberately package */ PersonImpl(final Id<Person> id, final Attributes attributes) {
 		this.id = id;
+		this.attributes = attributes;
 	}
 
 	@Override
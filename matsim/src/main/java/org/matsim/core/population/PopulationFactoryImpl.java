@@ -33,6 +33,7 @@ import org.matsim.api.core.v01.population.Route;
 import org.matsim.core.population.routes.RouteFactories;
 import org.matsim.core.population.routes.RouteFactory;
 import org.matsim.facilities.ActivityFacility;
+import org.matsim.utils.objectattributes.attributable.ColumnarAttributeStore;
 
 /**
  * @author dgrether, mrieser
@@ -40,14 +41,26 @@ import org.matsim.facilities.ActivityFacility;
 /* deliberately package */ class PopulationFactoryImpl implements PopulationFactory {
 
 	private final RouteFactories routeFactory;
+	private final ColumnarAttributeStore personAttributes;
 
     @Inject
 	PopulationFactoryImpl(RouteFactories routeFactory) {
-        this.routeFactory = routeFactory;
+        this(routeFactory, null);
     }
 
+	/**
+	 * @param personAttributes if not null, the attributes of all persons created by this factory are stored there
+	 */
+	PopulationFactoryImpl(RouteFactories routeFactory, ColumnarAttributeStore personAttributes) {
+		this.routeFactory = routeFactory;
+		this.personAttributes = personAttributes;
+	}
+
     @Override
 	public Person createPerson(final Id<Person> id) {
+		if (this.personAttributes != null) {
+			return new PersonImpl(id, this.personAttributes.createAttributes());
+		}
         return new PersonImpl(id) ;
 	}
 
@@ -77,6 +77,7 @@ import org.matsim.facilities.ActivityFacilities;
 import org.matsim.facilities.ActivityFacility;
 import org.matsim.utils.objectattributes.attributable.Attributes;
 import org.matsim.utils.objectattributes.attributable.AttributesUtils;
+import org.matsim.utils.objectattributes.attributable.ColumnarAttributeStore;
 import org.matsim.vehicles.Vehicle;
 import org.matsim.vehicles.VehicleType;
 import org.matsim.vehicles.VehicleUtils;
@@ -143,7 +144,8 @@ public final class PopulationUtils {
 			throw new IllegalArgumentException("The type \"" + networkRouteType + "\" is not a supported type for network routes.");
 		}
 		routeFactory.setRouteFactory(NetworkRoute.class, factory);
-		return new PopulationImpl(new PopulationFactoryImpl(routeFactory));
+		ColumnarAttributeStore personAttributes = plansConfigGroup.isColumnarPersonAttributes() ? new ColumnarAttributeStore() : null;
+		return new PopulationImpl(new PopulationFactoryImpl(routeFactory, personAttributes));
 	}
 
 	public static Leg unmodifiableLeg( Leg leg ) {
@@ -880,6 +882,32 @@ public final class PopulationUtils {
 
 	// --- static copy methods:
 
+	/**
+	 * Creates a copy of the population in which all persons, plans, plan elements and routes are new objects, so that the copy
+	 * is not affected when the original is modified afterwards (e.g. to write it out in the background while the iterations continue).
+	 * Scores, selected plans and attributes are retained; attribute values themselves are not copied.
+	 */
+	public static Population copyPopulation(final Population population) {
+		// a factory of its own, so the copy does not share a columnar attribute store with the original
+		Population copy = new PopulationImpl(new PopulationFactoryImpl(population.getFactory().getRouteFactories()));
+		copy.setName(population.getName());
+		AttributesUtils.copyAttributesFromTo(population, copy);
+		for (Person person : population.getPersons().values()) {
+			Person personCopy = copy.getFactory().createPerson(person.getId());
+			AttributesUtils.copyAttributesFromTo(person, personCopy);
+			for (Plan plan : person.getPlans()) {
+				Plan planCopy = copy.getFactory().createPlan();
+				copyFromTo(plan, planCopy, true);
+				personCopy.addPlan(planCopy);
+				if (plan == person.getSelectedPlan()) {
+					personCopy.setSelectedPlan(planCopy);
+				}
+			}
+			copy.addPerson(personCopy);
+		}
+		return copy;
+	}
+
 	/** loads a copy of an existing plan, but keeps the person reference
 	 *
 	 * @param in a plan who's data will be loaded into this plan
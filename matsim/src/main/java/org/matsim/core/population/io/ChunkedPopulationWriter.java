@@ -0,0 +1,211 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * ChunkedPopulationWriter.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.population.io;
+
+import com.github.luben.zstd.Zstd;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.api.core.v01.population.Population;
+import org.matsim.core.api.internal.MatsimWriter;
+import org.matsim.core.utils.geometry.CoordinateTransformation;
+import org.matsim.core.utils.geometry.transformations.IdentityTransformation;
+import org.matsim.core.utils.io.IOUtils;
+import org.matsim.core.utils.misc.Counter;
+import org.matsim.utils.objectattributes.AttributeConverter;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes a population in the v6 format, serialising chunks of persons in parallel.  For <code>.gz</code> and
+ * <code>.zst</code> files, every chunk is also compressed in parallel, into a gzip member or zstd frame of its own.
+ * Concatenated members / frames are valid files for all common readers, including the matsim readers.  Other
+ * compressions are applied sequentially while writing.
+ * <p></p>
+ * The population must not be modified while it is written; see
+ * {@link org.matsim.core.population.PopulationUtils#copyPopulation(Population)} for writing in the background.
+ */
+public final class ChunkedPopulationWriter implements MatsimWriter {
+	private static final int DEFAULT_CHUNK_SIZE = 1000;
+
+	private enum ChunkCompression {none, gzip, zstd}
+
+	private final CoordinateTransformation coordinateTransformation;
+	private final Population population;
+	private final int numberOfThreads;
+	private final Map<Class<?>, AttributeConverter<?>> converters = new HashMap<>();
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+	public ChunkedPopulationWriter(final Population population, final int numberOfThreads) {
+		this(new IdentityTransformation(), population, numberOfThreads);
+	}
+
+	public ChunkedPopulationWriter(final CoordinateTransformation coordinateTransformation, final Population population, final int numberOfThreads) {
+		this.coordinateTransformation = coordinateTransformation;
+		this.population = population;
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
+	public void putAttributeConverters(final Map<Class<?>, AttributeConverter<?>> converters) {
+		this.converters.putAll(converters);
+	}
+
+	/**
+	 * @param chunkSize number of persons serialised (and compressed) together by one thread.
+	 */
+	public void setChunkSize(final int chunkSize) {
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("chunk size must be positive, but is " + chunkSize);
+		}
+		this.chunkSize = chunkSize;
+	}
+
+	@Override
+	public void write(final String filename) {
+		ChunkCompression compression = getChunkCompression(filename);
+		AtomicInteger threadCounter = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(this.numberOfThreads, r -> {
+			Thread thread = new Thread(r, "ChunkedPopulationWriter-" + threadCounter.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		});
+		// chunks that are already compressed go to the plain file, otherwise IOUtils compresses the stream
+		try (OutputStream out = compression == ChunkCompression.none ?
+				IOUtils.getOutputStream(IOUtils.getFileUrl(filename), false) :
+				new BufferedOutputStream(Files.newOutputStream(Paths.get(filename)))) {
+			writeChunks(out, executor, compression);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void writeChunks(OutputStream out, ExecutorService executor, ChunkCompression compression) throws IOException {
+		PopulationWriterHandlerImplV6 handler = new PopulationWriterHandlerImplV6(this.coordinateTransformation);
+		handler.putAttributeConverters(this.converters);
+		StringWriter header = new StringWriter();
+		try (BufferedWriter writer = new BufferedWriter(header)) {
+			handler.writeHeaderAndStartElement(writer);
+			handler.startPlans(this.population, writer);
+			handler.writeSeparator(writer);
+		}
+		out.write(encode(header.toString(), compression));
+
+		// keep a bounded number of chunks in flight, so memory usage does not depend on the population size
+		int maxPending = 2 * this.numberOfThreads;
+		ArrayDeque<Future<byte[]>> pending = new ArrayDeque<>();
+		Counter counter = new Counter("[" + this.getClass().getSimpleName() + "] dumped person # ");
+		List<Person> chunk = new ArrayList<>(this.chunkSize);
+		for (Person person : this.population.getPersons().values()) {
+			chunk.add(person);
+			if (chunk.size() == this.chunkSize) {
+				List<Person> persons = chunk;
+				pending.add(executor.submit(() -> serialize(persons, compression)));
+				chunk = new ArrayList<>(this.chunkSize);
+				while (pending.size() >= maxPending) {
+					out.write(take(pending.poll()));
+				}
+			}
+			counter.incCounter();
+		}
+		if (!chunk.isEmpty()) {
+			List<Person> persons = chunk;
+			pending.add(executor.submit(() -> serialize(persons, compression)));
+		}
+		while (!pending.isEmpty()) {
+			out.write(take(pending.poll()));
+		}
+		counter.printCounter();
+
+		out.write(encode("</population>\n", compression));
+	}
+
+	private byte[] serialize(List<Person> persons, ChunkCompression compression) throws IOException {
+		ParallelPopulationWriterHandlerV6.PersonStringCreator creator = new ParallelPopulationWriterHandlerV6.PersonStringCreator(this.coordinateTransformation, null);
+		creator.putAttributeConverters(this.converters);
+		StringBuilder sb = new StringBuilder(persons.size() * 2000);
+		for (Person person : persons) {
+			creator.appendPerson(person, sb);
+		}
+		return encode(sb.toString(), compression);
+	}
+
+	private static byte[] encode(String s, ChunkCompression compression) throws IOException {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		switch (compression) {
+			case gzip:
+				ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length / 8 + 64);
+				try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+					gzip.write(bytes);
+				}
+				return buffer.toByteArray();
+			case zstd:
+				return Zstd.compress(bytes, IOUtils.getZstdCompressionLevel());
+			default:
+				return bytes;
+		}
+	}
+
+	private static byte[] take(Future<byte[]> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException ioe) {
+				throw new UncheckedIOException(ioe);
+			}
+			throw new RuntimeException("Exception while writing population.", e.getCause());
+		}
+	}
+
+	private static ChunkCompression getChunkCompression(String filename) {
+		String lower = filename.toLowerCase();
+		if (lower.endsWith(".gz")) {
+			return ChunkCompression.gzip;
+		}
+		if (lower.endsWith(".zst")) {
+			return ChunkCompression.zstd;
+		}
+		return ChunkCompression.none;
+	}
+
+}
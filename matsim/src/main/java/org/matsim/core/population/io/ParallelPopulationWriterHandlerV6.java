@@ -312,8 +312,18 @@ public class ParallelPopulationWriterHandlerV6 implements PopulationWriterHandle
 
 		private void writePerson(PersonData personData) throws IOException, InterruptedException, ExecutionException {
 			StringBuilder out = stringBuilder;
-			Person person = personData.person();
+			this.appendPerson(personData.person(), out);
+			CompletableFuture<String> completableFuture = personData.futurePersonString();
+			completableFuture.complete(out.toString());
+
+			// Reset stringBuilder instead of instantiate
+			stringBuilder.setLength(0);
+		}
 
+		/**
+		 * Appends the xml of the person, including the trailing separator, to the given builder.
+		 */
+		void appendPerson(Person person, StringBuilder out) throws IOException {
 			this.startPerson(person, out);
 			for (Plan plan : person.getPlans()) {
 				startPlan(plan, out);
@@ -336,11 +346,6 @@ public class ParallelPopulationWriterHandlerV6 implements PopulationWriterHandle
 			}
 			endPerson(out);
 			this.writeSeparator(out);
-			CompletableFuture<String> completableFuture = personData.futurePersonString();
-			completableFuture.complete(out.toString());
-
-			// Reset stringBuilder instead of instantiate
-			stringBuilder.setLength(0);
 		}
 
 		private void startPerson(final Person person, final StringBuilder out) {
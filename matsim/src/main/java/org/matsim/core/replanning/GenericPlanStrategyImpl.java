@@ -29,6 +29,7 @@ import org.matsim.core.replanning.selectors.RandomUnscoredPlanSelector;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * @author nagel
@@ -38,6 +39,7 @@ public class GenericPlanStrategyImpl<T extends BasicPlan, I> implements GenericP
 
 	private PlanSelector<T, I> planSelector = null;
 	private GenericPlanStrategyModule<T> firstModule = null;
+	private Predicate<? super T> innovationFilter = null;
 	private final List<GenericPlanStrategyModule<T>> modules = new ArrayList<>();
 	private final List<T> plans = new ArrayList<>();
 	private long counter = 0;
@@ -60,6 +62,14 @@ public class GenericPlanStrategyImpl<T extends BasicPlan, I> implements GenericP
 		}
 	}
 	
+	/**
+	 * Restricts the innovation to those selected plans for which the filter returns <code>true</code>.  For all other plans, the
+	 * strategy behaves like a pure selector: the plan is selected, but neither copied nor passed to the strategy modules.
+	 */
+	public void setInnovationFilter(final Predicate<? super T> filter) {
+		this.innovationFilter = filter;
+	}
+
 	public int getNumberOfStrategyModules() {
 		if (this.firstModule == null) {
 			return 0;
@@ -88,7 +98,7 @@ public class GenericPlanStrategyImpl<T extends BasicPlan, I> implements GenericP
 		}
 
 		// if there is a "module" (i.e. "innovation"):
-		if (this.firstModule != null) {
+		if (this.firstModule != null && (this.innovationFilter == null || this.innovationFilter.test(person.getSelectedPlan()))) {
 			
 			// set the working plan to a copy of the selected plan:
 			plan = person.createCopyOfSelectedPlanAndMakeSelected();
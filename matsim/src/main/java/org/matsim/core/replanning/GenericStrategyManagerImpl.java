@@ -26,9 +26,11 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.function.Consumer;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.matsim.analysis.IterationStopWatch;
 import org.matsim.api.core.v01.population.*;
 import org.matsim.core.population.PopulationUtils;
 import org.matsim.core.replanning.choosers.StrategyChooser;
@@ -54,6 +56,8 @@ public class GenericStrategyManagerImpl<PL extends BasicPlan, AG extends HasPlan
 	
 	private static final Logger log = LogManager.getLogger( GenericStrategyManagerImpl.class );
 
+	private static final int REPLANNED_PERSONS_BATCH_SIZE = 1000;
+
 
 	static class StrategyWeights<T extends BasicPlan, I> implements StrategyChooser.Weights<T, I> {
 		final List<GenericPlanStrategy<T, I>> strategies = new ArrayList<>();
@@ -83,6 +87,7 @@ public class GenericStrategyManagerImpl<PL extends BasicPlan, AG extends HasPlan
 	private final Map<String, StrategyWeights<PL, AG>> weightsPerSubpopulation = new HashMap<>();
 
 	private int maxPlansPerAgent = 0;
+	private IterationStopWatch stopWatch = null;
 
 	private PlanSelector<PL, AG> removalPlanSelector = new GenericWorstPlanForRemovalSelector<>();
 
@@ -210,6 +215,31 @@ public class GenericStrategyManagerImpl<PL extends BasicPlan, AG extends HasPlan
 			final Iterable<? extends HasPlansAndId<PL, AG>> persons,
 			final ReplanningContext replanningContext )
 	{
+		run(persons, replanningContext, null);
+	}
+
+	/**
+	 * Same as {@link #run(Iterable, int, ReplanningContext)}, but passes the persons to <code>replannedPersonsConsumer</code>
+	 * in batches as soon as their replanning is complete: the persons whose strategy only selects a plan right away, the others
+	 * once their strategy has finished.
+	 */
+	final void run(
+			final Iterable<? extends HasPlansAndId<PL, AG>> persons,
+			final int iteration,
+			final ReplanningContext replanningContext,
+			final Consumer<List<HasPlansAndId<PL, AG>>> replannedPersonsConsumer ) {
+		handleChangeRequests(iteration);
+		run(persons, replanningContext, replannedPersonsConsumer);
+	}
+
+	private void run(
+			final Iterable<? extends HasPlansAndId<PL, AG>> persons,
+			final ReplanningContext replanningContext,
+			final Consumer<List<HasPlansAndId<PL, AG>>> replannedPersonsConsumer )
+	{
+		final Map<GenericPlanStrategy<PL, AG>, List<HasPlansAndId<PL, AG>>> personsPerStrategy = new HashMap<>();
+		List<HasPlansAndId<PL, AG>> selectedOnly = new ArrayList<>();
+
 		// initialize all strategies
 		for (GenericPlanStrategy<PL, AG> strategy : distinctStrategies()) {
 			strategy.init(replanningContext);
@@ -237,15 +267,43 @@ public class GenericStrategyManagerImpl<PL extends BasicPlan, AG extends HasPlan
 			
 			// ... and run the strategy:
 			strategy.run(person);
+
+			if (replannedPersonsConsumer != null) {
+				if (ReplanningUtils.isOnlySelector(strategy)) {
+					selectedOnly.add(person);
+					if (selectedOnly.size() == REPLANNED_PERSONS_BATCH_SIZE) {
+						replannedPersonsConsumer.accept(selectedOnly);
+						selectedOnly = new ArrayList<>();
+					}
+				} else {
+					personsPerStrategy.computeIfAbsent(strategy, s -> new ArrayList<>()).add(person);
+				}
+			}
+		}
+		if (replannedPersonsConsumer != null && !selectedOnly.isEmpty()) {
+			replannedPersonsConsumer.accept(selectedOnly);
 		}
 
 		// finally make sure all strategies have finished there work
 		for (GenericPlanStrategy<PL, AG> strategy : distinctStrategies()) {
-			strategy.finish();
+			try (IterationStopWatch.Span span = this.stopWatch == null ? null : this.stopWatch.span(strategy.toString())) {
+				strategy.finish();
+			}
+			List<HasPlansAndId<PL, AG>> replannedPersons = personsPerStrategy.remove(strategy);
+			if (replannedPersons != null) {
+				replannedPersonsConsumer.accept(replannedPersons);
+			}
 		}
 
 	}
 
+	/**
+	 * If set, the work of each strategy (i.e. running its modules) is measured as a span of the stop watch.
+	 */
+	void setStopWatch(final IterationStopWatch stopWatch) {
+		this.stopWatch = stopWatch;
+	}
+
 	private Collection<GenericPlanStrategy<PL, AG>> distinctStrategies() {
 		// Leaving out duplicate strategies in different subpopulations
 		Collection<GenericPlanStrategy<PL, AG>> strategies = new LinkedHashSet<>();
@@ -21,6 +21,7 @@
 package org.matsim.core.replanning;
 
 import java.util.ArrayList;
+import java.util.function.Predicate;
 
 import org.matsim.api.core.v01.population.Person;
 import org.matsim.api.core.v01.population.Plan;
@@ -45,6 +46,7 @@ public final class PlanStrategyImpl extends GenericPlanStrategyImpl<Plan, Person
 	public final static class Builder {
 		private PlanSelector<Plan, Person> planSelector;
 		private final ArrayList<PlanStrategyModule> modules = new ArrayList<>();
+		private Predicate<? super Plan> innovationFilter = null;
 		public Builder( final PlanSelector<Plan,Person> planSelector) {
 			this.planSelector = planSelector;
 		}
@@ -52,8 +54,16 @@ public final class PlanStrategyImpl extends GenericPlanStrategyImpl<Plan, Person
 			this.modules.add(module);
 			return this ;
 		}
+		/**
+		 * @see GenericPlanStrategyImpl#setInnovationFilter(Predicate)
+		 */
+		public final Builder setInnovationFilter( final Predicate<? super Plan> filter ) {
+			this.innovationFilter = filter;
+			return this ;
+		}
 		public final PlanStrategy build() {
 			PlanStrategyImpl impl = new PlanStrategyImpl(planSelector) ;
+			impl.setInnovationFilter(innovationFilter);
 			for (PlanStrategyModule module : modules) {
 				impl.addStrategyModule(module);
 			}
@@ -31,4 +31,11 @@ public interface ReplanningContext {
 	 */
 	int getIteration();
 
+	/**
+	 * Thread pools which replanning modules may use for their plan algorithms, or <code>null</code> if there are none.
+	 */
+	default ReplanningThreadPool getThreadPool() {
+		return null;
+	}
+
 }
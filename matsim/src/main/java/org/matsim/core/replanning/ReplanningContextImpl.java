@@ -33,10 +33,12 @@ import jakarta.inject.Singleton;
 class ReplanningContextImpl implements ReplanningContext, IterationStartsListener {
 
     private int iteration;
+    private final ReplanningThreadPool threadPool;
 
     @Inject
-    ReplanningContextImpl(ControlerListenerManager controlerListenerManager) {
+    ReplanningContextImpl(ControlerListenerManager controlerListenerManager, ReplanningThreadPool threadPool) {
         controlerListenerManager.addControlerListener(this);
+        this.threadPool = threadPool;
     }
 
     @Override
@@ -44,6 +46,11 @@ class ReplanningContextImpl implements ReplanningContext, IterationStartsListene
         return iteration;
     }
 
+    @Override
+    public ReplanningThreadPool getThreadPool() {
+        return threadPool;
+    }
+
     @Override
     public void notifyIterationStarts(IterationStartsEvent event) {
         this.iteration = event.getIteration();
@@ -0,0 +1,65 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * ReplanningThreadPool.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+
+package org.matsim.core.replanning;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import org.matsim.core.controler.events.ShutdownEvent;
+import org.matsim.core.controler.listener.ShutdownListener;
+
+import jakarta.inject.Singleton;
+
+/**
+ * Work-stealing thread pools for replanning modules which run their plan algorithms in parallel, see
+ * {@link org.matsim.core.replanning.modules.AbstractMultithreadedModule}.  The pools are kept across iterations
+ * and shut down together with the controler.
+ */
+@Singleton
+public final class ReplanningThreadPool implements ShutdownListener {
+
+	private final Map<Integer, ForkJoinPool> pools = new ConcurrentHashMap<>();
+
+	/**
+	 * @return the pool with the given number of threads; it is created when first requested.
+	 */
+	public ForkJoinPool getPool(int parallelism) {
+		return this.pools.computeIfAbsent(parallelism, ReplanningThreadPool::createPool);
+	}
+
+	public static ForkJoinPool createPool(int parallelism) {
+		return new ForkJoinPool(parallelism, pool -> {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			thread.setName("replanning-" + thread.getPoolIndex());
+			return thread;
+		}, null, false);
+	}
+
+	@Override
+	public void notifyShutdown(ShutdownEvent event) {
+		this.pools.values().forEach(ForkJoinPool::shutdown);
+		this.pools.clear();
+	}
+
+}
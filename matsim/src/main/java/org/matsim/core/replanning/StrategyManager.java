@@ -22,6 +22,7 @@ package org.matsim.core.replanning;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.matsim.analysis.IterationStopWatch;
 import org.matsim.api.core.v01.population.Person;
 import org.matsim.api.core.v01.population.Plan;
 import org.matsim.api.core.v01.population.Population;
@@ -36,6 +37,7 @@ import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Manages and applies strategies to agents for re-planning.
@@ -152,6 +154,18 @@ public class StrategyManager implements MatsimManager {
 		delegate.run( population.getPersons().values(), iteration, replanningContext );
 	}
 
+	/**
+	 * Same as {@link #run(Population, int, ReplanningContext)}, but passes the persons to <code>replannedPersonsConsumer</code>
+	 * in batches as soon as their replanning is complete, i.e. their selected plan will not be changed by this strategy manager
+	 * any more.  The consumer is called on the calling thread.
+	 */
+	@SuppressWarnings("unchecked")
+	public final void run(final Population population, final int iteration, final ReplanningContext replanningContext,
+						  final Consumer<List<Person>> replannedPersonsConsumer) {
+		delegate.run( population.getPersons().values(), iteration, replanningContext,
+				persons -> replannedPersonsConsumer.accept( (List<Person>) (List<?>) persons ) );
+	}
+
 	/**
 	 * chooses a (weight-influenced) random strategy
 	 *
@@ -172,6 +186,11 @@ public class StrategyManager implements MatsimManager {
 		delegate.setMaxPlansPerAgent(maxPlansPerAgent);
 	}
 
+	@com.google.inject.Inject(optional = true)
+	void setStopWatch(final IterationStopWatch stopWatch) {
+		delegate.setStopWatch(stopWatch);
+	}
+
 	public final int getMaxPlansPerAgent() {
 		return delegate.getMaxPlansPerAgent();
 	}
@@ -0,0 +1,102 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * StrategyWeightsCheckpointParticipant.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.replanning;
+
+import com.google.inject.Inject;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.api.core.v01.population.Plan;
+import org.matsim.core.config.groups.ReplanningConfigGroup;
+import org.matsim.core.controler.checkpointing.CheckpointParticipant;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Stores the current strategy weights of all subpopulations, since they may have been changed during the run,
+ * e.g. by {@link org.matsim.core.replanning.annealing.ReplanningAnnealer} or by switching off innovation.
+ */
+final class StrategyWeightsCheckpointParticipant implements CheckpointParticipant {
+
+	private final StrategyManager strategyManager;
+	private final ReplanningConfigGroup replanningConfig;
+
+	@Inject
+	StrategyWeightsCheckpointParticipant(StrategyManager strategyManager, ReplanningConfigGroup replanningConfig) {
+		this.strategyManager = strategyManager;
+		this.replanningConfig = replanningConfig;
+	}
+
+	@Override
+	public String getCheckpointName() {
+		return "strategyWeights";
+	}
+
+	@Override
+	public void writeCheckpoint(DataOutput out) throws IOException {
+		Set<String> subpopulations = getSubpopulations();
+		out.writeInt(subpopulations.size());
+		for (String subpopulation : subpopulations) {
+			writeSubpopulation(out, subpopulation);
+			List<Double> weights = this.strategyManager.getWeights(subpopulation);
+			out.writeInt(weights.size());
+			for (double weight : weights) {
+				out.writeDouble(weight);
+			}
+		}
+	}
+
+	@Override
+	public void readCheckpoint(DataInput in) throws IOException {
+		int subpopulationCount = in.readInt();
+		for (int i = 0; i < subpopulationCount; i++) {
+			String subpopulation = in.readBoolean() ? in.readUTF() : null;
+			List<GenericPlanStrategy<Plan, Person>> strategies = this.strategyManager.getStrategies(subpopulation);
+			int weightCount = in.readInt();
+			if (weightCount != strategies.size()) {
+				throw new RuntimeException("checkpoint contains " + weightCount + " strategy weights for subpopulation " + subpopulation
+						+ ", but " + strategies.size() + " strategies are configured. The replanning config must not change when resuming a run.");
+			}
+			for (GenericPlanStrategy<Plan, Person> strategy : strategies) {
+				this.strategyManager.changeWeightOfStrategy(strategy, subpopulation, in.readDouble());
+			}
+		}
+	}
+
+	private Set<String> getSubpopulations() {
+		Set<String> subpopulations = new LinkedHashSet<>();
+		for (ReplanningConfigGroup.StrategySettings settings : this.replanningConfig.getStrategySettings()) {
+			subpopulations.add(settings.getSubpopulation());
+		}
+		return subpopulations;
+	}
+
+	private static void writeSubpopulation(DataOutput out, String subpopulation) throws IOException {
+		out.writeBoolean(subpopulation != null);
+		if (subpopulation != null) {
+			out.writeUTF(subpopulation);
+		}
+	}
+
+}
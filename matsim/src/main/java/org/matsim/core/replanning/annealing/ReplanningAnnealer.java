@@ -20,6 +20,8 @@
 package org.matsim.core.replanning.annealing;
 
 import java.io.BufferedWriter;
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -32,6 +34,7 @@ import org.matsim.core.config.Config;
 import org.matsim.core.config.ConfigUtils;
 import org.matsim.core.config.groups.ReplanningConfigGroup;
 import org.matsim.core.controler.OutputDirectoryHierarchy;
+import org.matsim.core.controler.checkpointing.CheckpointParticipant;
 import org.matsim.core.controler.events.IterationStartsEvent;
 import org.matsim.core.controler.events.StartupEvent;
 import org.matsim.core.controler.listener.IterationStartsListener;
@@ -48,7 +51,7 @@ import org.matsim.core.utils.io.IOUtils;
  * @author fouriep, davig, jbischoff
  */
 
-public class ReplanningAnnealer implements IterationStartsListener, StartupListener {
+public class ReplanningAnnealer implements IterationStartsListener, StartupListener, CheckpointParticipant {
 
 	private static final Logger log = LogManager.getLogger(ReplanningAnnealer.class);
 	private static final String ANNEAL_FILENAME = "annealingRates.txt";
@@ -58,6 +61,7 @@ public class ReplanningAnnealer implements IterationStartsListener, StartupListe
 	private final int innovationStop;
 	private final String sep;
 	private final EnumMap<AnnealParameterOption, Double> currentValues;
+	private EnumMap<AnnealParameterOption, Double> restoredValues = null;
 	private int currentIter;
 	private List<String> header;
 	@Inject
@@ -100,6 +104,10 @@ public class ReplanningAnnealer implements IterationStartsListener, StartupListe
 				this.saConfig.removeParameterSet(av);
 			}
 		}
+		if (this.restoredValues != null) {
+			// resumed from a checkpoint; geometric annealing depends on the previous value, so the start values are not enough
+			this.currentValues.putAll(this.restoredValues);
+		}
 		// prepare output file
 		try (BufferedWriter bw = IOUtils.getBufferedWriter(outputDirectoryHierarchy.getOutputFilename(ANNEAL_FILENAME))) {
 			bw.write(COL_IT + sep + header.stream().collect(Collectors.joining(sep)));
@@ -164,6 +172,30 @@ public class ReplanningAnnealer implements IterationStartsListener, StartupListe
 		writeIterationstats(currentIter, annealStats);
 	}
 
+	@Override
+	public String getCheckpointName() {
+		return "replanningAnnealer";
+	}
+
+	@Override
+	public void writeCheckpoint(DataOutput out) throws IOException {
+		out.writeInt(this.currentValues.size());
+		for (Map.Entry<AnnealParameterOption, Double> e : this.currentValues.entrySet()) {
+			out.writeUTF(e.getKey().name());
+			out.writeDouble(e.getValue());
+		}
+	}
+
+	@Override
+	public void readCheckpoint(DataInput in) throws IOException {
+		this.restoredValues = new EnumMap<>(AnnealParameterOption.class);
+		int count = in.readInt();
+		for (int i = 0; i < count; i++) {
+			this.restoredValues.put(AnnealParameterOption.valueOf(in.readUTF()), in.readDouble());
+		}
+		this.currentValues.putAll(this.restoredValues);
+	}
+
 	private void writeIterationstats(int currentIter, Map<String, String> annealStats) {
 		try (BufferedWriter bw = IOUtils.getAppendingBufferedWriter(outputDirectoryHierarchy.getOutputFilename(ANNEAL_FILENAME))) {
 			bw.write(Integer.toString(currentIter));
@@ -42,6 +42,13 @@ public class ConflictManager {
 		this.writer = writer;
 	}
 	
+	/**
+	 * @return whether there are conflict resolvers, i.e. whether {@link #run(Population, int)} may change selected plans.
+	 */
+	public boolean isActive() {
+		return resolvers.size() > 0;
+	}
+
 	public void initializeReplanning(Population population) {
 		if (resolvers.size() > 0) { // only require if active
 			population.getPersons().values().forEach(ReplanningUtils::setInitialPlan);
@@ -27,11 +27,16 @@ import org.matsim.api.core.v01.replanning.PlanStrategyModule;
 import org.matsim.core.config.groups.GlobalConfigGroup;
 import org.matsim.core.population.algorithms.PlanAlgorithm;
 import org.matsim.core.replanning.ReplanningContext;
+import org.matsim.core.replanning.ReplanningThreadPool;
 import org.matsim.core.utils.misc.Counter;
 
 import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -51,6 +56,12 @@ import java.util.concurrent.atomic.AtomicReference;
  * "fast threads"), it helps building reproducible runs.  Additionally, as the threads are only
  * started after all to-be-handled plans are added, we can use unsynchronized data structures.
  * <p></p>
+ * With {@link GlobalConfigGroup#isDynamicReplanningScheduling()}, the plans are instead collected in one list,
+ * and each plan algorithm instance takes small chunks of plans from that list until all are handled.  The
+ * plan algorithm instances run on the work-stealing pool of the controler ({@link ReplanningContext#getThreadPool()}),
+ * which is shared by all modules and kept across iterations; without one, the module uses a pool of its own for
+ * each replanning.  Each plan algorithm instance is still used by one thread at a time only.
+ * <p></p>
  * Design comments/questions:<ul>
  * <li> As a consequence of the design, the instances that getPlanAlgoInstance() returns, need to be thread-safe.  kai, dec'12
  * For an example with discussions, see {@link tutorial.programming.multiThreadedPlanStrategy.RunWithMultithreadedModule}
@@ -59,10 +70,15 @@ import java.util.concurrent.atomic.AtomicReference;
  * @author mrieser
  */
 abstract public class AbstractMultithreadedModule implements PlanStrategyModule {
+	private static final int MAX_CHUNK_SIZE = 256;
+
 	private final int numOfThreads;
+	private final boolean dynamicScheduling;
 
 	private PlanAlgoThread[] algothreads = null;
 	private Thread[] threads = null;
+	private PlanAlgorithm[] chunkAlgos = null;
+	private List<Plan> plans = null;
 	private PlanAlgorithm directAlgo = null;
 	private String name = null;
 
@@ -85,10 +101,16 @@ abstract public class AbstractMultithreadedModule implements PlanStrategyModule
 
 	public AbstractMultithreadedModule(GlobalConfigGroup globalConfigGroup) {
 		this.numOfThreads = globalConfigGroup.getNumberOfThreads();
+		this.dynamicScheduling = globalConfigGroup.isDynamicReplanningScheduling();
 	}
 
 	public AbstractMultithreadedModule(final int numOfThreads) {
+		this(numOfThreads, false);
+	}
+
+	public AbstractMultithreadedModule(final int numOfThreads, final boolean dynamicScheduling) {
 		this.numOfThreads = numOfThreads;
+		this.dynamicScheduling = dynamicScheduling;
 	}
 	
 	protected void beforePrepareReplanningHook(@SuppressWarnings("unused") ReplanningContext replanningContextTmp) {
@@ -106,6 +128,8 @@ abstract public class AbstractMultithreadedModule implements PlanStrategyModule
 		if (this.numOfThreads == 0) {
 			// it seems, no threads are desired :(
 			this.directAlgo = getPlanAlgoInstance();
+		} else if (this.dynamicScheduling) {
+			initChunkAlgos();
 		} else {
 			initThreads();
 		}
@@ -119,7 +143,11 @@ abstract public class AbstractMultithreadedModule implements PlanStrategyModule
 	@Override
 	public final void handlePlan(final Plan plan) {
 		if (this.directAlgo == null) {
-			this.algothreads[this.count % this.numOfThreads].addPlanToThread(plan);
+			if (this.plans != null) {
+				this.plans.add(plan);
+			} else {
+				this.algothreads[this.count % this.numOfThreads].addPlanToThread(plan);
+			}
 			this.count++;
 		} else {
 			this.directAlgo.run(plan);
@@ -137,7 +165,9 @@ abstract public class AbstractMultithreadedModule implements PlanStrategyModule
 	public final void finishReplanning() {
 		this.beforeFinishReplanningHook();
 		
-		if (this.directAlgo == null) {
+		if (this.plans != null) {
+			runChunks();
+		} else if (this.directAlgo == null) {
 			// only try to start threads if we did not directly work on all the plans
 			log.info("[" + this.name + "] starting " + this.threads.length + " threads, handling " + this.count + " plans");
 
@@ -163,6 +193,8 @@ abstract public class AbstractMultithreadedModule implements PlanStrategyModule
 		// reset
 		this.algothreads = null;
 		this.threads = null;
+		this.chunkAlgos = null;
+		this.plans = null;
 		this.replanningContext = null;
 		this.count = 0;
 		
@@ -194,6 +226,58 @@ abstract public class AbstractMultithreadedModule implements PlanStrategyModule
 		}
 	}
 
+	private void initChunkAlgos() {
+		if (this.plans != null) {
+			throw new RuntimeException("threads are already initialized");
+		}
+
+		this.hadException.set(null);
+		this.plans = new ArrayList<>();
+		this.chunkAlgos = new PlanAlgorithm[this.numOfThreads];
+		for (int i = 0; i < this.numOfThreads; i++) {
+			this.chunkAlgos[i] = getPlanAlgoInstance();
+		}
+		this.name = this.chunkAlgos[0].getClass().getSimpleName();
+	}
+
+	private void runChunks() {
+		final int chunkSize = Math.max(1, Math.min(MAX_CHUNK_SIZE, this.plans.size() / (this.numOfThreads * 16)));
+		log.info("[" + this.name + "] handling " + this.count + " plans with " + this.numOfThreads + " plan algorithms in chunks of " + chunkSize);
+
+		final Counter counter = new Counter("[" + this.name + "] handled plan # ");
+		final AtomicInteger nextPlan = new AtomicInteger(0);
+		final ReplanningThreadPool threadPool = this.replanningContext == null ? null : this.replanningContext.getThreadPool();
+		final ForkJoinPool pool = threadPool != null ? threadPool.getPool(this.numOfThreads) : ReplanningThreadPool.createPool(this.numOfThreads);
+		List<ForkJoinTask<?>> tasks = new ArrayList<>(this.numOfThreads);
+		for (PlanAlgorithm algo : this.chunkAlgos) {
+			tasks.add(pool.submit(() -> {
+				try {
+					int start;
+					while ((start = nextPlan.getAndAdd(chunkSize)) < this.plans.size()) {
+						int end = Math.min(start + chunkSize, this.plans.size());
+						for (int i = start; i < end; i++) {
+							algo.run(this.plans.get(i));
+							counter.incCounter();
+						}
+					}
+				} catch (Throwable e) {
+					this.exceptionHandler.uncaughtException(Thread.currentThread(), e);
+				}
+			}));
+		}
+		for (ForkJoinTask<?> task : tasks) {
+			task.join();
+		}
+		if (threadPool == null) {
+			pool.shutdown();
+		}
+		log.info("[" + this.name + "] all " + this.numOfThreads + " plan algorithms finished.");
+		Throwable throwable = this.hadException.get();
+		if (throwable != null) {
+			throw new RuntimeException("Some threads crashed, thus not all plans may have been handled.", throwable);
+		}
+	}
+
 	/* package (for a test) */ final int getNumOfThreads() {
 		return numOfThreads;
 	}
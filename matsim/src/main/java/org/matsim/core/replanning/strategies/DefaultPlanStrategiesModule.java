@@ -107,6 +107,11 @@ public class DefaultPlanStrategiesModule extends AbstractModule {
         if (usedStrategyNames.contains(DefaultStrategy.ReRoute)) {
             addPlanStrategyBinding(DefaultStrategy.ReRoute).toProvider(ReRoute.class);
         }
+        if (usedStrategyNames.contains(DefaultStrategy.SelectiveReRoute)) {
+            bind(TravelTimeChanges.class);
+            addControlerListenerBinding().to(TravelTimeChanges.class);
+            addPlanStrategyBinding(DefaultStrategy.SelectiveReRoute).toProvider(SelectiveReRoute.class);
+        }
         if (usedStrategyNames.contains(DefaultStrategy.TimeAllocationMutator)) {
             addPlanStrategyBinding(DefaultStrategy.TimeAllocationMutator).toProvider(TimeAllocationMutator.class);
         }
@@ -149,6 +154,7 @@ public class DefaultPlanStrategiesModule extends AbstractModule {
 
     public interface DefaultStrategy {
         String ReRoute="ReRoute";
+        String SelectiveReRoute="SelectiveReRoute";
         String TimeAllocationMutator="TimeAllocationMutator";
         @Deprecated String ChangeLegMode="ChangeLegMode";
         String TimeAllocationMutator_ReRoute="TimeAllocationMutator_ReRoute" ;
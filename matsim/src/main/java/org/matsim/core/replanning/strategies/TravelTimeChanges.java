@@ -0,0 +1,236 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * TravelTimeChanges.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+
+package org.matsim.core.replanning.strategies;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.population.Leg;
+import org.matsim.api.core.v01.population.Plan;
+import org.matsim.api.core.v01.population.PlanElement;
+import org.matsim.core.config.groups.ReplanningConfigGroup;
+import org.matsim.core.config.groups.RoutingConfigGroup;
+import org.matsim.core.config.groups.TravelTimeCalculatorConfigGroup;
+import org.matsim.core.controler.events.IterationEndsEvent;
+import org.matsim.core.controler.events.StartupEvent;
+import org.matsim.core.controler.listener.IterationEndsListener;
+import org.matsim.core.controler.listener.StartupListener;
+import org.matsim.core.population.routes.NetworkRoute;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.core.trafficmonitoring.TravelTimeCalculator;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+/**
+ * Keeps track of the links whose travel times changed noticeably between the last two iterations, so that re-routing can be restricted
+ * to plans which use such a link.
+ * <p></p>
+ * The travel times of all network modes are sampled once per time bin of the travel time calculator and kept as float arrays per link.
+ * A link counts as changed if, in any time bin and for any network mode, its travel time changed by more than
+ * {@link ReplanningConfigGroup#getSelectiveReRouteThreshold()} relative to the previous sample.  The first sample is taken at
+ * startup, i.e. from the travel times the initial routes are typically based on.
+ * <p></p>
+ * For the travel times of a {@link TravelTimeCalculator}, only the links with observed travel times in the current or the previous
+ * iteration are sampled; all other links keep their free speed travel times, and no array is kept for them.  Other travel times are
+ * sampled for all links.  The links are sampled in parallel, and each array is updated in place.
+ */
+@Singleton
+public final class TravelTimeChanges implements StartupListener, IterationEndsListener {
+	private static final Logger log = LogManager.getLogger( TravelTimeChanges.class );
+
+	private final Network network;
+	private final Map<String, TravelTime> travelTimes;
+	private final RoutingConfigGroup routingConfig;
+	private final double binSize;
+	private final int numberOfBins;
+	private final double threshold;
+
+	/** per travel time and link index, the travel times per time bin; <code>null</code> for links with free speed travel times */
+	private final Map<TravelTime, float[][]> samples = new IdentityHashMap<>();
+	private final BitSet changedLinks = new BitSet();
+	private int numberOfIndexedLinks = 0;
+	private boolean known = false;
+
+	@Inject
+	TravelTimeChanges( Network network, Map<String, TravelTime> travelTimes, RoutingConfigGroup routingConfig,
+				 TravelTimeCalculatorConfigGroup ttConfig, ReplanningConfigGroup replanningConfig ) {
+		this.network = network;
+		this.travelTimes = travelTimes;
+		this.routingConfig = routingConfig;
+		this.binSize = ttConfig.getTraveltimeBinSize();
+		this.numberOfBins = (int) (ttConfig.getMaxTime() / this.binSize) + 1;
+		this.threshold = replanningConfig.getSelectiveReRouteThreshold();
+	}
+
+	@Override
+	public void notifyStartup( StartupEvent event ) {
+		update( false );
+	}
+
+	@Override
+	public void notifyIterationEnds( IterationEndsEvent event ) {
+		update( true );
+		log.info( "travel times of " + this.changedLinks.cardinality() + " of " + this.network.getLinks().size() + " links changed by more than "
+				+ this.threshold * 100. + "%." );
+	}
+
+	private void update( boolean compare ) {
+		List<TravelTime> modeTravelTimes = new ArrayList<>();
+		for ( String mode : this.routingConfig.getNetworkModes() ) {
+			TravelTime travelTime = this.travelTimes.get( mode );
+			if ( travelTime != null && !containsIdentical( modeTravelTimes, travelTime ) ) {
+				// (with separateModes=false, all modes share the same object)
+				modeTravelTimes.add( travelTime );
+			}
+		}
+
+		int numberOfLinks = Id.getNumberOfIds( Link.class );
+		boolean comparable = compare && numberOfLinks == this.numberOfIndexedLinks;
+		Link[] links = this.network.getLinks().values().toArray( new Link[ 0 ] );
+		this.changedLinks.clear();
+
+		for ( TravelTime travelTime : modeTravelTimes ) {
+			float[][] linkTravelTimes = this.samples.get( travelTime );
+			boolean sampled = linkTravelTimes != null;
+			if ( !sampled ) {
+				linkTravelTimes = new float[ numberOfLinks ][];
+			} else if ( linkTravelTimes.length < numberOfLinks ) {
+				linkTravelTimes = Arrays.copyOf( linkTravelTimes, numberOfLinks );
+			}
+			final float[][] finalLinkTravelTimes = linkTravelTimes;
+			final BitSet observedLinks = travelTime instanceof TravelTimeCalculator.ObservedLinkTravelTime observed ? observed.getObservedLinkIndices() : null;
+			final boolean compareLinks = comparable && sampled;
+
+			int[] changed = IntStream.range( 0, links.length ).parallel()
+					.filter( i -> updateLink( travelTime, links[ i ], finalLinkTravelTimes, observedLinks, compareLinks ) )
+					.map( i -> links[ i ].getId().index() )
+					.toArray();
+			for ( int index : changed ) {
+				this.changedLinks.set( index );
+			}
+			comparable &= sampled;
+			this.samples.put( travelTime, linkTravelTimes );
+		}
+
+		this.numberOfIndexedLinks = numberOfLinks;
+		this.known = comparable;
+	}
+
+	/**
+	 * Samples the current travel times of one link into its array.
+	 *
+	 * @param observedLinks the links with observed travel times, or <code>null</code> if all links need to be sampled
+	 * @return whether the travel time changed in any time bin
+	 */
+	private boolean updateLink( TravelTime travelTime, Link link, float[][] linkTravelTimes, BitSet observedLinks, boolean compare ) {
+		int index = link.getId().index();
+		float[] previous = linkTravelTimes[ index ];
+		boolean observed = observedLinks == null || observedLinks.get( index );
+		if ( !observed && previous == null ) {
+			// free speed travel times, before and now
+			return false;
+		}
+		float[] current = observed ? ( previous != null ? previous : new float[ this.numberOfBins ] ) : null;
+		boolean changed = false;
+		for ( int bin = 0; bin < this.numberOfBins; bin++ ) {
+			double time = bin * this.binSize;
+			float tt = (float) ( observed ? travelTime.getLinkTravelTime( link, time, null, null ) : getFreeSpeedTravelTime( link, time ) );
+			if ( compare ) {
+				float before = previous != null ? previous[ bin ] : (float) getFreeSpeedTravelTime( link, time );
+				changed |= isChange( before, tt );
+			}
+			if ( current != null ) {
+				current[ bin ] = tt;
+			}
+		}
+		linkTravelTimes[ index ] = current;
+		return changed;
+	}
+
+	private static double getFreeSpeedTravelTime( Link link, double time ) {
+		// what the travel time calculator returns for links without observation
+		return link.getLength() / link.getFreespeed( time );
+	}
+
+	private boolean isChange( float previous, float current ) {
+		if ( previous == current ) {
+			return false;
+		}
+		return Math.abs( current - previous ) > this.threshold * Math.abs( previous );
+	}
+
+	private static boolean containsIdentical( List<TravelTime> list, TravelTime travelTime ) {
+		for ( TravelTime tt : list ) {
+			if ( tt == travelTime ) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return <code>true</code> if the travel times of the link changed in the last iteration, or if this is not known (e.g. before the
+	 * first iteration has ended).
+	 */
+	public boolean hasChanged( Id<Link> linkId ) {
+		return !this.known || linkId.index() >= this.numberOfIndexedLinks || this.changedLinks.get( linkId.index() );
+	}
+
+	/**
+	 * @return <code>true</code> if the plan contains a network route over at least one changed link, or a leg without any route.
+	 */
+	public boolean isAffected( Plan plan ) {
+		if ( !this.known ) {
+			return true;
+		}
+		for ( PlanElement pe : plan.getPlanElements() ) {
+			if ( pe instanceof Leg leg ) {
+				if ( leg.getRoute() == null ) {
+					return true;
+				}
+				if ( leg.getRoute() instanceof NetworkRoute route ) {
+					if ( hasChanged( route.getStartLinkId() ) || hasChanged( route.getEndLinkId() ) ) {
+						return true;
+					}
+					for ( Id<Link> linkId : route.getLinkIds() ) {
+						if ( hasChanged( linkId ) ) {
+							return true;
+						}
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+}
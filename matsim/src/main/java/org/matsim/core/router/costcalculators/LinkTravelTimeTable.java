@@ -0,0 +1,96 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * LinkTravelTimeTable.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+
+package org.matsim.core.router.costcalculators;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.core.network.NetworkArrays;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.core.trafficmonitoring.TimeBinUtils;
+import org.matsim.vehicles.Vehicle;
+import org.matsim.vehicles.VehicleType;
+
+/**
+ * A copy of a {@link TravelTime} per link and time bin, so that route searches only need an array lookup per link.  The table is
+ * filled in parallel on construction and immutable afterwards.
+ * <p></p>
+ * The copy assumes that the travel time is constant within a time bin, and that it only depends on the vehicle through the vehicle's
+ * maximum velocity (as for the travel times observed by the {@link org.matsim.core.trafficmonitoring.TravelTimeCalculator}).  Links
+ * with time-variant attributes, and links not part of the network when the table was built, are passed on to the original travel
+ * time.  Links with the same travel time in all bins only keep one value.
+ */
+final class LinkTravelTimeTable implements TravelTime {
+
+	private final TravelTime source;
+	private final NetworkArrays network;
+	private final double binSize;
+	private final int binCount;
+	private final float[][] travelTimes;
+
+	LinkTravelTimeTable(TravelTime source, Network network, double binSize, int maxTime) {
+		this.source = source;
+		this.network = new NetworkArrays(network);
+		this.binSize = binSize;
+		this.binCount = TimeBinUtils.getTimeBinCount(maxTime, binSize);
+		this.travelTimes = new float[this.network.getLinkIndexCount()][];
+
+		IntStream.range(0, this.travelTimes.length).parallel().forEach(this::fill);
+	}
+
+	private void fill(int linkIndex) {
+		if (!this.network.containsLink(linkIndex) || this.network.isTimeVariant(linkIndex)) {
+			return;
+		}
+		Link link = this.network.getLink(linkIndex);
+		float[] values = new float[this.binCount];
+		boolean constant = true;
+		for (int bin = 0; bin < this.binCount; bin++) {
+			values[bin] = (float) this.source.getLinkTravelTime(link, bin * this.binSize, null, null);
+			constant &= values[bin] == values[0];
+		}
+		this.travelTimes[linkIndex] = constant ? Arrays.copyOf(values, 1) : values;
+	}
+
+	TravelTime getSource() {
+		return this.source;
+	}
+
+	@Override
+	public double getLinkTravelTime(Link link, double time, Person person, Vehicle vehicle) {
+		int linkIndex = link.getId().index();
+		float[] values = linkIndex < this.travelTimes.length ? this.travelTimes[linkIndex] : null;
+		if (values == null) {
+			return this.source.getLinkTravelTime(link, time, person, vehicle);
+		}
+		double travelTime = values.length == 1 ? values[0] : values[TimeBinUtils.getTimeBinIndex(time, this.binSize, this.binCount)];
+		VehicleType vehicleType = vehicle == null ? null : vehicle.getType();
+		if (vehicleType != null) {
+			travelTime = Math.max(travelTime, link.getLength() / vehicleType.getMaximumVelocity());
+		}
+		return travelTime;
+	}
+
+}
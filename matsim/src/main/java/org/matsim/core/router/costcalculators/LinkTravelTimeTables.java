@@ -0,0 +1,70 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * LinkTravelTimeTables.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+
+package org.matsim.core.router.costcalculators;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.core.config.groups.RoutingConfigGroup;
+import org.matsim.core.config.groups.TravelTimeCalculatorConfigGroup;
+import org.matsim.core.controler.events.IterationStartsEvent;
+import org.matsim.core.controler.listener.IterationStartsListener;
+import org.matsim.core.router.util.TravelTime;
+
+import jakarta.inject.Inject;
+
+/**
+ * Re-creates the {@link LinkTravelTimeTable}s of the network modes at the beginning of each iteration, i.e. after the travel times of the
+ * previous iteration are final and before replanning, and hands them to the {@link RandomizingTimeDistanceTravelDisutilityFactory}s.
+ * Bound by the {@link TravelDisutilityModule} if {@link RoutingConfigGroup#isPrecomputeTravelTimes()} is set.
+ */
+final class LinkTravelTimeTables implements IterationStartsListener {
+	private static final Logger log = LogManager.getLogger( LinkTravelTimeTables.class );
+
+	@Inject private Network network;
+	@Inject private RoutingConfigGroup routingConfig;
+	@Inject private TravelTimeCalculatorConfigGroup ttConfig;
+	@Inject private Map<String, TravelTime> travelTimes;
+	@Inject private Map<String, TravelDisutilityFactory> travelDisutilityFactories;
+
+	@Override
+	public void notifyIterationStarts( IterationStartsEvent event ) {
+		if ( !"average".equals( ttConfig.getTravelTimeGetterType() ) ) {
+			log.warn( "travel times are only precomputed with the \"average\" travel time getter, not with \"" + ttConfig.getTravelTimeGetterType() + "\"." );
+			return;
+		}
+		Map<TravelTime, LinkTravelTimeTable> tables = new IdentityHashMap<>();
+		for ( String mode : routingConfig.getNetworkModes() ) {
+			TravelTime travelTime = travelTimes.get( mode );
+			if ( travelTime != null && travelDisutilityFactories.get( mode ) instanceof RandomizingTimeDistanceTravelDisutilityFactory factory ) {
+				LinkTravelTimeTable table = tables.computeIfAbsent( travelTime,
+						tt -> new LinkTravelTimeTable( tt, network, ttConfig.getTraveltimeBinSize(), ttConfig.getMaxTime() ) );
+				factory.setTravelTimeTable( table );
+			}
+		}
+		log.info( "precomputed " + tables.size() + " travel time table(s)." );
+	}
+
+}
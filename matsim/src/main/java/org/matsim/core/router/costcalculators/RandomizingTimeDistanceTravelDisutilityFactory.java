@@ -51,6 +51,7 @@ public class RandomizingTimeDistanceTravelDisutilityFactory implements TravelDis
 	private final String mode;
 	private final double sigma;
 	private final ScoringConfigGroup cnScoringGroup;
+	private volatile LinkTravelTimeTable travelTimeTable = null;
 
 	public RandomizingTimeDistanceTravelDisutilityFactory( final String mode, Config config ) {
 		// NOTE: It is difficult to get rid of this constructor completely, since "mode" needs to be passed in.  One could still get all other
@@ -87,14 +88,24 @@ public class RandomizingTimeDistanceTravelDisutilityFactory implements TravelDis
 			}
 		}
 
+		// use the precomputed travel times if they were made from the very same travel time object:
+		LinkTravelTimeTable table = this.travelTimeTable;
 		return new RandomizingTimeDistanceTravelDisutility(
-				travelTime,
+				table != null && table.getSource() == travelTime ? table : travelTime,
 				marginalCostOfTime_s,
 				marginalCostOfDistance_m,
 				normalization,
 				sigma);
 	}
 
+	void setTravelTimeTable( final LinkTravelTimeTable table ) {
+		this.travelTimeTable = table;
+	}
+
+	LinkTravelTimeTable getTravelTimeTable() {
+		return this.travelTimeTable;
+	}
+
 	private void logWarningsIfNecessary(final ScoringConfigGroup cnScoringGroup) {
 		if ( wrnCnt.getAndIncrement() < 1 ) {
 			if ( cnScoringGroup.getModes().get( mode ).getMonetaryDistanceRate() > 0. ) {
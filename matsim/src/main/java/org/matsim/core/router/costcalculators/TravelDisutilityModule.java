@@ -36,6 +36,9 @@ public class TravelDisutilityModule extends AbstractModule {
 
                 addTravelDisutilityFactoryBinding(mode ).toInstance( builder );
         }
+        if (routeConfigGroup.isPrecomputeTravelTimes()) {
+            addControlerListenerBinding().to(LinkTravelTimeTables.class);
+        }
     }
 
 }
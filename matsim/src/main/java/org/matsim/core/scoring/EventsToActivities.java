@@ -81,9 +81,7 @@ public final class EventsToActivities implements ActivityStartEventHandler, Acti
             activity = firstActivity;
         }
         activity.setEndTime(event.getTime());
-        for (ActivityHandler activityHandler : this.activityHandlers) {
-            activityHandler.handleActivity(new PersonExperiencedActivity(event.getPersonId(), activity));
-        }
+        notifyActivityHandlers(new PersonExperiencedActivity(event.getPersonId(), activity));
     }
 
     @Override
@@ -106,11 +104,13 @@ public final class EventsToActivities implements ActivityStartEventHandler, Acti
     }
 
     public void finish() {
-        this.activities.forEach((id, activity) -> {
-            for (ActivityHandler activityHandler : this.activityHandlers) {
-                activityHandler.handleActivity(new PersonExperiencedActivity(id, activity));
-            }
-        });
+        this.activities.forEach((id, activity) -> notifyActivityHandlers(new PersonExperiencedActivity(id, activity)));
+    }
+
+    void notifyActivityHandlers(PersonExperiencedActivity experiencedActivity) {
+        for (ActivityHandler activityHandler : this.activityHandlers) {
+            activityHandler.handleActivity(experiencedActivity);
+        }
     }
 
 }
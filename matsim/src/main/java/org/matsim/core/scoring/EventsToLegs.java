@@ -165,6 +165,15 @@ public final class EventsToLegs
 		this.network = network;
 	}
 
+	/**
+	 * Creates an instance without state and without leg handlers, but with the network and transit schedule of the given one.
+	 * Used for the scoring shards, which each convert the events of their persons into legs.
+	 */
+	EventsToLegs(EventsToLegs template) {
+		this.network = template.network;
+		this.transitSchedule = template.transitSchedule;
+	}
+
 	@Override
 	public void reset(int iteration) {
 		legs.clear();
@@ -349,8 +358,12 @@ public final class EventsToLegs
 			leg.setRoute(genericRoute);
 		}
 
+		notifyLegHandlers(new PersonExperiencedLeg(event.getPersonId(), leg));
+	}
+
+	void notifyLegHandlers(PersonExperiencedLeg experiencedLeg) {
 		for (LegHandler legHandler : legHandlers) {
-			legHandler.handleLeg(new PersonExperiencedLeg(event.getPersonId(), leg));
+			legHandler.handleLeg(experiencedLeg);
 		}
 	}
 
@@ -44,4 +44,15 @@ public interface ScoringFunctionFactory extends MatsimFactory, MatsimExtensionPo
 	 */
 	public ScoringFunction createNewScoringFunction(final Person person);
 
+	/**
+	 * Returns the scoring function for the next iteration of the given person.  Factories whose scoring functions can be
+	 * brought back into their initial state may reset and return <code>previous</code> instead of creating a new one, which
+	 * avoids allocating a complete scoring function per person and iteration.  The default creates a new one.
+	 *
+	 * @param previous the scoring function this factory returned for the person in the previous iteration, or <code>null</code>.
+	 */
+	default ScoringFunction createOrReuseScoringFunction(final Person person, final ScoringFunction previous) {
+		return createNewScoringFunction(person);
+	}
+
 }
@@ -51,6 +51,7 @@ import org.matsim.core.api.experimental.events.VehicleArrivesAtFacilityEvent;
 import org.matsim.core.config.Config;
 import org.matsim.core.config.groups.ControllerConfigGroup;
 import org.matsim.core.controler.ControlerListenerManager;
+import org.matsim.core.controler.listener.AfterMobsimListener;
 import org.matsim.core.controler.listener.BeforeMobsimListener;
 import org.matsim.core.controler.listener.IterationStartsListener;
 import org.matsim.core.events.algorithms.Vehicle2DriverEventHandler;
@@ -63,8 +64,11 @@ import org.matsim.vehicles.Vehicle;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.matsim.core.router.TripStructureUtils.Trip;
@@ -73,12 +77,21 @@ import static org.matsim.core.router.TripStructureUtils.Trip;
  * This class helps EventsToScore by keeping ScoringFunctions for the entire Population - one per Person -, and dispatching Activities
  * and Legs to the ScoringFunctions. It also gives out the ScoringFunctions, so they can be given other events by EventsToScore.
  * It is not independently useful. Please do not make public.
+ * <p>
+ * With {@link ControllerConfigGroup#getNumberOfScoringShards()} greater than one, the persons are split into shards by the index
+ * of their id. Each shard has its own EventsToActivities and EventsToLegs and is processed on its own thread; events are routed
+ * to the shard of the person they concern, so the events of one person are still seen in order. Vehicle related events are
+ * additionally passed to all shards that had a passenger in that vehicle, and transit vehicle events to all shards.
  *
  * @author michaz
  *
  */
  final class ScoringFunctionsForPopulation implements BasicEventHandler {
 
+	private static final int BATCH_SIZE = 1024;
+	private static final int QUEUE_CAPACITY = 16;
+	private static final byte SCORE = 1;
+
 	private final Population population;
 	private final ScoringFunctionFactory scoringFunctionFactory;
 
@@ -92,6 +105,11 @@ import static org.matsim.core.router.TripStructureUtils.Trip;
 
 	private final Vehicle2DriverEventHandler vehicles2Drivers = new Vehicle2DriverEventHandler();
 
+	private final int numberOfShards;
+	private final Shard unshardedDelegate;
+	private ShardWorker[] workers = null;
+	private long[] shardsOfVehicle = new long[0];
+
 	@Inject
 	ScoringFunctionsForPopulation(ControlerListenerManager controlerListenerManager, EventsManager eventsManager, EventsToActivities eventsToActivities, EventsToLegs eventsToLegs,
 						 Population population, ScoringFunctionFactory scoringFunctionFactory, Config config) {
@@ -109,119 +127,154 @@ import static org.matsim.core.router.TripStructureUtils.Trip;
 		this.legsDelegate = eventsToLegs;
 		this.actsDelegate = eventsToActivities;
 		this.scoringFunctionFactory = scoringFunctionFactory;
+		this.numberOfShards = controllerConfigGroup.getNumberOfScoringShards();
 
 		eventsManager.addHandler(this);
-		eventsToActivities.addActivityHandler(this::handleActivity);
-		eventsToLegs.addLegHandler(this::handleLeg);
+		if (this.numberOfShards > 1) {
+			// the shards have their own EventsToActivities/EventsToLegs and pass the activities and legs on to the handlers
+			// registered at the injected ones.  The last activities are only known once all events are processed:
+			controlerListenerManager.addControlerListener((AfterMobsimListener) event -> stopShards());
+			this.unshardedDelegate = null;
+		} else {
+			eventsToActivities.addActivityHandler(this::handleActivity);
+			eventsToLegs.addLegHandler(this::handleLeg);
+			this.unshardedDelegate = new Shard(eventsToActivities, eventsToLegs);
+		}
 	}
 
 	private void init() {
 		for (Person person : this.population.getPersons().values()) {
-			this.agentScorers.put(person.getId(), this.scoringFunctionFactory.createNewScoringFunction(person ) );
-			this.partialScores.put(person.getId(), new TDoubleArrayList());
-			this.tripRecords.put(person.getId(), PopulationUtils.createPlan());
+			Id<Person> personId = person.getId();
+			this.agentScorers.put(personId, this.scoringFunctionFactory.createOrReuseScoringFunction(person, this.agentScorers.get(personId)));
+			TDoubleCollection partialScoresForAgent = this.partialScores.get(personId);
+			if (partialScoresForAgent == null) {
+				this.partialScores.put(personId, new TDoubleArrayList());
+			} else {
+				partialScoresForAgent.clear();
+			}
+			Plan tripRecord = this.tripRecords.get(personId);
+			if (tripRecord == null) {
+				this.tripRecords.put(personId, PopulationUtils.createPlan());
+			} else {
+				tripRecord.getPlanElements().clear();
+			}
 		}
 	}
 
 	@Override
 	public void handleEvent(Event o) {
-		// this is for the stuff that is directly based on events. note that this passes on _all_ person events, even those which are
-		// aggregated into legs and activities. for the time being, not all PersonEvents may "implement HasPersonId". link enter/leave events
-		// are NOT passed on, for performance reasons. kai/dominik, dec'12
-		if (o instanceof HasPersonId) {
-			ScoringFunction scoringFunction = getScoringFunctionForAgent(((HasPersonId) o).getPersonId());
-			if (scoringFunction != null) {
-				if (o instanceof PersonStuckEvent) {
-					scoringFunction.agentStuck(o.getTime());
-				} else if (o instanceof PersonMoneyEvent) {
-					scoringFunction.addMoney(((PersonMoneyEvent) o).getAmount());
-					// yy looking at this, I am a bit skeptic if it truly makes sense to not pass this additionally into the general events handling function below.
-					// A use case might be different utilities of money by money transaction type (e.g. toll, fare, reimbursement, ...).  kai, mar'17
-				} else if (o instanceof PersonScoreEvent) {
-					scoringFunction.addScore(((PersonScoreEvent) o).getAmount());
-				}
-				scoringFunction.handleEvent(o);
-				// passing this on in any case, see comment above.  kai, mar'17
-			}
+		if (this.unshardedDelegate != null) {
+			this.unshardedDelegate.handleEvent(o, true);
+			return;
 		}
-
-		// Establish and end connection between driver and vehicle
-		if (o instanceof VehicleEntersTrafficEvent) {
-			this.vehicles2Drivers.handleEvent((VehicleEntersTrafficEvent) o);
-		}
-		if (o instanceof VehicleLeavesTrafficEvent) {
-			this.vehicles2Drivers.handleEvent((VehicleLeavesTrafficEvent) o);
+		if (this.workers == null) {
+			startShards();
 		}
 
-		// Pass LinkEnterEvent to person scoring, required e.g. for bicycle where link attributes are observed in scoring
-		/*
-		 * (This shouldn't really be more expensive than passing the link events to the router: here, we have a map lookup
-		 * for agentId, there we have a map lookup for linkId. Should be somewhat similar in terms of average
-		 * computational complexity. In BetaTravelTest, 194sec w/ "false", 193sec w/ "true". However, the experienced
-		 * plans service in fact does the same thing, so we should be able to get away without having to do this twice.
-		 * kai, mar'17)
-		 */
-		if (o instanceof LinkEnterEvent) {
-			Id<Vehicle> vehicleId = ((LinkEnterEvent)o).getVehicleId();
+		if (o instanceof HasPersonId) {
+			Id<Person> personId = ((HasPersonId) o).getPersonId();
+			int shard = shardOf(personId);
+			if (o instanceof PersonEntersVehicleEvent) {
+				// from now on, the shard of this person needs to see the vehicle moving to reconstruct the route of the leg
+				Id<Vehicle> vehicleId = ((PersonEntersVehicleEvent) o).getVehicleId();
+				ensureVehicleCapacity(vehicleId.index());
+				this.shardsOfVehicle[vehicleId.index()] |= 1L << shard;
+			}
+			if (o instanceof VehicleEntersTrafficEvent) {
+				this.vehicles2Drivers.handleEvent((VehicleEntersTrafficEvent) o);
+				dispatchToVehicleShards(o, ((VehicleEntersTrafficEvent) o).getVehicleId(), shard);
+			} else if (o instanceof VehicleLeavesTrafficEvent) {
+				this.vehicles2Drivers.handleEvent((VehicleLeavesTrafficEvent) o);
+				dispatchToVehicleShards(o, ((VehicleLeavesTrafficEvent) o).getVehicleId(), shard);
+			} else {
+				this.workers[shard].add(o, SCORE);
+			}
+		} else if (o instanceof LinkEnterEvent) {
+			Id<Vehicle> vehicleId = ((LinkEnterEvent) o).getVehicleId();
 			Id<Person> driverId = this.vehicles2Drivers.getDriverOfVehicle(vehicleId);
-			ScoringFunction scoringFunction = getScoringFunctionForAgent( driverId );
-			// (this will NOT do the scoring function lookup twice since LinkEnterEvent is not an instance of HasPersonId.  kai, mar'17)
-			if (scoringFunction != null) {
-				scoringFunction.handleEvent(o);
+			dispatchToVehicleShards(o, vehicleId, driverId == null ? -1 : shardOf(driverId));
+		} else if (o instanceof TransitDriverStartsEvent || o instanceof VehicleArrivesAtFacilityEvent) {
+			for (ShardWorker worker : this.workers) {
+				worker.add(o, (byte) 0);
 			}
 		}
+		// all other events are not looked at by scoring, see Shard.handleEvent
+	}
 
-		/* Now also handle events for eventsToLegs and eventsToActivities.
-		 * This class deliberately only implements BasicEventHandler and not the individual event handlers required
-		 * by EventsToLegs and EventsToActivities to better control the order in which events are passed to scoring
-		 * functions. By handling the delegation here *after* having the events passed to scoringFunction.handleEvent()
-		 * makes sure that the corresponding event was already seen by a scoring function when the call to handleActivity(),
-		 * handleLeg() or handleTrip() is done.
-		 */
-		if (o instanceof ActivityStartEvent) this.handleActivityStart((ActivityStartEvent) o);
-		if (o instanceof ActivityEndEvent) this.actsDelegate.handleEvent((ActivityEndEvent) o);
-
-		if (o instanceof PersonDepartureEvent) this.legsDelegate.handleEvent((PersonDepartureEvent) o);
-		if (o instanceof PersonArrivalEvent) this.legsDelegate.handleEvent((PersonArrivalEvent) o);
-		if (o instanceof LinkEnterEvent) this.legsDelegate.handleEvent((LinkEnterEvent) o);
-		if (o instanceof TeleportationArrivalEvent) this.legsDelegate.handleEvent((TeleportationArrivalEvent) o);
-		if (o instanceof TransitDriverStartsEvent) this.legsDelegate.handleEvent((TransitDriverStartsEvent) o);
-		if (o instanceof PersonEntersVehicleEvent) this.legsDelegate.handleEvent((PersonEntersVehicleEvent) o);
-		if (o instanceof VehicleArrivesAtFacilityEvent) this.legsDelegate.handleEvent((VehicleArrivesAtFacilityEvent) o);
-		if (o instanceof VehicleEntersTrafficEvent) this.legsDelegate.handleEvent((VehicleEntersTrafficEvent) o);
-		if (o instanceof VehicleLeavesTrafficEvent) this.legsDelegate.handleEvent((VehicleLeavesTrafficEvent) o);
+	private int shardOf(Id<Person> personId) {
+		return personId == null ? 0 : personId.index() % this.numberOfShards;
 	}
 
-	private void handleActivityStart(ActivityStartEvent event) {
-		this.actsDelegate.handleEvent(event);
-		if (!StageActivityTypeIdentifier.isStageActivity( event.getActType() ) ) {
-			this.callTripScoring(event);
+	private void ensureVehicleCapacity(int vehicleIndex) {
+		if (vehicleIndex >= this.shardsOfVehicle.length) {
+			this.shardsOfVehicle = Arrays.copyOf(this.shardsOfVehicle, Math.max(vehicleIndex + 1, this.shardsOfVehicle.length * 2));
 		}
 	}
 
-	private void callTripScoring(ActivityStartEvent event) {
-		Plan plan = this.tripRecords.get(event.getPersonId()); // as container for trip
-		if (plan != null) {
-			// we are at a real activity, which is not the first one we see for this agent.  output the trip ...
-			Activity activity = PopulationUtils.createActivityFromLinkId(event.getActType(), event.getLinkId());
-			activity.setStartTime(event.getTime());
-			plan.addActivity(activity);
-			final List<Trip> trips = TripStructureUtils.getTrips(plan);
-			// yyyyyy should in principle only return one trip.  There are, however, situations where it returns two trips, in particular
-			// in conjunction with the minibus raptor.  Possibly something that has to do with not alternating between acts and legs.
-			// (To make matters worse, it passes on my local machine, but fails in jenkins.  Possibly, the byte buffer memory management
-			// in the minibus raptor implementation has issues--???) kai, sep'18
-
-			ScoringFunction scoringFunction = ScoringFunctionsForPopulation.this.getScoringFunctionForAgent(event.getPersonId());
-			for (Trip trip : trips) {
-				if (trip != null) {
-					scoringFunction.handleTrip(trip);
-				}
-			}
+	/**
+	 * Passes a vehicle related event to the shard of the driver for scoring, and to all shards whose persons were in that vehicle
+	 * for the leg reconstruction.
+	 */
+	private void dispatchToVehicleShards(Event o, Id<Vehicle> vehicleId, int driverShard) {
+		int vehicleIndex = vehicleId.index();
+		long shards = vehicleIndex < this.shardsOfVehicle.length ? this.shardsOfVehicle[vehicleIndex] : 0L;
+		if (driverShard >= 0) {
+			this.workers[driverShard].add(o, SCORE);
+			shards &= ~(1L << driverShard);
+		}
+		while (shards != 0) {
+			int shard = Long.numberOfTrailingZeros(shards);
+			this.workers[shard].add(o, (byte) 0);
+			shards &= shards - 1;
+		}
+	}
 
-			// ... and clean out the intermediate plan (which will remain in tripRecords).
-			plan.getPlanElements().clear();
+	private void startShards() {
+		this.vehicles2Drivers.reset(-1);
+		this.shardsOfVehicle = new long[0];
+		this.workers = new ShardWorker[this.numberOfShards];
+		for (int i = 0; i < this.numberOfShards; i++) {
+			EventsToActivities acts = new EventsToActivities();
+			EventsToLegs legs = new EventsToLegs(this.legsDelegate);
+			acts.addActivityHandler(activity -> {
+				handleActivity(activity);
+				this.actsDelegate.notifyActivityHandlers(activity);
+			});
+			legs.addLegHandler(leg -> {
+				handleLeg(leg);
+				this.legsDelegate.notifyLegHandlers(leg);
+			});
+			this.workers[i] = new ShardWorker(new Shard(acts, legs), i);
+			this.workers[i].start();
+		}
+	}
+
+	/**
+	 * Waits until the shards have processed all events, and flushes the last activities of all persons.
+	 */
+	private void stopShards() {
+		if (this.workers == null) {
+			return;
+		}
+		for (ShardWorker worker : this.workers) {
+			worker.add(null, (byte) 0); // ends the worker after the remaining events
 		}
+		for (ShardWorker worker : this.workers) {
+			try {
+				worker.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException(e);
+			}
+		}
+		for (ShardWorker worker : this.workers) {
+			try {
+				worker.shard.actsDelegate.finish();
+			} catch (RuntimeException e) {
+				this.exception.compareAndSet(null, e);
+			}
+		}
+		this.workers = null;
 	}
 
 	void handleLeg(PersonExperiencedLeg o) {
@@ -270,6 +323,8 @@ import static org.matsim.core.router.TripStructureUtils.Trip;
 	}
 
 	void finishScoringFunctions() {
+		// normally already done after the mobsim, but EventsToScore may be used without one
+		stopShards();
 		// Rethrow an exception in a scoring function (user code) if there was one.
 		Throwable throwable = this.exception.get();
 		if (throwable != null) {
@@ -307,6 +362,203 @@ import static org.matsim.core.router.TripStructureUtils.Trip;
 	public void reset(int iteration) {
 		this.legsDelegate.reset(iteration);
 		this.actsDelegate.reset(iteration);
+		// shards left over from an iteration without AfterMobsim; the next events start new ones
+		stopShards();
+	}
+
+	/**
+	 * Passes the events to the scoring functions and to an EventsToActivities/EventsToLegs pair.  Without sharding, there is one
+	 * instance working on the injected EventsToActivities/EventsToLegs.
+	 */
+	private final class Shard {
+		private final EventsToActivities actsDelegate;
+		private final EventsToLegs legsDelegate;
+		private final Vehicle2DriverEventHandler vehicles2Drivers = new Vehicle2DriverEventHandler();
+
+		Shard(EventsToActivities actsDelegate, EventsToLegs legsDelegate) {
+			this.actsDelegate = actsDelegate;
+			this.legsDelegate = legsDelegate;
+		}
+
+		/**
+		 * @param score false if the event is only passed to this shard for the leg reconstruction of its persons, i.e. the
+		 *              person (or driver) the event is about belongs to another shard.
+		 */
+		void handleEvent(Event o, boolean score) {
+			if (score) {
+				handleEventForScoring(o);
+			}
+
+			/* Now also handle events for eventsToLegs and eventsToActivities.
+			 * This class deliberately only implements BasicEventHandler and not the individual event handlers required
+			 * by EventsToLegs and EventsToActivities to better control the order in which events are passed to scoring
+			 * functions. By handling the delegation here *after* having the events passed to scoringFunction.handleEvent()
+			 * makes sure that the corresponding event was already seen by a scoring function when the call to handleActivity(),
+			 * handleLeg() or handleTrip() is done.
+			 */
+			if (o instanceof ActivityStartEvent) this.handleActivityStart((ActivityStartEvent) o);
+			if (o instanceof ActivityEndEvent) this.actsDelegate.handleEvent((ActivityEndEvent) o);
+
+			if (o instanceof PersonDepartureEvent) this.legsDelegate.handleEvent((PersonDepartureEvent) o);
+			if (o instanceof PersonArrivalEvent) this.legsDelegate.handleEvent((PersonArrivalEvent) o);
+			if (o instanceof LinkEnterEvent) this.legsDelegate.handleEvent((LinkEnterEvent) o);
+			if (o instanceof TeleportationArrivalEvent) this.legsDelegate.handleEvent((TeleportationArrivalEvent) o);
+			if (o instanceof TransitDriverStartsEvent) this.legsDelegate.handleEvent((TransitDriverStartsEvent) o);
+			if (o instanceof PersonEntersVehicleEvent) this.legsDelegate.handleEvent((PersonEntersVehicleEvent) o);
+			if (o instanceof VehicleArrivesAtFacilityEvent) this.legsDelegate.handleEvent((VehicleArrivesAtFacilityEvent) o);
+			if (o instanceof VehicleEntersTrafficEvent) this.legsDelegate.handleEvent((VehicleEntersTrafficEvent) o);
+			if (o instanceof VehicleLeavesTrafficEvent) this.legsDelegate.handleEvent((VehicleLeavesTrafficEvent) o);
+		}
+
+		private void handleEventForScoring(Event o) {
+			// this is for the stuff that is directly based on events. note that this passes on _all_ person events, even those which are
+			// aggregated into legs and activities. for the time being, not all PersonEvents may "implement HasPersonId". link enter/leave events
+			// are NOT passed on, for performance reasons. kai/dominik, dec'12
+			if (o instanceof HasPersonId) {
+				ScoringFunction scoringFunction = getScoringFunctionForAgent(((HasPersonId) o).getPersonId());
+				if (scoringFunction != null) {
+					if (o instanceof PersonStuckEvent) {
+						scoringFunction.agentStuck(o.getTime());
+					} else if (o instanceof PersonMoneyEvent) {
+						scoringFunction.addMoney(((PersonMoneyEvent) o).getAmount());
+						// yy looking at this, I am a bit skeptic if it truly makes sense to not pass this additionally into the general events handling function below.
+						// A use case might be different utilities of money by money transaction type (e.g. toll, fare, reimbursement, ...).  kai, mar'17
+					} else if (o instanceof PersonScoreEvent) {
+						scoringFunction.addScore(((PersonScoreEvent) o).getAmount());
+					}
+					scoringFunction.handleEvent(o);
+					// passing this on in any case, see comment above.  kai, mar'17
+				}
+			}
+
+			// Establish and end connection between driver and vehicle
+			if (o instanceof VehicleEntersTrafficEvent) {
+				this.vehicles2Drivers.handleEvent((VehicleEntersTrafficEvent) o);
+			}
+			if (o instanceof VehicleLeavesTrafficEvent) {
+				this.vehicles2Drivers.handleEvent((VehicleLeavesTrafficEvent) o);
+			}
+
+			// Pass LinkEnterEvent to person scoring, required e.g. for bicycle where link attributes are observed in scoring
+			/*
+			 * (This shouldn't really be more expensive than passing the link events to the router: here, we have a map lookup
+			 * for agentId, there we have a map lookup for linkId. Should be somewhat similar in terms of average
+			 * computational complexity. In BetaTravelTest, 194sec w/ "false", 193sec w/ "true". However, the experienced
+			 * plans service in fact does the same thing, so we should be able to get away without having to do this twice.
+			 * kai, mar'17)
+			 */
+			if (o instanceof LinkEnterEvent) {
+				Id<Vehicle> vehicleId = ((LinkEnterEvent)o).getVehicleId();
+				Id<Person> driverId = this.vehicles2Drivers.getDriverOfVehicle(vehicleId);
+				ScoringFunction scoringFunction = getScoringFunctionForAgent( driverId );
+				// (this will NOT do the scoring function lookup twice since LinkEnterEvent is not an instance of HasPersonId.  kai, mar'17)
+				if (scoringFunction != null) {
+					scoringFunction.handleEvent(o);
+				}
+			}
+		}
+
+		private void handleActivityStart(ActivityStartEvent event) {
+			this.actsDelegate.handleEvent(event);
+			if (!StageActivityTypeIdentifier.isStageActivity( event.getActType() ) ) {
+				this.callTripScoring(event);
+			}
+		}
+
+		private void callTripScoring(ActivityStartEvent event) {
+			Plan plan = tripRecords.get(event.getPersonId()); // as container for trip
+			if (plan != null) {
+				// we are at a real activity, which is not the first one we see for this agent.  output the trip ...
+				Activity activity = PopulationUtils.createActivityFromLinkId(event.getActType(), event.getLinkId());
+				activity.setStartTime(event.getTime());
+				plan.addActivity(activity);
+				final List<Trip> trips = TripStructureUtils.getTrips(plan);
+				// yyyyyy should in principle only return one trip.  There are, however, situations where it returns two trips, in particular
+				// in conjunction with the minibus raptor.  Possibly something that has to do with not alternating between acts and legs.
+				// (To make matters worse, it passes on my local machine, but fails in jenkins.  Possibly, the byte buffer memory management
+				// in the minibus raptor implementation has issues--???) kai, sep'18
+
+				ScoringFunction scoringFunction = ScoringFunctionsForPopulation.this.getScoringFunctionForAgent(event.getPersonId());
+				for (Trip trip : trips) {
+					if (trip != null) {
+						scoringFunction.handleTrip(trip);
+					}
+				}
+
+				// ... and clean out the intermediate plan (which will remain in tripRecords).
+				plan.getPlanElements().clear();
+			}
+		}
+	}
+
+	/**
+	 * Processes the events of one shard on its own thread.  Events are handed over in batches to keep the synchronization
+	 * overhead low; a batch containing <code>null</code> ends the thread.
+	 */
+	private final class ShardWorker extends Thread {
+		private final Shard shard;
+		private final BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+		private Batch current = new Batch();
+
+		ShardWorker(Shard shard, int index) {
+			super("ScoringShard-" + index);
+			this.shard = shard;
+			setDaemon(true);
+		}
+
+		/** Called from the events handling thread only. */
+		void add(Event event, byte flags) {
+			this.current.events[this.current.size] = event;
+			this.current.flags[this.current.size] = flags;
+			this.current.size++;
+			if (this.current.size == BATCH_SIZE || event == null) {
+				flush();
+			}
+		}
+
+		void flush() {
+			if (this.current.size == 0) {
+				return;
+			}
+			try {
+				this.queue.put(this.current);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException(e);
+			}
+			this.current = new Batch();
+		}
+
+		@Override
+		public void run() {
+			try {
+				while (true) {
+					Batch batch = this.queue.take();
+					for (int i = 0; i < batch.size; i++) {
+						Event event = batch.events[i];
+						if (event == null) {
+							return;
+						}
+						if (exception.get() == null) {
+							try {
+								this.shard.handleEvent(event, (batch.flags[i] & SCORE) != 0);
+							} catch (Throwable t) {
+								// keep on taking batches so that the events handling thread does not block; rethrown in finishScoringFunctions
+								exception.compareAndSet(null, t);
+							}
+						}
+					}
+				}
+			} catch (InterruptedException e) {
+				exception.compareAndSet(null, e);
+			}
+		}
+	}
+
+	private static final class Batch {
+		final Event[] events = new Event[BATCH_SIZE];
+		final byte[] flags = new byte[BATCH_SIZE];
+		int size = 0;
 	}
 
 }
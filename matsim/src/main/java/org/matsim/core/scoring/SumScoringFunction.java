@@ -63,6 +63,17 @@ public final class SumScoringFunction implements ScoringFunction {
 		void agentStuck(final double time);
 	}
 
+	/**
+	 * Opt-in for scoring components that can be brought back into the state right after their construction, so that the
+	 * same instance can score the next iteration of the same person.  Subclasses with additional state need to reset that
+	 * as well.
+	 *
+	 * @see #reset()
+	 */
+	public interface ResettableScoring extends BasicScoring {
+		void reset();
+	}
+
 	/**
 	 * NOTE: Despite its somewhat misleading name, only Events that at the same time implement HasPersonId are passed 
 	 * through this interface.  This excludes, in particular, LinkEnterEvent and LinkLeaveEvent.  This was done for performance reasons,
@@ -179,6 +190,23 @@ public final class SumScoringFunction implements ScoringFunction {
 		return score;
 	}
 
+	/**
+	 * Resets all scoring components for the next iteration, if all of them implement {@link ResettableScoring}.
+	 *
+	 * @return false if at least one component is not resettable; nothing is reset then.
+	 */
+	public boolean reset() {
+		for (BasicScoring basicScoringFunction : this.basicScoringFunctions) {
+			if (!(basicScoringFunction instanceof ResettableScoring)) {
+				return false;
+			}
+		}
+		for (BasicScoring basicScoringFunction : this.basicScoringFunctions) {
+			((ResettableScoring) basicScoringFunction).reset();
+		}
+		return true;
+	}
+
 	public void addScoringFunction(BasicScoring scoringFunction) {
 		this.basicScoringFunctions.add(scoringFunction);
 
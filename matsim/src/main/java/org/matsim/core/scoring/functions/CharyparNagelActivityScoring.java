@@ -31,7 +31,7 @@ import org.matsim.core.utils.misc.OptionalTime;
  * @see <a href="http://www.matsim.org/node/263">http://www.matsim.org/node/263</a>
  * @author rashid_waraich
  */
-public final class CharyparNagelActivityScoring implements org.matsim.core.scoring.SumScoringFunction.ActivityScoring {
+public final class CharyparNagelActivityScoring implements org.matsim.core.scoring.SumScoringFunction.ActivityScoring, org.matsim.core.scoring.SumScoringFunction.ResettableScoring {
 	private static final double INITIAL_SCORE = 0.0;
 
 	private double score = INITIAL_SCORE;
@@ -74,6 +74,12 @@ public final class CharyparNagelActivityScoring implements org.matsim.core.scori
 		return this.score;
 	}
 
+	@Override
+	public void reset() {
+		this.score = INITIAL_SCORE;
+		this.firstActivity = null;
+	}
+
 	protected double calcActScore(final double arrivalTime, final double departureTime, final Activity act) {
 
 		ActivityUtilityParameters actParams = this.params.utilParams.get(act.getType());
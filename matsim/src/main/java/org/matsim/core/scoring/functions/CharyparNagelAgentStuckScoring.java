@@ -26,7 +26,7 @@ package org.matsim.core.scoring.functions;
  * @see <a href="http://www.matsim.org/node/263">http://www.matsim.org/node/263</a>
  * @author rashid_waraich
  */
-public final class CharyparNagelAgentStuckScoring implements org.matsim.core.scoring.SumScoringFunction.AgentStuckScoring {
+public final class CharyparNagelAgentStuckScoring implements org.matsim.core.scoring.SumScoringFunction.AgentStuckScoring, org.matsim.core.scoring.SumScoringFunction.ResettableScoring {
 
 	private double score;
 
@@ -55,6 +55,11 @@ public final class CharyparNagelAgentStuckScoring implements org.matsim.core.sco
 		return this.score;
 	}
 
+	@Override
+	public void reset() {
+		this.score = INITIAL_SCORE;
+	}
+
 	private double getStuckPenalty() {
 		return this.params.abortedPlanScore;
 	}
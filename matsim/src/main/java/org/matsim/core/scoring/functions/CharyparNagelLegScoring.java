@@ -43,7 +43,8 @@ import org.matsim.pt.PtConstants;
  * @see <a href="http://www.matsim.org/node/263">http://www.matsim.org/node/263</a>
  * @author rashid_waraich
  */
-public class CharyparNagelLegScoring implements org.matsim.core.scoring.SumScoringFunction.LegScoring, org.matsim.core.scoring.SumScoringFunction.ArbitraryEventScoring {
+public class CharyparNagelLegScoring implements org.matsim.core.scoring.SumScoringFunction.LegScoring, org.matsim.core.scoring.SumScoringFunction.ArbitraryEventScoring,
+		org.matsim.core.scoring.SumScoringFunction.ResettableScoring {
 	// yyyy URL in above javadoc is broken.  kai, feb'17
 
 	private static final Logger log = LogManager.getLogger( CharyparNagelLegScoring.class ) ;
@@ -99,6 +100,19 @@ public class CharyparNagelLegScoring implements org.matsim.core.scoring.SumScori
 		return this.score;
 	}
 
+	/**
+	 * Subclasses with additional state need to override this.
+	 */
+	@Override
+	public void reset() {
+		this.score = 0.;
+		this.nextEnterVehicleIsFirstOfTrip = true;
+		this.nextStartPtLegIsFirstOfTrip = true;
+		this.currentLegIsPtLeg = false;
+		this.lastActivityEndTime = Double.NaN;
+		this.modesAlreadyConsideredForDailyConstants.clear();
+	}
+
 	private static int ccc=0 ;
 	
 	protected double calcLegScore(final double departureTime, final double arrivalTime, final Leg leg) {
@@ -28,7 +28,7 @@ import org.matsim.core.scoring.SumScoringFunction;
  * @see <a href="http://www.matsim.org/node/263">http://www.matsim.org/node/263</a>
  * @author rashid_waraich
  */
-public final class CharyparNagelMoneyScoring implements SumScoringFunction.MoneyScoring {
+public final class CharyparNagelMoneyScoring implements SumScoringFunction.MoneyScoring, SumScoringFunction.ResettableScoring {
 
 	private double score;
 
@@ -56,4 +56,9 @@ public final class CharyparNagelMoneyScoring implements SumScoringFunction.Money
 		return this.score;
 	}
 
+	@Override
+	public void reset() {
+		this.score = 0.;
+	}
+
 }
@@ -20,6 +20,7 @@
 
 package org.matsim.core.scoring.functions;
 
+import org.matsim.api.core.v01.IdMap;
 import org.matsim.api.core.v01.Scenario;
 import org.matsim.api.core.v01.network.Network;
 import org.matsim.api.core.v01.population.Person;
@@ -48,6 +49,12 @@ public final class CharyparNagelScoringFunctionFactory implements ScoringFunctio
 
 	private final ScoringParametersForPerson params;
 
+	/**
+	 * The parameters the scoring function of each person was created with; a scoring function is only reused as long as the
+	 * person still gets the same parameters.
+	 */
+	private final IdMap<Person, ScoringParameters> parametersPerPerson = new IdMap<>(Person.class);
+
 	public CharyparNagelScoringFunctionFactory( final Scenario sc ) {
 		this( sc.getConfig(), new SubpopulationScoringParameters( sc ) , sc.getNetwork() );
 	}
@@ -79,9 +86,10 @@ public final class CharyparNagelScoringFunctionFactory implements ScoringFunctio
 	 */
 	@Override
 	public ScoringFunction createNewScoringFunction(Person person) {
+		return createNewScoringFunction( params.getScoringParameters( person ) );
+	}
 
-		final ScoringParameters parameters = params.getScoringParameters( person );
-
+	private ScoringFunction createNewScoringFunction(final ScoringParameters parameters) {
 		SumScoringFunction sumScoringFunction = new SumScoringFunction();
 		sumScoringFunction.addScoringFunction(new CharyparNagelActivityScoring( parameters ));
 		sumScoringFunction.addScoringFunction(new CharyparNagelLegScoring( parameters , this.network, config.transit().getTransitModes() ));
@@ -90,4 +98,18 @@ public final class CharyparNagelScoringFunctionFactory implements ScoringFunctio
 		sumScoringFunction.addScoringFunction(new ScoreEventScoring());
 		return sumScoringFunction;
 	}
+
+	/**
+	 * Resets and returns the scoring function of the previous iteration, unless the parameters of the person have changed in the meantime.
+	 */
+	@Override
+	public synchronized ScoringFunction createOrReuseScoringFunction(Person person, ScoringFunction previous) {
+		final ScoringParameters parameters = params.getScoringParameters( person );
+		if (previous instanceof SumScoringFunction && this.parametersPerPerson.get(person.getId()) == parameters
+				&& ((SumScoringFunction) previous).reset()) {
+			return previous;
+		}
+		this.parametersPerPerson.put(person.getId(), parameters);
+		return createNewScoringFunction(parameters);
+	}
 }
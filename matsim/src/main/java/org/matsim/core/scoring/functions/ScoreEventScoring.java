@@ -23,7 +23,7 @@ import org.matsim.core.scoring.SumScoringFunction;
 /**
  * @author mrieser / Simunto
  */
-public final class ScoreEventScoring implements SumScoringFunction.ScoreScoring {
+public final class ScoreEventScoring implements SumScoringFunction.ScoreScoring, SumScoringFunction.ResettableScoring {
 
 	private double score = 0.0;
 
@@ -41,4 +41,9 @@ public final class ScoreEventScoring implements SumScoringFunction.ScoreScoring
 		return this.score;
 	}
 
+	@Override
+	public void reset() {
+		this.score = 0.0;
+	}
+
 }
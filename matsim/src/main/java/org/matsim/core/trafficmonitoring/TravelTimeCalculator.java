@@ -43,17 +43,21 @@ import org.matsim.core.api.experimental.events.handler.VehicleArrivesAtFacilityE
 import org.matsim.core.config.groups.QSimConfigGroup;
 import org.matsim.core.config.groups.TravelTimeCalculatorConfigGroup;
 import org.matsim.core.gbl.Gbl;
+import org.matsim.core.network.NetworkUtils;
 import org.matsim.core.router.util.LinkToLinkTravelTime;
 import org.matsim.core.router.util.TravelTime;
 import org.matsim.core.utils.collections.CollectionUtils;
-import org.matsim.core.utils.collections.Tuple;
 import org.matsim.vehicles.Vehicle;
 import org.matsim.vehicles.VehicleType;
 
-import java.util.HashSet;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Calculates actual travel times on link from events and optionally also the link-to-link
@@ -62,6 +66,10 @@ import java.util.concurrent.ConcurrentHashMap;
  * <br>
  * Travel times on links are collected and averaged in bins/slots with a specified size
  * (<code>binSize</code>, in seconds, default 900 seconds = 15 minutes).
+ * <br>
+ * As this handler sees every link event, the event path does not allocate: the vehicles on links are kept in arrays indexed
+ * by {@link Id#index()}, and the link-to-link data per from-link in small arrays of turns.  Events are expected to be handled
+ * by one thread at a time (as guaranteed by the events managers); the travel times may be read concurrently.
  *
  * @author dgrether
  * @author mrieser
@@ -81,11 +89,15 @@ public final class TravelTimeCalculator implements LinkEnterEventHandler, LinkLe
 	private final Network network;
 	private IdMap<Link, TravelTimeDataArray> linkData;
 
-	private Map<Tuple<Id<Link>, Id<Link>>, TravelTimeDataArray> linkToLinkData;
+	/** per from-link index, the data of all turns observed so far; replaced as a whole when it grows */
+	private volatile AtomicReferenceArray<Turns> linkToLinkData;
 
-	private final Map<Id<Vehicle>, LinkEnterEvent> linkEnterEvents;
+	/** per vehicle index, the index of the link the vehicle entered last, or -1 */
+	private int[] enterLinkIndices = new int[0];
+	/** per vehicle index, the time the vehicle entered the link in <code>enterLinkIndices</code> */
+	private double[] enterTimes = new double[0];
 
-	private final Set<Id<Vehicle>> vehiclesToIgnore;
+	private final BitSet vehiclesToIgnore;
 	private final Set<String> analyzedModes;
 
 	private final boolean filterAnalyzedModes;
@@ -94,6 +106,9 @@ public final class TravelTimeCalculator implements LinkEnterEventHandler, LinkLe
 
 	private final boolean calculateLinkToLinkTravelTimes;
 
+	/** the snapshot the link travel times are served from, if published and still valid */
+	private volatile TravelTimeSnapshot publishedSnapshot = null;
+
 	@Inject private QSimConfigGroup qsimConfig ;
 	TravelTimeGetter travelTimeGetter ;
 
@@ -219,14 +234,12 @@ public final class TravelTimeCalculator implements LinkEnterEventHandler, LinkLe
 			this.linkData = new IdMap<>(Link.class);
 		}
 		if (this.calculateLinkToLinkTravelTimes){
-			// assume that every link has 2 outgoing links as default
-			this.linkToLinkData = new ConcurrentHashMap<>((int) (network.getLinks().size() * 1.4 * 2));
+			this.linkToLinkData = new AtomicReferenceArray<>(Id.getNumberOfIds(Link.class));
 		}
-		this.linkEnterEvents = new ConcurrentHashMap<>();
 
 		// if we just look at one mode, we need to ignore all vehicles with a different mode. However, the info re the mode is only in
 		// the vehicleEntersTraffic event.  So we need to memorize the ignored vehicles from there ...
-		this.vehiclesToIgnore = new HashSet<>();
+		this.vehiclesToIgnore = new BitSet();
 
 		this.reset(0);
 	}
@@ -235,13 +248,16 @@ public final class TravelTimeCalculator implements LinkEnterEventHandler, LinkLe
 	public void handleEvent(final LinkEnterEvent e) {
 		/* if only some modes are analyzed, we check whether the vehicles
 		 * performs a trip with one of those modes. if not, we skip the event. */
-		if (filterAnalyzedModes && vehiclesToIgnore.contains(e.getVehicleId())) return;
+		int vehicleIndex = e.getVehicleId().index();
+		if (filterAnalyzedModes && vehiclesToIgnore.get(vehicleIndex)) return;
 
-		LinkEnterEvent oldEvent = this.linkEnterEvents.put(e.getVehicleId(), e);
-		if ((oldEvent != null) && this.calculateLinkToLinkTravelTimes) {
-			Tuple<Id<Link>, Id<Link>> fromToLink = new Tuple<>(oldEvent.getLinkId(), e.getLinkId());
-			TravelTimeData data = getLinkToLinkTravelTimeData(fromToLink );
-			double enterTime = oldEvent.getTime();
+		ensureVehicleCapacity(vehicleIndex);
+		int oldLinkIndex = this.enterLinkIndices[vehicleIndex];
+		double enterTime = this.enterTimes[vehicleIndex];
+		this.enterLinkIndices[vehicleIndex] = e.getLinkId().index();
+		this.enterTimes[vehicleIndex] = e.getTime();
+		if ((oldLinkIndex >= 0) && this.calculateLinkToLinkTravelTimes) {
+			TravelTimeData data = getLinkToLinkTravelTimeData(oldLinkIndex, e.getLinkId().index());
 
 			final int timeSlot = this.aggregator.getTimeSlotIndex(enterTime );
 			data.addTravelTime(timeSlot, e.getTime() - enterTime );
@@ -252,10 +268,11 @@ public final class TravelTimeCalculator implements LinkEnterEventHandler, LinkLe
 	@Override
 	public void handleEvent(final LinkLeaveEvent e) {
 		if (this.calculateLinkTravelTimes) {
-			LinkEnterEvent oldEvent = this.linkEnterEvents.get(e.getVehicleId());
-			if (oldEvent != null) {
+			int vehicleIndex = e.getVehicleId().index();
+			if (vehicleIndex < this.enterLinkIndices.length && this.enterLinkIndices[vehicleIndex] >= 0) {
 				TravelTimeData data = this.getTravelTimeData(e.getLinkId(), true);
-				double enterTime = oldEvent.getTime();
+				double enterTime = this.enterTimes[vehicleIndex];
+				invalidateSnapshot();
 
 				final int timeSlot = this.aggregator.getTimeSlotIndex(enterTime );
 				data.addTravelTime(timeSlot, e.getTime() - enterTime );
@@ -270,7 +287,7 @@ public final class TravelTimeCalculator implements LinkEnterEventHandler, LinkLe
 		 * starts a leg on a non analyzed transport mode, add the vehicle
 		 * to the filtered vehicles set. */
 		if (filterAnalyzedModes && !analyzedModes.contains(event.getNetworkMode())) {
-			this.vehiclesToIgnore.add(event.getVehicleId());
+			this.vehiclesToIgnore.set(event.getVehicleId().index());
 		}
 	}
 
@@ -279,10 +296,10 @@ public final class TravelTimeCalculator implements LinkEnterEventHandler, LinkLe
 		/* remove EnterEvents from list when a vehicle arrives.
 		 * otherwise, the activity duration would be counted as travel time, when the
 		 * vehicle departs again and leaves the link! */
-		this.linkEnterEvents.remove(event.getVehicleId());
+		removeEnteredLink(event.getVehicleId());
 
 		// try to remove vehicles from set with filtered vehicles
-		if (filterAnalyzedModes) this.vehiclesToIgnore.remove(event.getVehicleId());
+		if (filterAnalyzedModes) this.vehiclesToIgnore.clear(event.getVehicleId().index());
 	}
 
 	@Override
@@ -290,14 +307,14 @@ public final class TravelTimeCalculator implements LinkEnterEventHandler, LinkLe
 		/* remove EnterEvents from list when a bus stops on a link.
 		 * otherwise, the stop time would be counted as travel time, when the
 		 * bus departs again and leaves the link! */
-		this.linkEnterEvents.remove(event.getVehicleId());
+		removeEnteredLink(event.getVehicleId());
 	}
 
 	@Override
 	public void handleEvent(VehicleAbortsEvent event) {
-		LinkEnterEvent e = this.linkEnterEvents.remove(event.getVehicleId());
-		if (e != null) {
-			TravelTimeData data = this.getTravelTimeData(e.getLinkId(), true);
+		int linkIndex = removeEnteredLink(event.getVehicleId());
+		if (linkIndex >= 0) {
+			TravelTimeData data = this.getTravelTimeData(Id.get(linkIndex, Link.class), true);
 			data.setNeedsConsolidation( true );
 
 			//			this.aggregator.addStuckEventTravelTime(data, e.getTime(), event.getTime());
@@ -313,7 +330,30 @@ public final class TravelTimeCalculator implements LinkEnterEventHandler, LinkLe
 		}
 
 		// try to remove vehicle from set with filtered vehicles
-		if (filterAnalyzedModes) this.vehiclesToIgnore.remove(event.getVehicleId());
+		if (filterAnalyzedModes) this.vehiclesToIgnore.clear(event.getVehicleId().index());
+	}
+
+	private void ensureVehicleCapacity(int vehicleIndex) {
+		if (vehicleIndex >= this.enterLinkIndices.length) {
+			int size = Math.max(vehicleIndex + 1, Math.max(Id.getNumberOfIds(Vehicle.class), this.enterLinkIndices.length * 2));
+			int oldSize = this.enterLinkIndices.length;
+			this.enterLinkIndices = Arrays.copyOf(this.enterLinkIndices, size);
+			Arrays.fill(this.enterLinkIndices, oldSize, size, -1);
+			this.enterTimes = Arrays.copyOf(this.enterTimes, size);
+		}
+	}
+
+	/**
+	 * @return the index of the link the vehicle was on, or -1
+	 */
+	private int removeEnteredLink(Id<Vehicle> vehicleId) {
+		int vehicleIndex = vehicleId.index();
+		if (vehicleIndex >= this.enterLinkIndices.length) {
+			return -1;
+		}
+		int linkIndex = this.enterLinkIndices[vehicleIndex];
+		this.enterLinkIndices[vehicleIndex] = -1;
+		return linkIndex;
 	}
 
 	private TravelTimeDataArray getTravelTimeData(final Id<Link> linkId, final boolean createIfMissing) {
@@ -325,15 +365,75 @@ public final class TravelTimeCalculator implements LinkEnterEventHandler, LinkLe
 		return data;
 	}
 
-	private TravelTimeDataArray getLinkToLinkTravelTimeData( Tuple<Id<Link>, Id<Link>> fromLinkToLink ) {
-		TravelTimeDataArray data = this.linkToLinkData.get(fromLinkToLink);
-		if ( null == data ) {
-			data = this.createTravelTimeData(fromLinkToLink.getFirst()) ;
-			this.linkToLinkData.put(fromLinkToLink, data);
+	private TravelTimeDataArray getLinkToLinkTravelTimeData(int fromLinkIndex, int toLinkIndex) {
+		AtomicReferenceArray<Turns> turnsPerLink = this.linkToLinkData;
+		if (fromLinkIndex < turnsPerLink.length()) {
+			Turns turns = turnsPerLink.get(fromLinkIndex);
+			if (turns != null) {
+				TravelTimeDataArray data = turns.get(toLinkIndex);
+				if (data != null) {
+					return data;
+				}
+			}
+		}
+		return createLinkToLinkTravelTimeData(fromLinkIndex, toLinkIndex);
+	}
+
+	private synchronized TravelTimeDataArray createLinkToLinkTravelTimeData(int fromLinkIndex, int toLinkIndex) {
+		// (synchronized since routers may ask for turns which were never observed, and thus create them, concurrently)
+		AtomicReferenceArray<Turns> turnsPerLink = this.linkToLinkData;
+		if (fromLinkIndex >= turnsPerLink.length()) {
+			AtomicReferenceArray<Turns> grown = new AtomicReferenceArray<>(Math.max(fromLinkIndex + 1, Id.getNumberOfIds(Link.class)));
+			for (int i = 0; i < turnsPerLink.length(); i++) {
+				grown.set(i, turnsPerLink.get(i));
+			}
+			this.linkToLinkData = turnsPerLink = grown;
+		}
+		Turns turns = turnsPerLink.get(fromLinkIndex);
+		TravelTimeDataArray data = turns == null ? null : turns.get(toLinkIndex);
+		if (data == null) {
+			data = this.createTravelTimeData(Id.get(fromLinkIndex, Link.class));
+			turnsPerLink.set(fromLinkIndex, turns == null ? new Turns(toLinkIndex, data) : turns.with(toLinkIndex, data));
 		}
 		return data;
 	}
 
+	/**
+	 * The data of the turns from one link, looked up by a linear search over the (few) to-links.  Immutable, so that it can be read
+	 * without locking.
+	 */
+	private static final class Turns {
+		private final int[] toLinkIndices;
+		private final TravelTimeDataArray[] data;
+
+		Turns(int toLinkIndex, TravelTimeDataArray data) {
+			this(new int[] { toLinkIndex }, new TravelTimeDataArray[] { data });
+		}
+
+		private Turns(int[] toLinkIndices, TravelTimeDataArray[] data) {
+			this.toLinkIndices = toLinkIndices;
+			this.data = data;
+		}
+
+		TravelTimeDataArray get(int toLinkIndex) {
+			for (int i = 0; i < this.toLinkIndices.length; i++) {
+				if (this.toLinkIndices[i] == toLinkIndex) {
+					return this.data[i];
+				}
+			}
+			return null;
+		}
+
+		Turns with(int toLinkIndex, TravelTimeDataArray newData) {
+			int n = this.toLinkIndices.length;
+			int[] indices = Arrays.copyOf(this.toLinkIndices, n + 1);
+			TravelTimeDataArray[] datas = Arrays.copyOf(this.data, n + 1);
+			indices[n] = toLinkIndex;
+			datas[n] = newData;
+			return new Turns(indices, datas);
+		}
+	}
+
 	private TravelTimeDataArray createTravelTimeData(Id<Link> linkId) {
 		return new TravelTimeDataArray(this.network.getLinks().get(linkId), this.numSlots);
 	}
@@ -356,7 +456,7 @@ public final class TravelTimeCalculator implements LinkEnterEventHandler, LinkLe
 			throw new IllegalStateException("No link to link travel time is available " +
 									    "if calculation is switched off by config option!");
 		}
-		TravelTimeData data = this.getLinkToLinkTravelTimeData(new Tuple<>(fromLinkId, toLinkId) );
+		TravelTimeData data = this.getLinkToLinkTravelTimeData(fromLinkId.index(), toLinkId.index());
 		if ( data.isNeedingConsolidation() ) {
 			consolidateData(data);
 		}
@@ -365,6 +465,7 @@ public final class TravelTimeCalculator implements LinkEnterEventHandler, LinkLe
 
 	@Override
 	public void reset(int iteration) {
+		invalidateSnapshot();
 		if (this.calculateLinkTravelTimes) {
 			for (TravelTimeData data : this.linkData.values()){
 				data.resetTravelTimes();
@@ -372,12 +473,18 @@ public final class TravelTimeCalculator implements LinkEnterEventHandler, LinkLe
 			}
 		}
 		if (this.calculateLinkToLinkTravelTimes){
-			for (TravelTimeData data : this.linkToLinkData.values()){
-				data.resetTravelTimes();
-				data.setNeedsConsolidation( false );
+			AtomicReferenceArray<Turns> turnsPerLink = this.linkToLinkData;
+			for (int i = 0; i < turnsPerLink.length(); i++) {
+				Turns turns = turnsPerLink.get(i);
+				if (turns != null) {
+					for (TravelTimeData data : turns.data) {
+						data.resetTravelTimes();
+						data.setNeedsConsolidation( false );
+					}
+				}
 			}
 		}
-		this.linkEnterEvents.clear();
+		Arrays.fill(this.enterLinkIndices, -1);
 		this.vehiclesToIgnore.clear();
 	}
 
@@ -432,38 +539,219 @@ public final class TravelTimeCalculator implements LinkEnterEventHandler, LinkLe
 		}
 	}
 
+	/**
+	 * Writes the observed travel times including the sample counts, so that {@link #readCheckpoint(DataInput)} restores exactly the same state.
+	 */
+	void writeCheckpoint(DataOutput out) throws IOException {
+		out.writeInt(this.numSlots);
+		if (this.calculateLinkTravelTimes) {
+			out.writeInt(this.linkData.size());
+			for (Map.Entry<Id<Link>, TravelTimeDataArray> e : this.linkData.entrySet()) {
+				out.writeUTF(e.getKey().toString());
+				e.getValue().writeTo(out);
+			}
+		} else {
+			out.writeInt(0);
+		}
+		if (this.calculateLinkToLinkTravelTimes) {
+			AtomicReferenceArray<Turns> turnsPerLink = this.linkToLinkData;
+			int count = 0;
+			for (int i = 0; i < turnsPerLink.length(); i++) {
+				Turns turns = turnsPerLink.get(i);
+				count += turns == null ? 0 : turns.data.length;
+			}
+			out.writeInt(count);
+			for (int i = 0; i < turnsPerLink.length(); i++) {
+				Turns turns = turnsPerLink.get(i);
+				if (turns != null) {
+					for (int j = 0; j < turns.data.length; j++) {
+						out.writeUTF(Id.get(i, Link.class).toString());
+						out.writeUTF(Id.get(turns.toLinkIndices[j], Link.class).toString());
+						turns.data[j].writeTo(out);
+					}
+				}
+			}
+		} else {
+			out.writeInt(0);
+		}
+	}
+
+	void readCheckpoint(DataInput in) throws IOException {
+		invalidateSnapshot();
+		int slots = in.readInt();
+		if (slots != this.numSlots) {
+			throw new RuntimeException("checkpoint contains travel times for " + slots + " time bins, but " + this.numSlots + " are configured.");
+		}
+		int linkCount = in.readInt();
+		if (linkCount > 0 && !this.calculateLinkTravelTimes) {
+			throw new RuntimeException("checkpoint contains link travel times, but their calculation is switched off by config option.");
+		}
+		for (int i = 0; i < linkCount; i++) {
+			this.getTravelTimeData(Id.createLinkId(in.readUTF()), true).readFrom(in);
+		}
+		int linkToLinkCount = in.readInt();
+		if (linkToLinkCount > 0 && !this.calculateLinkToLinkTravelTimes) {
+			throw new RuntimeException("checkpoint contains link to link travel times, but their calculation is switched off by config option.");
+		}
+		for (int i = 0; i < linkToLinkCount; i++) {
+			Id<Link> fromLinkId = Id.createLinkId(in.readUTF());
+			Id<Link> toLinkId = Id.createLinkId(in.readUTF());
+			this.getLinkToLinkTravelTimeData(fromLinkId.index(), toLinkId.index()).readFrom(in);
+		}
+	}
+
 	private static int cnt = 0 ;
 
-	public TravelTime getLinkTravelTimes() {
-		return new TravelTime() {
+	static double getTravelTimeFromVehicle( Link link, Vehicle vehicle ) {
+		if ( vehicle!=null ){
+			final VehicleType vehicleType = vehicle.getType();
+			if ( vehicleType==null ){
+				if( cnt < 1 ){
+					cnt++;
+					log.warn( "encountered vehicle where vehicle.getType() returns null.  That should be repaired (whereever it comes from)." );
+					log.warn( Gbl.ONLYONCE );
+				}
+			} else{
+				return link.getLength() / vehicleType.getMaximumVelocity();
+			}
+		}
+		return 0. ;
+	}
 
-			@Override
-			public double getLinkTravelTime(Link link, double time, Person person, Vehicle vehicle) {
-				// right now, the link speed limit comes from the travel time calculator, and this here just overrides it.  One might consider doing all of this here;
-				// possibly would make the code easier to read.  kai/mads, feb'19
-
-				double linkTtimeFromVehicle = 0. ;
-				if ( vehicle!=null ){
-					final VehicleType vehicleType = vehicle.getType();
-					if ( vehicleType==null ){
-						if( cnt < 1 ){
-							cnt++;
-							log.warn( "encountered vehicle where vehicle.getType() returns null.  That should be repaired (whereever it comes from)." );
-							log.warn( Gbl.ONLYONCE );
-						}
-					} else{
-						linkTtimeFromVehicle = link.getLength() / vehicleType.getMaximumVelocity();
-					}
+	/**
+	 * Simulated travel times exceed the free speed travel time even without congestion: the qsim rounds the link exit up to its time
+	 * step, and moves the vehicle over the node in the following time step.  Two time steps of the default qsim time step size.
+	 */
+	static final double DEFAULT_FREE_SPEED_TOLERANCE = 2.0;
+
+	/**
+	 * Creates a snapshot with the {@link #DEFAULT_FREE_SPEED_TOLERANCE}, see {@link #createSnapshot(double)}.
+	 */
+	public TravelTimeSnapshot createSnapshot() {
+		return createSnapshot(DEFAULT_FREE_SPEED_TOLERANCE);
+	}
+
+	/**
+	 * Creates an immutable copy of the current link travel times, which can be shared by any number of threads without
+	 * synchronization.  Only the links with travel times deviating from their free speed travel time keep data in the snapshot, as
+	 * floats for the range of time bins from the first to the last deviating one; all other links and bins use their free speed travel
+	 * time.  Links with time-variant attributes keep the whole range of observed bins.
+	 *
+	 * @param freeSpeedTolerance seconds by which a travel time may differ from the free speed travel time and still count as free
+	 * speed, usually two time steps of the mobsim.
+	 */
+	public TravelTimeSnapshot createSnapshot(double freeSpeedTolerance) {
+		if (!this.calculateLinkTravelTimes) {
+			throw new IllegalStateException("No link travel time is available if calculation is switched off by config option!");
+		}
+		TravelTimeData[] dataPerLink = new TravelTimeData[Id.getNumberOfIds(Link.class)];
+		int[] firstSlot = new int[1];
+		for (Map.Entry<Id<Link>, TravelTimeDataArray> e : this.linkData.entrySet()) {
+			TravelTimeDataArray data = e.getValue();
+			if ( data.isNeedingConsolidation() ) {
+				consolidateData(data);
+			}
+			float[] travelTimes = data.getObservedTravelTimes(firstSlot);
+			if (travelTimes != null) {
+				Link link = this.network.getLinks().get(e.getKey());
+				int first = 0;
+				int last = travelTimes.length - 1;
+				if (!NetworkUtils.isTimeVariant(link)) {
+					double freeSpeedTravelTime = link.getLength() / link.getFreespeed();
+					while (first <= last && isFreeSpeed(travelTimes[first], freeSpeedTravelTime, freeSpeedTolerance)) first++;
+					while (last >= first && isFreeSpeed(travelTimes[last], freeSpeedTravelTime, freeSpeedTolerance)) last--;
+				}
+				if (first <= last) {
+					dataPerLink[e.getKey().index()] = new TravelTimeSnapshot.LinkData(link, firstSlot[0] + first,
+							first == 0 && last == travelTimes.length - 1 ? travelTimes : Arrays.copyOfRange(travelTimes, first, last + 1));
 				}
-				double linkTTimeFromObservation = TravelTimeCalculator.this.getLinkTravelTime(link.getId(), time);
-				return Math.max( linkTtimeFromVehicle, linkTTimeFromObservation) ;
-				// yyyyyy should this not be min?  kai/janek, may'19
-				// No, it is correct. It is preventing the router to route with an empirical speed from
-				// the previous iteration that exceeds the maximum vehicle speed.
-				// Thus, the lowest speed (highest travel time) of the two should be used.    Mads, Nov'19
 			}
+		}
+		return new TravelTimeSnapshot(dataPerLink, this.travelTimeGetter);
+	}
 
-		};
+	private static boolean isFreeSpeed(float travelTime, double freeSpeedTravelTime, double tolerance) {
+		// (bins without observation are NaN, and use the free speed travel time as well)
+		return Float.isNaN(travelTime) || Math.abs(travelTime - freeSpeedTravelTime) <= tolerance;
+	}
+
+	/**
+	 * Serves the link travel times of {@link #getLinkTravelTimes()} from a {@link #createSnapshot() snapshot} of the current travel
+	 * times, until they change again, i.e. until the next travel time is recorded or {@link #reset(int)} is called.  Meant to be called
+	 * when the travel times of an iteration are final, so that routers do not need to touch the mutable data.
+	 */
+	public void publishSnapshot() {
+		publishSnapshot(DEFAULT_FREE_SPEED_TOLERANCE);
+	}
+
+	/**
+	 * As {@link #publishSnapshot()}, with the given tolerance for travel times which count as free speed, see
+	 * {@link #createSnapshot(double)}.
+	 */
+	public void publishSnapshot(double freeSpeedTolerance) {
+		this.publishedSnapshot = createSnapshot(freeSpeedTolerance);
+	}
+
+	private void invalidateSnapshot() {
+		if (this.publishedSnapshot != null) {
+			this.publishedSnapshot = null;
+		}
+	}
+
+	/**
+	 * @return the indices of the links with at least one observed travel time in the current iteration.  All other links have their
+	 * free speed travel times.
+	 */
+	public BitSet getObservedLinkIndices() {
+		if (!this.calculateLinkTravelTimes) {
+			throw new IllegalStateException("No link travel time is available if calculation is switched off by config option!");
+		}
+		BitSet observed = new BitSet();
+		for (Map.Entry<Id<Link>, TravelTimeDataArray> e : this.linkData.entrySet()) {
+			if (e.getValue().hasObservations()) {
+				observed.set(e.getKey().index());
+			}
+		}
+		return observed;
+	}
+
+	public TravelTime getLinkTravelTimes() {
+		return new ObservedLinkTravelTime();
+	}
+
+	/**
+	 * The link travel times returned by {@link #getLinkTravelTimes()}.  Gives access to the links with observed travel times, so that
+	 * consumers can skip the links which only have their free speed travel times.
+	 */
+	public final class ObservedLinkTravelTime implements TravelTime {
+
+		private ObservedLinkTravelTime() {
+		}
+
+		/**
+		 * @see TravelTimeCalculator#getObservedLinkIndices()
+		 */
+		public BitSet getObservedLinkIndices() {
+			return TravelTimeCalculator.this.getObservedLinkIndices();
+		}
+
+		@Override
+		public double getLinkTravelTime(Link link, double time, Person person, Vehicle vehicle) {
+			TravelTimeSnapshot snapshot = TravelTimeCalculator.this.publishedSnapshot;
+			if (snapshot != null) {
+				return snapshot.getLinkTravelTime(link, time, person, vehicle);
+			}
+			// right now, the link speed limit comes from the travel time calculator, and this here just overrides it.  One might consider doing all of this here;
+			// possibly would make the code easier to read.  kai/mads, feb'19
+
+			double linkTtimeFromVehicle = getTravelTimeFromVehicle( link, vehicle );
+			double linkTTimeFromObservation = TravelTimeCalculator.this.getLinkTravelTime(link.getId(), time);
+			return Math.max( linkTtimeFromVehicle, linkTTimeFromObservation) ;
+			// yyyyyy should this not be min?  kai/janek, may'19
+			// No, it is correct. It is preventing the router to route with an empirical speed from
+			// the previous iteration that exceeds the maximum vehicle speed.
+			// Thus, the lowest speed (highest travel time) of the two should be used.    Mads, Nov'19
+		}
 
 	}
 
@@ -472,19 +760,7 @@ public final class TravelTimeCalculator implements LinkEnterEventHandler, LinkLe
 
 			@Override
 			public double getLinkToLinkTravelTime(Link fromLink, Link toLink, double time, Person person, Vehicle vehicle) {
-				double linkTtimeFromVehicle = 0. ;
-				if ( vehicle!=null ){
-					final VehicleType vehicleType = vehicle.getType();
-					if ( vehicleType==null ){
-						if( cnt < 1 ){
-							cnt++;
-							log.warn( "encountered vehicle where vehicle.getType() returns null.  That should be repaired (whereever it comes from)." );
-							log.warn( Gbl.ONLYONCE );
-						}
-					} else{
-						linkTtimeFromVehicle = fromLink.getLength() / vehicleType.getMaximumVelocity();
-					}
-				}
+				double linkTtimeFromVehicle = getTravelTimeFromVehicle( fromLink, vehicle );
 				double linkTTimeFromObservation = TravelTimeCalculator.this.getLinkToLinkTravelTime(fromLink.getId(), toLink.getId(), time);
 
 				return Math.max(linkTTimeFromObservation, linkTtimeFromVehicle);
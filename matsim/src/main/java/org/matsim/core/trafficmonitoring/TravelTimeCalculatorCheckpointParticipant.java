@@ -0,0 +1,58 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * TravelTimeCalculatorCheckpointParticipant.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.trafficmonitoring;
+
+import org.matsim.core.controler.checkpointing.CheckpointParticipant;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Stores the travel times observed in the last iteration, so that the first iteration after resuming replans with the same
+ * travel times as the original run.
+ */
+final class TravelTimeCalculatorCheckpointParticipant implements CheckpointParticipant {
+
+	private final String name;
+	private final TravelTimeCalculator calculator;
+
+	TravelTimeCalculatorCheckpointParticipant(String name, TravelTimeCalculator calculator) {
+		this.name = name;
+		this.calculator = calculator;
+	}
+
+	@Override
+	public String getCheckpointName() {
+		return this.name;
+	}
+
+	@Override
+	public void writeCheckpoint(DataOutput out) throws IOException {
+		this.calculator.writeCheckpoint(out);
+	}
+
+	@Override
+	public void readCheckpoint(DataInput in) throws IOException {
+		this.calculator.readCheckpoint(in);
+	}
+
+}
@@ -29,8 +29,12 @@ import com.google.inject.name.Names;
 
 import org.matsim.api.core.v01.network.Network;
 import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.config.groups.QSimConfigGroup;
 import org.matsim.core.config.groups.TravelTimeCalculatorConfigGroup;
 import org.matsim.core.controler.AbstractModule;
+import org.matsim.core.controler.checkpointing.CheckpointParticipant;
+import org.matsim.core.controler.listener.ControlerListener;
+import org.matsim.core.controler.listener.IterationStartsListener;
 import org.matsim.core.router.util.LinkToLinkTravelTime;
 import org.matsim.core.router.util.TravelTime;
 import org.matsim.core.utils.collections.CollectionUtils;
@@ -78,6 +82,12 @@ public class TravelTimeCalculatorModule extends AbstractModule {
 				}).in( Singleton.class );
 				// (This used to be without "Singleton".  I think that with Singleton it makes more sense, but don't know ramifications. kai, nov'19)
 
+				if ( isCheckpointing() ) {
+					addCheckpointParticipantBinding().toProvider( new CheckpointParticipantProvider( "travelTimes." + mode, Key.get( TravelTimeCalculator.class, Names.named( mode ) ) ) );
+				}
+				if ( getConfig().travelTimeCalculator().isUseTravelTimeSnapshots() && getConfig().travelTimeCalculator().isCalculateLinkTravelTimes() ) {
+					addControlerListenerBinding().toProvider( new SnapshotPublisherProvider( Key.get( TravelTimeCalculator.class, Names.named( mode ) ) ) );
+				}
 			}
 		} else {
 			// (all analyzed modes are measured together, and the same result is returned to each mode)
@@ -95,8 +105,58 @@ public class TravelTimeCalculatorModule extends AbstractModule {
 			if (getConfig().travelTimeCalculator().isCalculateLinkToLinkTravelTimes()) {
 				bind(LinkToLinkTravelTime.class).toProvider(ObservedLinkToLinkTravelTimes.class);
 			}
+			if ( isCheckpointing() ) {
+				addCheckpointParticipantBinding().toProvider( new CheckpointParticipantProvider( "travelTimes", Key.get( TravelTimeCalculator.class ) ) );
+			}
+			if ( getConfig().travelTimeCalculator().isUseTravelTimeSnapshots() && getConfig().travelTimeCalculator().isCalculateLinkTravelTimes() ) {
+				addControlerListenerBinding().toProvider( new SnapshotPublisherProvider( Key.get( TravelTimeCalculator.class ) ) );
+			}
+		}
+
+	}
+
+	private boolean isCheckpointing() {
+		// (the participants instantiate the travel time calculators, which otherwise only happens if someone asks for the travel times.)
+		return getConfig().controller().getWriteCheckpointsInterval() > 0 || getConfig().controller().getResumeFromCheckpoint() != null;
+	}
+
+	private static class CheckpointParticipantProvider implements Provider<CheckpointParticipant> {
+
+		@Inject Injector injector;
+
+		private final String name;
+		private final Key<TravelTimeCalculator> key;
+
+		CheckpointParticipantProvider(String name, Key<TravelTimeCalculator> key) {
+			this.name = name;
+			this.key = key;
+		}
+
+		@Override
+		public CheckpointParticipant get() {
+			return new TravelTimeCalculatorCheckpointParticipant( name, injector.getInstance( key ) );
+		}
+	}
+
+	private static class SnapshotPublisherProvider implements Provider<ControlerListener> {
+
+		@Inject Injector injector;
+		@Inject QSimConfigGroup qsimConfig;
+
+		private final Key<TravelTimeCalculator> key;
+
+		SnapshotPublisherProvider(Key<TravelTimeCalculator> key) {
+			this.key = key;
 		}
 
+		@Override
+		public ControlerListener get() {
+			TravelTimeCalculator calculator = injector.getInstance( key );
+			// (travel times at free speed exceed the free speed travel time by up to two time steps of the mobsim)
+			double freeSpeedTolerance = 2 * qsimConfig.getTimeStepSize();
+			// (at the beginning of an iteration, the travel times of the previous mobsim are final; they are reset before the next mobsim)
+			return (IterationStartsListener) event -> calculator.publishSnapshot( freeSpeedTolerance );
+		}
 	}
 
 	private static class SingleModeTravelTimeCalculatorProvider implements Provider<TravelTimeCalculator> {
@@ -22,12 +22,17 @@ package org.matsim.core.trafficmonitoring;
 
 import org.matsim.api.core.v01.network.Link;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Arrays;
 
 /**
  * Implementation of {@link TravelTimeData} that stores the data per time bin
  * in simple arrays. Useful if not too many empty time bins (time bins with
- * no traffic on a link) exist, so no memory is wasted.
+ * no traffic on a link) exist, so no memory is wasted.  The array is only
+ * allocated once a travel time is recorded, so links without any traffic
+ * only cost the object itself and report free speed travel times.
  *
  * @author mrieser
  */
@@ -56,13 +61,22 @@ class TravelTimeDataArray extends TravelTimeData {
 	 *
 	 * -mrieser, april 2021
 	 */
-	private final long[] data;
+	private long[] data = null;
+	private final int numSlots;
 	private final Link link;
 
 	TravelTimeDataArray(final Link link, final int numSlots) {
-		this.data = new long[numSlots];
+		this.numSlots = numSlots;
 		this.link = link;
-		resetTravelTimes();
+	}
+
+	private long[] data() {
+		if (this.data == null) {
+			long[] array = new long[this.numSlots];
+			Arrays.fill(array, encode(0, -1.0));
+			this.data = array;
+		}
+		return this.data;
 	}
 
 	static long encode(int count, double traveltime) {
@@ -83,18 +97,21 @@ class TravelTimeDataArray extends TravelTimeData {
 
 	@Override
 	public void resetTravelTimes() {
-		long val = encode(0, -1.0);
-		Arrays.fill(this.data, val);
+		if (this.data != null) {
+			long val = encode(0, -1.0);
+			Arrays.fill(this.data, val);
+		}
 	}
 
 	@Override
 	public void setTravelTime( final int timeSlot, final double traveltime ) {
-		this.data[timeSlot] = encode(1, traveltime);
+		data()[timeSlot] = encode(1, traveltime);
 	}
 
 	@Override
 	public void addTravelTime(final int timeSlot, final double traveltime) {
-		long val = this.data[timeSlot];
+		long[] data = data();
+		long val = data[timeSlot];
 		int cnt = count(val);
 		double tt = traveltime(val);
 		double sum = tt * cnt;
@@ -102,11 +119,14 @@ class TravelTimeDataArray extends TravelTimeData {
 		sum += traveltime;
 		cnt++;
 
-		this.data[timeSlot] = encode(cnt, sum / cnt);
+		data[timeSlot] = encode(cnt, sum / cnt);
 	}
 
 	@Override
 	public double getTravelTime(final int timeSlot, final double now) {
+		if (this.data == null) {
+			return this.link.getLength() / this.link.getFreespeed(now);
+		}
 		long val = this.data[timeSlot];
 		double ttime = traveltime(val);
 		if (ttime >= 0.0) return ttime; // negative values are invalid.
@@ -117,18 +137,85 @@ class TravelTimeDataArray extends TravelTimeData {
 		return freespeed;
 	}
 
+	/**
+	 * @return whether at least one time bin has an observed (or consolidated) travel time
+	 */
+	boolean hasObservations() {
+		if (this.data == null) {
+			return false;
+		}
+		for (long val : this.data) {
+			if (count(val) > 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the observed (or consolidated) travel times of all time bins in between the first and the last bin with such a travel time, or
+	 * <code>null</code> if there is none.  Bins without observation are NaN.  The first bin is returned in <code>firstSlot[0]</code>.
+	 */
+	float[] getObservedTravelTimes(final int[] firstSlot) {
+		if (this.data == null) {
+			return null;
+		}
+		int first = -1;
+		int last = -1;
+		for (int i = 0; i < this.data.length; i++) {
+			if (count(this.data[i]) > 0) {
+				if (first < 0) {
+					first = i;
+				}
+				last = i;
+			}
+		}
+		if (first < 0) {
+			return null;
+		}
+		float[] travelTimes = new float[last - first + 1];
+		for (int i = first; i <= last; i++) {
+			long val = this.data[i];
+			travelTimes[i - first] = count(val) > 0 ? (float) traveltime(val) : Float.NaN;
+		}
+		firstSlot[0] = first;
+		return travelTimes;
+	}
+
+	void writeTo(DataOutput out) throws IOException {
+		out.writeBoolean(isNeedingConsolidation());
+		if (this.data == null) {
+			long val = encode(0, -1.0);
+			for (int i = 0; i < this.numSlots; i++) {
+				out.writeLong(val);
+			}
+		} else {
+			for (long val : this.data) {
+				out.writeLong(val);
+			}
+		}
+	}
+
+	void readFrom(DataInput in) throws IOException {
+		setNeedsConsolidation(in.readBoolean());
+		long[] data = data();
+		for (int i = 0; i < data.length; i++) {
+			data[i] = in.readLong();
+		}
+	}
+
 	/* package-private for debugging */ String cntToString(){
 		StringBuilder strb = new StringBuilder().append( "cnt=[ " );
-		for( int ii = 0 ; ii < this.data.length ; ii++ ){
-			strb.append( count(this.data[ii]) ).append( "      " );
+		for( int ii = 0 ; ii < this.numSlots ; ii++ ){
+			strb.append( this.data == null ? 0 : count(this.data[ii]) ).append( "      " );
 		}
 		strb.append( "]" );
 		return strb.toString();
 	}
 	/* package-private for debugging */ String ttToString() {
 		StringBuilder strb = new StringBuilder().append( "tt=[ " );
-		for ( int ii=0 ; ii<this.data.length ; ii++ ) {
-			strb.append( traveltime(this.data[ii]) ).append( " " );
+		for ( int ii=0 ; ii<this.numSlots ; ii++ ) {
+			strb.append( this.data == null ? -1.0 : traveltime(this.data[ii]) ).append( " " );
 		}
 		strb.append( "]" );
 		return strb.toString();
@@ -0,0 +1,107 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * TravelTimeSnapshot.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+
+package org.matsim.core.trafficmonitoring;
+
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.vehicles.Vehicle;
+
+/**
+ * An immutable copy of the link travel times of a {@link TravelTimeCalculator}, see {@link TravelTimeCalculator#createSnapshot()}.
+ * <p></p>
+ * Links without observed travel times are not stored at all and return their free speed travel time.  For the other links, the
+ * travel times are stored as floats for the range of time bins from the first to the last observed one.  As nothing is modified after
+ * construction, a snapshot can be shared by all routing threads without any synchronization.
+ */
+public final class TravelTimeSnapshot implements TravelTime {
+
+	private final TravelTimeData[] dataPerLink;
+	private final TravelTimeGetter travelTimeGetter;
+
+	TravelTimeSnapshot(TravelTimeData[] dataPerLink, TravelTimeGetter travelTimeGetter) {
+		this.dataPerLink = dataPerLink;
+		this.travelTimeGetter = travelTimeGetter;
+	}
+
+	@Override
+	public double getLinkTravelTime(Link link, double time, Person person, Vehicle vehicle) {
+		int index = link.getId().index();
+		TravelTimeData data = index < this.dataPerLink.length ? this.dataPerLink[index] : null;
+		double observed = data == null ? link.getLength() / link.getFreespeed(time) : this.travelTimeGetter.getTravelTime(data, time);
+		return Math.max(TravelTimeCalculator.getTravelTimeFromVehicle(link, vehicle), observed);
+	}
+
+	/**
+	 * @return the number of links for which travel times other than the free speed travel time are stored.
+	 */
+	public int getNumberOfObservedLinks() {
+		int count = 0;
+		for (TravelTimeData data : this.dataPerLink) {
+			if (data != null) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	static final class LinkData extends TravelTimeData {
+		private final Link link;
+		private final int firstSlot;
+		private final float[] travelTimes;
+
+		LinkData(Link link, int firstSlot, float[] travelTimes) {
+			this.link = link;
+			this.firstSlot = firstSlot;
+			this.travelTimes = travelTimes;
+			setNeedsConsolidation(false);
+		}
+
+		@Override
+		double getTravelTime(int timeSlot, double now) {
+			int i = timeSlot - this.firstSlot;
+			if (i >= 0 && i < this.travelTimes.length) {
+				float travelTime = this.travelTimes[i];
+				if (!Float.isNaN(travelTime)) {
+					return travelTime;
+				}
+			}
+			return this.link.getLength() / this.link.getFreespeed(now);
+		}
+
+		@Override
+		public void resetTravelTimes() {
+			throw new UnsupportedOperationException("travel time snapshots are read-only");
+		}
+
+		@Override
+		void addTravelTime(int timeSlot, double traveltime) {
+			throw new UnsupportedOperationException("travel time snapshots are read-only");
+		}
+
+		@Override
+		void setTravelTime(int timeSlot, double traveltime) {
+			throw new UnsupportedOperationException("travel time snapshots are read-only");
+		}
+	}
+
+}
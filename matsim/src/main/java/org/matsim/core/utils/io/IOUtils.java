@@ -178,6 +178,10 @@ PR ist hier: https://github.com/matsim-org/matsim/pull/646
 		}
 	}
 
+	public static int getZstdCompressionLevel() {
+		return zstdCompressionLevel;
+	}
+
 	// Define a number of charsets that are / have been used.
 	public static final Charset CHARSET_UTF8 = StandardCharsets.UTF_8;
 	public static final Charset CHARSET_WINDOWS_ISO88591 = StandardCharsets.ISO_8859_1;
@@ -36,6 +36,7 @@ import org.matsim.core.gbl.MatsimRandom;
 import org.matsim.core.network.io.MatsimNetworkReader;
 import org.matsim.core.scenario.ScenarioUtils;
 import org.matsim.core.utils.misc.ArgumentParser;
+import org.matsim.vis.snapshotwriters.BinarySnapshotWriter;
 import org.matsim.vis.snapshotwriters.SnapshotWriter;
 import org.matsim.vis.snapshotwriters.TransimsSnapshotWriter;
 
@@ -212,6 +213,10 @@ public class Events2Snapshot {
 					String snapshotFile = outputDir + "T.veh";
 					this.visualizer.addSnapshotWriter(new TransimsSnapshotWriter(snapshotFile));
 					break; }
+				case binary: {
+					String snapshotFile = outputDir + "snapshots.bin.gz";
+					this.visualizer.addSnapshotWriter(new BinarySnapshotWriter(snapshotFile));
+					break; }
 				case googleearth:
 					// KML support removed, michalm, may'22
 				case otfvis:
@@ -0,0 +1,426 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * ColumnarAttributeStore.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.utils.objectattributes.attributable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Stores the attributes of many objects of the same kind (e.g. all persons of a population) column by column, instead of
+ * one small {@link AttributesImpl} per object. Every attribute name is one column, typed after the first value that is
+ * stored in it: doubles, integers and booleans are kept in primitive arrays, strings are dictionary-encoded (which is
+ * what makes categorical attributes such as subpopulation or car availability cheap), everything else is kept as object.
+ * If a value of another type is stored into a typed column, the column falls back to storing objects.
+ * <p></p>
+ * Every object gets a row and an {@link Attributes} view on it via {@link #createAttributes()}. Rows of objects that are
+ * removed from their container should be given back with {@link #release(Attributes)}, otherwise they stay allocated.
+ * The dictionary of string values only grows.
+ * <p></p>
+ * One store is shared by all objects of its container, while e.g. the parallel population reader or the replanning
+ * threads access the attributes of different objects at the same time. Reads take no lock: the map of columns is
+ * copied on write, and every column publishes its arrays through volatile fields after a value was written. Writes lock
+ * the column they write to; only adding a column, converting it to an object column and handing out rows lock the
+ * whole store.
+ */
+public final class ColumnarAttributeStore {
+
+	private volatile Map<String, Column> columns = Collections.emptyMap();
+	private int rowCount = 0;
+	private int[] freeRows = new int[0];
+	private int freeRowCount = 0;
+
+	public Attributes createAttributes() {
+		int row;
+		synchronized (this) {
+			if (this.freeRowCount > 0) {
+				row = this.freeRows[--this.freeRowCount];
+			} else {
+				row = this.rowCount++;
+			}
+		}
+		return new ColumnarAttributes(this, row);
+	}
+
+	/**
+	 * Removes all values of the given attributes and makes their row available for other objects. The attributes must
+	 * not be used anymore afterwards.
+	 */
+	public void release(Attributes attributes) {
+		if (!(attributes instanceof ColumnarAttributes columnar) || columnar.store != this) {
+			return;
+		}
+		clear(columnar.row);
+		synchronized (this) {
+			if (this.freeRowCount == this.freeRows.length) {
+				this.freeRows = Arrays.copyOf(this.freeRows, Math.max(16, this.freeRows.length * 2));
+			}
+			this.freeRows[this.freeRowCount++] = columnar.row;
+			columnar.row = -1;
+		}
+	}
+
+	/**
+	 * @return number of rows in use
+	 */
+	public synchronized int size() {
+		return this.rowCount - this.freeRowCount;
+	}
+
+	Object put(int row, String attribute, Object value) {
+		checkRow(row);
+		while (true) {
+			Column column = this.columns.get(attribute);
+			if (column == null || !column.accepts(value)) {
+				column = replaceColumn(attribute, value);
+			}
+			synchronized (column) {
+				// the column may have been converted to an object column in the meantime
+				if (!column.replaced) {
+					Object previous = column.get(row);
+					column.set(row, value);
+					return previous;
+				}
+			}
+		}
+	}
+
+	private synchronized Column replaceColumn(String attribute, Object value) {
+		Column column = this.columns.get(attribute);
+		if (column != null && column.accepts(value)) {
+			return column;
+		}
+		Column newColumn;
+		if (column == null) {
+			newColumn = Column.create(value);
+		} else {
+			synchronized (column) {
+				newColumn = column.toObjectColumn();
+				column.replaced = true;
+			}
+		}
+		Map<String, Column> newColumns = new HashMap<>(this.columns);
+		newColumns.put(attribute, newColumn);
+		this.columns = newColumns;
+		return newColumn;
+	}
+
+	Object get(int row, String attribute) {
+		checkRow(row);
+		Column column = this.columns.get(attribute);
+		return column == null ? null : column.get(row);
+	}
+
+	Object remove(int row, String attribute) {
+		checkRow(row);
+		while (true) {
+			Column column = this.columns.get(attribute);
+			if (column == null) {
+				return null;
+			}
+			synchronized (column) {
+				if (!column.replaced) {
+					Object previous = column.get(row);
+					column.remove(row);
+					return previous;
+				}
+			}
+		}
+	}
+
+	void clear(int row) {
+		checkRow(row);
+		for (String attribute : this.columns.keySet()) {
+			remove(row, attribute);
+		}
+	}
+
+	int size(int row) {
+		checkRow(row);
+		int size = 0;
+		for (Column column : this.columns.values()) {
+			if (column.isPresent(row)) {
+				size++;
+			}
+		}
+		return size;
+	}
+
+	Map<String, Object> getAsMap(int row) {
+		checkRow(row);
+		// sorted by name, as in AttributesImpl
+		Map<String, Object> map = new TreeMap<>();
+		for (Map.Entry<String, Column> e : this.columns.entrySet()) {
+			if (e.getValue().isPresent(row)) {
+				map.put(e.getKey(), e.getValue().get(row));
+			}
+		}
+		return map;
+	}
+
+	private static void checkRow(int row) {
+		if (row < 0) {
+			throw new IllegalStateException("attributes have been released.");
+		}
+	}
+
+	/**
+	 * A bit set which may be read while one thread at a time writes to it. The words are published again after every
+	 * write, so that a reader sees the bit together with everything that was written before it.
+	 */
+	private static final class Bits {
+		private volatile long[] words = new long[0];
+
+		boolean get(int index) {
+			long[] words = this.words;
+			int word = index >> 6;
+			return word < words.length && (words[word] & (1L << index)) != 0;
+		}
+
+		void set(int index, boolean value) {
+			long[] words = this.words;
+			int word = index >> 6;
+			if (word >= words.length) {
+				if (!value) {
+					return;
+				}
+				words = Arrays.copyOf(words, Column.newCapacity(words.length, word));
+			}
+			if (value) {
+				words[word] |= 1L << index;
+			} else {
+				words[word] &= ~(1L << index);
+			}
+			this.words = words;
+		}
+	}
+
+	/**
+	 * Values are read without a lock, but written only while holding the lock of the column. A value is written before
+	 * its presence bit is set, and the presence bit is cleared before the value is removed.
+	 */
+	private static abstract class Column {
+		private final Bits present = new Bits();
+		boolean replaced = false;
+
+		static Column create(Object value) {
+			if (value instanceof Double) {
+				return new DoubleColumn();
+			}
+			if (value instanceof Integer) {
+				return new IntColumn();
+			}
+			if (value instanceof Boolean) {
+				return new BooleanColumn();
+			}
+			if (value instanceof String) {
+				return new StringColumn();
+			}
+			return new ObjectColumn();
+		}
+
+		boolean isPresent(int row) {
+			return this.present.get(row);
+		}
+
+		Object get(int row) {
+			return isPresent(row) ? getValue(row) : null;
+		}
+
+		void set(int row, Object value) {
+			setValue(row, value);
+			this.present.set(row, true);
+		}
+
+		void remove(int row) {
+			if (isPresent(row)) {
+				this.present.set(row, false);
+				removeValue(row);
+			}
+		}
+
+		ObjectColumn toObjectColumn() {
+			ObjectColumn column = new ObjectColumn();
+			long[] words = this.present.words;
+			for (int word = 0; word < words.length; word++) {
+				for (long bits = words[word]; bits != 0; bits &= bits - 1) {
+					int row = (word << 6) + Long.numberOfTrailingZeros(bits);
+					column.set(row, getValue(row));
+				}
+			}
+			return column;
+		}
+
+		abstract boolean accepts(Object value);
+
+		abstract Object getValue(int row);
+
+		abstract void setValue(int row, Object value);
+
+		void removeValue(int row) {
+		}
+
+		static int newCapacity(int length, int row) {
+			return Math.max(row + 1, Math.max(16, length + (length >> 1)));
+		}
+	}
+
+	private static final class DoubleColumn extends Column {
+		private volatile double[] values = new double[0];
+
+		@Override
+		boolean accepts(Object value) {
+			return value instanceof Double;
+		}
+
+		@Override
+		Object getValue(int row) {
+			return this.values[row];
+		}
+
+		@Override
+		void setValue(int row, Object value) {
+			double[] values = this.values;
+			if (row >= values.length) {
+				values = Arrays.copyOf(values, newCapacity(values.length, row));
+			}
+			values[row] = (Double) value;
+			this.values = values;
+		}
+	}
+
+	private static final class IntColumn extends Column {
+		private volatile int[] values = new int[0];
+
+		@Override
+		boolean accepts(Object value) {
+			return value instanceof Integer;
+		}
+
+		@Override
+		Object getValue(int row) {
+			return this.values[row];
+		}
+
+		@Override
+		void setValue(int row, Object value) {
+			int[] values = this.values;
+			if (row >= values.length) {
+				values = Arrays.copyOf(values, newCapacity(values.length, row));
+			}
+			values[row] = (Integer) value;
+			this.values = values;
+		}
+	}
+
+	private static final class BooleanColumn extends Column {
+		private final Bits values = new Bits();
+
+		@Override
+		boolean accepts(Object value) {
+			return value instanceof Boolean;
+		}
+
+		@Override
+		Object getValue(int row) {
+			return this.values.get(row);
+		}
+
+		@Override
+		void setValue(int row, Object value) {
+			this.values.set(row, (Boolean) value);
+		}
+	}
+
+	private static final class StringColumn extends Column {
+		private final Map<String, Integer> codes = new HashMap<>();
+		private volatile String[] dictionary = new String[0];
+		private volatile int[] values = new int[0];
+
+		@Override
+		boolean accepts(Object value) {
+			return value instanceof String;
+		}
+
+		@Override
+		Object getValue(int row) {
+			// the code has to be read before the dictionary, which is published before the code
+			int code = this.values[row];
+			return this.dictionary[code];
+		}
+
+		@Override
+		void setValue(int row, Object value) {
+			String s = (String) value;
+			Integer code = this.codes.get(s);
+			if (code == null) {
+				code = this.codes.size();
+				String[] dictionary = this.dictionary;
+				if (code >= dictionary.length) {
+					dictionary = Arrays.copyOf(dictionary, newCapacity(dictionary.length, code));
+				}
+				dictionary[code] = s;
+				this.dictionary = dictionary;
+				this.codes.put(s, code);
+			}
+			int[] values = this.values;
+			if (row >= values.length) {
+				values = Arrays.copyOf(values, newCapacity(values.length, row));
+			}
+			values[row] = code;
+			this.values = values;
+		}
+	}
+
+	private static final class ObjectColumn extends Column {
+		private volatile Object[] values = new Object[0];
+
+		@Override
+		boolean accepts(Object value) {
+			return true;
+		}
+
+		@Override
+		Object getValue(int row) {
+			return this.values[row];
+		}
+
+		@Override
+		void setValue(int row, Object value) {
+			Object[] values = this.values;
+			if (row >= values.length) {
+				values = Arrays.copyOf(values, newCapacity(values.length, row));
+			}
+			values[row] = value;
+			this.values = values;
+		}
+
+		@Override
+		void removeValue(int row) {
+			Object[] values = this.values;
+			values[row] = null;
+			this.values = values;
+		}
+	}
+
+}
@@ -0,0 +1,83 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * ColumnarAttributes.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.utils.objectattributes.attributable;
+
+import java.util.Map;
+
+/**
+ * View on one row of a {@link ColumnarAttributeStore}.
+ */
+final class ColumnarAttributes implements Attributes {
+
+	final ColumnarAttributeStore store;
+	int row;
+
+	ColumnarAttributes(ColumnarAttributeStore store, int row) {
+		this.store = store;
+		this.row = row;
+	}
+
+	@Override
+	public Object putAttribute(String attribute, Object value) {
+		return this.store.put(this.row, attribute, value);
+	}
+
+	@Override
+	public Object getAttribute(String attribute) {
+		return this.store.get(this.row, attribute);
+	}
+
+	@Override
+	public Object removeAttribute(String attribute) {
+		return this.store.remove(this.row, attribute);
+	}
+
+	@Override
+	public void clear() {
+		this.store.clear(this.row);
+	}
+
+	@Override
+	public Map<String, Object> getAsMap() {
+		return this.store.getAsMap(this.row);
+	}
+
+	@Override
+	public int size() {
+		return this.store.size(this.row);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder stb = new StringBuilder();
+		for (Map.Entry<String, Object> e : getAsMap().entrySet()) {
+			stb.append("{ key=").append(e.getKey());
+			stb.append("; object=").append(e.getValue());
+			stb.append(" }");
+		}
+		return stb.toString();
+	}
+}
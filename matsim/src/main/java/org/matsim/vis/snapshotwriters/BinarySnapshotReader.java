@@ -0,0 +1,105 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * BinarySnapshotReader.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+
+package org.matsim.vis.snapshotwriters;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.core.utils.io.IOUtils;
+
+/**
+ * Reads the files written by {@link BinarySnapshotWriter} and passes the snapshots to a {@link SnapshotWriter}, e.g. to
+ * convert them into another format.
+ */
+public final class BinarySnapshotReader {
+
+	private final SnapshotWriter handler;
+
+	public BinarySnapshotReader(SnapshotWriter handler) {
+		this.handler = handler;
+	}
+
+	public void readFile(String filename) {
+		List<Id<Person>> personIds = new ArrayList<>();
+		List<Id<Link>> linkIds = new ArrayList<>();
+		AgentSnapshotInfo.AgentState[] states = AgentSnapshotInfo.AgentState.values();
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(IOUtils.getInputStream(IOUtils.getFileUrl(filename))))) {
+			if (in.readInt() != BinarySnapshotWriter.MAGIC) {
+				throw new RuntimeException(filename + " is not a binary snapshot file.");
+			}
+			int version = in.readInt();
+			if (version != BinarySnapshotWriter.VERSION) {
+				throw new RuntimeException("Unsupported version " + version + " of binary snapshot file " + filename);
+			}
+			while (true) {
+				int tag;
+				try {
+					tag = in.readByte();
+				} catch (EOFException e) {
+					break;
+				}
+				if (tag != BinarySnapshotWriter.SNAPSHOT) {
+					throw new RuntimeException("Unexpected byte " + tag + " at the beginning of a snapshot in " + filename);
+				}
+				this.handler.beginSnapshot(in.readDouble());
+				int state;
+				while ((state = in.readByte()) != BinarySnapshotWriter.END_OF_SNAPSHOT) {
+					Id<Person> personId = readId(in, personIds, Person.class);
+					Id<Link> linkId = readId(in, linkIds, Link.class);
+					this.handler.addAgent(new PositionInfo.DirectBuilder()
+							.setAgentState(states[state])
+							.setPersonId(personId)
+							.setLinkId(linkId)
+							.setEasting(in.readFloat())
+							.setNorthing(in.readFloat())
+							.setColorValue(in.readFloat())
+							.setUserDefined(in.readInt())
+							.build());
+				}
+				this.handler.endSnapshot();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		this.handler.finish();
+	}
+
+	private static <T> Id<T> readId(DataInputStream in, List<Id<T>> ids, Class<T> type) throws IOException {
+		int index = in.readInt();
+		if (index < 0) {
+			return null;
+		}
+		if (index == ids.size()) {
+			ids.add(Id.create(in.readUTF(), type));
+		}
+		return ids.get(index);
+	}
+
+}
@@ -0,0 +1,124 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * BinarySnapshotWriter.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+
+package org.matsim.vis.snapshotwriters;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.core.utils.io.IOUtils;
+
+/**
+ * Writes the snapshots into a compact binary file, which can be read with {@link BinarySnapshotReader}.
+ * <p>
+ * The file starts with the int {@link #MAGIC} and the int {@link #VERSION}.  Every snapshot starts with the byte
+ * {@link #SNAPSHOT} and the time (double), followed by one record per agent and the byte {@link #END_OF_SNAPSHOT}.  A
+ * record consists of the ordinal of the agent state (byte), the agent id and the link id, easting, northing and
+ * color value (floats) and the user defined value (int).  Ids are written as int index into a table of the ids written
+ * so far, -1 stands for no id; when an id is written for the first time, its index is followed by the id as UTF string.
+ * Vehicle ids and driving states are not written.
+ */
+public class BinarySnapshotWriter implements SnapshotWriter {
+
+	static final int MAGIC = 0x4d534e50;
+	static final int VERSION = 1;
+	static final byte SNAPSHOT = 1;
+	static final byte END_OF_SNAPSHOT = -1;
+
+	private final DataOutputStream out;
+	private final Map<Id<?>, Integer> personIndices = new HashMap<>();
+	private final Map<Id<?>, Integer> linkIndices = new HashMap<>();
+
+	public BinarySnapshotWriter(String filename) {
+		this.out = new DataOutputStream(new BufferedOutputStream(IOUtils.getOutputStream(IOUtils.getFileUrl(filename), false)));
+		try {
+			this.out.writeInt(MAGIC);
+			this.out.writeInt(VERSION);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void beginSnapshot(double time) {
+		try {
+			this.out.writeByte(SNAPSHOT);
+			this.out.writeDouble(time);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void addAgent(AgentSnapshotInfo position) {
+		try {
+			this.out.writeByte(position.getAgentState().ordinal());
+			writeId(position.getId(), this.personIndices);
+			writeId(position.getLinkId(), this.linkIndices);
+			this.out.writeFloat((float) position.getEasting());
+			this.out.writeFloat((float) position.getNorthing());
+			this.out.writeFloat((float) position.getColorValueBetweenZeroAndOne());
+			this.out.writeInt(position.getUserDefined());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void writeId(Id<?> id, Map<Id<?>, Integer> indices) throws IOException {
+		if (id == null) {
+			this.out.writeInt(-1);
+			return;
+		}
+		Integer index = indices.get(id);
+		if (index != null) {
+			this.out.writeInt(index);
+		} else {
+			index = indices.size();
+			indices.put(id, index);
+			this.out.writeInt(index);
+			this.out.writeUTF(id.toString());
+		}
+	}
+
+	@Override
+	public void endSnapshot() {
+		try {
+			this.out.writeByte(END_OF_SNAPSHOT);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void finish() {
+		try {
+			this.out.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+}
@@ -33,10 +33,8 @@ import org.matsim.core.mobsim.framework.listeners.MobsimInitializedListener;
 import org.matsim.core.mobsim.qsim.interfaces.Netsim;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 public class SnapshotWriterManager implements MobsimBeforeCleanupListener, MobsimAfterSimStepListener, MobsimInitializedListener {
 
@@ -45,6 +43,7 @@ public class SnapshotWriterManager implements MobsimBeforeCleanupListener, Mobsi
 	private final List<SnapshotWriter> snapshotWriters = new ArrayList<>();
 	private final QSimConfigGroup.FilterSnapshots filterSnapshots;
 	private final int snapshotPeriod;
+	private final double sampleFraction;
 
 	/**
 	 * time since last snapshot
@@ -52,8 +51,17 @@ public class SnapshotWriterManager implements MobsimBeforeCleanupListener, Mobsi
 	private double snapshotTime = 0.0;
 
 	public SnapshotWriterManager(int snapshotPeriod, QSimConfigGroup.FilterSnapshots filterSnapshots) {
+		this(snapshotPeriod, filterSnapshots, 1.0);
+	}
+
+	/**
+	 * @param sampleFraction the fraction of the agents which are included in the snapshots, see
+	 * {@link QSimConfigGroup#getSnapshotSampleFraction()}.
+	 */
+	public SnapshotWriterManager(int snapshotPeriod, QSimConfigGroup.FilterSnapshots filterSnapshots, double sampleFraction) {
 		this.snapshotPeriod = snapshotPeriod;
 		this.filterSnapshots = filterSnapshots;
+		this.sampleFraction = sampleFraction;
 	}
 
 	@Override
@@ -90,14 +98,14 @@ public class SnapshotWriterManager implements MobsimBeforeCleanupListener, Mobsi
 	private void doSnapshot(final double time, VisMobsim visMobsim) {
 		if (!this.snapshotWriters.isEmpty()) {
 
-			// This could be parallel since mihal has fixed some concurrency issues in the SnapshotInfoBuilder
-			// I think mainly by using separate builders for each generated AgentPositionInfo.
-			// I don't have time to test this right now, but if this ever appears to be a bottle neck, this probably
-			// can be replaced by a parallel stream. janek: oct' 2021
-			var positions = visMobsim.getVisNetwork().getVisLinks().values().stream()
+			// The links are processed in parallel: the snapshot is taken after the sim step, so the netsim does not modify
+			// the links in the meantime, and the SnapshotInfoBuilder uses separate builders for each generated AgentPositionInfo.
+			// The positions are collected in the order of the links, so the output does not depend on the number of threads.
+			List<AgentSnapshotInfo> positions = visMobsim.getVisNetwork().getVisLinks().values().parallelStream()
 					.filter(visLink -> isGenerateSnapshot(visLink.getLink()))
-					.flatMap(visLink -> visLink.getVisData().addAgentSnapshotInfo(new HashSet<>()).stream())
-					.collect(Collectors.toSet());
+					.flatMap(visLink -> visLink.getVisData().addAgentSnapshotInfo(new ArrayList<>()).stream())
+					.filter(this::isInSample)
+					.toList();
 
 			// We do not put non-network agents in movies.
 			// Otherwise, we would add snapshots from visMobsim.getNonNetworkAgentSnapshots() here.
@@ -116,6 +124,21 @@ public class SnapshotWriterManager implements MobsimBeforeCleanupListener, Mobsi
 		this.snapshotWriters.add(snapshotWriter);
 	}
 
+	/**
+	 * Decides from the id of the agent whether it is in the sample, so that an agent is either in all snapshots or in none.
+	 */
+	private boolean isInSample(AgentSnapshotInfo position) {
+		if (this.sampleFraction >= 1.0 || position.getId() == null) {
+			return true;
+		}
+		// spread the id indices evenly over [0,1) (finalizer of the splitmix64 generator):
+		long z = position.getId().index() * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		z = z ^ (z >>> 31);
+		return (z >>> 11) * 0x1.0p-53 < this.sampleFraction;
+	}
+
 	private boolean isGenerateSnapshot(Link link) {
 		switch (filterSnapshots) {
 			case no:
@@ -46,6 +46,9 @@ public class SnapshotWritersModule extends AbstractModule {
 		if (getConfig().controller().getSnapshotFormat().contains(SnapshotFormat.positionevents)) {
 			addSnapshotWriterBinding().toProvider(PositionEventsWriterFactory.class);
 		}
+		if (getConfig().controller().getSnapshotFormat().contains(SnapshotFormat.binary)) {
+			addSnapshotWriterBinding().toProvider(BinarySnapshotWriterFactory.class);
+		}
 		if (getConfig().controller().getWriteSnapshotsInterval() != 0) {
 			addMobsimListenerBinding().toProvider(SnapshotWriterManagerProvider.class);
 		}
@@ -71,7 +74,8 @@ public class SnapshotWritersModule extends AbstractModule {
 		@Override
 		public MobsimListener get() {
 			if (iterationContext.getIteration() % controllerConfigGroup.getWriteSnapshotsInterval() == 0) {
-				SnapshotWriterManager manager = new SnapshotWriterManager((int) qSimConfigGroup.getSnapshotPeriod(), qSimConfigGroup.getFilterSnapshots());
+				SnapshotWriterManager manager = new SnapshotWriterManager((int) qSimConfigGroup.getSnapshotPeriod(), qSimConfigGroup.getFilterSnapshots(),
+						qSimConfigGroup.getSnapshotSampleFraction());
 				for (com.google.inject.Provider<SnapshotWriter> snapshotWriter : this.snapshotWriters) {
 					manager.addSnapshotWriter(snapshotWriter.get());
 				}
@@ -69,8 +69,44 @@ public final class WithinDayConfigGroup extends ReflectiveConfigGroup {
 	// ---
 	// ---
 
+	private static final String MAX_REPLANNINGS_PER_TIME_STEP = "maxReplanningsPerTimeStep";
+	private static final String MAX_REPLANNING_LATENCY = "maxReplanningLatency";
+
+	private int maxReplanningsPerTimeStep = 0;
+	private double maxReplanningLatency = 60.0;
+
+	@StringGetter(MAX_REPLANNINGS_PER_TIME_STEP)
+	public int getMaxReplanningsPerTimeStep() {
+		return maxReplanningsPerTimeStep;
+	}
+
+	@StringSetter(MAX_REPLANNINGS_PER_TIME_STEP)
+	public void setMaxReplanningsPerTimeStep(int maxReplanningsPerTimeStep) {
+		this.maxReplanningsPerTimeStep = maxReplanningsPerTimeStep;
+	}
+
+	@StringGetter(MAX_REPLANNING_LATENCY)
+	public double getMaxReplanningLatency() {
+		return maxReplanningLatency;
+	}
+
+	@StringSetter(MAX_REPLANNING_LATENCY)
+	public void setMaxReplanningLatency(double maxReplanningLatency) {
+		this.maxReplanningLatency = maxReplanningLatency;
+	}
+
+	// ---
+	// ---
+
 	@Override public Map<String, String> getComments() {
 		Map<String, String> comments = super.getComments();
+		comments.put(MAX_REPLANNINGS_PER_TIME_STEP, "Maximum number of agents which are replanned during their activities, and of agents which are "
+				+ "replanned during their legs, in one time step.  Further identified agents are replanned in later time steps, the agents "
+				+ "identified first are replanned first.  0 means no limit, i.e. all agents are replanned in the time step in which they "
+				+ "are identified.  Default is 0.");
+		comments.put(MAX_REPLANNING_LATENCY, "If " + MAX_REPLANNINGS_PER_TIME_STEP + " is set: seconds after which an identified agent which "
+				+ "has not yet been replanned is dropped as stale.  Agents are also dropped when they have ended their activity or leg "
+				+ "in the meantime.  Default is 60.");
 		return comments ;
 	}
 }
@@ -20,6 +20,7 @@
 
 package org.matsim.withinday.mobsim;
 
+import org.matsim.core.mobsim.framework.MobsimAgent;
 import org.matsim.withinday.replanning.parallel.ParallelDuringActivityReplanner;
 import org.matsim.withinday.replanning.replanners.interfaces.WithinDayDuringActivityReplannerFactory;
 
@@ -29,4 +30,12 @@ public class DuringActivityReplanningModule extends WithinDayReplanningModule<Wi
 		this.parallelReplanner = parallelDuringActivityReplanner;
 	}
 
-}
\ No newline at end of file
+	/*
+	 * An agent which no longer performs an activity when its turn comes is not replanned.
+	 */
+	@Override
+	protected boolean isStillReplannable(MobsimAgent agent) {
+		return agent.getState() == MobsimAgent.State.ACTIVITY;
+	}
+
+}
@@ -20,6 +20,7 @@
 
 package org.matsim.withinday.mobsim;
 
+import org.matsim.core.mobsim.framework.MobsimAgent;
 import org.matsim.withinday.replanning.parallel.ParallelDuringLegReplanner;
 import org.matsim.withinday.replanning.replanners.interfaces.WithinDayDuringLegReplannerFactory;
 
@@ -28,5 +29,13 @@ public class DuringLegReplanningModule extends WithinDayReplanningModule<WithinD
 	public DuringLegReplanningModule(ParallelDuringLegReplanner parallelDuringLegReplanner) {
 		this.parallelReplanner = parallelDuringLegReplanner;
 	}
-	
-}
\ No newline at end of file
+
+	/*
+	 * An agent which no longer performs a leg when its turn comes is not replanned.
+	 */
+	@Override
+	protected boolean isStillReplannable(MobsimAgent agent) {
+		return agent.getState() == MobsimAgent.State.LEG;
+	}
+
+}
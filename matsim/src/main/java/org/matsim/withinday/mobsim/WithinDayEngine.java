@@ -30,12 +30,15 @@ import jakarta.inject.Singleton;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.config.Config;
+import org.matsim.core.config.ConfigUtils;
 import org.matsim.core.config.groups.GlobalConfigGroup;
 import org.matsim.core.mobsim.qsim.ActivityEndRescheduler;
 import org.matsim.core.mobsim.qsim.ActivityEndReschedulerProvider;
 import org.matsim.core.mobsim.qsim.InternalInterface;
 import org.matsim.core.mobsim.qsim.interfaces.MobsimEngine;
 import org.matsim.core.utils.collections.Tuple;
+import org.matsim.withinday.controller.WithinDayConfigGroup;
 import org.matsim.withinday.replanning.parallel.ParallelDuringActivityReplanner;
 import org.matsim.withinday.replanning.parallel.ParallelDuringLegReplanner;
 import org.matsim.withinday.replanning.parallel.ParallelInitialReplanner;
@@ -80,6 +83,20 @@ public class WithinDayEngine implements MobsimEngine, ActivityEndReschedulerProv
 	private InternalInterface internalInterface;
 
 	@Inject
+	public WithinDayEngine(EventsManager eventsManager, Config config) {
+		this(eventsManager, config.global());
+
+		WithinDayConfigGroup withinDayConfigGroup = ConfigUtils.addOrGetModule(config, WithinDayConfigGroup.class);
+		if (withinDayConfigGroup.getMaxReplanningsPerTimeStep() > 0) {
+			log.info("Replan at most " + withinDayConfigGroup.getMaxReplanningsPerTimeStep() + " agents per time step, "
+					+ "with a latency of at most " + withinDayConfigGroup.getMaxReplanningLatency() + " seconds.");
+			this.duringActivityReplanningModule.setReplanningThrottle(withinDayConfigGroup.getMaxReplanningsPerTimeStep(),
+					withinDayConfigGroup.getMaxReplanningLatency());
+			this.duringLegReplanningModule.setReplanningThrottle(withinDayConfigGroup.getMaxReplanningsPerTimeStep(),
+					withinDayConfigGroup.getMaxReplanningLatency());
+		}
+	}
+
 	public WithinDayEngine(EventsManager eventsManager, GlobalConfigGroup globalConfigGroup) {
 		this.eventsManager = eventsManager;
 
@@ -198,6 +215,9 @@ public class WithinDayEngine implements MobsimEngine, ActivityEndReschedulerProv
 		this.parallelDuringLegReplanner.resetReplanners();
 
 		this.initialReplanningPerformed = false;
+
+		this.duringActivityReplanningModule.resetBacklog();
+		this.duringLegReplanningModule.resetBacklog();
 	}
 
 	@Override
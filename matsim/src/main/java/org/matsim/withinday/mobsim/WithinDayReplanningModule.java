@@ -20,10 +20,20 @@
 
 package org.matsim.withinday.mobsim;
 
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.population.Person;
 import org.matsim.core.mobsim.framework.MobsimAgent;
+import org.matsim.core.mobsim.qsim.agents.WithinDayAgentUtils;
+import org.matsim.core.utils.misc.Time;
 import org.matsim.withinday.replanning.identifiers.interfaces.AgentSelector;
 import org.matsim.withinday.replanning.parallel.ParallelReplanner;
 import org.matsim.withinday.replanning.replanners.interfaces.WithinDayReplanner;
@@ -32,23 +42,168 @@ import org.matsim.withinday.replanning.replanners.tools.ReplanningTask;
 
 public abstract class WithinDayReplanningModule<T extends WithinDayReplannerFactory<? extends AgentSelector>> {
 
+	private static final Logger log = LogManager.getLogger(WithinDayReplanningModule.class);
+
+	private static final int INFO_TIME_STEP = 3600;
+
 	protected ParallelReplanner<T> parallelReplanner;
-	
+
+	/*
+	 * If the number of replannings per time step is limited, the identified agents wait in the backlog until they
+	 * are replanned in a later time step, or until they are dropped as stale.
+	 */
+	private int maxReplanningsPerTimeStep = 0;
+	private double maxReplanningLatency = Double.POSITIVE_INFINITY;
+	private final Queue<BacklogEntry> backlog = new ArrayDeque<>();
+	private final Map<Id<WithinDayReplanner>, Set<Id<Person>>> agentsInBacklog = new HashMap<>();
+
+	// statistics since the last info
+	private double nextInfoTime = Double.NEGATIVE_INFINITY;
+	private int maxBacklogSize = 0;
+	private int replanned = 0;
+	private int deferred = 0;
+	private int dropped = 0;
+	private double sumDelay = 0.0;
+	private double maxDelay = 0.0;
+
+	/**
+	 * Limits the number of agents which are replanned in one time step, so that a peak of identified agents does not
+	 * stall the mobsim.  The agents which exceed the limit are replanned in the following time steps, in the order in
+	 * which they were identified, unless they have waited for more than the latency or no longer perform the activity
+	 * or leg in which they were identified.
+	 *
+	 * @param maxReplanningsPerTimeStep the limit; 0 means no limit.
+	 * @param maxReplanningLatency seconds after which an agent which has not yet been replanned is dropped.
+	 */
+	public final void setReplanningThrottle(int maxReplanningsPerTimeStep, double maxReplanningLatency) {
+		this.maxReplanningsPerTimeStep = maxReplanningsPerTimeStep;
+		this.maxReplanningLatency = maxReplanningLatency;
+	}
+
 	public void doReplanning(double time) {
-		for (T factory : this.parallelReplanner.getWithinDayReplannerFactories()) {
-			Set<? extends AgentSelector> identifiers = factory.getIdentifers(); 
-			Id<WithinDayReplanner> id = factory.getId();
-			
-			for (AgentSelector identifier : identifiers) {
-				for (MobsimAgent withinDayAgent : identifier.getAgentsToReplan(time)) {					
-					ReplanningTask replanningTask = new ReplanningTask(withinDayAgent, id);
-					this.parallelReplanner.addReplanningTask(replanningTask);
+		if (this.maxReplanningsPerTimeStep <= 0) {
+			for (T factory : this.parallelReplanner.getWithinDayReplannerFactories()) {
+				Set<? extends AgentSelector> identifiers = factory.getIdentifers(); 
+				Id<WithinDayReplanner> id = factory.getId();
+				
+				for (AgentSelector identifier : identifiers) {
+					for (MobsimAgent withinDayAgent : identifier.getAgentsToReplan(time)) {					
+						ReplanningTask replanningTask = new ReplanningTask(withinDayAgent, id);
+						this.parallelReplanner.addReplanningTask(replanningTask);
+					}
 				}
 			}
+		} else {
+			doThrottledReplanning(time);
 		}
 		
 		this.parallelReplanner.run(time);
 	}
-	
+
+	private void doThrottledReplanning(double time) {
+		Set<Id<WithinDayReplanner>> activeReplanners = new HashSet<>();
+		for (T factory : this.parallelReplanner.getWithinDayReplannerFactories()) {
+			Id<WithinDayReplanner> id = factory.getId();
+			activeReplanners.add(id);
+			Set<Id<Person>> agentsOfReplanner = this.agentsInBacklog.computeIfAbsent(id, k -> new HashSet<>());
+
+			for (AgentSelector identifier : factory.getIdentifers()) {
+				for (MobsimAgent withinDayAgent : identifier.getAgentsToReplan(time)) {
+					// an agent which is identified again while it waits is replanned only once
+					if (agentsOfReplanner.add(withinDayAgent.getId())) {
+						this.backlog.add(new BacklogEntry(new ReplanningTask(withinDayAgent, id), time,
+								WithinDayAgentUtils.getCachedCurrentPlanElementIndex(withinDayAgent)));
+					}
+				}
+			}
+		}
+
+		int replannedInThisTimeStep = 0;
+		while (replannedInThisTimeStep < this.maxReplanningsPerTimeStep && !this.backlog.isEmpty()) {
+			BacklogEntry entry = this.backlog.poll();
+			ReplanningTask task = entry.task;
+			this.agentsInBacklog.get(task.getWithinDayReplannerId()).remove(task.getAgentToReplan().getId());
+
+			double delay = time - entry.identificationTime;
+			if (delay > this.maxReplanningLatency || !activeReplanners.contains(task.getWithinDayReplannerId())
+					|| !isStillReplannable(task.getAgentToReplan())
+					|| WithinDayAgentUtils.getCachedCurrentPlanElementIndex(task.getAgentToReplan()) != entry.planElementIndex) {
+				this.dropped++;
+				continue;
+			}
+			this.parallelReplanner.addReplanningTask(task);
+			replannedInThisTimeStep++;
+			if (delay > 0) {
+				this.deferred++;
+			}
+			this.sumDelay += delay;
+			this.maxDelay = Math.max(this.maxDelay, delay);
+		}
+		this.replanned += replannedInThisTimeStep;
+		this.maxBacklogSize = Math.max(this.maxBacklogSize, this.backlog.size());
+
+		printInfo(time);
+	}
+
+	/**
+	 * Whether an agent which was identified in an earlier time step can still be replanned by this module.
+	 */
+	protected boolean isStillReplannable(MobsimAgent agent) {
+		return true;
+	}
+
+	/**
+	 * @return the number of identified agents which wait to be replanned.
+	 */
+	public final int getBacklogSize() {
+		return this.backlog.size();
+	}
+
+	/*package*/ final void resetBacklog() {
+		this.backlog.clear();
+		this.agentsInBacklog.clear();
+		this.nextInfoTime = Double.NEGATIVE_INFINITY;
+		resetStatistics();
+	}
+
+	private void printInfo(double time) {
+		if (this.nextInfoTime == Double.NEGATIVE_INFINITY) {
+			this.nextInfoTime = Math.floor(time / INFO_TIME_STEP) * INFO_TIME_STEP;
+		}
+		if (time >= this.nextInfoTime) {
+			log.info(getClass().getSimpleName() + " at " + Time.writeTime(time) + ": replanned " + this.replanned
+					+ " agents, thereof deferred " + this.deferred + " (delay mean " + (this.replanned == 0 ? 0 : this.sumDelay / this.replanned)
+					+ "s, max " + this.maxDelay + "s); dropped " + this.dropped + " stale agents; backlog " + this.backlog.size()
+					+ " (max " + this.maxBacklogSize + ")");
+			resetStatistics();
+			// (the time may have advanced by more than one info time step since the last call)
+			this.nextInfoTime = (Math.floor(time / INFO_TIME_STEP) + 1) * INFO_TIME_STEP;
+		}
+	}
+
+	private void resetStatistics() {
+		this.maxBacklogSize = 0;
+		this.replanned = 0;
+		this.deferred = 0;
+		this.dropped = 0;
+		this.sumDelay = 0.0;
+		this.maxDelay = 0.0;
+	}
+
+	private static final class BacklogEntry {
+		private final ReplanningTask task;
+		private final double identificationTime;
+		/**
+		 * The plan element the agent performed when it was identified.  If the agent has moved on to another activity or
+		 * leg in the meantime, even one of the same kind, the identification is stale.  -1 for agents which do not follow a plan.
+		 */
+		private final int planElementIndex;
+
+		private BacklogEntry(ReplanningTask task, double identificationTime, int planElementIndex) {
+			this.task = task;
+			this.identificationTime = identificationTime;
+			this.planElementIndex = planElementIndex;
+		}
+	}
 
 }
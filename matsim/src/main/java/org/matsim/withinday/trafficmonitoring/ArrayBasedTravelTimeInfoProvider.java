@@ -25,7 +25,6 @@ import java.util.Map;
 import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.network.Link;
 import org.matsim.api.core.v01.network.Network;
-import org.matsim.core.router.priorityqueue.HasIndex;
 import org.matsim.withinday.trafficmonitoring.WithinDayTravelTime.TravelTimeInfo;
 
 public class ArrayBasedTravelTimeInfoProvider implements TravelTimeInfoProvider {
@@ -35,35 +34,33 @@ public class ArrayBasedTravelTimeInfoProvider implements TravelTimeInfoProvider
 	
 	public ArrayBasedTravelTimeInfoProvider(Map<Id<Link>, TravelTimeInfo> linkData, Network network) {
 		this.delegate = new MapBasedTravelTimeInfoProvider(linkData);
-		this.arrayLinkData = new TravelTimeInfo[linkData.size()];
+		/*
+		 * The array is indexed by the index of the link ids, so it works for the links of the network as well as for the
+		 * links of a routing network, and for the event handlers, which only know the link ids.  It is filled completely
+		 * here, so that the threads which read it concurrently do not write to it.
+		 */
+		this.arrayLinkData = new TravelTimeInfo[Id.getNumberOfIds(Link.class)];
+		for (Map.Entry<Id<Link>, TravelTimeInfo> entry : linkData.entrySet()) {
+			this.arrayLinkData[entry.getKey().index()] = entry.getValue();
+		}
 	}
 	
-	/*
-	 * This method is called from the EventHandler part of the WithinDayTravelTime.
-	 * There, only link ids are available. We cannot optimize this. 
-	 */
 	@Override
 	public TravelTimeInfo getTravelTimeInfo(final Id<Link> linkId) {
+		int index = linkId.index();
+		if (index < this.arrayLinkData.length) {
+			TravelTimeInfo data = this.arrayLinkData[index];
+			if (data != null) {
+				return data;
+			}
+		}
+		// a link which was created after this provider
 		return this.delegate.getTravelTimeInfo(linkId);
 	}
 	
-	/*
-	 * This method is called from the TravelTime part of the WithinDayTravelTime.
-	 * There, link are available. we can optimize this by using an array instead of a map.
-	 */
 	@Override
 	public TravelTimeInfo getTravelTimeInfo(Link link) {
-		if (link instanceof HasIndex) {
-			int index = ((HasIndex) link).getArrayIndex();
-			TravelTimeInfo data = this.arrayLinkData[index];
-			if (data == null) {
-				data = this.delegate.getTravelTimeInfo(link);
-				this.arrayLinkData[index] = data;
-			}
-			return data;
-		} else {
-			return this.delegate.getTravelTimeInfo(link);
-		}
+		return this.getTravelTimeInfo(link.getId());
 	}
 	
-}
\ No newline at end of file
+}
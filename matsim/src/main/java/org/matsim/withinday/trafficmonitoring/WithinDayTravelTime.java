@@ -21,6 +21,7 @@
 package org.matsim.withinday.trafficmonitoring;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -99,6 +100,15 @@ public class WithinDayTravelTime implements TravelTime,
 
 	private TravelTimeInfoProvider travelTimeInfoProvider;
 
+	/*
+	 * The travel times which are returned to the routers, indexed by the index of the link ids. The update threads
+	 * write into the staged array. After each update, the staged array is published and the changed travel times are
+	 * copied into the previously published array, which is staged next. Thus, the (possibly many) threads which read
+	 * the travel times see those of one complete time step, without locks and without looking up the links in a map.
+	 */
+	private volatile double[] travelTimes;
+	private double[] stagedTravelTimes;
+
 	// Links that are changed by network change events
 	private TreeMap<Double, Map<Link,Double>> changedLinksByTime;
 	// yy better a priority queue.  kai, dec'17
@@ -158,8 +168,12 @@ public class WithinDayTravelTime implements TravelTime,
 		// one TravelTimeInfo per link:
 		for (Link link : this.network.getLinks().values()) {
 			TravelTimeInfo travelTimeInfo = new TravelTimeInfo();
+			travelTimeInfo.linkIndex = link.getId().index();
 			this.travelTimeInfos.put(link.getId(), travelTimeInfo);
 		}
+		this.stagedTravelTimes = new double[Id.getNumberOfIds(Link.class)];
+		Arrays.fill(this.stagedTravelTimes, Double.MAX_VALUE);
+		this.travelTimes = this.stagedTravelTimes.clone();
 
 		/*
 		 * If no RoutingNetwork is used, ArrayBasedTravelTimeInfoProvider uses
@@ -230,8 +244,13 @@ public class WithinDayTravelTime implements TravelTime,
 
 	@Override
 	public double getLinkTravelTime(Link link, double time, Person person, Vehicle vehicle) {
-		final double travelTime = this.travelTimeInfoProvider.getTravelTimeInfo(link).travelTime;
-		return travelTime;
+		final double[] travelTimes = this.travelTimes;
+		final int index = link.getId().index();
+		if (index < travelTimes.length) {
+			return travelTimes[index];
+		}
+		// a link which was created after the last reset
+		return this.travelTimeInfoProvider.getTravelTimeInfo(link).travelTime;
 	}
 
 	@Override
@@ -343,6 +362,8 @@ public class WithinDayTravelTime implements TravelTime,
 			TravelTimeInfo travelTimeInfo = this.travelTimeInfoProvider.getTravelTimeInfo(link);
 			travelTimeInfo.travelTime = freeSpeedTravelTime;
 			travelTimeInfo.init(freeSpeedTravelTime);
+			this.travelTimes[travelTimeInfo.linkIndex] = freeSpeedTravelTime;
+			this.stagedTravelTimes[travelTimeInfo.linkIndex] = freeSpeedTravelTime;
 		}
 
 		// Now initialize the Parallel Update Threads
@@ -453,6 +474,7 @@ public class WithinDayTravelTime implements TravelTime,
 	/*package*/ static class TravelTimeInfo {
 
 		UpdateMeanTravelTimesRunnable runnable;
+		int linkIndex;
 		List<TripBin> tripBins = new ArrayList<>();
 
 		boolean isActive = false;
@@ -512,16 +534,32 @@ public class WithinDayTravelTime implements TravelTime,
 			// set current Time
 			for (UpdateMeanTravelTimesRunnable updateMeanTravelTimesRunnable : updateMeanTravelTimesRunnables) {
 				updateMeanTravelTimesRunnable.setTime(time);
+				updateMeanTravelTimesRunnable.setStagedTravelTimes(this.stagedTravelTimes);
 			}
 
 			this.startBarrier.await();
 
 			this.endBarrier.await();
+
+			publishTravelTimes();
 		} catch (InterruptedException | BrokenBarrierException e) {
 			throw new RuntimeException(e);
 		}
 	}
 
+	/*
+	 * Swaps the published and the staged travel times. Readers which still hold the previously published array may see
+	 * the changes of this time step there as well, but never a travel time of a later time step.
+	 */
+	private void publishTravelTimes() {
+		double[] previouslyPublished = this.travelTimes;
+		this.travelTimes = this.stagedTravelTimes;
+		for (UpdateMeanTravelTimesRunnable updateMeanTravelTimesRunnable : updateMeanTravelTimesRunnables) {
+			updateMeanTravelTimesRunnable.copyChangedTravelTimes(previouslyPublished);
+		}
+		this.stagedTravelTimes = previouslyPublished;
+	}
+
 	private void initParallelThreads() {
 
 		this.startBarrier = new CyclicBarrier(numOfThreads + 1);
@@ -579,6 +617,10 @@ public class WithinDayTravelTime implements TravelTime,
 		private OptionalTime time = OptionalTime.undefined();
 		private Collection<TravelTimeInfo> activeTravelTimeInfos;
 
+		private double[] stagedTravelTimes;
+		private int[] changedLinkIndices = new int[64];
+		private int changedLinksCount = 0;
+
 		public UpdateMeanTravelTimesRunnable() {
 			activeTravelTimeInfos = new ArrayList<>();
 		}
@@ -595,6 +637,29 @@ public class WithinDayTravelTime implements TravelTime,
 			time = OptionalTime.defined(t);
 		}
 
+		public void setStagedTravelTimes(double[] stagedTravelTimes) {
+			this.stagedTravelTimes = stagedTravelTimes;
+		}
+
+		private void stageTravelTime(TravelTimeInfo travelTimeInfo) {
+			this.stagedTravelTimes[travelTimeInfo.linkIndex] = travelTimeInfo.travelTime;
+			if (this.changedLinksCount == this.changedLinkIndices.length) {
+				this.changedLinkIndices = Arrays.copyOf(this.changedLinkIndices, 2 * this.changedLinksCount);
+			}
+			this.changedLinkIndices[this.changedLinksCount++] = travelTimeInfo.linkIndex;
+		}
+
+		/*
+		 * Copies the travel times which were staged in the current time step into the given array.
+		 */
+		public void copyChangedTravelTimes(double[] target) {
+			for (int i = 0; i < this.changedLinksCount; i++) {
+				int index = this.changedLinkIndices[i];
+				target[index] = this.stagedTravelTimes[index];
+			}
+			this.changedLinksCount = 0;
+		}
+
 		public void addTravelTimeInfo(TravelTimeInfo travelTimeInfo) {
 			this.activeTravelTimeInfos.add(travelTimeInfo);
 		}
@@ -649,6 +714,7 @@ public class WithinDayTravelTime implements TravelTime,
 							travelTimeInfo.travelTime = travelTimeInfo.freeSpeedTravelTime;
 							iter.remove();
 						}
+						stageTravelTime(travelTimeInfo);
 					}
 
 				} catch (InterruptedException | BrokenBarrierException e) {
@@ -306,6 +306,10 @@ public final class EditTrips {
 						newTripElements.remove(0);
 						wantsToLeaveStop = false;
 						WithinDayAgentUtils.resetCaches(agent);
+						if (transitAgentTracker != null) {
+							// the agent may now want to board a different line:
+							transitAgentTracker.updateAgentAtStop(ptPassengerAgent, currentOrNextStop.getId());
+						}
 					}
 				}
 			}
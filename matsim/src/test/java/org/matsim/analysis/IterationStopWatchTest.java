@@ -0,0 +1,154 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * IterationStopWatchTest.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+
+package org.matsim.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.matsim.core.utils.io.IOUtils;
+import org.matsim.testcases.MatsimTestUtils;
+
+public class IterationStopWatchTest {
+
+	@RegisterExtension
+	private MatsimTestUtils utils = new MatsimTestUtils();
+
+	@Test
+	void testSpans() throws InterruptedException {
+		IterationStopWatch stopWatch = new IterationStopWatch();
+		stopWatch.beginIteration(0);
+		stopWatch.beginOperation("replanning");
+		for (int i = 0; i < 2; i++) {
+			try (IterationStopWatch.Span outer = stopWatch.span("strategy")) {
+				assertEquals("iteration/replanning/strategy", outer.getPath());
+				try (IterationStopWatch.Span inner = stopWatch.span("module")) {
+					assertEquals("iteration/replanning/strategy/module", inner.getPath());
+				}
+			}
+		}
+		// a span opened by another thread is attached to the current operation:
+		Thread worker = new Thread(() -> {
+			try (IterationStopWatch.Span span = stopWatch.span("worker")) {
+				assertEquals("iteration/replanning/worker", span.getPath());
+			}
+		});
+		worker.start();
+		worker.join();
+		stopWatch.endOperation("replanning");
+		stopWatch.endIteration();
+
+		Map<String, IterationStopWatch.SpanStatistics> spans = stopWatch.getSpanStatistics(0);
+		assertEquals(List.of("iteration/replanning/strategy/module", "iteration/replanning/strategy", "iteration/replanning/worker",
+				"iteration/replanning", "iteration"), List.copyOf(spans.keySet()));
+		assertEquals(2, spans.get("iteration/replanning/strategy").getCount());
+		assertEquals(2, spans.get("iteration/replanning/strategy/module").getCount());
+		assertEquals(1, spans.get("iteration").getCount());
+		assertTrue(spans.get("iteration").getWallTime() >= spans.get("iteration/replanning").getWallTime());
+		assertTrue(spans.get("iteration/replanning").getWallTime() >= spans.get("iteration/replanning/strategy").getWallTime());
+		assertTrue(stopWatch.getSpanStatistics(1).isEmpty());
+	}
+
+	@Test
+	void testOperationWithinSpan() throws InterruptedException {
+		IterationStopWatch stopWatch = new IterationStopWatch();
+		stopWatch.beginIteration(0);
+		// an operation begun and ended within the span of a listener:
+		try (IterationStopWatch.Span listener = stopWatch.span("listener")) {
+			stopWatch.beginOperation("dump all plans");
+			stopWatch.endOperation("dump all plans");
+		}
+		// the closed listener span must not become the parent of later spans:
+		try (IterationStopWatch.Span span = stopWatch.span("later")) {
+			assertEquals("iteration/later", span.getPath());
+		}
+		Thread worker = new Thread(() -> {
+			try (IterationStopWatch.Span span = stopWatch.span("worker")) {
+				assertEquals("iteration/worker", span.getPath());
+			}
+		});
+		worker.start();
+		worker.join();
+		stopWatch.endIteration();
+
+		assertTrue(stopWatch.getSpanStatistics(0).containsKey("iteration/listener/dump all plans"));
+	}
+
+	@Test
+	void testAddToSpan() {
+		IterationStopWatch stopWatch = new IterationStopWatch();
+		stopWatch.beginIteration(0);
+		stopWatch.beginOperation("mobsim");
+		stopWatch.addToSpan("step engine", 10, 1000);
+		stopWatch.addToSpan("step engine", 5, 500);
+		stopWatch.endOperation("mobsim");
+		stopWatch.endIteration();
+
+		IterationStopWatch.SpanStatistics stats = stopWatch.getSpanStatistics(0).get("iteration/mobsim/step engine");
+		assertEquals(15, stats.getCount());
+		assertEquals(1500, stats.getWallTime());
+		assertEquals(-1, stats.getCpuTime());
+		assertEquals(-1, stats.getAllocatedBytes());
+	}
+
+	@Test
+	void testWriteSpansFile() throws IOException {
+		IterationStopWatch stopWatch = new IterationStopWatch();
+		for (int iteration = 0; iteration < 2; iteration++) {
+			stopWatch.beginIteration(iteration);
+			try (IterationStopWatch.Span span = stopWatch.span("work")) {
+				// nothing to do
+			}
+			stopWatch.endIteration();
+		}
+		String filename = utils.getOutputDirectory() + "stopwatch_spans.csv";
+		stopWatch.writeSpansFile(filename, ";");
+
+		List<String> lines;
+		try (BufferedReader reader = IOUtils.getBufferedReader(filename)) {
+			lines = reader.lines().collect(Collectors.toList());
+		}
+		assertEquals(5, lines.size());
+		assertEquals("iteration;span;count;wall_time;cpu_time;process_cpu_time;allocated_bytes", lines.get(0));
+		assertTrue(lines.get(1).startsWith("0;iteration/work;1;"), lines.get(1));
+		assertTrue(lines.get(2).startsWith("0;iteration;1;"), lines.get(2));
+		assertTrue(lines.get(3).startsWith("1;iteration/work;1;"), lines.get(3));
+
+		String jsonFilename = utils.getOutputDirectory() + "stopwatch_spans.json";
+		stopWatch.writeSpansJsonFile(jsonFilename);
+		JsonNode json = new ObjectMapper().readTree(new File(jsonFilename));
+		assertEquals(2, json.size());
+		assertEquals(1, json.get("1").get("iteration/work").get("count").asInt());
+		assertTrue(json.get("1").get("iteration").get("wall_time").asDouble() >= 0);
+	}
+
+}
@@ -28,6 +28,8 @@ import org.matsim.core.utils.collections.Tuple;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 	public class IdTest {
 
@@ -134,7 +136,79 @@ import java.util.List;
 		Assertions.assertEquals(countBefore, countAfter, "The number of created Ids should not have changed.");
 	}
 
+	 @Test
+	 void testConcurrentCreation() throws InterruptedException {
+		final int threads = 8;
+		final int idsPerThread = 20000;
+		List<Thread> workers = new ArrayList<>();
+		List<List<Id<TPerson>>> created = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			List<Id<TPerson>> ids = new ArrayList<>(idsPerThread);
+			created.add(ids);
+			// all threads create the same ids, in different order
+			final int offset = t * 997;
+			workers.add(new Thread(() -> {
+				for (int i = 0; i < idsPerThread; i++) {
+					ids.add(Id.create((i + offset) % idsPerThread, TPerson.class));
+				}
+			}));
+		}
+		workers.forEach(Thread::start);
+		for (Thread worker : workers) {
+			worker.join();
+		}
+
+		Assertions.assertEquals(idsPerThread, Id.getNumberOfIds(TPerson.class));
+		for (List<Id<TPerson>> ids : created) {
+			for (Id<TPerson> id : ids) {
+				Assertions.assertSame(Id.get(id.toString(), TPerson.class), id);
+				Assertions.assertSame(Id.get(id.index(), TPerson.class), id);
+			}
+		}
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Id.get(idsPerThread, TPerson.class));
+	}
+
+	 @Test
+	 void testConcurrentGetByIndex() throws InterruptedException {
+		final int numberOfIds = 100000;
+		AtomicBoolean done = new AtomicBoolean(false);
+		List<Throwable> failures = new CopyOnWriteArrayList<>();
+		List<Thread> readers = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			readers.add(new Thread(() -> {
+				try {
+					while (!done.get()) {
+						// read the indices which have just been handed out, while their chunks may still be published
+						int count = Id.getNumberOfIds(TVehicle.class);
+						for (int index = Math.max(0, count - 8); index < count; index++) {
+							Id<TVehicle> id = Id.get(index, TVehicle.class);
+							if (id != null && id.index() != index) {
+								failures.add(new AssertionError("id " + id + " has index " + id.index() + ", expected " + index));
+							}
+						}
+					}
+				} catch (Throwable e) {
+					failures.add(e);
+				}
+			}));
+		}
+		readers.forEach(Thread::start);
+		for (int i = 0; i < numberOfIds; i++) {
+			Id.create(i, TVehicle.class);
+		}
+		done.set(true);
+		for (Thread reader : readers) {
+			reader.join();
+		}
+
+		Assertions.assertTrue(failures.isEmpty(), () -> failures.toString());
+		Assertions.assertEquals(numberOfIds, Id.getNumberOfIds(TVehicle.class));
+		Assertions.assertEquals(Id.create(numberOfIds - 1, TVehicle.class), Id.get(numberOfIds - 1, TVehicle.class));
+	}
+
 	private static class TLink {}
 	private static class TNode {}
+	private static class TPerson {}
+	private static class TVehicle {}
 
 }
@@ -24,10 +24,16 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.matsim.core.config.groups.ControllerConfigGroup.CompressionType;
 import static org.matsim.core.config.groups.ControllerConfigGroup.SnapshotFormat;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -114,6 +120,44 @@ public class ControlerIT {
 		controler.run();
 	}
 
+	@Test
+	void testPipelinedReplanning() {
+		Map<Id<Person>, Double> scores = runEquilWithPipelinedReplanning(false);
+		Map<Id<Person>, Double> pipelinedScores = runEquilWithPipelinedReplanning(true);
+		assertEquals(100, scores.size());
+		assertEquals(scores, pipelinedScores, "pipelined replanning should not change the results");
+
+		// the plans dump of an iteration with replanning must see the fully prepared plans
+		String dump = "/ITERS/it.2/2.plans.xml.gz";
+		assertEquals(readLines(utils.getOutputDirectory() + "/pipelined_false" + dump), readLines(utils.getOutputDirectory() + "/pipelined_true" + dump));
+	}
+
+	private static List<String> readLines(String filename) {
+		try (BufferedReader reader = IOUtils.getBufferedReader(filename)) {
+			return reader.lines().toList();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private Map<Id<Person>, Double> runEquilWithPipelinedReplanning(boolean pipelined) {
+		final Config config = utils.loadConfig(IOUtils.extendUrl(ExamplesUtils.getTestScenarioURL("equil"), "config.xml"));
+		config.controller().setOutputDirectory(utils.getOutputDirectory() + "/pipelined_" + pipelined);
+		config.controller().setLastIteration(3);
+		config.controller().setPipelinedReplanning(pipelined);
+		config.controller().setWritePlansInterval(2);
+		config.controller().setDumpDataAtEnd(false);
+		Controler controler = new Controler(config);
+		controler.getConfig().controller().setCreateGraphs(false);
+		controler.run();
+
+		Map<Id<Person>, Double> scores = new HashMap<>();
+		for (Person person : controler.getScenario().getPopulation().getPersons().values()) {
+			scores.put(person.getId(), person.getSelectedPlan().getScore());
+		}
+		return scores;
+	}
+
 	@Test
 	void testConstructor_EventsManagerTypeImmutable() {
 		final Config config = utils.loadConfig(IOUtils.extendUrl(ExamplesUtils.getTestScenarioURL("equil"), "config.xml"));
@@ -925,6 +969,26 @@ public class ControlerIT {
 		assertTrue(new File(controler.getControlerIO().getIterationFilename(2, "T.veh.gz")).exists());
 	}
 
+	@Test
+	void testBinarySnapshotWriterOnQSim() {
+		final Config config = utils.loadConfig(IOUtils.extendUrl(ExamplesUtils.getTestScenarioURL("equil"), "config_plans1.xml"));
+		config.controller().setLastIteration(0);
+		config.controller().setWriteEventsInterval(0);
+		config.controller().setWritePlansInterval(0);
+		config.controller().setMobsim("qsim");
+		config.controller().setSnapshotFormat( Collections.singletonList( SnapshotFormat.binary ) );
+		config.controller().setOutputDirectory( utils.getOutputDirectory() );
+		config.qsim().setSnapshotPeriod(600);
+		config.qsim().setSnapshotSampleFraction(0.5);
+
+		final Controler controler = new Controler(config);
+		controler.getConfig().controller().setCreateGraphs(false);
+		controler.getConfig().controller().setDumpDataAtEnd(false);
+		controler.run();
+
+		assertTrue(new File(controler.getControlerIO().getIterationFilename(0, "snapshots.bin.gz")).exists());
+	}
+
 	/**
 	 * This might sound (or be) silly, but we had this problem in zurich when using a mix of old code and Guice-based code:
 	 * old code wrapped into Guice modules eventually called Controler.setScoringFunctionFactory(),
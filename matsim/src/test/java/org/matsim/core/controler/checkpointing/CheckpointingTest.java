@@ -0,0 +1,89 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * CheckpointingTest.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.controler.checkpointing;
+
+import java.io.File;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.api.core.v01.population.Population;
+import org.matsim.core.config.Config;
+import org.matsim.core.controler.Controler;
+import org.matsim.core.controler.OutputDirectoryHierarchy;
+import org.matsim.core.population.PopulationUtils;
+import org.matsim.core.utils.io.IOUtils;
+import org.matsim.examples.ExamplesUtils;
+import org.matsim.testcases.MatsimTestUtils;
+
+public class CheckpointingTest {
+	@RegisterExtension
+	private MatsimTestUtils utils = new MatsimTestUtils();
+
+	@Test
+	void testOnlyLatestCheckpointIsKept() {
+		Config config = prepareConfig("run", 5);
+		config.controller().setWriteCheckpointsInterval(2);
+		new Controler(config).run();
+
+		String outputPath = config.controller().getOutputDirectory();
+		Assertions.assertFalse(new File(CheckpointUtils.getCheckpointDirectory(outputPath, 0)).exists());
+		Assertions.assertFalse(new File(CheckpointUtils.getCheckpointDirectory(outputPath, 2)).exists());
+		String checkpoint = CheckpointUtils.getCheckpointDirectory(outputPath, 4);
+		Assertions.assertTrue(new File(CheckpointUtils.getPlansFilename(checkpoint)).exists());
+		Assertions.assertTrue(new File(CheckpointUtils.getStateFilename(checkpoint)).exists());
+		Assertions.assertFalse(new File(checkpoint + ".tmp").exists());
+		Assertions.assertEquals(4, CheckpointUtils.readIteration(checkpoint));
+	}
+
+	@Test
+	void testResumeReproducesRun() {
+		Config config = prepareConfig("original", 5);
+		config.controller().setWriteCheckpointsInterval(3);
+		new Controler(config).run();
+		String checkpoint = CheckpointUtils.getCheckpointDirectory(config.controller().getOutputDirectory(), 3);
+
+		Config resumeConfig = prepareConfig("resumed", 5);
+		resumeConfig.controller().setResumeFromCheckpoint(checkpoint);
+		new Controler(resumeConfig).run();
+
+		Assertions.assertFalse(new File(resumeConfig.controller().getOutputDirectory(), "ITERS/it.3").exists());
+		Assertions.assertTrue(new File(resumeConfig.controller().getOutputDirectory(), "ITERS/it.4").exists());
+
+		Population original = PopulationUtils.readPopulation(config.controller().getOutputDirectory() + "/output_plans.xml.gz");
+		Population resumed = PopulationUtils.readPopulation(resumeConfig.controller().getOutputDirectory() + "/output_plans.xml.gz");
+		Assertions.assertEquals(original.getPersons().size(), resumed.getPersons().size());
+		for (Person person : original.getPersons().values()) {
+			Person resumedPerson = resumed.getPersons().get(person.getId());
+			Assertions.assertEquals(person.getPlans().size(), resumedPerson.getPlans().size());
+			Assertions.assertEquals(person.getSelectedPlan().getScore(), resumedPerson.getSelectedPlan().getScore(), MatsimTestUtils.EPSILON);
+		}
+	}
+
+	private Config prepareConfig(String runName, int lastIteration) {
+		Config config = utils.loadConfig(IOUtils.extendUrl(ExamplesUtils.getTestScenarioURL("equil"), "config.xml"));
+		config.controller().setOutputDirectory(utils.getOutputDirectory() + runName);
+		config.controller().setOverwriteFileSetting(OutputDirectoryHierarchy.OverwriteFileSetting.deleteDirectoryIfExists);
+		config.controller().setLastIteration(lastIteration);
+		return config;
+	}
+}
@@ -21,13 +21,18 @@ package org.matsim.core.controler.corelisteners;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.matsim.api.core.v01.population.Population;
 import org.matsim.core.config.Config;
 import org.matsim.core.controler.Controler;
+import org.matsim.core.controler.listener.IterationStartsListener;
+import org.matsim.core.population.PopulationUtils;
 import org.matsim.testcases.MatsimTestUtils;
 
 import java.io.File;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -108,4 +113,53 @@ public class PlansDumpingIT {
 		assertTrue(new File(c.getControlerIO().getIterationFilename(9, "plans.xml.gz")).exists());
 		assertTrue(new File(c.getControlerIO().getIterationFilename(10, "plans.xml.gz")).exists());
 	}
+
+	@Test
+	void testPlansDump_Asynchronously() {
+		Config config = this.util.loadConfig("test/scenarios/equil/config_plans1.xml");
+		config.controller().setLastIteration(4);
+		config.controller().setWritePlansInterval(2);
+		config.controller().setWritePlansAsynchronously(true);
+		Controler c = new Controler(config);
+		c.getConfig().controller().setWriteEventsInterval(0);
+		c.getConfig().controller().setCreateGraphs(false);
+
+		c.run();
+
+		// all background dumps are finished when the run ends
+		assertTrue(new File(c.getControlerIO().getIterationFilename(0, "plans.xml.gz")).exists());
+		assertTrue(new File(c.getControlerIO().getIterationFilename(1, "plans.xml.gz")).exists());
+		assertTrue(new File(c.getControlerIO().getIterationFilename(2, "plans.xml.gz")).exists());
+		assertFalse(new File(c.getControlerIO().getIterationFilename(3, "plans.xml.gz")).exists());
+		assertTrue(new File(c.getControlerIO().getIterationFilename(4, "plans.xml.gz")).exists());
+
+		Population dumped = PopulationUtils.readPopulation(c.getControlerIO().getIterationFilename(4, "plans.xml.gz"));
+		Population output = PopulationUtils.readPopulation(c.getControlerIO().getOutputFilename(Controler.DefaultFiles.population));
+		assertEquals(c.getScenario().getPopulation().getPersons().size(), dumped.getPersons().size());
+		assertEquals(c.getScenario().getPopulation().getPersons().size(), output.getPersons().size());
+	}
+
+	@Test
+	void testPlansDump_AsynchronouslyFailing() {
+		Config config = this.util.loadConfig("test/scenarios/equil/config_plans1.xml");
+		config.controller().setLastIteration(2);
+		config.controller().setWritePlansInterval(2);
+		config.controller().setWritePlansAsynchronously(true);
+		Controler c = new Controler(config);
+		c.getConfig().controller().setWriteEventsInterval(0);
+		c.getConfig().controller().setCreateGraphs(false);
+		// a directory in the place of the plans file of iteration 0 makes the background dump fail:
+		c.addControlerListener((IterationStartsListener) event -> {
+			if (event.getIteration() == 0) {
+				new File(c.getControlerIO().getIterationFilename(0, "plans.xml.gz")).mkdirs();
+			}
+		});
+
+		RuntimeException e = assertThrows(RuntimeException.class, c::run);
+		boolean reported = false;
+		for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+			reported |= "writing plans in the background failed.".equals(cause.getMessage());
+		}
+		assertTrue(reported, "the failure of the background dump is not reported");
+	}
 }
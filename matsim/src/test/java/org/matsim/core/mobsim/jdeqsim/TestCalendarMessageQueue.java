@@ -0,0 +1,110 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * TestCalendarMessageQueue.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+
+package org.matsim.core.mobsim.jdeqsim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.matsim.core.mobsim.jdeqsim.util.DummyMessage;
+
+public class TestCalendarMessageQueue {
+
+	@Test
+	void testOrderOfTimeAndPriority() {
+		MessageQueue mq = new CalendarMessageQueue();
+		Message m1 = createMessage(10.5, 0);
+		Message m2 = createMessage(10.2, 0);
+		Message m3 = createMessage(10.5, 10);
+		Message m4 = createMessage(3 * CalendarMessageQueue.NUMBER_OF_BUCKETS, 0);
+		Message m5 = createMessage(11, 0);
+		mq.putMessage(m1);
+		mq.putMessage(m2);
+		mq.putMessage(m3);
+		mq.putMessage(m4);
+		mq.putMessage(m5);
+		assertEquals(5, mq.getQueueSize());
+		assertSame(m2, mq.getNextMessage());
+		assertSame(m3, mq.getNextMessage());
+		assertSame(m1, mq.getNextMessage());
+		assertSame(m5, mq.getNextMessage());
+		assertSame(m4, mq.getNextMessage());
+		assertNull(mq.getNextMessage());
+		assertTrue(mq.isEmpty());
+		assertEquals(0, mq.getQueueSize());
+	}
+
+	@Test
+	void testRemoveMessage() {
+		MessageQueue mq = new CalendarMessageQueue();
+		Message m1 = createMessage(1, 0);
+		Message m2 = createMessage(5000, 0);
+		mq.putMessage(m1);
+		mq.putMessage(m2);
+		mq.removeMessage(m2);
+		assertEquals(1, mq.getQueueSize());
+		assertSame(m1, mq.getNextMessage());
+		assertEquals(0, mq.getQueueSize());
+		assertNull(mq.getNextMessage());
+		assertTrue(mq.isEmpty());
+	}
+
+	@Test
+	void testSameOrderAsMessageQueue() {
+		Random random = new Random(4711);
+		MessageQueue expected = new MessageQueue();
+		MessageQueue actual = new CalendarMessageQueue();
+		double now = 0;
+		for (int i = 0; i < 20000; i++) {
+			if (random.nextDouble() < 0.6 || expected.isEmpty()) {
+				// schedule a message in the near or far future of the current message, with distinct times
+				double time = now + (random.nextDouble() < 0.01 ? 1e5 : 100) * random.nextDouble() + i * 1e-9;
+				int priority = random.nextInt(3) * 100;
+				expected.putMessage(createMessage(time, priority));
+				actual.putMessage(createMessage(time, priority));
+			} else {
+				Message e = expected.getNextMessage();
+				Message a = actual.getNextMessage();
+				assertEquals(e.getMessageArrivalTime(), a.getMessageArrivalTime(), 0.0);
+				assertEquals(e.priority, a.priority);
+				now = e.getMessageArrivalTime();
+			}
+			assertEquals(expected.getQueueSize(), actual.getQueueSize());
+		}
+		while (!expected.isEmpty()) {
+			assertEquals(expected.getNextMessage().getMessageArrivalTime(), actual.getNextMessage().getMessageArrivalTime(), 0.0);
+		}
+		assertTrue(actual.isEmpty());
+	}
+
+	private static Message createMessage(double time, int priority) {
+		Message m = new DummyMessage();
+		m.setMessageArrivalTime(time);
+		m.setPriority(priority);
+		return m;
+	}
+
+}
@@ -45,6 +45,21 @@ import org.matsim.core.scenario.ScenarioUtils;
 		super.checkAscendingTimeStamps();
 		super.checkEventsCorrespondToPlans(scenario.getPopulation());
 	}
+
+	 @Test
+	 void test_equilPlans100_calendarQueue_TestHandlerDetailedEventChecker() {
+		Config config = ConfigUtils.loadConfig("test/scenarios/equil/config.xml");
+		ConfigUtils.addOrGetModule(config, JDEQSimConfigGroup.class).setMessageQueueType(JDEQSimConfigGroup.MessageQueueType.calendarQueue);
+		MatsimRandom.reset(config.global().getRandomSeed());
+		Scenario scenario = ScenarioUtils.createScenario(config);
+		ScenarioUtils.loadScenario(scenario);
+
+		this.runJDEQSim(scenario);
+
+		assertEquals(scenario.getPopulation().getPersons().size(), super.eventsByPerson.size());
+		super.checkAscendingTimeStamps();
+		super.checkEventsCorrespondToPlans(scenario.getPopulation());
+	}
 	
 	/* 
 	 * This test is turned off, because it cannot pass.
@@ -0,0 +1,120 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * AgentCalendarQueueTest.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+
+package org.matsim.core.mobsim.qsim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.matsim.api.core.v01.Id;
+import org.matsim.core.mobsim.framework.MobsimAgent;
+
+public class AgentCalendarQueueTest {
+
+	private static MobsimAgent agent(String id) {
+		MobsimAgent agent = mock(MobsimAgent.class);
+		when(agent.getId()).thenReturn(Id.createPersonId(id));
+		return agent;
+	}
+
+	@Test
+	void testOrder() {
+		AgentCalendarQueue queue = new AgentCalendarQueue(false);
+		MobsimAgent a = agent("a");
+		MobsimAgent b = agent("b");
+		MobsimAgent c = agent("c");
+		MobsimAgent d = agent("d");
+		queue.add(a, 10.0);
+		queue.add(b, 5.0);
+		queue.add(c, 10.0);
+		queue.add(d, 9.5);
+
+		assertNull(queue.poll(4.0));
+		assertSame(b, queue.poll(5.0));
+		assertNull(queue.poll(5.0));
+		assertNull(queue.poll(9.0));
+		assertSame(d, queue.poll(10.0));
+		// equal times: the one with the larger id first
+		assertSame(c, queue.poll(10.0));
+		assertSame(a, queue.poll(10.0));
+		assertNull(queue.poll(100.0));
+	}
+
+	@Test
+	void testSubSecondSteps() {
+		AgentCalendarQueue queue = new AgentCalendarQueue(false);
+		MobsimAgent a = agent("a");
+		MobsimAgent b = agent("b");
+		queue.add(a, 7.6);
+		queue.add(b, 7.3);
+
+		assertNull(queue.poll(7.0));
+		assertNull(queue.poll(7.2));
+		assertSame(b, queue.poll(7.4));
+		assertNull(queue.poll(7.4));
+		assertSame(a, queue.poll(7.6));
+	}
+
+	@Test
+	void testAddInThePastAndFarFuture() {
+		AgentCalendarQueue queue = new AgentCalendarQueue(true);
+		MobsimAgent a = agent("a");
+		MobsimAgent b = agent("b");
+		MobsimAgent c = agent("c");
+		queue.add(a, 100.0);
+		assertSame(a, queue.poll(100.0));
+
+		// a time which is already over is handled in the next step
+		queue.add(b, 50.0);
+		queue.add(c, 2.0 * AgentCalendarQueue.MAX_BUCKET);
+		assertSame(b, queue.poll(101.0));
+		assertNull(queue.poll(101.0));
+		assertSame(c, queue.poll(2.0 * AgentCalendarQueue.MAX_BUCKET));
+	}
+
+	@Test
+	void testRemoveAndForEach() {
+		AgentCalendarQueue queue = new AgentCalendarQueue(false);
+		MobsimAgent a = agent("a");
+		MobsimAgent b = agent("b");
+		MobsimAgent c = agent("c");
+		queue.add(a, 30.0);
+		queue.add(b, 20.0);
+		queue.add(c, Double.POSITIVE_INFINITY);
+
+		assertEquals(30.0, queue.remove(a).getTime(), 0.0);
+		assertNull(queue.remove(a));
+
+		List<MobsimAgent> agents = new ArrayList<>();
+		queue.forEach(entry -> agents.add(entry.getAgent()));
+		assertEquals(List.of(b, c), agents);
+
+		queue.clear();
+		assertNull(queue.poll(Double.POSITIVE_INFINITY));
+	}
+}
@@ -0,0 +1,112 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * ParallelActivityEndsTest.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+
+package org.matsim.core.mobsim.qsim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.api.core.v01.TransportMode;
+import org.matsim.api.core.v01.events.Event;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.api.core.v01.population.Activity;
+import org.matsim.api.core.v01.population.Leg;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.api.core.v01.population.Plan;
+import org.matsim.api.core.v01.population.PopulationFactory;
+import org.matsim.api.core.v01.population.Route;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.config.Config;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.controler.PrepareForSimUtils;
+import org.matsim.core.events.EventsUtils;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.scenario.ScenarioUtils;
+import org.matsim.testcases.utils.EventsCollector;
+
+public class ParallelActivityEndsTest {
+
+	@Test
+	void testSameEventsAsSequential() {
+		List<String> sequential = runQSim(false);
+		List<String> parallel = runQSim(true);
+
+		// two activity ends, two departures, two arrivals, two teleportation arrivals and two activity starts per person:
+		assertEquals(10 * 1000, sequential.size());
+		assertEquals(sequential, parallel);
+	}
+
+	private static List<String> runQSim(boolean usingParallelActivityEnds) {
+		Config config = ConfigUtils.createConfig();
+		config.qsim().setNumberOfThreads(2);
+		config.qsim().setUsingParallelActivityEnds(usingParallelActivityEnds);
+		Scenario scenario = ScenarioUtils.createScenario(config);
+
+		Network network = scenario.getNetwork();
+		Node node1 = NetworkUtils.createAndAddNode(network, Id.createNodeId(1), new Coord(0, 0));
+		Node node2 = NetworkUtils.createAndAddNode(network, Id.createNodeId(2), new Coord(1000, 0));
+		Node node3 = NetworkUtils.createAndAddNode(network, Id.createNodeId(3), new Coord(2000, 0));
+		Link link1 = NetworkUtils.createAndAddLink(network, Id.createLinkId(1), node1, node2, 1000, 10, 3600, 1);
+		Link link2 = NetworkUtils.createAndAddLink(network, Id.createLinkId(2), node2, node3, 1000, 10, 3600, 1);
+
+		PopulationFactory pf = scenario.getPopulation().getFactory();
+		for (int i = 0; i < 1000; i++) {
+			Person person = pf.createPerson(Id.createPersonId(i));
+			Plan plan = pf.createPlan();
+			Activity home = pf.createActivityFromLinkId("h", link1.getId());
+			home.setEndTime(6 * 3600 + i % 3);
+			plan.addActivity(home);
+			plan.addLeg(createWalkLeg(pf, link1, link2, 60 + i % 7));
+			// the work activity is already over when the agents arrive, so they depart again right away:
+			Activity work = pf.createActivityFromLinkId("w", link2.getId());
+			work.setEndTime(6 * 3600);
+			plan.addActivity(work);
+			plan.addLeg(createWalkLeg(pf, link2, link1, 60));
+			plan.addActivity(pf.createActivityFromLinkId("h", link1.getId()));
+			person.addPlan(plan);
+			scenario.getPopulation().addPerson(person);
+		}
+		PrepareForSimUtils.createDefaultPrepareForSim(scenario).run();
+
+		EventsManager events = EventsUtils.createEventsManager();
+		EventsCollector collector = new EventsCollector();
+		events.addHandler(collector);
+		new QSimBuilder(config).useDefaults().build(scenario, events).run();
+
+		return collector.getEvents().stream().map(Event::toString).toList();
+	}
+
+	private static Leg createWalkLeg(PopulationFactory pf, Link from, Link to, double travelTime) {
+		Leg leg = pf.createLeg(TransportMode.walk);
+		Route route = pf.getRouteFactories().createRoute(Route.class, from.getId(), to.getId());
+		route.setTravelTime(travelTime);
+		route.setDistance(1000);
+		leg.setRoute(route);
+		return leg;
+	}
+}
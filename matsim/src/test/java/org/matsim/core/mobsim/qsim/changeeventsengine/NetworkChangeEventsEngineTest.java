@@ -67,7 +67,7 @@ public class NetworkChangeEventsEngineTest {
 		EventsManager eventsManager = EventsUtils.createEventsManager();
 		QSim qsim = new QSimBuilder(config).useDefaults().build(scenario, eventsManager);
 
-		NetworkChangeEventsEngine engine = new NetworkChangeEventsEngine(scenario.getNetwork(), new MessageQueue());
+		NetworkChangeEventsEngine engine = new NetworkChangeEventsEngine(scenario.getNetwork(), new MessageQueue(), false);
 		qsim.addMobsimEngine(engine);
 
 		engine.onPrepareSim();
@@ -103,7 +103,7 @@ public class NetworkChangeEventsEngineTest {
 		EventsManager eventsManager = EventsUtils.createEventsManager();
 		QSim qsim = new QSimBuilder(config).useDefaults().build(scenario, eventsManager);
 
-		NetworkChangeEventsEngine engine = new NetworkChangeEventsEngine(scenario.getNetwork(), new MessageQueue());
+		NetworkChangeEventsEngine engine = new NetworkChangeEventsEngine(scenario.getNetwork(), new MessageQueue(), false);
 		engine.setInternalInterface(new DummyInternalInterfaceImpl(qsim));
 
 		engine.onPrepareSim();
@@ -139,7 +139,7 @@ public class NetworkChangeEventsEngineTest {
 		EventsManager eventsManager = EventsUtils.createEventsManager();
 		QSim qsim = new QSimBuilder(config).useDefaults().build(scenario, eventsManager);
 
-		NetworkChangeEventsEngine engine = new NetworkChangeEventsEngine(scenario.getNetwork(), new MessageQueue());
+		NetworkChangeEventsEngine engine = new NetworkChangeEventsEngine(scenario.getNetwork(), new MessageQueue(), false);
 		engine.setInternalInterface(new DummyInternalInterfaceImpl(qsim));
 
 		engine.onPrepareSim();
@@ -35,6 +35,7 @@ import org.matsim.api.core.v01.events.PersonArrivalEvent;
 import org.matsim.api.core.v01.events.PersonDepartureEvent;
 import org.matsim.api.core.v01.events.PersonEntersVehicleEvent;
 import org.matsim.api.core.v01.events.PersonLeavesVehicleEvent;
+import org.matsim.api.core.v01.events.PersonStuckEvent;
 import org.matsim.api.core.v01.events.TransitDriverStartsEvent;
 import org.matsim.api.core.v01.network.Link;
 import org.matsim.api.core.v01.network.Network;
@@ -47,6 +48,8 @@ import org.matsim.core.config.ConfigUtils;
 import org.matsim.core.controler.PrepareForSimUtils;
 import org.matsim.core.events.EventsUtils;
 import org.matsim.core.mobsim.qsim.QSimBuilder;
+import org.matsim.core.mobsim.qsim.components.QSimComponentsConfig;
+import org.matsim.core.mobsim.qsim.qnetsimengine.QNetsimEngineModule;
 import org.matsim.core.population.io.PopulationReader;
 import org.matsim.core.scenario.MutableScenario;
 import org.matsim.core.scenario.ScenarioUtils;
@@ -268,6 +271,121 @@ public class QSimIntegrationTest {
 		Assertions.assertTrue(events.get(idx++) instanceof PersonArrivalEvent);
 	}
 
+	@Test
+	void test_multipleStopsOnFirstLink_singleLinkRoute_withPassengersAtFirstStop_parallelTransitStops() throws SAXException, ParserConfigurationException, IOException {
+		Fixture f = createParallelTransitStopsFixture();
+
+		EventsManager eventsManager = EventsUtils.createEventsManager();
+		SelectiveEventsCollector coll = new SelectiveEventsCollector(PersonLeavesVehicleEvent.class, PersonArrivalEvent.class);
+		eventsManager.addHandler(coll);
+
+		PrepareForSimUtils.createDefaultPrepareForSim(f.scenario).run();
+		new QSimBuilder(f.scenario.getConfig()) //
+			.useDefaults() //
+			.build(f.scenario, eventsManager) //
+			.run();
+
+		coll.printEvents();
+
+		// the passenger is handed over by the transit engine, but still arrives in the time step in which it left the vehicle
+		List<Event> events = coll.getEvents();
+		Assertions.assertEquals(4, events.size(), "wrong number of events");
+		PersonLeavesVehicleEvent leaves = (PersonLeavesVehicleEvent) events.get(0);
+		PersonArrivalEvent arrival = (PersonArrivalEvent) events.get(1);
+		Assertions.assertEquals("1", leaves.getPersonId().toString());
+		Assertions.assertEquals("1", arrival.getPersonId().toString());
+		Assertions.assertEquals(leaves.getTime(), arrival.getTime(), 0.0);
+		Assertions.assertTrue(events.get(2) instanceof PersonLeavesVehicleEvent); // pt-driver
+		Assertions.assertTrue(events.get(3) instanceof PersonArrivalEvent); // pt-driver
+	}
+
+	@Test
+	void test_parallelTransitStops_passengerNotHandedOverBeforeEndOfSim() throws SAXException, ParserConfigurationException, IOException {
+		Fixture f = createParallelTransitStopsFixture();
+		// the passenger leaves the vehicle at 06:00:04
+		f.scenario.getConfig().qsim().setEndTime(6 * 3600 + 4);
+
+		EventsManager eventsManager = EventsUtils.createEventsManager();
+		SelectiveEventsCollector coll = new SelectiveEventsCollector(PersonLeavesVehicleEvent.class, PersonStuckEvent.class);
+		eventsManager.addHandler(coll);
+
+		PrepareForSimUtils.createDefaultPrepareForSim(f.scenario).run();
+		new QSimBuilder(f.scenario.getConfig()) //
+			.useDefaults() //
+			.configureQSimComponents(components -> moveNetsimEngineToEnd(components)) //
+			.build(f.scenario, eventsManager) //
+			.run();
+
+		coll.printEvents();
+
+		// the transit engine is stepped before the netsim engine, so the passenger who left the vehicle in the last time step is
+		// still waiting to be handed over when the simulation ends
+		List<Event> events = coll.getEvents();
+		PersonLeavesVehicleEvent leaves = (PersonLeavesVehicleEvent) events.get(0);
+		Assertions.assertEquals("1", leaves.getPersonId().toString());
+		Assertions.assertEquals(6 * 3600 + 4, leaves.getTime(), 0.0);
+		PersonStuckEvent stuck = (PersonStuckEvent) events.stream()
+				.filter(event -> event instanceof PersonStuckEvent && ((PersonStuckEvent) event).getPersonId().toString().equals("1"))
+				.findFirst().orElseThrow();
+		Assertions.assertEquals(leaves.getTime(), stuck.getTime(), 0.0);
+	}
+
+	private static void moveNetsimEngineToEnd(QSimComponentsConfig components) {
+		components.removeNamedComponent(QNetsimEngineModule.COMPONENT_NAME);
+		components.addNamedComponent(QNetsimEngineModule.COMPONENT_NAME);
+	}
+
+	private static Fixture createParallelTransitStopsFixture() throws SAXException, ParserConfigurationException, IOException {
+		Fixture f = new Fixture();
+		f.scenario.getConfig().qsim().setNumberOfThreads(2);
+		f.scenario.getConfig().qsim().setUsingParallelTransitStops(true);
+		String scheduleXml = "" +
+				"<?xml version='1.0' encoding='UTF-8'?>" +
+				"<!DOCTYPE transitSchedule SYSTEM \"http://www.matsim.org/files/dtd/transitSchedule_v1.dtd\">" +
+				"<transitSchedule>" +
+				"	<transitStops>" +
+				"		<stopFacility id=\"1\" x=\"1050\" y=\"1050\" linkRefId=\"2\"/>" +
+				"		<stopFacility id=\"2\" x=\"2050\" y=\"2940\" linkRefId=\"2\"/>" +
+				"		<stopFacility id=\"3\" x=\"2050\" y=\"2940\" linkRefId=\"2\"/>" +
+				"	</transitStops>" +
+				"	<transitLine id=\"A\">" +
+				"		<transitRoute id=\"Aa\">" +
+				"			<transportMode>train</transportMode>" +
+				"			<routeProfile>" +
+				"				<stop refId=\"1\" departureOffset=\"00:00:00\"/>" +
+				"				<stop refId=\"2\" arrivalOffset=\"00:03:00\"/>" +
+				"				<stop refId=\"3\" arrivalOffset=\"00:04:00\"/>" +
+				"			</routeProfile>" +
+				"			<route>" +
+				"				<link refId=\"2\"/>" +
+				"				<link refId=\"2\"/>" +
+				"			</route>" +
+				"			<departures>" +
+				"				<departure id=\"0x\" departureTime=\"06:00:00\" vehicleRefId=\"tr_1\" />" +
+				"			</departures>" +
+				"		</transitRoute>" +
+				"	</transitLine>" +
+				"</transitSchedule>";
+		new TransitScheduleReaderV1(f.scenario).parse(new ByteArrayInputStream(scheduleXml.getBytes()));
+
+		String plansXml = "<?xml version=\"1.0\" ?>" +
+				"<!DOCTYPE plans SYSTEM \"http://www.matsim.org/files/dtd/plans_v4.dtd\">" +
+				"<plans>" +
+				"<person id=\"1\">" +
+				"	<plan>" +
+				"		<act type=\"h\" x=\"1000\" y=\"1000\" link=\"2\" end_time=\"05:45\" />" +
+				"		<leg mode=\"pt\">" +
+				"			<route>PT1===1===A===Aa===2</route>" +
+				"		</leg>" +
+				"		<act type=\"w\" x=\"10000\" y=\"0\" link=\"3\" dur=\"00:10\" />" +
+				"	</plan>" +
+				"</person>" +
+				"</plans>";
+		new PopulationReader(f.scenario).parse(new ByteArrayInputStream(plansXml.getBytes()));
+
+		return f;
+	}
+
 	@Test
 	void test_multipleStopsOnFirstLink_singleLinkRoute_withPassengersAtSecondStop() throws SAXException, ParserConfigurationException, IOException {
 		Fixture f = new Fixture();
@@ -21,6 +21,10 @@
 package org.matsim.core.mobsim.qsim.pt;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -31,6 +35,7 @@ import org.matsim.core.api.experimental.events.EventsManager;
 import org.matsim.core.events.EventsUtils;
 import org.matsim.pt.fakes.FakeAgent;
 import org.matsim.pt.transitSchedule.TransitScheduleFactoryImpl;
+import org.matsim.pt.transitSchedule.api.TransitLine;
 import org.matsim.pt.transitSchedule.api.TransitScheduleFactory;
 import org.matsim.pt.transitSchedule.api.TransitStopFacility;
 
@@ -119,4 +124,56 @@ public class TransitStopAgentTrackerTest {
 			log.info("catched expected exception.", e);
 		}
 	}
+
+	@Test
+	void testGetAgentsForLine() {
+		EventsManager events = EventsUtils.createEventsManager();
+		TransitStopAgentTracker tracker = new TransitStopAgentTracker(events);
+		Id<TransitStopFacility> stopId = Id.create(1, TransitStopFacility.class);
+		Id<TransitLine> lineA = Id.create("A", TransitLine.class);
+		Id<TransitLine> lineB = Id.create("B", TransitLine.class);
+		PTPassengerAgent agent1 = createAgent(lineA);
+		PTPassengerAgent agent2 = createAgent(null);
+		PTPassengerAgent agent3 = createAgent(lineB);
+		PTPassengerAgent agent4 = createAgent(lineA);
+		PTPassengerAgent agent5 = createAgent(null);
+
+		tracker.addAgentToStop(10, agent1, stopId);
+		tracker.addAgentToStop(11, agent2, stopId);
+		tracker.addAgentToStop(12, agent3, stopId);
+		tracker.addAgentToStop(13, agent4, stopId);
+		tracker.addAgentToStop(14, agent5, stopId);
+
+		// agents of the line and agents without line, in the order of their arrival:
+		assertEquals(List.of(agent1, agent2, agent4, agent5), tracker.getAgentsAtFacility(stopId, lineA));
+		assertEquals(List.of(agent2, agent3, agent5), tracker.getAgentsAtFacility(stopId, lineB));
+		assertEquals(List.of(agent2, agent5), tracker.getAgentsAtFacility(stopId, Id.create("C", TransitLine.class)));
+		assertEquals(List.of(agent1, agent2, agent3, agent4, agent5), tracker.getAgentsAtFacility(stopId));
+
+		tracker.removeAgentFromStop(agent2, stopId);
+		assertEquals(List.of(agent1, agent4, agent5), tracker.getAgentsAtFacility(stopId, lineA));
+
+		// agent 4 now wants to take line B, but keeps its place:
+		when(agent4.getDesiredLineId()).thenReturn(lineB);
+		tracker.updateAgentAtStop(agent4, stopId);
+		assertEquals(List.of(agent1, agent5), tracker.getAgentsAtFacility(stopId, lineA));
+		assertEquals(List.of(agent3, agent4, agent5), tracker.getAgentsAtFacility(stopId, lineB));
+		assertEquals(List.of(agent1, agent3, agent4, agent5), tracker.getAgentsAtStop().get(stopId));
+
+		// agent 1 changes to line B, and agent 5 commits to line A, without anybody telling the tracker:
+		when(agent1.getDesiredLineId()).thenReturn(lineB);
+		when(agent5.getDesiredLineId()).thenReturn(lineA);
+		assertEquals(List.of(agent1, agent3, agent4), tracker.getAgentsAtFacility(stopId, lineB));
+		assertEquals(List.of(agent5), tracker.getAgentsAtFacility(stopId, lineA));
+		assertEquals(List.of(), tracker.getAgentsAtFacility(stopId, Id.create("C", TransitLine.class)));
+
+		tracker.removeAgentFromStop(agent1, stopId);
+		assertEquals(List.of(agent3, agent4), tracker.getAgentsAtFacility(stopId, lineB));
+	}
+
+	private static PTPassengerAgent createAgent(Id<TransitLine> lineId) {
+		PTPassengerAgent agent = mock(PTPassengerAgent.class);
+		when(agent.getDesiredLineId()).thenReturn(lineId);
+		return agent;
+	}
 }
@@ -0,0 +1,79 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * LinkQueueTypeTest.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.mobsim.qsim.qnetsimengine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.config.Config;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.config.groups.QSimConfigGroup.LinkQueueType;
+import org.matsim.core.config.groups.QSimConfigGroup.TrafficDynamics;
+import org.matsim.core.controler.PrepareForSimUtils;
+import org.matsim.core.events.EventsUtils;
+import org.matsim.core.events.handler.BasicEventHandler;
+import org.matsim.core.mobsim.qsim.QSimBuilder;
+import org.matsim.core.scenario.ScenarioUtils;
+import org.matsim.core.utils.io.IOUtils;
+import org.matsim.examples.ExamplesUtils;
+
+/**
+ * Checks that the ring buffer link queues produce exactly the same events as the linked list ones.
+ */
+public class LinkQueueTypeTest {
+
+	@ParameterizedTest
+	@EnumSource(TrafficDynamics.class)
+	void testSameEvents(TrafficDynamics trafficDynamics) {
+		List<String> linkedListEvents = runQSim(trafficDynamics, LinkQueueType.linkedList);
+		List<String> ringBufferEvents = runQSim(trafficDynamics, LinkQueueType.ringBuffer);
+
+		Assertions.assertFalse(linkedListEvents.isEmpty());
+		Assertions.assertEquals(linkedListEvents, ringBufferEvents);
+	}
+
+	private static List<String> runQSim(TrafficDynamics trafficDynamics, LinkQueueType linkQueueType) {
+		Config config = ConfigUtils.loadConfig(IOUtils.extendUrl(ExamplesUtils.getTestScenarioURL("equil"), "config.xml"));
+		config.plans().setInputFile("plans100.xml");
+		config.qsim().setTrafficDynamics(trafficDynamics);
+		config.qsim().setLinkQueueType(linkQueueType);
+		// make sure that there is congestion:
+		config.qsim().setFlowCapFactor(0.05);
+		config.qsim().setStorageCapFactor(0.05);
+		Scenario scenario = ScenarioUtils.loadScenario(config);
+
+		List<String> events = new ArrayList<>();
+		EventsManager eventsManager = EventsUtils.createEventsManager();
+		eventsManager.addHandler((BasicEventHandler) event -> events.add(event.toString()));
+
+		PrepareForSimUtils.createDefaultPrepareForSim(scenario).run();
+		eventsManager.initProcessing();
+		new QSimBuilder(config).useDefaults().build(scenario, eventsManager).run();
+		eventsManager.finishProcessing();
+		return events;
+	}
+
+}
@@ -0,0 +1,149 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * TimeVariantNodeTransitionTest.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.mobsim.qsim.qnetsimengine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.api.core.v01.TransportMode;
+import org.matsim.api.core.v01.events.handler.LinkLeaveEventHandler;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.api.core.v01.population.Activity;
+import org.matsim.api.core.v01.population.Leg;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.api.core.v01.population.Plan;
+import org.matsim.api.core.v01.population.PopulationFactory;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.config.Config;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.config.groups.QSimConfigGroup.NodeTransition;
+import org.matsim.core.controler.PrepareForSimUtils;
+import org.matsim.core.events.EventsUtils;
+import org.matsim.core.gbl.MatsimRandom;
+import org.matsim.core.mobsim.qsim.QSimBuilder;
+import org.matsim.core.network.NetworkChangeEvent;
+import org.matsim.core.network.NetworkChangeEvent.ChangeType;
+import org.matsim.core.network.NetworkChangeEvent.ChangeValue;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.population.routes.NetworkRoute;
+import org.matsim.core.population.routes.RouteUtils;
+import org.matsim.core.scenario.ScenarioUtils;
+
+/**
+ * Three in-links with time-variant capacities compete for a short, congested out-link. The order in which
+ * the vehicles cross the node is compared to the one produced by the node logic before the in-link
+ * capacities were cached per time step, so that any change of the node transition shows up here.
+ */
+public class TimeVariantNodeTransitionTest {
+
+	@ParameterizedTest
+	@EnumSource(NodeTransition.class)
+	void testSameNodeTransitionsAsBefore(NodeTransition nodeTransition) {
+		Assertions.assertEquals(expectedCrossings(nodeTransition), String.join(" ", runQSim(nodeTransition)));
+	}
+
+	/**
+	 * Recorded with the node logic that queried <code>Link.getCapacity(now)</code> for every selection.
+	 */
+	private static String expectedCrossings(NodeTransition nodeTransition) {
+		return switch (nodeTransition) {
+			case emptyBufferAfterBufferRandomDistribution_dontBlockNode -> "21601:a0 21601:b0 21603:a1 21606:c0 21609:a2 21612:a3 21615:a4 21618:b1 21621:a5 21624:b2 21627:a6 21630:b3"
+				+ " 21633:c1 21636:c2 21639:b4 21642:c3 21645:c4 21648:b5 21651:c5 21654:b6 21657:b7 21660:c6 21663:c7 21666:a7";
+			case emptyBufferAfterBufferRandomDistribution_nodeBlockedWhenSingleOutlinkFull -> "21601:a0 21601:b0 21603:a1 21606:a2 21609:b1 21612:a3 21615:a4 21618:a5 21621:a6 21624:a7 21627:b2 21630:c0"
+				+ " 21633:b3 21636:b4 21639:b5 21642:b6 21645:b7 21648:c1 21651:c2 21654:c3 21657:c4 21660:c5 21663:c6 21666:c7";
+			case moveVehByVehRandomDistribution_dontBlockNode -> "21601:a0 21601:b0 21603:b1 21606:a1 21609:c0 21612:a2 21615:a3 21618:a4 21621:a5 21624:b2 21627:c1 21630:b3"
+				+ " 21633:c2 21636:c3 21639:b4 21642:c4 21645:b5 21648:b6 21651:c5 21654:a6 21657:a7 21660:c6 21663:c7 21666:b7";
+			case moveVehByVehRandomDistribution_nodeBlockedWhenSingleOutlinkFull -> "21601:a0 21601:b0 21603:a1 21606:a2 21609:a3 21612:a4 21615:a5 21618:a6 21621:a7 21624:b1 21627:b2 21630:c0"
+				+ " 21633:b3 21636:b4 21639:c1 21642:c2 21645:c3 21648:b5 21651:b6 21654:c4 21657:b7 21660:c5 21663:c6 21666:c7";
+			case moveVehByVehDeterministicPriorities_nodeBlockedWhenSingleOutlinkFull -> "21601:a0 21601:b0 21603:a1 21606:a2 21609:b1 21612:c0 21615:a3 21618:a4 21621:b2 21624:a5 21627:a6 21630:b3"
+				+ " 21633:c1 21636:a7 21639:b4 21642:c2 21645:b5 21648:c3 21651:b6 21654:c4 21657:b7 21660:c5 21663:c6 21666:c7";
+		};
+	}
+
+	private static List<String> runQSim(NodeTransition nodeTransition) {
+		Config config = ConfigUtils.createConfig();
+		config.network().setTimeVariantNetwork(true);
+		config.qsim().setNodeTransitionLogic(nodeTransition);
+		config.qsim().setStuckTime(3600);
+		MatsimRandom.reset(config.global().getRandomSeed());
+		Scenario scenario = ScenarioUtils.createScenario(config);
+
+		Network network = scenario.getNetwork();
+		Node merge = NetworkUtils.createAndAddNode(network, Id.createNodeId("merge"), new Coord(0, 0));
+		Node exit = NetworkUtils.createAndAddNode(network, Id.createNodeId("exit"), new Coord(15, 0));
+		Node end = NetworkUtils.createAndAddNode(network, Id.createNodeId("end"), new Coord(1015, 0));
+		// the out-link holds two vehicles only, so the in-links have to compete for it
+		Link out = NetworkUtils.createAndAddLink(network, Id.createLinkId("out"), merge, exit, 15, 15, 1200, 1);
+		Link last = NetworkUtils.createAndAddLink(network, Id.createLinkId("last"), exit, end, 1000, 15, 7200, 1);
+
+		String[] inLinkNames = {"a", "b", "c"};
+		double[] capacities = {3600, 1800, 900};
+		double[] capacityFactors = {0.25, 2, 4};
+		PopulationFactory pf = scenario.getPopulation().getFactory();
+		for (int i = 0; i < inLinkNames.length; i++) {
+			Node start = NetworkUtils.createAndAddNode(network, Id.createNodeId(inLinkNames[i]), new Coord(-1000, 1000 * (i - 1)));
+			Link in = NetworkUtils.createAndAddLink(network, Id.createLinkId(inLinkNames[i]), start, merge, 1000, 15, capacities[i], 1);
+
+			NetworkChangeEvent change = new NetworkChangeEvent(6 * 3600 + 30);
+			change.addLink(in);
+			change.setFlowCapacityChange(new ChangeValue(ChangeType.FACTOR, capacityFactors[i]));
+			NetworkUtils.addNetworkChangeEvent(network, change);
+
+			for (int j = 0; j < 8; j++) {
+				Person person = pf.createPerson(Id.createPersonId(inLinkNames[i] + j));
+				Plan plan = pf.createPlan();
+				Activity home = pf.createActivityFromLinkId("h", in.getId());
+				home.setEndTime(6 * 3600 + j);
+				plan.addActivity(home);
+				Leg leg = pf.createLeg(TransportMode.car);
+				NetworkRoute route = RouteUtils.createLinkNetworkRouteImpl(in.getId(), List.of(out.getId()), last.getId());
+				leg.setRoute(route);
+				plan.addLeg(leg);
+				plan.addActivity(pf.createActivityFromLinkId("w", last.getId()));
+				person.addPlan(plan);
+				scenario.getPopulation().addPerson(person);
+			}
+		}
+
+		List<String> crossings = new ArrayList<>();
+		EventsManager eventsManager = EventsUtils.createEventsManager();
+		eventsManager.addHandler((LinkLeaveEventHandler) event -> {
+			if (!event.getLinkId().equals(out.getId()) && !event.getLinkId().equals(last.getId())) {
+				crossings.add((int) event.getTime() + ":" + event.getVehicleId());
+			}
+		});
+
+		PrepareForSimUtils.createDefaultPrepareForSim(scenario).run();
+		eventsManager.initProcessing();
+		new QSimBuilder(config).useDefaults().build(scenario, eventsManager).run();
+		eventsManager.finishProcessing();
+		return crossings;
+	}
+
+}
@@ -0,0 +1,81 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * NetworkArraysTest.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.network;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.core.config.Config;
+import org.matsim.core.config.ConfigUtils;
+
+public class NetworkArraysTest {
+
+	@Test
+	void testLinkAttributes() {
+		Network network = NetworkUtils.createNetwork();
+		Node n1 = NetworkUtils.createAndAddNode(network, Id.createNodeId("arrays1"), new Coord(0, 0));
+		Node n2 = NetworkUtils.createAndAddNode(network, Id.createNodeId("arrays2"), new Coord(1000, 0));
+		Link l1 = NetworkUtils.createAndAddLink(network, Id.createLinkId("arrays1"), n1, n2, 1000, 20, 1800, 2);
+		Link l2 = NetworkUtils.createAndAddLink(network, Id.createLinkId("arrays2"), n2, n1, 500, 10, 900, 1);
+
+		NetworkArrays arrays = new NetworkArrays(network);
+
+		int i1 = l1.getId().index();
+		int i2 = l2.getId().index();
+		Assertions.assertTrue(arrays.containsLink(i1));
+		Assertions.assertSame(l1, arrays.getLink(i1));
+		Assertions.assertEquals(1000, arrays.getLength(i1), 0.0);
+		Assertions.assertEquals(20, arrays.getFreespeed(i1), 0.0);
+		Assertions.assertEquals(50, arrays.getFreespeedTravelTime(i1), 0.0);
+		Assertions.assertEquals(1800, arrays.getCapacity(i1), 0.0);
+		Assertions.assertEquals(0.5, arrays.getFlowCapacityPerSec(i1), 1e-10);
+		Assertions.assertEquals(2, arrays.getNumberOfLanes(i1), 0.0);
+		Assertions.assertEquals(n1.getId().index(), arrays.getFromNodeIndex(i1));
+		Assertions.assertEquals(n2.getId().index(), arrays.getToNodeIndex(i1));
+		Assertions.assertSame(n2, arrays.getNode(arrays.getToNodeIndex(i1)));
+
+		Assertions.assertEquals(500, arrays.getLength(i2), 0.0);
+		Assertions.assertEquals(n1.getId().index(), arrays.getToNodeIndex(i2));
+		Assertions.assertFalse(arrays.isTimeVariant(i1));
+
+		// ids created after the arrays are not part of them
+		Id<Link> later = Id.createLinkId("arrays-later");
+		Assertions.assertFalse(arrays.containsLink(later.index()));
+	}
+
+	@Test
+	void testTimeVariantLinks() {
+		Config config = ConfigUtils.createConfig();
+		config.network().setTimeVariantNetwork(true);
+		Network network = NetworkUtils.createNetwork(config);
+		Node n1 = NetworkUtils.createAndAddNode(network, Id.createNodeId("tv1"), new Coord(0, 0));
+		Node n2 = NetworkUtils.createAndAddNode(network, Id.createNodeId("tv2"), new Coord(1000, 0));
+		Link link = NetworkUtils.createAndAddLink(network, Id.createLinkId("tv1"), n1, n2, 1000, 20, 1800, 1);
+
+		NetworkArrays arrays = new NetworkArrays(network);
+		Assertions.assertTrue(arrays.isTimeVariant(link.getId().index()));
+		Assertions.assertEquals(20, arrays.getFreespeed(link.getId().index()), 0.0);
+	}
+}
@@ -348,6 +348,47 @@ public class TimeVariantLinkImplTest {
 	}
 
 
+	/**
+	 * Tests many changes in a short interval, where most of them repeat the current value, and a change added after the
+	 * values were already looked up.
+	 */
+	@Test
+	void testRepeatedFlowCapChanges() {
+		for (LinkFactory lf : linkFactories(60, 30 * 3600)) {
+			final Network network = new NetworkImpl(lf);
+			network.setCapacityPeriod(3600.0);
+
+			Node node1 = NetworkUtils.createAndAddNode(network, Id.create("1", Node.class), new Coord((double) 0, (double) 0));
+			Node node2 = NetworkUtils.createAndAddNode(network, Id.create("2", Node.class), new Coord((double) 100, (double) 0));
+			TimeVariantLinkImpl link = (TimeVariantLinkImpl)NetworkUtils.createAndAddLink(network,Id.create("1", Link.class), node1, node2, (double) 100, (double) 10, (double) 3600, (double) 1 );
+
+			// one change per minute between 07:00 and 09:00, changing the value only every ten minutes:
+			for (int minute = 0; minute < 120; minute++) {
+				NetworkChangeEvent change = new NetworkChangeEvent(7 * 3600.0 + minute * 60);
+				change.addLink(link);
+				change.setFlowCapacityChange(new ChangeValue(ChangeType.ABSOLUTE_IN_SI_UNITS, 1.0 + minute / 10));
+				link.applyEvent(change);
+			}
+
+			assertEquals(1.0, link.getFlowCapacityPerSec(TIME_BEFORE_FIRST_CHANGE_EVENTS), MatsimTestUtils.EPSILON);
+			assertEquals(1.0, link.getFlowCapacityPerSec(7 * 3600 - 1), MatsimTestUtils.EPSILON);
+			for (int minute = 0; minute < 120; minute++) {
+				assertEquals(1.0 + minute / 10, link.getFlowCapacityPerSec(7 * 3600 + minute * 60 + 30), MatsimTestUtils.EPSILON);
+			}
+			assertEquals(12.0, link.getFlowCapacityPerSec(20 * 3600), MatsimTestUtils.EPSILON);
+
+			// a change added later needs to be seen as well:
+			NetworkChangeEvent change = new NetworkChangeEvent(10 * 3600.0);
+			change.addLink(link);
+			change.setFlowCapacityChange(new ChangeValue(ChangeType.FACTOR, 0.5));
+			link.applyEvent(change);
+
+			assertEquals(12.0, link.getFlowCapacityPerSec(10 * 3600 - 1), MatsimTestUtils.EPSILON);
+			assertEquals(6.0, link.getFlowCapacityPerSec(20 * 3600), MatsimTestUtils.EPSILON);
+		}
+	}
+
+
     static LinkFactory[] linkFactories(int interval, int maxTime)
     {
         return new LinkFactory[] {
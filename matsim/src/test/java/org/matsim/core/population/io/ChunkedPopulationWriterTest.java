@@ -0,0 +1,82 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * ChunkedPopulationWriterTest.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.population.io;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.network.io.MatsimNetworkReader;
+import org.matsim.core.population.PopulationUtils;
+import org.matsim.core.scenario.ScenarioUtils;
+import org.matsim.core.utils.io.IOUtils;
+import org.matsim.examples.ExamplesUtils;
+import org.matsim.testcases.MatsimTestUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.URL;
+
+public class ChunkedPopulationWriterTest {
+
+	@RegisterExtension
+	private MatsimTestUtils utils = new MatsimTestUtils();
+
+	@Test
+	void testGzipChunks() throws IOException {
+		testWriteAndRead("population.xml.gz");
+	}
+
+	@Test
+	void testZstdChunks() throws IOException {
+		testWriteAndRead("population.xml.zst");
+	}
+
+	@Test
+	void testUncompressed() throws IOException {
+		testWriteAndRead("population.xml");
+	}
+
+	private void testWriteAndRead(String file) throws IOException {
+		Scenario scenario = ScenarioUtils.createScenario(ConfigUtils.createConfig());
+		URL equil = ExamplesUtils.getTestScenarioURL("equil");
+		new MatsimNetworkReader(scenario.getNetwork()).parse(IOUtils.extendUrl(equil, "network.xml"));
+		new PopulationReader(scenario).readURL(IOUtils.extendUrl(equil, "plans100.xml"));
+
+		String filename = utils.getOutputDirectory() + file;
+		ChunkedPopulationWriter writer = new ChunkedPopulationWriter(scenario.getPopulation(), 3);
+		// a chunk size that does not divide the population, so the last chunk is a partial one
+		writer.setChunkSize(7);
+		writer.write(filename);
+
+		// all members / frames need to be read, and the result has to be a single valid xml document
+		try (BufferedReader reader = IOUtils.getBufferedReader(filename)) {
+			Assertions.assertTrue(reader.readLine().startsWith("<?xml"));
+		}
+		Scenario readScenario = ScenarioUtils.createScenario(ConfigUtils.createConfig());
+		new PopulationReader(readScenario).readFile(filename);
+
+		Assertions.assertEquals(100, readScenario.getPopulation().getPersons().size());
+		Assertions.assertTrue(PopulationUtils.equalPopulation(scenario.getPopulation(), readScenario.getPopulation()));
+	}
+
+}
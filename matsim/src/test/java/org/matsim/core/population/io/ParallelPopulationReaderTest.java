@@ -2,7 +2,10 @@ package org.matsim.core.population.io;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.Scenario;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.core.config.Config;
 import org.matsim.core.config.ConfigUtils;
 import org.matsim.core.scenario.ScenarioUtils;
 
@@ -71,4 +74,43 @@ public class ParallelPopulationReaderTest {
 		}
 	}
 
+	@Test
+	void testParallelPopulationReaderV6_columnarPersonAttributes() {
+		int numberOfPersons = 2000;
+		StringBuilder xml = new StringBuilder("""
+			<?xml version="1.0" encoding="utf-8"?>
+			<!DOCTYPE population SYSTEM "http://www.matsim.org/files/dtd/population_v6.dtd">
+
+			<population>
+			""");
+		for (int i = 0; i < numberOfPersons; i++) {
+			xml.append("<person id=\"").append(i).append("\">\n");
+			xml.append("<attributes>\n");
+			xml.append("<attribute name=\"subpopulation\" class=\"java.lang.String\">sub").append(i % 7).append("</attribute>\n");
+			xml.append("<attribute name=\"income\" class=\"java.lang.Double\">").append(i * 0.5).append("</attribute>\n");
+			xml.append("<attribute name=\"age\" class=\"java.lang.Integer\">").append(i % 100).append("</attribute>\n");
+			xml.append("<attribute name=\"attr").append(i % 13).append("\" class=\"java.lang.Boolean\">").append(i % 2 == 0).append("</attribute>\n");
+			xml.append("</attributes>\n");
+			xml.append("<plan><activity type=\"h\" x=\"0\" y=\"0\" link=\"1\" /></plan>\n");
+			xml.append("</person>\n");
+		}
+		xml.append("</population>\n");
+
+		Config config = ConfigUtils.createConfig();
+		config.plans().setColumnarPersonAttributes(true);
+		config.global().setNumberOfThreads(4);
+		Scenario scenario = ScenarioUtils.createScenario(config);
+		new ParallelPopulationReaderMatsimV6(null, null, scenario).readStream(new ByteArrayInputStream(xml.toString().getBytes(StandardCharsets.UTF_8)));
+
+		Assertions.assertEquals(numberOfPersons, scenario.getPopulation().getPersons().size());
+		for (int i = 0; i < numberOfPersons; i++) {
+			Person person = scenario.getPopulation().getPersons().get(Id.createPersonId(i));
+			Assertions.assertEquals(4, person.getAttributes().size(), "person " + i);
+			Assertions.assertEquals("sub" + (i % 7), person.getAttributes().getAttribute("subpopulation"));
+			Assertions.assertEquals(i * 0.5, person.getAttributes().getAttribute("income"));
+			Assertions.assertEquals(i % 100, person.getAttributes().getAttribute("age"));
+			Assertions.assertEquals(i % 2 == 0, person.getAttributes().getAttribute("attr" + (i % 13)));
+		}
+	}
+
 }
@@ -21,11 +21,16 @@
 package org.matsim.core.replanning;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.population.Person;
 import org.matsim.api.core.v01.population.Plan;
 import org.matsim.api.core.v01.replanning.PlanStrategyModule;
+import org.matsim.core.population.PopulationUtils;
 import org.matsim.core.replanning.selectors.RandomPlanSelector;
 import org.matsim.testcases.MatsimTestUtils;
 
@@ -48,6 +53,34 @@ public class PlanStrategyTest {
 		assertEquals(2, strategy.getNumberOfStrategyModules());
 	}
 
+	@Test
+	void testInnovationFilter() {
+		Person person = PopulationUtils.getFactory().createPerson(Id.createPersonId(1));
+		Plan plan = PopulationUtils.createPlan(person);
+		plan.setScore(0.);
+		person.addPlan(plan);
+
+		PlanStrategy rejecting = new PlanStrategyImpl.Builder(new RandomPlanSelector<>())
+				.addStrategyModule(new DummyStrategyModule())
+				.setInnovationFilter(p -> false)
+				.build();
+		rejecting.init(null);
+		rejecting.run(person);
+		rejecting.finish();
+		assertEquals(1, person.getPlans().size());
+		assertSame(plan, person.getSelectedPlan());
+
+		PlanStrategy accepting = new PlanStrategyImpl.Builder(new RandomPlanSelector<>())
+				.addStrategyModule(new DummyStrategyModule())
+				.setInnovationFilter(p -> p == plan)
+				.build();
+		accepting.init(null);
+		accepting.run(person);
+		accepting.finish();
+		assertEquals(2, person.getPlans().size());
+		assertNotSame(plan, person.getSelectedPlan());
+	}
+
 	/**
 	 * A dummy strategy module for use in tests, without any functionality
 	 *
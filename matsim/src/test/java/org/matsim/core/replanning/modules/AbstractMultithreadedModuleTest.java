@@ -25,9 +25,23 @@ import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.matsim.api.core.v01.population.Plan;
+import org.matsim.core.population.PopulationUtils;
 import org.matsim.core.config.Config;
 import org.matsim.core.config.groups.GlobalConfigGroup;
 import org.matsim.core.population.algorithms.PlanAlgorithm;
+import org.matsim.core.replanning.ReplanningContext;
+import org.matsim.core.replanning.ReplanningThreadPool;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author mrieser
@@ -61,6 +75,89 @@ public class AbstractMultithreadedModuleTest {
 
 	}
 
+	@Test
+	void testCrashingThread_dynamicScheduling() {
+		DummyCrashingModule testee = new DummyCrashingModule(2, true);
+		testee.prepareReplanning(null);
+		testee.handlePlan(null);
+		testee.handlePlan(null);
+		testee.handlePlan(null);
+		Assertions.assertThrows(RuntimeException.class, testee::finishReplanning);
+	}
+
+	@Test
+	void testDynamicScheduling() {
+		CountingModule testee = new CountingModule(4);
+		List<Plan> plans = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			plans.add(PopulationUtils.createPlan());
+		}
+		for (int iteration = 0; iteration < 2; iteration++) {
+			testee.handled.clear();
+			testee.prepareReplanning(null);
+			plans.forEach(testee::handlePlan);
+			testee.finishReplanning();
+
+			Assertions.assertEquals(plans.size(), testee.handled.size());
+			for (Plan plan : plans) {
+				Assertions.assertEquals(1, testee.handled.get(plan).get(), "every plan needs to be handled exactly once");
+			}
+		}
+	}
+
+	@Test
+	void testDynamicScheduling_controlerPool() {
+		ReplanningThreadPool threadPool = new ReplanningThreadPool();
+		ReplanningContext context = new ReplanningContext() {
+			@Override
+			public int getIteration() {
+				return 0;
+			}
+
+			@Override
+			public ReplanningThreadPool getThreadPool() {
+				return threadPool;
+			}
+		};
+		CountingModule testee = new CountingModule(2);
+		List<Plan> plans = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			plans.add(PopulationUtils.createPlan());
+		}
+		testee.prepareReplanning(context);
+		plans.forEach(testee::handlePlan);
+		testee.finishReplanning();
+
+		Assertions.assertEquals(plans.size(), testee.handled.size());
+		ForkJoinPool pool = threadPool.getPool(2);
+		Assertions.assertTrue(testee.threads.stream().allMatch(thread -> thread instanceof ForkJoinWorkerThread worker && worker.getPool() == pool),
+				"the plans must be handled on the pool of the controler");
+
+		threadPool.notifyShutdown(null);
+		Assertions.assertTrue(pool.isShutdown());
+	}
+
+	private static class CountingModule extends AbstractMultithreadedModule {
+		private final Map<Plan, AtomicInteger> handled = Collections.synchronizedMap(new IdentityHashMap<>());
+		private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+		CountingModule(int nOfThreads) {
+			super(nOfThreads, true);
+		}
+
+		@Override
+		public PlanAlgorithm getPlanAlgoInstance() {
+			AtomicInteger running = new AtomicInteger();
+			return plan -> {
+				// a plan algorithm instance may not be used by several threads at the same time
+				Assertions.assertEquals(1, running.incrementAndGet());
+				handled.computeIfAbsent(plan, p -> new AtomicInteger()).incrementAndGet();
+				threads.add(Thread.currentThread());
+				running.decrementAndGet();
+			};
+		}
+	}
+
 	private static class DummyAbstractMultithreadedModule extends AbstractMultithreadedModule {
 		public DummyAbstractMultithreadedModule(GlobalConfigGroup globalConfigGroup) {
 			super(globalConfigGroup);
@@ -75,6 +172,9 @@ public class AbstractMultithreadedModuleTest {
 		public DummyCrashingModule(final int nOfThreads) {
 			super(nOfThreads);
 		}
+		public DummyCrashingModule(final int nOfThreads, boolean dynamicScheduling) {
+			super(nOfThreads, dynamicScheduling);
+		}
 		@Override
 		public PlanAlgorithm getPlanAlgoInstance() {
 			return new CrashingPlanAlgo();
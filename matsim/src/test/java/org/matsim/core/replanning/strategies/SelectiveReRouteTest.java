@@ -0,0 +1,81 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * SelectiveReRouteTest.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+
+package org.matsim.core.replanning.strategies;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.core.config.Config;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.config.groups.ReplanningConfigGroup.StrategySettings;
+import org.matsim.core.controler.Controler;
+import org.matsim.core.controler.OutputDirectoryHierarchy.OverwriteFileSetting;
+import org.matsim.core.scenario.ScenarioUtils;
+import org.matsim.core.utils.io.IOUtils;
+import org.matsim.examples.ExamplesUtils;
+import org.matsim.testcases.MatsimTestUtils;
+
+public class SelectiveReRouteTest {
+
+	@RegisterExtension
+	private MatsimTestUtils utils = new MatsimTestUtils();
+
+	@Test
+	void testUnchangedTravelTimesAreNotReRouted() {
+		Scenario scenario = run( Double.POSITIVE_INFINITY );
+		for ( Person person : scenario.getPopulation().getPersons().values() ) {
+			assertEquals( 1, person.getPlans().size(), "plan of person " + person.getId() + " should only have been selected" );
+		}
+	}
+
+	@Test
+	void testChangedTravelTimesAreReRouted() {
+		Scenario scenario = run( 0. );
+		for ( Person person : scenario.getPopulation().getPersons().values() ) {
+			assertEquals( 2, person.getPlans().size(), "plan of person " + person.getId() + " should have been re-routed" );
+		}
+	}
+
+	private Scenario run( double threshold ) {
+		Config config = utils.loadConfig( IOUtils.extendUrl( ExamplesUtils.getTestScenarioURL( "equil" ), "config.xml" ) );
+		config.plans().setInputFile( "plans2.xml" );
+		config.controller().setLastIteration( 1 );
+		config.controller().setOverwriteFileSetting( OverwriteFileSetting.deleteDirectoryIfExists );
+		config.replanning().clearStrategySettings();
+		config.replanning().setSelectiveReRouteThreshold( threshold );
+		StrategySettings settings = new StrategySettings();
+		settings.setStrategyName( DefaultPlanStrategiesModule.DefaultStrategy.SelectiveReRoute );
+		settings.setWeight( 1.0 );
+		config.replanning().addStrategySettings( settings );
+
+		Scenario scenario = ScenarioUtils.loadScenario( config );
+		Controler controler = new Controler( scenario );
+		controler.getConfig().controller().setCreateGraphs( false );
+		controler.getConfig().controller().setDumpDataAtEnd( false );
+		controler.run();
+		return scenario;
+	}
+
+}
@@ -0,0 +1,118 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * LinkTravelTimeTableTest.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+
+package org.matsim.core.router.costcalculators;
+
+import com.google.inject.Key;
+import com.google.inject.name.Names;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.api.core.v01.TransportMode;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.core.config.Config;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.controler.Controler;
+import org.matsim.core.controler.OutputDirectoryHierarchy;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.core.scenario.ScenarioUtils;
+import org.matsim.core.utils.io.IOUtils;
+import org.matsim.examples.ExamplesUtils;
+import org.matsim.testcases.MatsimTestUtils;
+import org.matsim.vehicles.Vehicle;
+import org.matsim.vehicles.VehicleType;
+import org.matsim.vehicles.VehicleUtils;
+
+public class LinkTravelTimeTableTest {
+
+	@RegisterExtension
+	private MatsimTestUtils utils = new MatsimTestUtils();
+
+	@Test
+	void testTableMatchesSource() {
+		Network network = NetworkUtils.createNetwork();
+		Node n1 = NetworkUtils.createAndAddNode(network, Id.createNodeId("1"), new Coord(0, 0));
+		Node n2 = NetworkUtils.createAndAddNode(network, Id.createNodeId("2"), new Coord(1000, 0));
+		Link constant = NetworkUtils.createAndAddLink(network, Id.createLinkId("constant"), n1, n2, 1000, 10, 1000, 1);
+		Link variable = NetworkUtils.createAndAddLink(network, Id.createLinkId("variable"), n2, n1, 1000, 10, 1000, 1);
+
+		// congested between 07:00 and 09:00 on the variable link only:
+		TravelTime source = (link, time, person, vehicle) -> {
+			double freespeed = link.getLength() / link.getFreespeed();
+			return link == variable && time >= 7 * 3600 && time < 9 * 3600 ? 3 * freespeed : freespeed;
+		};
+		LinkTravelTimeTable table = new LinkTravelTimeTable(source, network, 900, 30 * 3600);
+		Assertions.assertSame(source, table.getSource());
+
+		for (double time = 0; time < 30 * 3600; time += 450) {
+			Assertions.assertEquals(source.getLinkTravelTime(constant, time, null, null), table.getLinkTravelTime(constant, time, null, null), 1e-6);
+			Assertions.assertEquals(source.getLinkTravelTime(variable, time, null, null), table.getLinkTravelTime(variable, time, null, null), 1e-6);
+		}
+		// times after the last bin fall into the last bin:
+		Assertions.assertEquals(100, table.getLinkTravelTime(variable, 40 * 3600, null, null), 1e-6);
+
+		// a slow vehicle is not faster than its maximum velocity:
+		VehicleType type = VehicleUtils.createVehicleType(Id.create("slow", VehicleType.class));
+		type.setMaximumVelocity(5);
+		Vehicle vehicle = VehicleUtils.createVehicle(Id.createVehicleId("v"), type);
+		Assertions.assertEquals(200, table.getLinkTravelTime(constant, 0, null, vehicle), 1e-6);
+		Assertions.assertEquals(300, table.getLinkTravelTime(variable, 8 * 3600, null, vehicle), 1e-6);
+	}
+
+	@Test
+	void testLinksAddedLaterUseSource() {
+		Network network = NetworkUtils.createNetwork();
+		Node n1 = NetworkUtils.createAndAddNode(network, Id.createNodeId("1"), new Coord(0, 0));
+		Node n2 = NetworkUtils.createAndAddNode(network, Id.createNodeId("2"), new Coord(1000, 0));
+		NetworkUtils.createAndAddLink(network, Id.createLinkId("a"), n1, n2, 1000, 10, 1000, 1);
+
+		TravelTime source = (link, time, person, vehicle) -> time;
+		LinkTravelTimeTable table = new LinkTravelTimeTable(source, network, 900, 30 * 3600);
+
+		Link added = NetworkUtils.createAndAddLink(network, Id.createLinkId("b"), n2, n1, 1000, 10, 1000, 1);
+		Assertions.assertEquals(1234, table.getLinkTravelTime(added, 1234, null, null), 1e-6);
+	}
+
+	@Test
+	void testControlerWithPrecomputedTravelTimes() {
+		Config config = ConfigUtils.loadConfig(IOUtils.extendUrl(ExamplesUtils.getTestScenarioURL("equil"), "config.xml"));
+		config.controller().setOutputDirectory(utils.getOutputDirectory());
+		config.controller().setOverwriteFileSetting(OutputDirectoryHierarchy.OverwriteFileSetting.deleteDirectoryIfExists);
+		config.controller().setLastIteration(2);
+		config.routing().setPrecomputeTravelTimes(true);
+		Scenario scenario = ScenarioUtils.loadScenario(config);
+		Controler controler = new Controler(scenario);
+		controler.run();
+
+		TravelTime travelTime = controler.getInjector().getInstance(Key.get(TravelTime.class, Names.named(TransportMode.car)));
+		RandomizingTimeDistanceTravelDisutilityFactory factory = (RandomizingTimeDistanceTravelDisutilityFactory)
+				controler.getInjector().getInstance(Key.get(TravelDisutilityFactory.class, Names.named(TransportMode.car)));
+		Assertions.assertNotNull(factory.getTravelTimeTable());
+		Assertions.assertSame(travelTime, factory.getTravelTimeTable().getSource());
+	}
+
+}
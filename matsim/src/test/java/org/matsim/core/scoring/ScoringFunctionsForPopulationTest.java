@@ -23,6 +23,7 @@
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
 import org.matsim.api.core.v01.Coord;
 import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.Scenario;
@@ -36,18 +37,31 @@ import org.matsim.api.core.v01.population.Person;
 import org.matsim.api.core.v01.population.Population;
 import org.matsim.api.core.v01.population.PopulationFactory;
 import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.config.Config;
 import org.matsim.core.config.ConfigUtils;
 import org.matsim.core.controler.ControlerListenerManagerImpl;
 import org.matsim.core.events.EventsUtils;
+import org.matsim.core.events.MatsimEventsReader;
 import org.matsim.core.population.PopulationUtils;
 import org.matsim.core.router.TripStructureUtils;
 import org.matsim.core.scenario.ScenarioUtils;
+import org.matsim.core.scoring.functions.CharyparNagelScoringFunctionFactory;
+import org.matsim.core.utils.io.IOUtils;
+import org.matsim.examples.ExamplesUtils;
+import org.matsim.testcases.MatsimTestUtils;
+
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
 
 	/**
  * @author mrieser / Simunto GmbH
  */
 public class ScoringFunctionsForPopulationTest {
 
+	@RegisterExtension
+	private MatsimTestUtils utils = new MatsimTestUtils();
+
 	 @Test
 	 void testTripScoring() {
 		Scenario scenario = ScenarioUtils.createScenario(ConfigUtils.createConfig());
@@ -134,6 +148,40 @@ public class ScoringFunctionsForPopulationTest {
 		Assertions.assertEquals(1.234+2.345, rsf.separateScoreSum, 1e-7);
 	}
 
+	@Test
+	void testShardedScoringGivesSameScores() {
+		Map<Id<Person>, Double> unsharded = scoreEquilEvents(1);
+		Map<Id<Person>, Double> sharded = scoreEquilEvents(4);
+
+		Assertions.assertEquals(100, unsharded.size());
+		Assertions.assertEquals(unsharded.keySet(), sharded.keySet());
+		for (Map.Entry<Id<Person>, Double> e : unsharded.entrySet()) {
+			Assertions.assertFalse(e.getValue().isNaN());
+			Assertions.assertEquals(e.getValue(), sharded.get(e.getKey()), 1e-10, "score of person " + e.getKey());
+		}
+	}
+
+	private Map<Id<Person>, Double> scoreEquilEvents(int numberOfShards) {
+		URL equil = ExamplesUtils.getTestScenarioURL("equil");
+		Config config = utils.loadConfig(IOUtils.extendUrl(equil, "config.xml"));
+		config.controller().setNumberOfScoringShards(numberOfShards);
+		Scenario scenario = ScenarioUtils.loadScenario(config);
+
+		EventsManager eventsManager = EventsUtils.createEventsManager();
+		EventsToScore e2s = EventsToScore.createWithoutScoreUpdating(scenario, new CharyparNagelScoringFunctionFactory(scenario), eventsManager);
+		e2s.beginIteration(0, false);
+		eventsManager.initProcessing();
+		new MatsimEventsReader(eventsManager).readURL(IOUtils.extendUrl(equil, "output_events.xml.gz"));
+		eventsManager.finishProcessing();
+		e2s.finish();
+
+		Map<Id<Person>, Double> scores = new HashMap<>();
+		for (Person person : scenario.getPopulation().getPersons().values()) {
+			scores.put(person.getId(), e2s.getAgentScore(person.getId()));
+		}
+		return scores;
+	}
+
 	private static class RecordingScoringFunction implements ScoringFunction {
 
 		int tripCounter = 0;
@@ -21,6 +21,7 @@
 package org.matsim.core.scoring.functions;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Arrays;
@@ -460,6 +461,42 @@ public class CharyparNagelScoringFunctionTest {
 		assertEquals(24 * -6.0 - 6.0 * 0.50, testee.getScore(), EPSILON); // stuck penalty + 30min traveling
 	}
 
+	/**
+	 * Test that a reused scoring function starts from scratch, and gives the same score as a new one.
+	 */
+	@Test
+	void testReuseScoringFunction() {
+		Fixture f = new Fixture();
+		CharyparNagelScoringFunctionFactory factory = new CharyparNagelScoringFunctionFactory( f.scenario );
+
+		ScoringFunction first = factory.createOrReuseScoringFunction(f.person, null);
+		handlePlan(first, f);
+		first.agentStuck(16*3600 + 7.5*60);
+		first.addMoney(-100.);
+		first.finish();
+
+		ScoringFunction reused = factory.createOrReuseScoringFunction(f.person, first);
+		assertSame(first, reused);
+		handlePlan(reused, f);
+		reused.finish();
+
+		ScoringFunction fresh = factory.createNewScoringFunction(f.person);
+		handlePlan(fresh, f);
+		fresh.finish();
+
+		assertEquals(fresh.getScore(), reused.getScore(), EPSILON);
+	}
+
+	private static void handlePlan(ScoringFunction testee, Fixture f) {
+		for (PlanElement planElement : f.plan.getPlanElements()) {
+			if (planElement instanceof Activity) {
+				testee.handleActivity((Activity) planElement);
+			} else if (planElement instanceof Leg) {
+				testee.handleLeg((Leg) planElement);
+			}
+		}
+	}
+
 	@Test
 	void testDistanceCostScoringCar() {
 		Fixture f = new Fixture();
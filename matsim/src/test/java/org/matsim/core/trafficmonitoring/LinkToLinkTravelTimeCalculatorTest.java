@@ -22,6 +22,12 @@ package org.matsim.core.trafficmonitoring;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.matsim.api.core.v01.Coord;
@@ -48,7 +54,7 @@ public class LinkToLinkTravelTimeCalculatorTest {
 	 * @author mrieser
 	 */
 	@Test
-	void testLongTravelTimeInEmptySlot() {
+	void testLongTravelTimeInEmptySlot() throws IOException {
 		MutableScenario scenario = (MutableScenario) ScenarioUtils.createScenario(utils.loadConfig((String)null));
     scenario.getConfig().travelTimeCalculator().setCalculateLinkToLinkTravelTimes(true);
 		Network network = (Network) scenario.getNetwork();
@@ -111,5 +117,18 @@ public class LinkToLinkTravelTimeCalculatorTest {
 		assertEquals(16 * 60, ttcalc.getLinkToLinkTravelTimes().getLinkToLinkTravelTime(link1, link3, 7.0 * 3600 + 5 * 60 + 3*timeBinSize, null, null), MatsimTestUtils.EPSILON);  // linkTravelTime3
 		assertEquals( 1 * 60, ttcalc.getLinkToLinkTravelTimes().getLinkToLinkTravelTime(link1, link3, 7.0 * 3600 + 5 * 60 + 4*timeBinSize, null, null), MatsimTestUtils.EPSILON);  // linkTravelTime3 - 1*timeBinSize
 		assertEquals(10     , ttcalc.getLinkToLinkTravelTimes().getLinkToLinkTravelTime(link1, link3, 7.0 * 3600 + 5 * 60 + 5*timeBinSize, null, null), MatsimTestUtils.EPSILON);  // freespeedTravelTime > linkTravelTime2b - 2*timeBinSize
+
+		// the turns survive a checkpoint:
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ttcalc.writeCheckpoint(new DataOutputStream(bytes));
+		TravelTimeCalculator restored = new TravelTimeCalculator(network, timeBinSize, 12*3600, scenario.getConfig().travelTimeCalculator());
+		restored.readCheckpoint(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+		for (int i = 0; i < 6; i++) {
+			double time = 7.0 * 3600 + 5 * 60 + i * timeBinSize;
+			assertEquals(ttcalc.getLinkToLinkTravelTimes().getLinkToLinkTravelTime(link1, link2, time, null, null),
+					restored.getLinkToLinkTravelTimes().getLinkToLinkTravelTime(link1, link2, time, null, null), MatsimTestUtils.EPSILON);
+			assertEquals(ttcalc.getLinkToLinkTravelTimes().getLinkToLinkTravelTime(link1, link3, time, null, null),
+					restored.getLinkToLinkTravelTimes().getLinkToLinkTravelTime(link1, link3, time, null, null), MatsimTestUtils.EPSILON);
+		}
 	}
 }
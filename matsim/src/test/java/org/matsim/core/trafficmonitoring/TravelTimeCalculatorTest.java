@@ -21,12 +21,16 @@
 package org.matsim.core.trafficmonitoring;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.BitSet;
+import java.util.List;
 
 import javax.xml.parsers.ParserConfigurationException;
 
@@ -46,16 +50,26 @@ import org.matsim.api.core.v01.events.VehicleEntersTrafficEvent;
 import org.matsim.api.core.v01.network.Link;
 import org.matsim.api.core.v01.network.Network;
 import org.matsim.api.core.v01.network.Node;
+import org.matsim.api.core.v01.population.Activity;
+import org.matsim.api.core.v01.population.Leg;
 import org.matsim.api.core.v01.population.Person;
+import org.matsim.api.core.v01.population.Plan;
+import org.matsim.api.core.v01.population.Population;
+import org.matsim.api.core.v01.population.PopulationFactory;
 import org.matsim.core.api.experimental.events.EventsManager;
 import org.matsim.core.api.experimental.events.VehicleArrivesAtFacilityEvent;
 import org.matsim.core.config.Config;
 import org.matsim.core.config.ConfigUtils;
 import org.matsim.core.config.groups.TravelTimeCalculatorConfigGroup;
+import org.matsim.core.controler.PrepareForSimUtils;
 import org.matsim.core.events.EventsUtils;
 import org.matsim.core.events.MatsimEventsReader;
+import org.matsim.core.mobsim.qsim.QSimBuilder;
 import org.matsim.core.network.NetworkUtils;
 import org.matsim.core.network.io.MatsimNetworkReader;
+import org.matsim.core.population.routes.NetworkRoute;
+import org.matsim.core.population.routes.RouteUtils;
+import org.matsim.core.router.util.TravelTime;
 import org.matsim.core.scenario.MutableScenario;
 import org.matsim.core.scenario.ScenarioUtils;
 import org.matsim.core.utils.io.IOUtils;
@@ -175,6 +189,19 @@ public class TravelTimeCalculatorTest {
 			double ttime = ttcalc.getLinkTravelTimes().getLinkTravelTime(link10, i*timeBinSize, null, null);
 			assertEquals(Double.parseDouble(compareData[i]), ttime, 1e-3); // traveltimecalculator has a resolution of 0.001 seconds
 		}
+
+		// without tolerance for free speed travel times, the read-only snapshot returns the same travel times (up to float precision):
+		TravelTimeSnapshot snapshot = ttcalc.createSnapshot(0.);
+		assertTrue(snapshot.getNumberOfObservedLinks() > 0);
+		for (Link link : network.getLinks().values()) {
+			for (int i = 0; i < numberOfTimeSlotsToTest; i++) {
+				for (double offset : new double[] { 0., timeBinSize / 3. }) {
+					double time = i * timeBinSize + offset;
+					assertEquals(ttcalc.getLinkTravelTimes().getLinkTravelTime(link, time, null, null),
+							snapshot.getLinkTravelTime(link, time, null, null), 1e-2);
+				}
+			}
+		}
 	}
 
 	/**
@@ -214,6 +241,102 @@ public class TravelTimeCalculatorTest {
 		assertEquals(freeSpeedTT, ttcalc.getLinkTravelTimes().getLinkTravelTime(link1, firstTimeBinStart + 5*timeBinSize + offset, null, null), MatsimTestUtils.EPSILON);
 	}
 
+	@Test
+	void testGetObservedLinkIndices() {
+		Scenario scenario = ScenarioUtils.createScenario(ConfigUtils.createConfig());
+		Network network = scenario.getNetwork();
+		final Node node1 = NetworkUtils.createAndAddNode(network, Id.create("1", Node.class), new Coord(0, 0));
+		final Node node2 = NetworkUtils.createAndAddNode(network, Id.create("2", Node.class), new Coord(1000, 0));
+		final Node node3 = NetworkUtils.createAndAddNode(network, Id.create("3", Node.class), new Coord(2000, 0));
+		Link link1 = NetworkUtils.createAndAddLink(network, Id.create("1", Link.class), node1, node2, 1000.0, 10.0, 3600.0, 1.0);
+		Link link2 = NetworkUtils.createAndAddLink(network, Id.create("2", Link.class), node2, node3, 1000.0, 10.0, 3600.0, 1.0);
+		Id<Vehicle> vehId = Id.create("1", Vehicle.class);
+
+		TravelTimeCalculator ttcalc = new TravelTimeCalculator(network, 900, 12 * 3600, scenario.getConfig().travelTimeCalculator());
+		TravelTime travelTime = ttcalc.getLinkTravelTimes();
+		ttcalc.handleEvent(new LinkEnterEvent(7 * 3600, vehId, link1.getId()));
+		ttcalc.handleEvent(new LinkLeaveEvent(7 * 3600 + 300, vehId, link1.getId()));
+		// asking for the travel time of a link without observation must not make it an observed link
+		travelTime.getLinkTravelTime(link2, 7 * 3600, null, null);
+
+		BitSet observed = ((TravelTimeCalculator.ObservedLinkTravelTime) travelTime).getObservedLinkIndices();
+		assertTrue(observed.get(link1.getId().index()));
+		assertFalse(observed.get(link2.getId().index()));
+
+		ttcalc.reset(1);
+		assertTrue(ttcalc.getObservedLinkIndices().isEmpty());
+	}
+
+	@Test
+	void testPublishSnapshot() {
+		Config config = ConfigUtils.createConfig();
+		Scenario scenario = ScenarioUtils.createScenario(config);
+		Network network = scenario.getNetwork();
+		final Node node0 = NetworkUtils.createAndAddNode(network, Id.create("0", Node.class), new Coord(-1000, 0));
+		final Node node1 = NetworkUtils.createAndAddNode(network, Id.create("1", Node.class), new Coord(0, 0));
+		final Node node2 = NetworkUtils.createAndAddNode(network, Id.create("2", Node.class), new Coord(1000, 0));
+		final Node node3 = NetworkUtils.createAndAddNode(network, Id.create("3", Node.class), new Coord(2000, 0));
+		final Node node4 = NetworkUtils.createAndAddNode(network, Id.create("4", Node.class), new Coord(3000, 0));
+		Link link0 = NetworkUtils.createAndAddLink(network, Id.create("0", Link.class), node0, node1, 1000.0, 10.0, 3600.0, 1.0);
+		// link 1 lets pass one vehicle every 10 seconds, and gets congested
+		Link link1 = NetworkUtils.createAndAddLink(network, Id.create("1", Link.class), node1, node2, 1000.0, 10.0, 360.0, 1.0);
+		Link link2 = NetworkUtils.createAndAddLink(network, Id.create("2", Link.class), node2, node3, 1000.0, 10.0, 3600.0, 1.0);
+		Link link3 = NetworkUtils.createAndAddLink(network, Id.create("3", Link.class), node3, node4, 1000.0, 10.0, 3600.0, 1.0);
+
+		Population population = scenario.getPopulation();
+		PopulationFactory factory = population.getFactory();
+		for (int i = 0; i < 10; i++) {
+			Person person = factory.createPerson(Id.createPersonId(i));
+			Plan plan = factory.createPlan();
+			Activity home = factory.createActivityFromLinkId("h", link0.getId());
+			home.setEndTime(7 * 3600 + i);
+			plan.addActivity(home);
+			Leg leg = factory.createLeg(TransportMode.car);
+			NetworkRoute route = RouteUtils.createLinkNetworkRouteImpl(link0.getId(), link3.getId());
+			route.setLinkIds(link0.getId(), List.of(link1.getId(), link2.getId()), link3.getId());
+			leg.setRoute(route);
+			plan.addLeg(leg);
+			plan.addActivity(factory.createActivityFromLinkId("w", link3.getId()));
+			person.addPlan(plan);
+			population.addPerson(person);
+		}
+
+		TravelTimeCalculator ttcalc = new TravelTimeCalculator(network, 900, 12 * 3600, config.travelTimeCalculator());
+		TravelTime travelTime = ttcalc.getLinkTravelTimes();
+		EventsManager events = EventsUtils.createEventsManager();
+		events.addHandler(ttcalc);
+		PrepareForSimUtils.createDefaultPrepareForSim(scenario).run();
+		new QSimBuilder(config) //
+			.useDefaults() //
+			.build(scenario, events) //
+			.run();
+
+		// the qsim needs an additional time step to move the vehicles over the node, so even link 2 is not passed at exactly the free
+		// speed travel time ...
+		assertEquals(101, travelTime.getLinkTravelTime(link2, 7 * 3600, null, null), 1e-3);
+		assertTrue(travelTime.getLinkTravelTime(link1, 7 * 3600, null, null) > 110);
+		// ... but the snapshot does not need to keep any data for it
+		assertEquals(1, ttcalc.createSnapshot().getNumberOfObservedLinks());
+		assertEquals(2, ttcalc.createSnapshot(0.).getNumberOfObservedLinks());
+
+		double congestedTravelTime = travelTime.getLinkTravelTime(link1, 7 * 3600, null, null);
+		ttcalc.publishSnapshot();
+		assertEquals(congestedTravelTime, travelTime.getLinkTravelTime(link1, 7 * 3600, null, null), 1e-2);
+		assertEquals(100, travelTime.getLinkTravelTime(link2, 7 * 3600, null, null), 1e-3);
+		assertEquals(100, travelTime.getLinkTravelTime(link1, 10 * 3600, null, null), 1e-3);
+
+		Id<Vehicle> vehId = Id.create("1", Vehicle.class);
+		// new travel times are served as soon as they are recorded
+		ttcalc.handleEvent(new LinkEnterEvent(9 * 3600, vehId, link1.getId()));
+		ttcalc.handleEvent(new LinkLeaveEvent(9 * 3600 + 500, vehId, link1.getId()));
+		assertEquals(500, travelTime.getLinkTravelTime(link1, 9 * 3600, null, null), 1e-3);
+
+		ttcalc.publishSnapshot();
+		assertEquals(500, travelTime.getLinkTravelTime(link1, 9 * 3600, null, null), 1e-3);
+		ttcalc.reset(1);
+		assertEquals(100, travelTime.getLinkTravelTime(link1, 9 * 3600, null, null), 1e-3);
+	}
+
 	/**
 	 * This method tests the functionality of the consolidateData-method in TravelTimeCalculator
 	 * in combination with double time bins
@@ -0,0 +1,218 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * ColumnarAttributeStoreTest.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.utils.objectattributes.attributable;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.api.core.v01.population.Population;
+import org.matsim.core.config.Config;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.population.PopulationUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ColumnarAttributeStoreTest {
+
+	@Test
+	void testTypedColumns() {
+		ColumnarAttributeStore store = new ColumnarAttributeStore();
+		Attributes a = store.createAttributes();
+		Attributes b = store.createAttributes();
+
+		a.putAttribute("income", 3500.0);
+		a.putAttribute("age", 42);
+		a.putAttribute("carAvail", true);
+		a.putAttribute("subpopulation", "person");
+		a.putAttribute("home", new Coord(1, 2));
+		b.putAttribute("age", 7);
+		b.putAttribute("subpopulation", "person");
+
+		Assertions.assertEquals(5, a.size());
+		Assertions.assertEquals(2, b.size());
+		Assertions.assertEquals(3500.0, a.getAttribute("income"));
+		Assertions.assertEquals(42, a.getAttribute("age"));
+		Assertions.assertEquals(true, a.getAttribute("carAvail"));
+		Assertions.assertEquals("person", a.getAttribute("subpopulation"));
+		Assertions.assertEquals(new Coord(1, 2), a.getAttribute("home"));
+		Assertions.assertEquals(7, b.getAttribute("age"));
+		Assertions.assertNull(b.getAttribute("income"));
+		Assertions.assertNull(b.getAttribute("carAvail"));
+
+		Assertions.assertEquals(42, a.putAttribute("age", 43));
+		Assertions.assertEquals(43, a.getAttribute("age"));
+		Assertions.assertEquals(7, b.getAttribute("age"));
+	}
+
+	@Test
+	void testMixedTypesInOneColumn() {
+		ColumnarAttributeStore store = new ColumnarAttributeStore();
+		Attributes a = store.createAttributes();
+		Attributes b = store.createAttributes();
+
+		a.putAttribute("value", 1.5);
+		b.putAttribute("value", "high");
+
+		Assertions.assertEquals(1.5, a.getAttribute("value"));
+		Assertions.assertEquals("high", b.getAttribute("value"));
+	}
+
+	@Test
+	void testRemoveAndRelease() {
+		ColumnarAttributeStore store = new ColumnarAttributeStore();
+		Attributes a = store.createAttributes();
+		a.putAttribute("sun", "nice");
+		a.putAttribute("rain is nice", false);
+
+		Assertions.assertEquals(false, a.removeAttribute("rain is nice"));
+		Assertions.assertNull(a.getAttribute("rain is nice"));
+		Assertions.assertEquals(1, a.size());
+
+		store.release(a);
+		Assertions.assertEquals(0, store.size());
+		Assertions.assertThrows(IllegalStateException.class, () -> a.getAttribute("sun"));
+
+		// the row is reused, without the old values
+		Attributes b = store.createAttributes();
+		Assertions.assertTrue(b.isEmpty());
+		Assertions.assertEquals(1, store.size());
+	}
+
+	@Test
+	void testGetAsMapIsSorted() {
+		Attributes attributes = new ColumnarAttributeStore().createAttributes();
+		attributes.putAttribute("sun", "nice");
+		attributes.putAttribute("rain is nice", false);
+		attributes.putAttribute("answer", 42);
+
+		Map<String, Object> map = attributes.getAsMap();
+		Assertions.assertEquals(List.of("answer", "rain is nice", "sun"), List.copyOf(map.keySet()));
+		Assertions.assertEquals(42, map.get("answer"));
+	}
+
+	@Test
+	void testConcurrentReadsAndWrites() throws InterruptedException {
+		ColumnarAttributeStore store = new ColumnarAttributeStore();
+		int threads = 4;
+		int rowsPerThread = 2000;
+		Attributes[][] rows = new Attributes[threads][rowsPerThread];
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		AtomicBoolean writing = new AtomicBoolean(true);
+
+		List<Thread> writers = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			int thread = t;
+			writers.add(new Thread(() -> {
+				for (int i = 0; i < rowsPerThread; i++) {
+					Attributes attributes = store.createAttributes();
+					attributes.putAttribute("index", i);
+					attributes.putAttribute("name", "name" + (i % 100));
+					attributes.putAttribute("value", thread * 1.0);
+					if (thread == 0 && i == rowsPerThread / 2) {
+						// turns the column into an object column while the other threads write to it
+						attributes.putAttribute("value", "mixed");
+					}
+					rows[thread][i] = attributes;
+				}
+			}));
+		}
+		Thread reader = new Thread(() -> {
+			try {
+				while (writing.get()) {
+					for (Attributes[] threadRows : rows) {
+						for (Attributes attributes : threadRows) {
+							if (attributes != null) {
+								Assertions.assertNotNull(attributes.getAttribute("index"));
+								attributes.getAsMap();
+							}
+						}
+					}
+				}
+			} catch (Throwable e) {
+				failure.set(e);
+			}
+		});
+		reader.start();
+		writers.forEach(Thread::start);
+		for (Thread writer : writers) {
+			writer.join();
+		}
+		writing.set(false);
+		reader.join();
+
+		Assertions.assertNull(failure.get());
+		Assertions.assertEquals(threads * rowsPerThread, store.size());
+		for (int t = 0; t < threads; t++) {
+			for (int i = 0; i < rowsPerThread; i++) {
+				Attributes attributes = rows[t][i];
+				Assertions.assertEquals(i, attributes.getAttribute("index"));
+				Assertions.assertEquals("name" + (i % 100), attributes.getAttribute("name"));
+				Object expected = t == 0 && i == rowsPerThread / 2 ? "mixed" : t * 1.0;
+				Assertions.assertEquals(expected, attributes.getAttribute("value"));
+			}
+		}
+	}
+
+	@Test
+	void testColumnarPersonAttributes() {
+		Config config = ConfigUtils.createConfig();
+		config.plans().setColumnarPersonAttributes(true);
+		Population population = PopulationUtils.createPopulation(config);
+
+		Person person = population.getFactory().createPerson(Id.createPersonId(1));
+		Assertions.assertInstanceOf(ColumnarAttributes.class, person.getAttributes());
+		PopulationUtils.putSubpopulation(person, "freight");
+		population.addPerson(person);
+		Assertions.assertEquals("freight", PopulationUtils.getSubpopulation(person));
+
+		// copies do not share the store of the original
+		Population copy = PopulationUtils.copyPopulation(population);
+		Person personCopy = copy.getPersons().get(person.getId());
+		Assertions.assertEquals("freight", PopulationUtils.getSubpopulation(personCopy));
+		PopulationUtils.putSubpopulation(person, "person");
+		Assertions.assertEquals("freight", PopulationUtils.getSubpopulation(personCopy));
+	}
+
+	@Test
+	void testColumnarLinkAttributes() {
+		Config config = ConfigUtils.createConfig();
+		config.network().setColumnarLinkAttributes(true);
+		Network network = NetworkUtils.createNetwork(config);
+		Node n1 = NetworkUtils.createAndAddNode(network, Id.createNodeId(1), new Coord(0, 0));
+		Node n2 = NetworkUtils.createAndAddNode(network, Id.createNodeId(2), new Coord(100, 0));
+		Link link = NetworkUtils.createAndAddLink(network, Id.createLinkId(1), n1, n2, 100, 10, 1000, 1);
+
+		Assertions.assertInstanceOf(ColumnarAttributes.class, link.getAttributes());
+		link.getAttributes().putAttribute("type", "primary");
+		Assertions.assertEquals("primary", network.getLinks().get(link.getId()).getAttributes().getAttribute("type"));
+	}
+
+}
@@ -0,0 +1,122 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * BinarySnapshotWriterTest.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+
+package org.matsim.vis.snapshotwriters;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.testcases.MatsimTestUtils;
+
+public class BinarySnapshotWriterTest {
+
+	@RegisterExtension
+	private MatsimTestUtils utils = new MatsimTestUtils();
+
+	@Test
+	void testWriteAndRead() {
+		String filename = utils.getOutputDirectory() + "snapshots.bin.gz";
+
+		BinarySnapshotWriter writer = new BinarySnapshotWriter(filename);
+		writer.beginSnapshot(3600.0);
+		writer.addAgent(createPosition("1", "10", 100.5, 200.25, AgentSnapshotInfo.AgentState.PERSON_DRIVING_CAR));
+		writer.addAgent(createPosition("2", "10", 110.0, 210.0, AgentSnapshotInfo.AgentState.TRANSIT_DRIVER));
+		writer.endSnapshot();
+		writer.beginSnapshot(3900.0);
+		writer.endSnapshot();
+		writer.beginSnapshot(4200.0);
+		writer.addAgent(createPosition("2", "11", 120.0, 220.0, AgentSnapshotInfo.AgentState.PERSON_DRIVING_CAR));
+		writer.addAgent(createPosition("3", null, 130.0, 230.0, AgentSnapshotInfo.AgentState.PERSON_AT_ACTIVITY));
+		writer.endSnapshot();
+		writer.finish();
+
+		CollectingWriter collector = new CollectingWriter();
+		new BinarySnapshotReader(collector).readFile(filename);
+
+		assertEquals(List.of(3600.0, 3900.0, 4200.0), collector.times);
+		assertEquals(4, collector.positions.size());
+		assertEquals(List.of(2, 0, 2), collector.sizes);
+		AgentSnapshotInfo first = collector.positions.get(0);
+		assertEquals(Id.create("1", Person.class), first.getId());
+		assertEquals(Id.create("10", Link.class), first.getLinkId());
+		assertEquals(100.5, first.getEasting(), 1e-3);
+		assertEquals(200.25, first.getNorthing(), 1e-3);
+		assertEquals(0.5, first.getColorValueBetweenZeroAndOne(), 1e-6);
+		assertEquals(AgentSnapshotInfo.AgentState.PERSON_DRIVING_CAR, first.getAgentState());
+		assertEquals(7, first.getUserDefined());
+		AgentSnapshotInfo third = collector.positions.get(2);
+		assertEquals(Id.create("2", Person.class), third.getId());
+		assertEquals(Id.create("11", Link.class), third.getLinkId());
+		AgentSnapshotInfo fourth = collector.positions.get(3);
+		assertEquals(Id.create("3", Person.class), fourth.getId());
+		assertNull(fourth.getLinkId());
+		assertEquals(AgentSnapshotInfo.AgentState.PERSON_AT_ACTIVITY, fourth.getAgentState());
+	}
+
+	private static AgentSnapshotInfo createPosition(String personId, String linkId, double x, double y, AgentSnapshotInfo.AgentState state) {
+		return new PositionInfo.DirectBuilder()
+				.setPersonId(Id.create(personId, Person.class))
+				.setLinkId(linkId == null ? null : Id.create(linkId, Link.class))
+				.setEasting(x)
+				.setNorthing(y)
+				.setColorValue(0.5)
+				.setUserDefined(7)
+				.setAgentState(state)
+				.build();
+	}
+
+	private static class CollectingWriter implements SnapshotWriter {
+		private final List<Double> times = new ArrayList<>();
+		private final List<Integer> sizes = new ArrayList<>();
+		private final List<AgentSnapshotInfo> positions = new ArrayList<>();
+		private int size;
+
+		@Override
+		public void beginSnapshot(double time) {
+			this.times.add(time);
+			this.size = 0;
+		}
+
+		@Override
+		public void endSnapshot() {
+			this.sizes.add(this.size);
+		}
+
+		@Override
+		public void addAgent(AgentSnapshotInfo position) {
+			this.positions.add(position);
+			this.size++;
+		}
+
+		@Override
+		public void finish() {
+		}
+	}
+
+}
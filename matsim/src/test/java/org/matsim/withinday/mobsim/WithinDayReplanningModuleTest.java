@@ -0,0 +1,200 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * WithinDayReplanningModuleTest.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2024 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+
+package org.matsim.withinday.mobsim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.population.Activity;
+import org.matsim.api.core.v01.population.Leg;
+import org.matsim.api.core.v01.population.Plan;
+import org.matsim.api.core.v01.population.PlanElement;
+import org.matsim.core.mobsim.framework.MobsimAgent;
+import org.matsim.core.mobsim.framework.PlanAgent;
+import org.matsim.withinday.replanning.identifiers.interfaces.DuringLegAgentSelector;
+import org.matsim.withinday.replanning.parallel.ParallelDuringLegReplanner;
+import org.matsim.withinday.replanning.replanners.interfaces.WithinDayDuringLegReplannerFactory;
+import org.matsim.withinday.replanning.replanners.interfaces.WithinDayReplanner;
+import org.matsim.withinday.replanning.replanners.tools.ReplanningTask;
+
+public class WithinDayReplanningModuleTest {
+
+	private ParallelDuringLegReplanner parallelReplanner;
+	private DuringLegAgentSelector identifier;
+	private List<MobsimAgent> replannedAgents;
+	private DuringLegReplanningModule module;
+
+	@BeforeEach
+	void setUp() {
+		this.parallelReplanner = mock(ParallelDuringLegReplanner.class);
+		this.identifier = mock(DuringLegAgentSelector.class);
+		WithinDayDuringLegReplannerFactory factory = mock(WithinDayDuringLegReplannerFactory.class);
+		when(factory.getId()).thenReturn(Id.create("replanner", WithinDayReplanner.class));
+		doReturn(Set.of(this.identifier)).when(factory).getIdentifers();
+		doReturn(Set.of(factory)).when(this.parallelReplanner).getWithinDayReplannerFactories();
+
+		this.replannedAgents = new ArrayList<>();
+		doAnswer(invocation -> {
+			this.replannedAgents.add(((ReplanningTask) invocation.getArgument(0)).getAgentToReplan());
+			return null;
+		}).when(this.parallelReplanner).addReplanningTask(any());
+
+		this.module = new DuringLegReplanningModule(this.parallelReplanner);
+	}
+
+	@Test
+	void testNoThrottle() {
+		MobsimAgent a1 = createAgent("1", MobsimAgent.State.LEG);
+		MobsimAgent a2 = createAgent("2", MobsimAgent.State.LEG);
+		MobsimAgent a3 = createAgent("3", MobsimAgent.State.LEG);
+		when(this.identifier.getAgentsToReplan(0.0)).thenReturn(agents(a1, a2, a3));
+
+		this.module.doReplanning(0.0);
+
+		assertEquals(List.of(a1, a2, a3), this.replannedAgents);
+		assertEquals(0, this.module.getBacklogSize());
+		verify(this.parallelReplanner, times(1)).run(0.0);
+	}
+
+	@Test
+	void testDeferredReplanning() {
+		this.module.setReplanningThrottle(2, 10.0);
+		MobsimAgent a1 = createAgent("1", MobsimAgent.State.LEG);
+		MobsimAgent a2 = createAgent("2", MobsimAgent.State.LEG);
+		MobsimAgent a3 = createAgent("3", MobsimAgent.State.LEG);
+		MobsimAgent a4 = createAgent("4", MobsimAgent.State.LEG);
+		when(this.identifier.getAgentsToReplan(0.0)).thenReturn(agents(a1, a2, a3));
+		// agent 3 is identified again while it waits, so it is replanned only once
+		when(this.identifier.getAgentsToReplan(1.0)).thenReturn(agents(a3, a4));
+		when(this.identifier.getAgentsToReplan(2.0)).thenReturn(agents());
+
+		this.module.doReplanning(0.0);
+		assertEquals(List.of(a1, a2), this.replannedAgents);
+		assertEquals(1, this.module.getBacklogSize());
+
+		this.module.doReplanning(1.0);
+		assertEquals(List.of(a1, a2, a3, a4), this.replannedAgents);
+		assertEquals(0, this.module.getBacklogSize());
+
+		this.module.doReplanning(2.0);
+		assertEquals(4, this.replannedAgents.size());
+	}
+
+	@Test
+	void testDropStaleAgents() {
+		this.module.setReplanningThrottle(1, 5.0);
+		MobsimAgent a1 = createAgent("1", MobsimAgent.State.LEG);
+		MobsimAgent a2 = createAgent("2", MobsimAgent.State.ACTIVITY);
+		MobsimAgent a3 = createAgent("3", MobsimAgent.State.LEG);
+		MobsimAgent a4 = createAgent("4", MobsimAgent.State.LEG);
+		when(this.identifier.getAgentsToReplan(0.0)).thenReturn(agents(a1, a2, a3, a4));
+		when(this.identifier.getAgentsToReplan(1.0)).thenReturn(agents());
+		when(this.identifier.getAgentsToReplan(10.0)).thenReturn(agents());
+
+		this.module.doReplanning(0.0);
+		assertEquals(List.of(a1), this.replannedAgents);
+
+		// agent 2 has ended its leg in the meantime
+		this.module.doReplanning(1.0);
+		assertEquals(List.of(a1, a3), this.replannedAgents);
+		assertEquals(1, this.module.getBacklogSize());
+
+		// agent 4 has waited too long
+		this.module.doReplanning(10.0);
+		assertEquals(List.of(a1, a3), this.replannedAgents);
+		assertEquals(0, this.module.getBacklogSize());
+	}
+
+	@Test
+	void testDropAgentsInAnotherPlanElement() {
+		this.module.setReplanningThrottle(1, 100.0);
+		MobsimAgent a1 = createAgent("1", MobsimAgent.State.LEG);
+		MobsimAgent a2 = createAgent("2", MobsimAgent.State.LEG);
+		MobsimAgent a3 = createAgent("3", MobsimAgent.State.LEG);
+		when(this.identifier.getAgentsToReplan(0.0)).thenReturn(agents(a1, a2, a3));
+		when(this.identifier.getAgentsToReplan(1.0)).thenReturn(agents());
+
+		this.module.doReplanning(0.0);
+		assertEquals(List.of(a1), this.replannedAgents);
+		assertEquals(2, this.module.getBacklogSize());
+
+		// agent 2 has ended its leg and started the next one in the meantime
+		setCurrentPlanElement(a2, 2);
+		this.module.doReplanning(1.0);
+		assertEquals(List.of(a1, a3), this.replannedAgents);
+		assertEquals(0, this.module.getBacklogSize());
+	}
+
+	@Test
+	void testAgentsWithoutPlan() {
+		this.module.setReplanningThrottle(1, 100.0);
+		MobsimAgent a1 = mock(MobsimAgent.class);
+		when(a1.getId()).thenReturn(Id.createPersonId("1"));
+		when(a1.getState()).thenReturn(MobsimAgent.State.LEG);
+		MobsimAgent a2 = mock(MobsimAgent.class);
+		when(a2.getId()).thenReturn(Id.createPersonId("2"));
+		when(a2.getState()).thenReturn(MobsimAgent.State.LEG);
+		when(this.identifier.getAgentsToReplan(0.0)).thenReturn(agents(a1, a2));
+		when(this.identifier.getAgentsToReplan(1.0)).thenReturn(agents());
+
+		this.module.doReplanning(0.0);
+		this.module.doReplanning(1.0);
+		assertEquals(List.of(a1, a2), this.replannedAgents);
+	}
+
+	private static MobsimAgent createAgent(String id, MobsimAgent.State state) {
+		MobsimAgent agent = mock(MobsimAgent.class, withSettings().extraInterfaces(PlanAgent.class));
+		when(agent.getId()).thenReturn(Id.createPersonId(id));
+		when(agent.getState()).thenReturn(state);
+		Plan plan = mock(Plan.class);
+		when(plan.getPlanElements()).thenReturn(List.of(mock(Activity.class), mock(Leg.class), mock(Leg.class)));
+		when(((PlanAgent) agent).getCurrentPlan()).thenReturn(plan);
+		setCurrentPlanElement(agent, 1);
+		return agent;
+	}
+
+	private static void setCurrentPlanElement(MobsimAgent agent, int index) {
+		PlanAgent planAgent = (PlanAgent) agent;
+		PlanElement planElement = planAgent.getCurrentPlan().getPlanElements().get(index);
+		when(planAgent.getCurrentPlanElement()).thenReturn(planElement);
+	}
+
+	private static Set<MobsimAgent> agents(MobsimAgent... agents) {
+		return new LinkedHashSet<>(List.of(agents));
+	}
+
+}
@@ -24,10 +24,14 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.matsim.api.core.v01.Coord;
 import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.Scenario;
+import org.matsim.api.core.v01.events.LinkEnterEvent;
+import org.matsim.api.core.v01.events.LinkLeaveEvent;
 import org.matsim.api.core.v01.network.Link;
 import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
 import org.matsim.core.config.Config;
 import org.matsim.core.config.ConfigUtils;
 import org.matsim.core.config.groups.ControllerConfigGroup;
@@ -39,6 +43,7 @@ import org.matsim.core.controler.events.StartupEvent;
 import org.matsim.core.controler.listener.StartupListener;
 import org.matsim.core.gbl.Gbl;
 import org.matsim.core.mobsim.framework.events.MobsimAfterSimStepEvent;
+import org.matsim.core.mobsim.framework.events.MobsimBeforeCleanupEvent;
 import org.matsim.core.mobsim.framework.events.MobsimBeforeSimStepEvent;
 import org.matsim.core.mobsim.framework.events.MobsimInitializedEvent;
 import org.matsim.core.mobsim.framework.listeners.*;
@@ -49,6 +54,7 @@ import org.matsim.core.network.NetworkUtils;
 import org.matsim.core.router.util.TravelTime;
 import org.matsim.core.scenario.ScenarioUtils;
 import org.matsim.testcases.MatsimTestUtils;
+import org.matsim.vehicles.Vehicle;
 
 /**
  * @author cdobler
@@ -72,6 +78,43 @@ public class WithinDayTravelTimeTest {
 	}
 
 
+	/**
+	 * The travel times are looked up by the index of the link id, so the links of another network with the same ids
+	 * (e.g. those of a routing network) get the same travel times. Updated travel times are only visible after the update
+	 * in the next time step.
+	 */
+	@Test
+	void testGetLinkTravelTime_linkOfOtherNetwork() {
+		Config config = ConfigUtils.createConfig();
+		config.global().setNumberOfThreads(2);
+		Scenario scenario = ScenarioUtils.createScenario(config);
+		Network network = scenario.getNetwork();
+		Node node1 = NetworkUtils.createAndAddNode(network, Id.createNodeId("wdtt1"), new Coord(0, 0));
+		Node node2 = NetworkUtils.createAndAddNode(network, Id.createNodeId("wdtt2"), new Coord(100, 0));
+		Link link = NetworkUtils.createAndAddLink(network, Id.createLinkId("wdtt"), node1, node2, 100, 10, 3600, 1);
+
+		Network otherNetwork = NetworkUtils.createNetwork();
+		Node otherNode1 = NetworkUtils.createAndAddNode(otherNetwork, node1.getId(), node1.getCoord());
+		Node otherNode2 = NetworkUtils.createAndAddNode(otherNetwork, node2.getId(), node2.getCoord());
+		Link otherLink = NetworkUtils.createAndAddLink(otherNetwork, link.getId(), otherNode1, otherNode2, 100, 10, 3600, 1);
+
+		WithinDayTravelTime travelTime = new WithinDayTravelTime(scenario, null);
+		travelTime.notifyMobsimInitialized(new MobsimInitializedEvent<>(null));
+		assertEquals(10.0, travelTime.getLinkTravelTime(link, 0, null, null), 0);
+		assertEquals(10.0, travelTime.getLinkTravelTime(otherLink, 0, null, null), 0);
+
+		Id<Vehicle> vehicleId = Id.createVehicleId("wdtt");
+		travelTime.handleEvent(new LinkEnterEvent(0, vehicleId, link.getId()));
+		travelTime.handleEvent(new LinkLeaveEvent(30, vehicleId, link.getId()));
+		assertEquals(10.0, travelTime.getLinkTravelTime(otherLink, 30, null, null), 0);
+
+		travelTime.notifyMobsimBeforeSimStep(new MobsimBeforeSimStepEvent<>(null, 31));
+		assertEquals(30.0, travelTime.getLinkTravelTime(link, 31, null, null), 0);
+		assertEquals(30.0, travelTime.getLinkTravelTime(otherLink, 31, null, null), 0);
+
+		travelTime.notifyMobsimBeforeCleanup(new MobsimBeforeCleanupEvent<>(null));
+	}
+
 	private void testGetLinkTravelTime(boolean isUsingFastCapacityUpdate) {
 
         Config config = ConfigUtils.loadConfig("test/scenarios/equil/config.xml");